@@ -0,0 +1,44 @@
+package com.rideapp.ridebooking.benchmarks;
+
+import com.rideapp.ridebooking.dto.BookingDTO;
+import com.rideapp.ridebooking.models.Booking;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Booking entity -> BookingDTO, the mapping behind BookingController.mapToDTO and every booking list
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingMappingBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int bookings;
+
+    private List<Booking> rows;
+
+    @Setup
+    public void setUp() {
+        rows = Fixtures.bookings(bookings, 42);
+    }
+
+    @Benchmark
+    public List<BookingDTO> mapBookingList() {
+        List<BookingDTO> dtos = new ArrayList<>(rows.size());
+        for (Booking booking : rows) {
+            dtos.add(BookingDTO.fromBooking(booking));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public void mapBookingStream(Blackhole blackhole) {
+        rows.stream().map(BookingDTO::fromBooking).forEach(blackhole::consume);
+    }
+}
@@ -0,0 +1,83 @@
+package com.rideapp.ridebooking.benchmarks;
+
+import com.rideapp.ridebooking.controllers.BookingHistoryController;
+import com.rideapp.ridebooking.events.BookingEvent;
+import com.rideapp.ridebooking.models.Booking;
+import com.rideapp.ridebooking.services.BookingCounterService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The aggregations behind GET /history/stats and /history/user/{userId}/stats: reading the
+// maintained counters, updating them on a booking event, and (for reference) recounting a
+// rider's booking list the way the endpoints used to.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingStatsBenchmark {
+
+    private BookingCounterService counters;
+    private List<Booking> bookings;
+    private Long riderId;
+    private BookingEvent accepted;
+    private BookingEvent reopened;
+
+    @Setup
+    public void setUp() {
+        counters = new BookingCounterService();
+        bookings = Fixtures.bookings(10_000, 3);
+        for (Booking booking : bookings) {
+            counters.onBookingEvent(BookingEvent.changed(BookingEvent.Type.CREATED, booking, null));
+        }
+        Booking booking = bookings.get(0);
+        riderId = booking.getRider().getUserId();
+        accepted = new BookingEvent(BookingEvent.Type.ACCEPTED, booking.getBookingId(), riderId,
+                Booking.BookingStatus.REQUESTED, Booking.BookingStatus.ACCEPTED, booking);
+        reopened = new BookingEvent(BookingEvent.Type.UPDATED, booking.getBookingId(), riderId,
+                Booking.BookingStatus.ACCEPTED, Booking.BookingStatus.REQUESTED, booking);
+    }
+
+    @Benchmark
+    public BookingHistoryController.BookingStats globalStats() {
+        return new BookingHistoryController.BookingStats((int) counters.getTotalCount(),
+                counters.getCount(Booking.BookingStatus.ACCEPTED),
+                counters.getCount(Booking.BookingStatus.REQUESTED),
+                counters.getCount(Booking.BookingStatus.REJECTED));
+    }
+
+    @Benchmark
+    public BookingHistoryController.BookingStats riderStats() {
+        return new BookingHistoryController.BookingStats((int) counters.getRiderTotalCount(riderId),
+                counters.getRiderCount(riderId, Booking.BookingStatus.ACCEPTED),
+                counters.getRiderCount(riderId, Booking.BookingStatus.REQUESTED),
+                counters.getRiderCount(riderId, Booking.BookingStatus.REJECTED));
+    }
+
+    // One status transition and its reversal, so the counts stay stable across iterations
+    @Benchmark
+    public void applyStatusTransition() {
+        counters.onBookingEvent(accepted);
+        counters.onBookingEvent(reopened);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public BookingHistoryController.BookingStats recountBookingList() {
+        long accepted = 0;
+        long requested = 0;
+        long rejected = 0;
+        for (Booking booking : bookings) {
+            switch (booking.getStatus()) {
+                case ACCEPTED -> accepted++;
+                case REQUESTED -> requested++;
+                case REJECTED -> rejected++;
+                default -> { }
+            }
+        }
+        return new BookingHistoryController.BookingStats(bookings.size(), accepted, requested, rejected);
+    }
+}
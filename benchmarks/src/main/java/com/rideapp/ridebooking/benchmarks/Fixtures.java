@@ -0,0 +1,125 @@
+package com.rideapp.ridebooking.benchmarks;
+
+import com.rideapp.ridebooking.dto.BookingDTO;
+import com.rideapp.ridebooking.dto.RideDTO;
+import com.rideapp.ridebooking.models.Booking;
+import com.rideapp.ridebooking.models.Ride;
+import com.rideapp.ridebooking.models.User;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Object graphs shaped like production rows: bookings share a pool of riders, drivers and rides the
+// way the persistence context shares them, carry pickup/drop details JSON as the frontend sends it,
+// and cover every status, with about a third of the rides still waiting for a driver.
+public final class Fixtures {
+
+    private static final Booking.BookingStatus[] STATUSES = Booking.BookingStatus.values();
+    private static final String[] PLACES = {
+            "Poplar Ave & Highland St", "Memphis International Airport", "FedExForum", "Overton Square",
+            "University of Memphis", "Shelby Farms Park", "Beale Street Landing", "Germantown Parkway"
+    };
+    private static final Field BOOKING_ID = bookingIdField();
+
+    private Fixtures() {
+    }
+
+    public static List<Booking> bookings(int count, long seed) {
+        Random random = new Random(seed);
+        LocalDateTime now = LocalDateTime.of(2026, 3, 14, 9, 0);
+        List<User> riders = users(Math.max(1, count / 4), User.Role.RIDER, 1_000, random);
+        List<User> drivers = users(Math.max(1, count / 10), User.Role.DRIVER, 500_000, random);
+        List<Ride> rides = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, count / 2); i++) {
+            Ride ride = new Ride(random.nextInt(3) == 0 ? null : drivers.get(random.nextInt(drivers.size())),
+                    place(random), place(random), now.plusMinutes(random.nextInt(600)), 8 + random.nextInt(4000) / 100.0);
+            ride.setRideId((long) i + 1);
+            ride.setDistanceInMiles(1 + random.nextInt(300) / 10.0);
+            ride.setEstimatedDurationMinutes(5 + random.nextInt(55));
+            ride.setStatus(ride.getDriver() != null ? Ride.RideStatus.CONFIRMED : Ride.RideStatus.PENDING);
+            rides.add(ride);
+        }
+
+        List<Booking> bookings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Ride ride = rides.get(random.nextInt(rides.size()));
+            Booking booking = new Booking();
+            setBookingId(booking, (long) i + 1);
+            booking.setRide(ride);
+            booking.setRider(riders.get(random.nextInt(riders.size())));
+            booking.setPickupLocation(ride.getPickupLocation());
+            booking.setDropLocation(ride.getDropLocation());
+            booking.setRideTime(String.format("%02d:%02d", random.nextInt(24), random.nextInt(60)));
+            booking.setDistanceInMiles(ride.getDistanceInMiles());
+            booking.setFare(ride.getPrice());
+            booking.setCreatedAt(now.minusMinutes(random.nextInt(3 * 24 * 60)));
+            booking.setRideAt(booking.getCreatedAt().plusMinutes(random.nextInt(12 * 60)));
+            booking.setPickupLocationDetails(locationDetails(booking.getPickupLocation(), random));
+            booking.setDropLocationDetails(locationDetails(booking.getDropLocation(), random));
+            booking.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+            bookings.add(booking);
+        }
+        return bookings;
+    }
+
+    public static List<BookingDTO> bookingDTOs(int count, long seed) {
+        List<BookingDTO> dtos = new ArrayList<>(count);
+        for (Booking booking : bookings(count, seed)) {
+            dtos.add(BookingDTO.fromBooking(booking));
+        }
+        return dtos;
+    }
+
+    public static List<RideDTO> rideDTOs(int count, long seed) {
+        List<RideDTO> dtos = new ArrayList<>(count);
+        for (Booking booking : bookings(count, seed)) {
+            dtos.add(BookingDTO.fromBooking(booking).getRide());
+        }
+        return dtos;
+    }
+
+    private static List<User> users(int count, User.Role role, long firstId, Random random) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setUserId(firstId + i);
+            user.setName((role == User.Role.DRIVER ? "Driver " : "Rider ") + i);
+            user.setEmail("user" + (firstId + i) + "@ridebooking.com");
+            user.setPhoneNumber(String.valueOf(9_000_000_000L + random.nextInt(1_000_000_000)));
+            user.setRole(role);
+            user.setStatus(User.Status.ACTIVE);
+            users.add(user);
+        }
+        return users;
+    }
+
+    private static String place(Random random) {
+        return PLACES[random.nextInt(PLACES.length)];
+    }
+
+    private static String locationDetails(String name, Random random) {
+        return String.format("{\"name\":\"%s\",\"address\":\"%s, Memphis, TN, USA\",\"coordinates\":{\"lat\":%.6f,\"lng\":%.6f},\"placeId\":\"osm-%d\"}",
+                name, name, 35.0 + random.nextDouble() * 0.3, -90.1 + random.nextDouble() * 0.4, random.nextInt(1_000_000));
+    }
+
+    private static void setBookingId(Booking booking, Long id) {
+        try {
+            BOOKING_ID.set(booking, id);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Field bookingIdField() {
+        try {
+            Field field = Booking.class.getDeclaredField("bookingId");
+            field.setAccessible(true);
+            return field;
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
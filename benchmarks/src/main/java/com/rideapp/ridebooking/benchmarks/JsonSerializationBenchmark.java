@@ -0,0 +1,45 @@
+package com.rideapp.ridebooking.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rideapp.ridebooking.dto.BookingDTO;
+import com.rideapp.ridebooking.dto.RideDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Response bodies of the list endpoints, with an ObjectMapper configured the way Spring Boot builds it
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"100", "1000"})
+    private int rows;
+
+    private ObjectMapper objectMapper;
+    private List<BookingDTO> bookings;
+    private List<RideDTO> rides;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        bookings = Fixtures.bookingDTOs(rows, 7);
+        rides = Fixtures.rideDTOs(rows, 7);
+    }
+
+    @Benchmark
+    public byte[] serializeBookingList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public byte[] serializeRideList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(rides);
+    }
+}
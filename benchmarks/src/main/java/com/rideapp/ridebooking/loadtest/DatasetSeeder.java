@@ -0,0 +1,178 @@
+package com.rideapp.ridebooking.loadtest;
+
+import com.rideapp.ridebooking.ids.SnowflakeIdGenerator;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Fills the empty database with a synthetic dataset through batched JDBC inserts, bypassing JPA:
+// riders and drivers (each with a login), rides (most with a driver) and bookings in every status.
+// Runs before the application is ready, so the startup rebuilds (booking counters, pickup geo index,
+// expiry schedule) pick the rows up exactly as they would after a restart with real data.
+final class DatasetSeeder {
+
+    static final String PASSWORD = "1234";
+    static final String RIDER_PHONE_PREFIX = "7";
+    static final String DRIVER_PHONE_PREFIX = "8";
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String[] PLACES = {
+            "Poplar Ave & Highland St", "Memphis International Airport", "FedExForum", "Overton Square",
+            "University of Memphis", "Shelby Farms Park", "Beale Street Landing", "Germantown Parkway",
+            "Cooper-Young", "Crosstown Concourse", "Midtown", "Downtown Memphis"
+    };
+
+    private final JdbcTemplate jdbc;
+    private final Random random;
+    private final LocalDateTime now = LocalDateTime.now();
+    // The application's own generator (same JVM, node 0), so seeded ids never collide with its ids
+    private final SnowflakeIdGenerator ids = SnowflakeIdGenerator.forNode(0);
+
+    DatasetSeeder(JdbcTemplate jdbc, long seed) {
+        this.jdbc = jdbc;
+        this.random = new Random(seed);
+    }
+
+    Dataset seed(LoadTestOptions options) {
+        long startedAt = System.nanoTime();
+        insertUsers(options.riders, "RIDER", RIDER_PHONE_PREFIX);
+        insertUsers(options.drivers, "DRIVER", DRIVER_PHONE_PREFIX);
+        long[] riderIds = ids("select user_id from users where role = 'RIDER' order by user_id");
+        long[] driverIds = ids("select user_id from users where role = 'DRIVER' order by user_id");
+
+        insertRides(options.rides, driverIds);
+        long[] rideIds = ids("select ride_id from rides order by ride_id");
+        long[] assignedRideIds = ids("select ride_id from rides where driver_id is not null order by ride_id");
+        if (assignedRideIds.length == 0) {
+            assignedRideIds = rideIds;
+        }
+
+        insertBookings(options.bookings, riderIds, rideIds, assignedRideIds);
+        long[] bookingIds = ids("select booking_id from booking order by booking_id");
+        long[] pendingBookingIds = ids("select booking_id from booking where status = 'REQUESTED' order by booking_id");
+
+        System.out.printf("🌱 Seeded %d riders, %d drivers, %d rides and %d bookings (%d pending) in %d ms%n",
+                riderIds.length, driverIds.length, rideIds.length, bookingIds.length, pendingBookingIds.length,
+                (System.nanoTime() - startedAt) / 1_000_000);
+        return new Dataset(riderIds, driverIds, rideIds, bookingIds, pendingBookingIds);
+    }
+
+    private void insertUsers(int count, String role, String phonePrefix) {
+        List<Object[]> users = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> logins = new ArrayList<>(BATCH_SIZE);
+        Timestamp createdAt = Timestamp.valueOf(now.minusDays(30));
+        String label = role.equals("DRIVER") ? "Driver" : "Rider";
+        for (int i = 0; i < count; i++) {
+            String phone = phoneNumber(phonePrefix, i);
+            users.add(new Object[] { ids.nextId(), label + " " + i, label.toLowerCase() + i + "@example.com", phone, role, "ACTIVE" });
+            logins.add(new Object[] { ids.nextId(), label, String.valueOf(i), phone, PASSWORD, createdAt, true });
+            if (users.size() == BATCH_SIZE || i == count - 1) {
+                jdbc.batchUpdate("insert into users (user_id, name, email, phone_number, role, status) values (?, ?, ?, ?, ?, ?)", users);
+                jdbc.batchUpdate("insert into auth_users (user_id, first_name, last_name, mobile_number, password, created_at, is_active) " +
+                        "values (?, ?, ?, ?, ?, ?, ?)", logins);
+                users.clear();
+                logins.clear();
+            }
+        }
+    }
+
+    private void insertRides(int count, long[] driverIds) {
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            // Three rides in ten are still waiting for a driver
+            boolean assigned = random.nextInt(10) >= 3;
+            double miles = 1 + random.nextInt(250) / 10.0;
+            rows.add(new Object[] {
+                    ids.nextId(), assigned ? pick(driverIds) : null, place(), place(),
+                    Timestamp.valueOf(now.plusMinutes(random.nextInt(12 * 60))),
+                    Math.round((3 + miles * 1.75) * 100) / 100.0, miles, (int) (miles * 2.5) + 5,
+                    assigned ? "CONFIRMED" : "PENDING"
+            });
+            if (rows.size() == BATCH_SIZE || i == count - 1) {
+                jdbc.batchUpdate("insert into rides (ride_id, driver_id, pickup_location, drop_location, time, price, " +
+                        "distance_in_miles, estimated_duration_minutes, status) values (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+    }
+
+    private void insertBookings(int count, long[] riderIds, long[] rideIds, long[] assignedRideIds) {
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            // About half accepted, a third waiting for a driver, the rest rejected
+            int roll = random.nextInt(100);
+            String status = roll < 50 ? "ACCEPTED" : roll < 85 ? "REQUESTED" : "REJECTED";
+            boolean accepted = status.equals("ACCEPTED");
+            // Accepted bookings stay inside the retention window and open ones have a ride time
+            // still ahead, so nothing seeded expires while the test runs
+            LocalDateTime createdAt = accepted
+                    ? now.minusMinutes(random.nextInt(36 * 60))
+                    : now.minusMinutes(random.nextInt(120));
+            LocalDateTime rideAt = accepted
+                    ? createdAt.plusMinutes(random.nextInt(240))
+                    : now.plusMinutes(60 + random.nextInt(11 * 60));
+            double latitude = 35.0 + random.nextDouble() * 0.3;
+            double longitude = -90.1 + random.nextDouble() * 0.4;
+            String pickup = place();
+            String drop = place();
+            double miles = 1 + random.nextInt(250) / 10.0;
+            rows.add(new Object[] {
+                    ids.nextId(), pick(accepted ? assignedRideIds : rideIds), pick(riderIds), pickup, drop,
+                    rideAt.withSecond(0).withNano(0).toString(), miles, Math.round((3 + miles * 1.75) * 100) / 100.0,
+                    Timestamp.valueOf(createdAt), Timestamp.valueOf(rideAt),
+                    locationDetails(pickup, latitude, longitude),
+                    locationDetails(drop, 35.0 + random.nextDouble() * 0.3, -90.1 + random.nextDouble() * 0.4),
+                    latitude, longitude, status
+            });
+            if (rows.size() == BATCH_SIZE || i == count - 1) {
+                jdbc.batchUpdate("insert into booking (booking_id, ride_id, rider_id, pickup_location, drop_location, ride_time, " +
+                        "distance_in_miles, fare, created_at, ride_at, pickup_location_details, drop_location_details, " +
+                        "pickup_latitude, pickup_longitude, status) values " +
+                        "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+    }
+
+    static String phoneNumber(String prefix, int index) {
+        return prefix + String.format("%09d", index);
+    }
+
+    static String locationDetails(String name, double latitude, double longitude) {
+        return String.format("{\"name\":\"%s\",\"address\":\"%s, Memphis, TN, USA\",\"coordinates\":{\"lat\":%.6f,\"lng\":%.6f}}",
+                name, name, latitude, longitude);
+    }
+
+    private long[] ids(String sql) {
+        return jdbc.queryForList(sql, Long.class).stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private long pick(long[] ids) {
+        return ids[random.nextInt(ids.length)];
+    }
+
+    private String place() {
+        return PLACES[random.nextInt(PLACES.length)];
+    }
+
+    // Ids of the seeded rows, for the traffic generator to address
+    static final class Dataset {
+        final long[] riderIds;
+        final long[] driverIds;
+        final long[] rideIds;
+        final long[] bookingIds;
+        final long[] pendingBookingIds;
+
+        Dataset(long[] riderIds, long[] driverIds, long[] rideIds, long[] bookingIds, long[] pendingBookingIds) {
+            this.riderIds = riderIds;
+            this.driverIds = driverIds;
+            this.rideIds = rideIds;
+            this.bookingIds = bookingIds;
+            this.pendingBookingIds = pendingBookingIds;
+        }
+    }
+}
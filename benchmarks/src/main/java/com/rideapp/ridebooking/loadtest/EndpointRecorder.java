@@ -0,0 +1,73 @@
+package com.rideapp.ridebooking.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Latencies (microseconds, 3 significant digits) and response classes of one endpoint. Client
+// threads record into a wait-free Recorder; the reporter drains it once per interval into the
+// histogram log and, after the warm-up, into the run total.
+final class EndpointRecorder {
+
+    static final long HIGHEST_TRACKABLE_MICROS = 60_000_000L;
+
+    final String name;
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private Histogram interval;
+
+    EndpointRecorder(String name) {
+        this.name = name;
+    }
+
+    // 2xx succeeded, 4xx rejected (a booking already accepted by another driver, an expired id),
+    // 5xx and transport errors failed
+    void record(long latencyMicros, int status) {
+        recorder.recordValue(Math.min(Math.max(latencyMicros, 1), HIGHEST_TRACKABLE_MICROS));
+        if (status >= 200 && status < 300) {
+            succeeded.increment();
+        } else if (status >= 400 && status < 500) {
+            rejected.increment();
+        } else {
+            failed.increment();
+        }
+    }
+
+    Histogram drainInterval() {
+        interval = recorder.getIntervalHistogram(interval);
+        interval.setTag(name.replace(' ', '_'));
+        return interval;
+    }
+
+    void addToTotal(Histogram histogram) {
+        total.add(histogram);
+    }
+
+    // Discards what the warm-up recorded; the next interval starts now
+    void reset() {
+        drainInterval();
+        succeeded.reset();
+        rejected.reset();
+        failed.reset();
+    }
+
+    Histogram getTotal() {
+        return total;
+    }
+
+    long getSucceeded() {
+        return succeeded.sum();
+    }
+
+    long getRejected() {
+        return rejected.sum();
+    }
+
+    long getFailed() {
+        return failed.sum();
+    }
+}
@@ -0,0 +1,55 @@
+package com.rideapp.ridebooking.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Command line of the load test: --name=value for the options below; anything else (for example
+// --spring.profiles.active=virtual-threads) is passed on to the embedded application.
+final class LoadTestOptions {
+
+    int riders = 5000;
+    int drivers = 500;
+    int rides = 2000;
+    int bookings = 50000;
+    int clients = 32;
+    int warmupSeconds = 10;
+    int durationSeconds = 60;
+    // Total requests per second across all clients; 0 runs closed-loop (each client sends its next
+    // request as soon as the previous response arrives)
+    int rate = 0;
+    long seed = 42;
+    String out = "target/loadtest";
+    final List<String> applicationArgs = new ArrayList<>();
+
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("❌ Expected --name=value, got: " + arg);
+            }
+            String value = arg.substring(equals + 1);
+            switch (arg.substring(2, equals)) {
+                case "riders" -> options.riders = Integer.parseInt(value);
+                case "drivers" -> options.drivers = Integer.parseInt(value);
+                case "rides" -> options.rides = Integer.parseInt(value);
+                case "bookings" -> options.bookings = Integer.parseInt(value);
+                case "clients" -> options.clients = Integer.parseInt(value);
+                case "warmup" -> options.warmupSeconds = Integer.parseInt(value);
+                case "duration" -> options.durationSeconds = Integer.parseInt(value);
+                case "rate" -> options.rate = Integer.parseInt(value);
+                case "seed" -> options.seed = Long.parseLong(value);
+                case "out" -> options.out = value;
+                default -> options.applicationArgs.add(arg);
+            }
+        }
+        if (options.riders < 1 || options.drivers < 1 || options.rides < 1 || options.bookings < 1 || options.clients < 1) {
+            throw new IllegalArgumentException("❌ riders, drivers, rides, bookings and clients must be at least 1");
+        }
+        return options;
+    }
+
+    boolean hasApplicationArg(String name) {
+        return applicationArgs.stream().anyMatch(arg -> arg.startsWith("--" + name + "="));
+    }
+}
@@ -0,0 +1,245 @@
+package com.rideapp.ridebooking.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.rideapp.ridebooking.RideBookingApplication;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+// End-to-end HTTP load test. Starts the application in this JVM on a random port, seeds the in-memory
+// database with a synthetic dataset (see DatasetSeeder), drives the TrafficMix from --clients threads
+// for a warm-up and a measured period, then reports throughput and p50/p95/p99/max latency per endpoint.
+// HdrHistogram output goes to --out: latency.hlog (one interval histogram per endpoint per second),
+// a percentile distribution per endpoint (*.hgrm) and summary.json. Run from the project root:
+//   ./mvnw -q install -DskipTests
+//   ./mvnw -q -f benchmarks/pom.xml compile exec:java -Dexec.args="--bookings=200000 --clients=64 --duration=120"
+public final class LoadTestRunner {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        File out = new File(options.out);
+        if (!out.isDirectory() && !out.mkdirs()) {
+            throw new IOException("❌ Cannot create output directory " + out);
+        }
+
+        AtomicReference<DatasetSeeder.Dataset> dataset = new AtomicReference<>();
+        SpringApplication application = new SpringApplication(RideBookingApplication.class);
+        application.addListeners((ApplicationListener<ApplicationStartedEvent>) event -> {
+            DataSource dataSource = event.getApplicationContext().getBean(DataSource.class);
+            dataset.set(new DatasetSeeder(new JdbcTemplate(dataSource), options.seed).seed(options));
+        });
+        try (ConfigurableApplicationContext context = application.run(applicationArgs(options))) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String baseUrl = "http://localhost:" + port;
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            TrafficMix mix = new TrafficMix(baseUrl, dataset.get(), adminToken(client, baseUrl));
+            Map<String, EndpointRecorder> recorders = new LinkedHashMap<>();
+            for (TrafficMix.Operation operation : mix.getOperations()) {
+                recorders.put(operation.name, new EndpointRecorder(operation.name));
+            }
+            double seconds = run(options, client, mix, recorders, new File(out, "latency.hlog"));
+            report(options, recorders, seconds, out);
+        }
+    }
+
+    private static String[] applicationArgs(LoadTestOptions options) {
+        List<String> args = new ArrayList<>(options.applicationArgs);
+        if (!options.hasApplicationArg("server.port")) {
+            args.add("--server.port=0");
+        }
+        // Logging every statement would measure the console, not the application
+        if (!options.hasApplicationArg("spring.jpa.show-sql")) {
+            args.add("--spring.jpa.show-sql=false");
+        }
+        return args.toArray(new String[0]);
+    }
+
+    private static String adminToken(HttpClient client, String baseUrl) throws IOException, InterruptedException {
+        HttpRequest login = HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"mobileNumber\":\"admin\",\"password\":\"9010\"}"))
+                .build();
+        HttpResponse<String> response = client.send(login, HttpResponse.BodyHandlers.ofString());
+        String token = new ObjectMapper().readTree(response.body()).path("token").asText(null);
+        if (token == null) {
+            throw new IllegalStateException("❌ Admin login failed: " + response.body());
+        }
+        return token;
+    }
+
+    // Returns the length of the measured period in seconds
+    private static double run(LoadTestOptions options, HttpClient client, TrafficMix mix,
+                              Map<String, EndpointRecorder> recorders, File logFile) throws Exception {
+        long startedAt = System.nanoTime();
+        long warmupEndsAt = startedAt + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+        long endsAt = warmupEndsAt + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+        // Open loop: each client owns a fixed share of the target rate, and latency is measured from
+        // when a request was due rather than when it was sent, so a stalled server cannot hide its
+        // queueing delay by slowing the clients down (coordinated omission)
+        long intervalNanos = options.rate > 0 ? TimeUnit.SECONDS.toNanos(options.clients) / options.rate : 0;
+
+        System.out.printf("🚦 %d clients, %s, %ds warm-up + %ds measured%n", options.clients,
+                options.rate > 0 ? options.rate + " requests/s" : "closed loop", options.warmupSeconds, options.durationSeconds);
+        ExecutorService clients = Executors.newFixedThreadPool(options.clients);
+        for (int i = 0; i < options.clients; i++) {
+            Random random = new Random(options.seed * 31 + i);
+            long firstDueAt = startedAt + (intervalNanos * i) / options.clients;
+            clients.execute(() -> {
+                long dueAt = firstDueAt;
+                while (System.nanoTime() < endsAt) {
+                    if (intervalNanos > 0) {
+                        long wait = dueAt - System.nanoTime();
+                        if (wait > 0) {
+                            LockSupport.parkNanos(wait);
+                        }
+                    }
+                    TrafficMix.Operation operation = mix.pick(random);
+                    long sentAt = intervalNanos > 0 ? dueAt : System.nanoTime();
+                    int status;
+                    try {
+                        status = client.send(operation.factory.create(random), HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (IOException e) {
+                        status = -1;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    recorders.get(operation.name).record((System.nanoTime() - sentAt) / 1000, status);
+                    dueAt += intervalNanos;
+                }
+            });
+        }
+        clients.shutdown();
+
+        sleepUntil(warmupEndsAt);
+        long startMillis = System.currentTimeMillis();
+        recorders.values().forEach(EndpointRecorder::reset);
+        long measuredFrom = System.nanoTime();
+        try (PrintStream log = new PrintStream(logFile)) {
+            HistogramLogWriter writer = new HistogramLogWriter(log);
+            writer.outputLogFormatVersion();
+            writer.outputStartTime(startMillis);
+            writer.setBaseTime(startMillis);
+            writer.outputLegend();
+            while (!clients.awaitTermination(1, TimeUnit.SECONDS)) {
+                drain(recorders, writer);
+            }
+            drain(recorders, writer);
+        }
+        return (endsAt - measuredFrom) / 1e9;
+    }
+
+    private static void drain(Map<String, EndpointRecorder> recorders, HistogramLogWriter writer) {
+        for (EndpointRecorder recorder : recorders.values()) {
+            Histogram interval = recorder.drainInterval();
+            if (interval.getTotalCount() > 0) {
+                writer.outputIntervalHistogram(interval);
+                recorder.addToTotal(interval);
+            }
+        }
+    }
+
+    private static void sleepUntil(long nanoTime) throws InterruptedException {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+
+    private static void report(LoadTestOptions options, Map<String, EndpointRecorder> recorders, double seconds, File out)
+            throws IOException {
+        Histogram overall = new Histogram(EndpointRecorder.HIGHEST_TRACKABLE_MICROS, 3);
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        String format = "%-44s %9s %9s %9s %9s %9s %9s %7s %7s%n";
+        System.out.printf(format, "Endpoint", "Requests", "Req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "4xx", "Errors");
+        long rejected = 0;
+        long failed = 0;
+        for (EndpointRecorder recorder : recorders.values()) {
+            Histogram total = recorder.getTotal();
+            overall.add(total);
+            rejected += recorder.getRejected();
+            failed += recorder.getFailed();
+            printRow(format, recorder.name, total, seconds, recorder.getRejected(), recorder.getFailed());
+            Map<String, Object> endpoint = summary(recorder.name, total, seconds);
+            endpoint.put("succeeded", recorder.getSucceeded());
+            endpoint.put("rejected", recorder.getRejected());
+            endpoint.put("failed", recorder.getFailed());
+            endpoints.add(endpoint);
+            try (PrintStream distribution = new PrintStream(new File(out, fileName(recorder.name) + ".hgrm"))) {
+                total.outputPercentileDistribution(distribution, MICROS_PER_MILLI);
+            }
+        }
+        printRow(format, "All endpoints", overall, seconds, rejected, failed);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("clients", options.clients);
+        summary.put("targetRate", options.rate);
+        summary.put("measuredSeconds", seconds);
+        summary.put("dataset", Map.of("riders", options.riders, "drivers", options.drivers,
+                "rides", options.rides, "bookings", options.bookings));
+        summary.put("overall", summary("All endpoints", overall, seconds));
+        summary.put("endpoints", endpoints);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(new File(out, "summary.json"), summary);
+        System.out.println("📊 HdrHistogram output written to " + out.getAbsolutePath());
+    }
+
+    private static void printRow(String format, String name, Histogram histogram, double seconds, long rejected, long failed) {
+        System.out.printf(format, name, histogram.getTotalCount(), String.format("%.1f", histogram.getTotalCount() / seconds),
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(95)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getMaxValue()), rejected, failed);
+    }
+
+    private static Map<String, Object> summary(String name, Histogram histogram, double seconds) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("endpoint", name);
+        summary.put("requests", histogram.getTotalCount());
+        summary.put("throughputPerSecond", histogram.getTotalCount() / seconds);
+        summary.put("p50Ms", histogram.getValueAtPercentile(50) / MICROS_PER_MILLI);
+        summary.put("p95Ms", histogram.getValueAtPercentile(95) / MICROS_PER_MILLI);
+        summary.put("p99Ms", histogram.getValueAtPercentile(99) / MICROS_PER_MILLI);
+        summary.put("maxMs", histogram.getMaxValue() / MICROS_PER_MILLI);
+        return summary;
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.2f", micros / MICROS_PER_MILLI);
+    }
+
+    private static String fileName(String endpoint) {
+        return endpoint.replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "");
+    }
+}
@@ -0,0 +1,207 @@
+package com.rideapp.ridebooking.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.rideapp.ridebooking.RideBookingApplication;
+import com.rideapp.ridebooking.dto.BookingDTO;
+import com.rideapp.ridebooking.dto.PageCursor;
+import com.rideapp.ridebooking.models.Booking;
+import com.rideapp.ridebooking.repositories.BookingRepository;
+import com.rideapp.ridebooking.services.BookingCounterService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// Before/after of the booking reads that used to load the whole booking table and filter it in Java.
+// Each read runs twice over the same seeded dataset (see DatasetSeeder; a million bookings by default):
+//   before: the original controller body, bookingRepository.findAll().stream().filter(...)
+//   after:  what the endpoint runs today (indexed query, keyset page or maintained counters)
+// Every run is a fresh read-only transaction, so nothing is served from a warm persistence context.
+// Reported per read: median and worst latency of --runs (after one warmup run), rows returned, and the
+// bytes the calling thread allocated (the GC pressure the read puts on the heap). Results go to
+// --out/summary.json. Give the JVM room for the "before" runs, which hold every booking at once:
+//   MAVEN_OPTS=-Xmx4g ./mvnw -q -f benchmarks/pom.xml compile exec:java \
+//       -Dbenchmark.main=com.rideapp.ridebooking.loadtest.QueryScanBenchmark -Dexec.args="--bookings=1000000"
+public final class QueryScanBenchmark {
+
+    private QueryScanBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions dataset = new LoadTestOptions();
+        dataset.bookings = 1_000_000;
+        int runs = 5;
+        String out = "target/scan";
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("❌ Expected --name=value, got: " + arg);
+            }
+            String value = arg.substring(equals + 1);
+            switch (arg.substring(2, equals)) {
+                case "riders" -> dataset.riders = Integer.parseInt(value);
+                case "drivers" -> dataset.drivers = Integer.parseInt(value);
+                case "rides" -> dataset.rides = Integer.parseInt(value);
+                case "bookings" -> dataset.bookings = Integer.parseInt(value);
+                case "runs" -> runs = Integer.parseInt(value);
+                case "out" -> out = value;
+                default -> throw new IllegalArgumentException("❌ Unknown option: " + arg);
+            }
+        }
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        DatasetSeeder.Dataset[] seeded = new DatasetSeeder.Dataset[1];
+        SpringApplication application = new SpringApplication(RideBookingApplication.class);
+        application.addListeners((ApplicationListener<ApplicationStartedEvent>) event -> {
+            DataSource dataSource = event.getApplicationContext().getBean(DataSource.class);
+            seeded[0] = new DatasetSeeder(new JdbcTemplate(dataSource), dataset.seed).seed(dataset);
+        });
+        try (ConfigurableApplicationContext context = application.run(
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--journal.enabled=false",
+                "--reactive.enabled=false",
+                "--spring.datasource.url=jdbc:h2:mem:scan-" + UUID.randomUUID())) {
+            BookingRepository bookings = context.getBean(BookingRepository.class);
+            BookingCounterService counters = context.getBean(BookingCounterService.class);
+            TransactionTemplate readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            readOnly.setReadOnly(true);
+            JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+            // The busiest rider and driver, so "after" returns as many rows as any of them would
+            Long riderId = jdbc.queryForObject(
+                    "select rider_id from booking group by rider_id order by count(*) desc limit 1", Long.class);
+            Long driverId = jdbc.queryForObject("select r.driver_id from booking b join rides r on r.ride_id = b.ride_id " +
+                    "where b.status = 'ACCEPTED' group by r.driver_id order by count(*) desc limit 1", Long.class);
+            // The first page, as a request without a cursor reads it
+            PageCursor start = PageCursor.decode(null);
+            System.out.printf("🔎 Measuring with %d bookings, rider %d, driver %d%n",
+                    seeded[0].bookingIds.length, riderId, driverId);
+
+            results.add(compare("GET /bookings/pending", runs, readOnly,
+                    () -> bookings.findAll().stream()
+                            .filter(booking -> booking.getStatus() == Booking.BookingStatus.REQUESTED)
+                            .map(BookingDTO::fromBooking)
+                            .collect(Collectors.toList()),
+                    () -> firstPage(bookings.findPageByStatusAfter(Booking.BookingStatus.REQUESTED,
+                            start.getCreatedAt(), start.getId(),
+                            PageCursor.rowsFor(PageCursor.DEFAULT_PAGE_SIZE)))));
+            results.add(compare("GET /bookings/drivers/{driverId}/accepted", runs, readOnly,
+                    () -> bookings.findAll().stream()
+                            .filter(booking -> booking.getStatus() == Booking.BookingStatus.ACCEPTED)
+                            .filter(booking -> booking.getRide().getDriver() != null)
+                            .filter(booking -> booking.getRide().getDriver().getUserId().equals(driverId))
+                            .map(BookingDTO::fromBooking)
+                            .collect(Collectors.toList()),
+                    () -> bookings.findByStatusAndRideDriverUserId(Booking.BookingStatus.ACCEPTED, driverId).stream()
+                            .map(BookingDTO::fromBooking)
+                            .collect(Collectors.toList())));
+            results.add(compare("GET /history/user/{userId}", runs, readOnly,
+                    () -> bookings.findAll().stream()
+                            .filter(booking -> booking.getRider().getUserId().equals(riderId))
+                            .map(BookingDTO::fromBooking)
+                            .collect(Collectors.toList()),
+                    () -> firstPage(bookings.findPageByRiderAfter(riderId,
+                            start.getCreatedAt(), start.getId(),
+                            PageCursor.rowsFor(PageCursor.DEFAULT_PAGE_SIZE)))));
+            results.add(compare("GET /history/accepted", runs, readOnly,
+                    () -> bookings.findAll().stream()
+                            .filter(booking -> booking.getStatus() == Booking.BookingStatus.ACCEPTED)
+                            .map(BookingDTO::fromBooking)
+                            .collect(Collectors.toList()),
+                    () -> bookings.findByStatusAndCreatedAtAfter(Booking.BookingStatus.ACCEPTED,
+                                    LocalDateTime.now().minusDays(2)).stream()
+                            .map(BookingDTO::fromBooking)
+                            .collect(Collectors.toList())));
+            results.add(compare("GET /history/user/{userId}/stats", runs, readOnly,
+                    () -> {
+                        List<Booking> userBookings = bookings.findAll().stream()
+                                .filter(booking -> booking.getRider().getUserId().equals(riderId))
+                                .collect(Collectors.toList());
+                        return Arrays.asList(userBookings.size(),
+                                userBookings.stream().filter(b -> b.getStatus() == Booking.BookingStatus.ACCEPTED).count(),
+                                userBookings.stream().filter(b -> b.getStatus() == Booking.BookingStatus.REQUESTED).count(),
+                                userBookings.stream().filter(b -> b.getStatus() == Booking.BookingStatus.REJECTED).count());
+                    },
+                    () -> Arrays.asList(counters.getRiderTotalCount(riderId),
+                            counters.getRiderCount(riderId, Booking.BookingStatus.ACCEPTED),
+                            counters.getRiderCount(riderId, Booking.BookingStatus.REQUESTED),
+                            counters.getRiderCount(riderId, Booking.BookingStatus.REJECTED))));
+        }
+
+        System.out.println();
+        System.out.printf("%-42s | %12s %12s %10s %12s | %12s %12s %10s %12s%n", "read",
+                "before p50", "before max", "rows", "allocated", "after p50", "after max", "rows", "allocated");
+        for (Map<String, Object> result : results) {
+            System.out.printf("%-42s | %9d ms %9d ms %10d %9d MB | %9.2f ms %9.2f ms %10d %9.2f MB%n", result.get("read"),
+                    Math.round((Double) result.get("beforeMedianMs")), Math.round((Double) result.get("beforeMaxMs")),
+                    result.get("beforeRows"), Math.round((Double) result.get("beforeAllocatedMb")),
+                    result.get("afterMedianMs"), result.get("afterMaxMs"), result.get("afterRows"), result.get("afterAllocatedMb"));
+        }
+        Path outDirectory = Files.createDirectories(Path.of(out));
+        File summary = outDirectory.resolve("summary.json").toFile();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(summary, results);
+        System.out.println("📄 " + summary);
+    }
+
+    private static List<BookingDTO> firstPage(List<Booking> rows) {
+        return rows.stream().limit(PageCursor.DEFAULT_PAGE_SIZE).map(BookingDTO::fromBooking).collect(Collectors.toList());
+    }
+
+    private static Map<String, Object> compare(String read, int runs, TransactionTemplate readOnly,
+                                               Supplier<List<?>> before, Supplier<List<?>> after) {
+        System.out.println("⏱️ " + read);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("read", read);
+        measure("before", runs, readOnly, before, result);
+        measure("after", runs, readOnly, after, result);
+        return result;
+    }
+
+    private static void measure(String label, int runs, TransactionTemplate readOnly, Supplier<List<?>> read,
+                                Map<String, Object> result) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        double[] millis = new double[runs];
+        double[] allocatedMb = new double[runs];
+        int rows = 0;
+        for (int run = -1; run < runs; run++) {
+            // Start each run from a collected heap, so one run's garbage does not land on the next
+            System.gc();
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            long startedAt = System.nanoTime();
+            List<?> returned = readOnly.execute(status -> read.get());
+            long elapsed = System.nanoTime() - startedAt;
+            long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+            rows = returned.size();
+            if (run >= 0) {
+                millis[run] = elapsed / 1e6;
+                allocatedMb[run] = allocated / (1024.0 * 1024.0);
+            }
+        }
+        Arrays.sort(millis);
+        Arrays.sort(allocatedMb);
+        result.put(label + "MedianMs", millis[runs / 2]);
+        result.put(label + "MaxMs", millis[runs - 1]);
+        result.put(label + "Rows", rows);
+        result.put(label + "AllocatedMb", allocatedMb[runs / 2]);
+    }
+}
@@ -0,0 +1,192 @@
+package com.rideapp.ridebooking.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.rideapp.ridebooking.RideBookingApplication;
+import com.rideapp.ridebooking.services.DurableStateService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+// Restart time in durable mode against the size of the change history. For each --histories value it
+// builds a durable directory holding the same working set (see DatasetSeeder) plus that many logged row
+// changes (fare updates), then restarts the application on it twice over:
+//   log only:        no snapshot yet, so startup replays the whole log - grows with the history
+//   snapshot + tail: after a snapshot and --tail further changes, as a crash would leave it - should not
+// Each restart is a fresh in-memory database, timed from SpringApplication.run to a ready context
+// (median of --runs), next to the restore step alone. Results go to --out/summary.json.
+//   ./mvnw -q -f benchmarks/pom.xml compile exec:java -Dbenchmark.main=com.rideapp.ridebooking.loadtest.RestartBenchmark \
+//       -Dexec.args="--histories=0,100000,1000000 --bookings=50000"
+public final class RestartBenchmark {
+
+    private static final int CHANGES_PER_TRANSACTION = 500;
+
+    private RestartBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions dataset = new LoadTestOptions();
+        dataset.riders = 2000;
+        dataset.drivers = 200;
+        dataset.rides = 1000;
+        dataset.bookings = 20000;
+        long[] histories = { 0, 100_000, 500_000 };
+        int tail = 1000;
+        int runs = 3;
+        String out = "target/restart";
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("❌ Expected --name=value, got: " + arg);
+            }
+            String value = arg.substring(equals + 1);
+            switch (arg.substring(2, equals)) {
+                case "riders" -> dataset.riders = Integer.parseInt(value);
+                case "drivers" -> dataset.drivers = Integer.parseInt(value);
+                case "rides" -> dataset.rides = Integer.parseInt(value);
+                case "bookings" -> dataset.bookings = Integer.parseInt(value);
+                case "histories" -> histories = Arrays.stream(value.split(",")).mapToLong(Long::parseLong).toArray();
+                case "tail" -> tail = Integer.parseInt(value);
+                case "runs" -> runs = Integer.parseInt(value);
+                case "out" -> out = value;
+                default -> throw new IllegalArgumentException("❌ Unknown option: " + arg);
+            }
+        }
+
+        Path outDirectory = Path.of(out);
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (long history : histories) {
+            Path directory = outDirectory.resolve("history-" + history);
+            deleteRecursively(directory);
+            results.add(measure(directory, dataset, history, tail, runs));
+        }
+
+        System.out.println();
+        System.out.printf("%12s | %16s %12s | %16s %12s %14s%n", "history", "log-only start", "restore",
+                "snapshot start", "restore", "rows restored");
+        for (Map<String, Object> result : results) {
+            System.out.printf("%12d | %13d ms %9d ms | %13d ms %9d ms %14d%n", result.get("historyChanges"),
+                    result.get("logOnlyStartMs"), result.get("logOnlyRestoreMs"),
+                    result.get("snapshotStartMs"), result.get("snapshotRestoreMs"), result.get("snapshotRows"));
+        }
+        File summary = outDirectory.resolve("summary.json").toFile();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(summary, results);
+        System.out.println("📄 " + summary);
+    }
+
+    private static Map<String, Object> measure(Path directory, LoadTestOptions dataset, long history, int tail, int runs) {
+        System.out.printf("🏗️ Building a durable directory with %d changes of history%n", history);
+        try (ConfigurableApplicationContext context = start(directory, dataset)) {
+            churn(context, history);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("historyChanges", history);
+        Map<String, Object> logOnly = restart(directory, 1);
+        result.put("logOnlyStartMs", logOnly.get("startMs"));
+        result.put("logOnlyRestoreMs", logOnly.get("restoreMs"));
+        result.put("logOnlyReplayedRowChanges", logOnly.get("replayedRowChanges"));
+
+        try (ConfigurableApplicationContext context = start(directory, null)) {
+            context.getBean(DurableStateService.class).snapshot();
+            churn(context, tail);
+        }
+        Map<String, Object> snapshot = restart(directory, runs);
+        result.put("tailChanges", tail);
+        result.put("snapshotStartMs", snapshot.get("startMs"));
+        result.put("snapshotRestoreMs", snapshot.get("restoreMs"));
+        result.put("snapshotRows", snapshot.get("snapshotRows"));
+        result.put("snapshotReplayedRowChanges", snapshot.get("replayedRowChanges"));
+        return result;
+    }
+
+    // Median of the runs, by startup time
+    private static Map<String, Object> restart(Path directory, int runs) {
+        List<Map<String, Object>> measured = new ArrayList<>();
+        for (int i = 0; i < runs; i++) {
+            long startedAt = System.nanoTime();
+            try (ConfigurableApplicationContext context = start(directory, null)) {
+                long startMs = (System.nanoTime() - startedAt) / 1_000_000;
+                @SuppressWarnings("unchecked")
+                Map<String, Object> restore = new LinkedHashMap<>(
+                        (Map<String, Object>) context.getBean(DurableStateService.class).stats().get("restore"));
+                restore.put("startMs", startMs);
+                measured.add(restore);
+            }
+        }
+        measured.sort(Comparator.comparingLong(run -> (Long) run.get("startMs")));
+        return measured.get(measured.size() / 2);
+    }
+
+    // Seeds the working set on the first start only (dataset != null)
+    private static ConfigurableApplicationContext start(Path directory, LoadTestOptions dataset) {
+        SpringApplication application = new SpringApplication(RideBookingApplication.class);
+        if (dataset != null) {
+            application.addListeners((ApplicationListener<ApplicationStartedEvent>) event -> {
+                DataSource dataSource = event.getApplicationContext().getBean(DataSource.class);
+                new DatasetSeeder(new JdbcTemplate(dataSource), dataset.seed).seed(dataset);
+            });
+        }
+        return application.run(
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--journal.enabled=false",
+                "--reactive.enabled=false",
+                // Every start is a new process as far as the database is concerned
+                "--spring.datasource.url=jdbc:h2:mem:restart-" + UUID.randomUUID(),
+                "--durable.enabled=true",
+                "--durable.dir=" + directory,
+                // Snapshots only where this benchmark takes them
+                "--durable.snapshot-on-shutdown=false",
+                "--durable.snapshot-interval-ms=" + Long.MAX_VALUE,
+                "--durable.snapshot-after-changes=" + Long.MAX_VALUE);
+    }
+
+    // Logged row changes that leave the working set's size as it is: fare updates, in transactions
+    private static void churn(ConfigurableApplicationContext context, long changes) {
+        JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+        TransactionTemplate transactions = context.getBean(TransactionTemplate.class);
+        long[] bookingIds = jdbc.queryForList("select booking_id from booking order by booking_id", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+        long startedAt = System.nanoTime();
+        for (long done = 0; done < changes; ) {
+            int count = (int) Math.min(CHANGES_PER_TRANSACTION, changes - done);
+            List<Object[]> updates = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                updates.add(new Object[] { bookingIds[(int) ((done + i) % bookingIds.length)] });
+            }
+            transactions.executeWithoutResult(status ->
+                    jdbc.batchUpdate("update booking set fare = fare + 0.01 where booking_id = ?", updates));
+            done += count;
+        }
+        System.out.printf("🔁 Logged %d changes in %d ms%n", changes, (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.rideapp.ridebooking.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// The request mix sent by the load test, by share of all requests: riders (60%) browse their history
+// and bookings, look up rides, log in and book; drivers (32%) poll pending requests near them, report
+// their location and accept bookings (several drivers racing for the same one, as in production);
+// admins (8%) watch the dashboard. Each operation is named by its endpoint template.
+final class TrafficMix {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final DatasetSeeder.Dataset data;
+    private final String adminToken;
+    private final List<Operation> operations = new ArrayList<>();
+    private int totalWeight;
+
+    TrafficMix(String baseUrl, DatasetSeeder.Dataset data, String adminToken) {
+        this.baseUrl = baseUrl;
+        this.data = data;
+        this.adminToken = adminToken;
+
+        // Riders
+        add("GET /history/user/{userId}", 15, random -> get("/history/user/" + pick(data.riderIds, random) + "?limit=20"));
+        add("GET /history/user/{userId}/stats", 8, random -> get("/history/user/" + pick(data.riderIds, random) + "/stats"));
+        add("GET /bookings/{id}", 12, random -> get("/bookings/" + pick(data.bookingIds, random)));
+        add("GET /rides/{rideId}", 7, random -> get("/rides/" + pick(data.rideIds, random)));
+        add("POST /bookings/{rideId}/{riderId}", 8, this::createBooking);
+        add("POST /auth/login", 10, random -> post("/auth/login", "{\"mobileNumber\":\"" +
+                DatasetSeeder.phoneNumber(DatasetSeeder.RIDER_PHONE_PREFIX, random.nextInt(data.riderIds.length)) +
+                "\",\"password\":\"" + DatasetSeeder.PASSWORD + "\"}"));
+        // Drivers
+        add("GET /bookings/pending", 8, random -> get("/bookings/pending?limit=20"));
+        add("GET /bookings/pending/near", 7, random -> get("/bookings/pending/near?lat=" + latitude(random) +
+                "&lng=" + longitude(random) + "&radius=5&limit=20"));
+        add("PUT /drivers/{driverId}/location", 8, random -> put("/drivers/" + pick(data.driverIds, random) +
+                "/location?lat=" + latitude(random) + "&lng=" + longitude(random)));
+        add("PUT /bookings/{bookingId}/accept", 4, random -> put("/bookings/" + pick(data.pendingBookingIds, random) +
+                "/accept?driverId=" + pick(data.driverIds, random)));
+        add("GET /bookings/drivers/{driverId}/accepted", 5, random -> get("/bookings/drivers/" + pick(data.driverIds, random) + "/accepted"));
+        // Admins
+        add("GET /admin/dashboard/stats", 3, random -> admin(get("/admin/dashboard/stats")));
+        add("GET /admin/dashboard/rides", 2, random -> admin(get("/admin/dashboard/rides?limit=50")));
+        add("GET /history/stats", 2, random -> get("/history/stats"));
+        add("GET /admin/dashboard/users", 1, random -> admin(get("/admin/dashboard/users")));
+    }
+
+    List<Operation> getOperations() {
+        return operations;
+    }
+
+    Operation pick(Random random) {
+        int roll = random.nextInt(totalWeight);
+        for (Operation operation : operations) {
+            roll -= operation.weight;
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    private HttpRequest createBooking(Random random) {
+        long riderId = pick(data.riderIds, random);
+        double latitude = latitude(random);
+        double longitude = longitude(random);
+        String rideTime = LocalDateTime.now().plusMinutes(30 + random.nextInt(600)).withSecond(0).withNano(0).toString();
+        String body = "{\"pickupLocation\":\"Load test pickup\",\"dropLocation\":\"Load test drop\"," +
+                "\"rideTime\":\"" + rideTime + "\"," +
+                "\"pickupLocationDetails\":" + quote(DatasetSeeder.locationDetails("Load test pickup", latitude, longitude)) + "," +
+                "\"dropLocationDetails\":" + quote(DatasetSeeder.locationDetails("Load test drop", latitude(random), longitude(random))) + "}";
+        return post("/bookings/" + pick(data.rideIds, random) + "/" + riderId, body);
+    }
+
+    private void add(String name, int weight, RequestFactory factory) {
+        operations.add(new Operation(name, weight, factory));
+        totalWeight += weight;
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest put(String path) {
+        return request(path).PUT(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return request(path).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+
+    private HttpRequest admin(HttpRequest request) {
+        return HttpRequest.newBuilder(request, (name, value) -> true)
+                .header("Authorization", "Bearer " + adminToken).build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT);
+    }
+
+    private static long pick(long[] ids, Random random) {
+        return ids[random.nextInt(ids.length)];
+    }
+
+    // Pickups and drivers spread over the same area as the seeded bookings
+    private static double latitude(Random random) {
+        return 35.0 + random.nextDouble() * 0.3;
+    }
+
+    private static double longitude(Random random) {
+        return -90.1 + random.nextDouble() * 0.4;
+    }
+
+    private static String quote(String json) {
+        return "\"" + json.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    interface RequestFactory {
+        HttpRequest create(Random random);
+    }
+
+    static final class Operation {
+        final String name;
+        final int weight;
+        final RequestFactory factory;
+
+        Operation(String name, int weight, RequestFactory factory) {
+            this.name = name;
+            this.weight = weight;
+            this.factory = factory;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.rideapp.ridebooking.services;
+
+import com.rideapp.ridebooking.benchmarks.Fixtures;
+import com.rideapp.ridebooking.dto.RideTime;
+import com.rideapp.ridebooking.models.Booking;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The ride-time expiry rules: resolving a booking's rideTime string (done on every create/update and
+// by the backfill) and computing its expiry deadline (done per booking event and for every row when
+// the expiry schedule is rebuilt). Lives in the services package to reach the package-private deadlineOf.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExpiryPredicateBenchmark {
+
+    private static final LocalDateTime BOOKED_AT = LocalDateTime.of(2026, 3, 14, 9, 15);
+
+    private List<Booking> bookings;
+
+    @Setup
+    public void setUp() {
+        bookings = Fixtures.bookings(1000, 11);
+    }
+
+    @Benchmark
+    public LocalDateTime resolveTimeOfDay() {
+        return RideTime.resolve("18:45", BOOKED_AT);
+    }
+
+    @Benchmark
+    public LocalDateTime resolveIsoWithOffset() {
+        return RideTime.resolve("2026-03-14T18:45:00.000Z", BOOKED_AT);
+    }
+
+    @Benchmark
+    public LocalDateTime resolveUnreadable() {
+        return RideTime.resolve("after lunch", BOOKED_AT);
+    }
+
+    // Deadlines for 1000 bookings of mixed status, as in an expiry schedule rebuild
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public void deadlines(Blackhole blackhole) {
+        for (Booking booking : bookings) {
+            blackhole.consume(BookingExpiryScheduler.deadlineOf(booking.getStatus(), booking.getCreatedAt(), booking.getRideAt()));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.rideapp.ridebooking.services;
+
+import com.rideapp.ridebooking.models.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.DirectFieldAccessor;
+
+import java.util.concurrent.TimeUnit;
+
+// Session token verification, which runs on every authenticated request: the target is well over a
+// million verifications per second on one thread. The 8-thread run shows the Verifier pool under
+// contention. Lives in the services package to reach the package-private issue/verify with a fixed clock.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SessionTokenBenchmark {
+
+    private static final long NOW = 1_800_000_000L;
+
+    private SessionTokenService service;
+    private String[] tokens;
+
+    @Setup
+    public void setUp() {
+        service = new SessionTokenService();
+        DirectFieldAccessor fields = new DirectFieldAccessor(service);
+        fields.setPropertyValue("secret", "benchmark-secret");
+        fields.setPropertyValue("ttlMinutes", 60L);
+        service.initKey();
+        tokens = new String[1024];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = service.issue(i, User.Role.RIDER, NOW + 60);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public SessionTokenService.Session verify(Cursor cursor) {
+        return service.verify(tokens[cursor.next++ & 1023], NOW);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public SessionTokenService.Session verifyContended(Cursor cursor) {
+        return service.verify(tokens[cursor.next++ & 1023], NOW);
+    }
+}
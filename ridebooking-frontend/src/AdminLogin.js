@@ -21,16 +21,16 @@ function AdminLogin({ onLoginSuccess }) {
 
       if (authResponse.data.success) {
         // Check if user is admin by getting user details
-        const usersResponse = await axios.get("http://localhost:8081/users");
-        const admin = usersResponse.data.find(user => 
-          user.phoneNumber === username && user.role === "ADMIN"
-        );
+        const admin = authResponse.data.role === "ADMIN"
+          ? (await axios.get(`http://localhost:8081/users/${authResponse.data.userId}`)).data
+          : null;
 
         if (admin) {
           // Successfully authenticated as admin
           onLoginSuccess({
             ...admin,
             authUserId: authResponse.data.userId,
+            token: authResponse.data.token,
             fullName: authResponse.data.fullName
           });
         } else {
@@ -1,5 +1,6 @@
 import React, { useState } from "react";
 import axios from "axios";
+import { fetchPage } from "./utils/api";
 import BookingStatus from "./BookingStatus";
 import BookingHistory from "./BookingHistory";
 import LocationAutocomplete from "./components/LocationAutocomplete";
@@ -78,13 +79,13 @@ function BookingForm({ userInfo, onBookingSuccess }) {
     e.preventDefault();
 
     try {
-      // First, try to find available rides that match the route
-      const ridesResponse = await axios.get("http://localhost:8081/rides");
-      const matchingRides = ridesResponse.data.filter(ride => 
+      // First, try to find an open ride in the first page of them, preferring one on the same route
+      const { rows: openRides } = await fetchPage("/rides?status=PENDING");
+      const routeRides = openRides.filter(ride =>
         ride.pickupLocation.toLowerCase().includes(pickupLocation.toLowerCase()) ||
-        ride.dropLocation.toLowerCase().includes(dropLocation.toLowerCase()) ||
-        ride.status === 'AVAILABLE' || ride.status === 'PENDING'
+        ride.dropLocation.toLowerCase().includes(dropLocation.toLowerCase())
       );
+      const matchingRides = routeRides.length > 0 ? routeRides : openRides;
 
       let selectedRide;
       
@@ -105,10 +106,15 @@ function BookingForm({ userInfo, onBookingSuccess }) {
       }
 
       // Find or create the rider user in the old user system for compatibility
-      const usersResponse = await axios.get("http://localhost:8081/users");
-      let riderUser = usersResponse.data.find(user => 
-        user.name === userInfo.fullName && user.role === "RIDER"
-      );
+      let riderUser = null;
+      try {
+        const userResponse = await axios.get(`http://localhost:8081/users/by-phone/${encodeURIComponent(userInfo.mobileNumber)}`);
+        riderUser = userResponse.data;
+      } catch (lookupError) {
+        if (lookupError.response?.status !== 404) {
+          throw lookupError;
+        }
+      }
       
       if (!riderUser) {
         // Create new rider user for compatibility with existing system
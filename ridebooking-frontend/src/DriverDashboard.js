@@ -1,4 +1,5 @@
 import React, { useState, useEffect } from 'react';
+import { useBookingStream } from './hooks/useBookingStream';
 
 const DriverDashboard = ({ userInfo }) => {
   const [activeTab, setActiveTab] = useState('available');
@@ -29,11 +30,7 @@ const DriverDashboard = ({ userInfo }) => {
       if (response.ok) {
         const data = await response.json();
         // Filter out bookings from the same user (prevent self-booking)
-        const filteredBookings = data.filter(booking => 
-          booking.riderId !== userInfo.userId && 
-          booking.riderPhone !== userInfo.mobileNumber &&
-          booking.riderName !== userInfo.fullName
-        );
+        const filteredBookings = data.filter(booking => !isOwnBooking(booking));
         setPendingBookings(filteredBookings);
       }
     } catch (error) {
@@ -44,6 +41,39 @@ const DriverDashboard = ({ userInfo }) => {
     }
   };
 
+  const isOwnBooking = (booking) =>
+    booking.riderId === userInfo.userId ||
+    booking.riderPhone === userInfo.mobileNumber ||
+    booking.riderName === userInfo.fullName;
+
+  // Apply live booking changes instead of re-reading the whole pending list
+  const applyBookingDelta = (delta) => {
+    const booking = delta.booking;
+    if (delta.status === 'REQUESTED' && booking && !isOwnBooking(booking)) {
+      setPendingBookings(current => {
+        const index = current.findIndex(b => b.bookingId === delta.bookingId);
+        if (index === -1) {
+          return [...current, booking];
+        }
+        const updated = [...current];
+        updated[index] = booking;
+        return updated;
+      });
+    } else {
+      setPendingBookings(current => current.filter(b => b.bookingId !== delta.bookingId));
+    }
+    if (delta.type === 'ACCEPTED' && booking && booking.driverPhone === userInfo.mobileNumber) {
+      fetchAcceptedBookings();
+    } else if (delta.previousStatus === 'ACCEPTED' && delta.status !== 'ACCEPTED') {
+      setAcceptedBookings(current => current.filter(b => b.bookingId !== delta.bookingId));
+    }
+  };
+
+  useBookingStream(Boolean(userInfo && userInfo.userId), applyBookingDelta, () => {
+    fetchPendingBookings();
+    fetchAcceptedBookings();
+  });
+
   const fetchAcceptedBookings = async () => {
     try {
       const response = await fetch(`http://localhost:8081/bookings/drivers/${userInfo.userId}/accepted`);
@@ -1,28 +1,29 @@
 import React, { useState, useEffect } from "react";
 import axios from "axios";
+import { useBookingStream } from "./hooks/useBookingStream";
 
 function DriverRideDetails({ onBack }) {
   const [acceptedBookings, setAcceptedBookings] = useState([]);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
 
-  // For demo, using Bob Driver (ID=1)
-  const driverId = 1;
+  // The signed-in driver
+  const userInfo = JSON.parse(localStorage.getItem("userInfo") || "{}");
+  const driverId = userInfo.userId;
 
   useEffect(() => {
     fetchAcceptedBookings();
   }, []);
 
-  const fetchAcceptedBookings = async () => {
+  // Stream-triggered reloads pass quiet, so the list is not swapped for the loading screen
+  const fetchAcceptedBookings = async (quiet = false) => {
     try {
-      setLoading(true);
-      const response = await axios.get("http://localhost:8081/bookings");
-      // Filter bookings that this driver has accepted
-      const driverAccepted = response.data.filter(
-        booking => booking.status === "ACCEPTED" && 
-        booking.ride && booking.ride.driverName === "Bob Driver"
-      );
-      setAcceptedBookings(driverAccepted);
+      if (!quiet) {
+        setLoading(true);
+      }
+      // Bookings this driver has accepted
+      const response = await axios.get(`http://localhost:8081/bookings/drivers/${driverId}/accepted`);
+      setAcceptedBookings(response.data);
       setLoading(false);
     } catch (error) {
       console.error("Error fetching accepted bookings:", error);
@@ -31,6 +32,19 @@ function DriverRideDetails({ onBack }) {
     }
   };
 
+  // Load once, then follow the booking stream: reload when this driver accepts a booking,
+  // drop bookings that leave ACCEPTED, and reload on RESYNC
+  const applyBookingDelta = (delta) => {
+    const booking = delta.booking;
+    if (delta.type === "ACCEPTED" && booking && booking.driverPhone === userInfo.mobileNumber) {
+      fetchAcceptedBookings(true);
+    } else if (delta.previousStatus === "ACCEPTED" && delta.status !== "ACCEPTED") {
+      setAcceptedBookings(current => current.filter(b => b.bookingId !== delta.bookingId));
+    }
+  };
+
+  useBookingStream(Boolean(driverId), applyBookingDelta, () => fetchAcceptedBookings(true));
+
   const formatTime = (timeString) => {
     if (!timeString) return "Not specified";
     // If it's in HH:MM format, return as is
@@ -61,7 +75,7 @@ function DriverRideDetails({ onBack }) {
     return (
       <div style={{ textAlign: "center", padding: "50px" }}>
         <h2>❌ {error}</h2>
-        <button onClick={fetchAcceptedBookings} style={{ padding: "10px 20px", margin: "10px" }}>
+        <button onClick={() => fetchAcceptedBookings()} style={{ padding: "10px 20px", margin: "10px" }}>
           Retry
         </button>
       </div>
@@ -1,30 +1,37 @@
-import React, { useState, useEffect } from "react";
-import axios from "axios";
+import React, { useState, useEffect, useRef } from "react";
+import { fetchPage } from "./utils/api";
 
 function RiderAcceptedBookings({ onBack }) {
   const [acceptedBookings, setAcceptedBookings] = useState([]);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
+  // Cursor of the next page of accepted bookings, null when there is none
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
+  // Once more pages are on screen the 10-second refresh stops, so it does not drop them
+  const extraPagesLoaded = useRef(false);
 
-  // For demo, using Alice Rider (ID=3)
-  const riderId = 3;
+  // The signed-in rider
+  const riderId = JSON.parse(localStorage.getItem("userInfo") || "{}").userId;
 
   useEffect(() => {
     fetchAcceptedBookings();
     // Refresh every 10 seconds
-    const interval = setInterval(fetchAcceptedBookings, 10000);
+    const interval = setInterval(() => {
+      if (!extraPagesLoaded.current) {
+        fetchAcceptedBookings();
+      }
+    }, 10000);
     return () => clearInterval(interval);
   }, []);
 
   const fetchAcceptedBookings = async () => {
     try {
       setLoading(true);
-      const response = await axios.get("http://localhost:8081/bookings");
-      // Filter bookings for this rider and only ACCEPTED status
-      const riderAccepted = response.data.filter(
-        booking => booking.riderId === riderId && booking.status === "ACCEPTED"
-      );
-      setAcceptedBookings(riderAccepted);
+      // First page of this rider's ACCEPTED bookings
+      const page = await fetchPage(`/history/user/${riderId}?status=ACCEPTED`);
+      setAcceptedBookings(page.rows);
+      setNextCursor(page.nextCursor);
       setLoading(false);
     } catch (error) {
       console.error("Error fetching accepted bookings:", error);
@@ -33,6 +40,20 @@ function RiderAcceptedBookings({ onBack }) {
     }
   };
 
+  const loadMoreBookings = async () => {
+    try {
+      setLoadingMore(true);
+      const page = await fetchPage(`/history/user/${riderId}?status=ACCEPTED`, nextCursor);
+      extraPagesLoaded.current = true;
+      setAcceptedBookings(current => [...current, ...page.rows]);
+      setNextCursor(page.nextCursor);
+    } catch (error) {
+      console.error("Error loading more accepted bookings:", error);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   if (loading) {
     return (
       <div style={{ textAlign: "center", padding: "50px" }}>
@@ -165,6 +186,13 @@ function RiderAcceptedBookings({ onBack }) {
               </div>
             </div>
           ))}
+          {nextCursor && (
+            <div style={{ textAlign: "center" }}>
+              <button onClick={loadMoreBookings} disabled={loadingMore} style={{ padding: "10px 20px", margin: "10px" }}>
+                {loadingMore ? "Loading..." : "Load more rides"}
+              </button>
+            </div>
+          )}
         </div>
       )}
     </div>
@@ -1,9 +1,12 @@
 import React, { useState, useEffect } from 'react';
+import { fetchPage } from '../utils/api';
 
 const AdminDashboard = () => {
     const [activeTab, setActiveTab] = useState('stats');
     const [stats, setStats] = useState(null);
     const [rides, setRides] = useState([]);
+    // X-Next-Cursor of the last rides page loaded; null once the last page is in
+    const [ridesCursor, setRidesCursor] = useState(null);
     const [users, setUsers] = useState([]);
     const [suspiciousActivities, setSuspiciousActivities] = useState([]);
     const [loading, setLoading] = useState(false);
@@ -11,6 +14,8 @@ const AdminDashboard = () => {
 
     const userInfo = JSON.parse(localStorage.getItem('userInfo') || '{}');
     const isAdmin = userInfo.mobileNumber === "admin";
+    // Session token issued at login; the /admin endpoints reject requests without an admin token
+    const authHeaders = { Authorization: `Bearer ${userInfo.token}` };
 
     // Redirect non-admin users
     useEffect(() => {
@@ -24,7 +29,7 @@ const AdminDashboard = () => {
         setLoading(true);
         try {
             const response = await fetch('http://localhost:8081/admin/dashboard/stats', {
-                headers: { 'Admin-Token': 'admin' }
+                headers: authHeaders
             });
             const data = await response.json();
             setStats(data);
@@ -34,14 +39,15 @@ const AdminDashboard = () => {
         setLoading(false);
     };
 
-    const fetchRides = async () => {
+    // First page of rides, or the next one after cursor
+    const fetchRides = async (cursor = null) => {
         setLoading(true);
         try {
-            const response = await fetch('http://localhost:8081/admin/dashboard/rides', {
-                headers: { 'Admin-Token': 'admin' }
+            const page = await fetchPage('/admin/dashboard/rides', cursor, {
+                headers: authHeaders
             });
-            const data = await response.json();
-            setRides(data);
+            setRides(current => (cursor ? [...current, ...page.rows] : page.rows));
+            setRidesCursor(page.nextCursor);
         } catch (error) {
             setMessage('Failed to fetch rides');
         }
@@ -52,7 +58,7 @@ const AdminDashboard = () => {
         setLoading(true);
         try {
             const response = await fetch('http://localhost:8081/admin/dashboard/users', {
-                headers: { 'Admin-Token': 'admin' }
+                headers: authHeaders
             });
             const data = await response.json();
             setUsers(data);
@@ -66,7 +72,7 @@ const AdminDashboard = () => {
         setLoading(true);
         try {
             const response = await fetch('http://localhost:8081/admin/dashboard/suspicious-activities', {
-                headers: { 'Admin-Token': 'admin' }
+                headers: authHeaders
             });
             const data = await response.json();
             setSuspiciousActivities(data);
@@ -84,6 +90,7 @@ const AdminDashboard = () => {
                 method: 'POST',
                 headers: {
                     'Content-Type': 'application/json',
+                    ...authHeaders
                 },
             });
             const result = await response.json();
@@ -100,7 +107,7 @@ const AdminDashboard = () => {
         try {
             const response = await fetch(`/admin/dashboard/users/${userId}/status?status=ACTIVE`, {
                 method: 'PUT',
-                headers: { 'Admin-Token': 'admin' }
+                headers: authHeaders
             });
             const result = await response.json();
             setMessage(`Success: ${result.message}`);
@@ -116,7 +123,7 @@ const AdminDashboard = () => {
         try {
             const response = await fetch(`/admin/dashboard/users/${userId}`, {
                 method: 'DELETE',
-                headers: { 'Admin-Token': 'admin' }
+                headers: authHeaders
             });
             const result = await response.json();
             setMessage(`Success: ${result.message}`);
@@ -132,7 +139,7 @@ const AdminDashboard = () => {
         try {
             const response = await fetch(`/admin/dashboard/bookings/${bookingId}/cancel`, {
                 method: 'PUT',
-                headers: { 'Admin-Token': 'admin' }
+                headers: authHeaders
             });
             const result = await response.json();
             setMessage(`Success: ${result.message}`);
@@ -528,6 +535,17 @@ const AdminDashboard = () => {
                                     )}
                                 </tbody>
                             </table>
+                            {ridesCursor && (
+                                <div style={{ textAlign: "center", marginTop: "15px" }}>
+                                    <button
+                                        onClick={() => fetchRides(ridesCursor)}
+                                        disabled={loading}
+                                        style={{ padding: "8px 16px", border: "1px solid #28a745", borderRadius: "5px", backgroundColor: "white", color: "#28a745", cursor: "pointer" }}
+                                    >
+                                        {loading ? "Loading..." : "Load more rides"}
+                                    </button>
+                                </div>
+                            )}
                         </div>
                     )}
 
@@ -20,7 +20,10 @@ function BookingHistory({ userInfo, refreshTrigger }) {
     error,
     isAdmin,
     refreshData,
-    fetchBookingHistory
+    fetchBookingHistory,
+    hasMoreBookings,
+    loadingMore,
+    loadMoreBookings
   } = useBookingHistory(userInfo, refreshTrigger);
 
   const { handleRebookRide } = useBookingOperations(userInfo, refreshData);
@@ -76,6 +79,19 @@ function BookingHistory({ userInfo, refreshTrigger }) {
           )}
         </div>
       )}
+
+      {/* Further bookings, one page at a time */}
+      {hasMoreBookings && (
+        <div style={{ textAlign: "center", marginTop: "20px" }}>
+          <button
+            onClick={loadMoreBookings}
+            disabled={loadingMore}
+            style={{ padding: "10px 20px", border: "1px solid #007bff", borderRadius: "5px", backgroundColor: "white", color: "#007bff", cursor: "pointer" }}
+          >
+            {loadingMore ? "Loading..." : "Load more bookings"}
+          </button>
+        </div>
+      )}
     </div>
   );
 }
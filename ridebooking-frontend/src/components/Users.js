@@ -1,14 +1,12 @@
-import React, { useState, useEffect } from "react";
+import React, { useState } from "react";
 import axios from "axios";
+import { usePagedList } from "../hooks/usePagedList";
 
 export default function Users() {
-  const [users, setUsers] = useState([]);
+  // First page of users; more on demand
+  const { rows: users, setRows: setUsers, hasMore, loading, loadMore } = usePagedList("/users");
   const [form, setForm] = useState({ name: "", email: "", phone: "", role: "RIDER", status: "ACTIVE" });
 
-  useEffect(() => {
-    axios.get("http://localhost:8081/users").then(res => setUsers(res.data));
-  }, []);
-
   const handleSubmit = async (e) => {
     e.preventDefault();
     const res = await axios.post("http://localhost:8081/users", form);
@@ -35,6 +33,11 @@ export default function Users() {
           <li key={u.userId}>{u.name} ({u.role}) - {u.phone}</li>
         ))}
       </ul>
+      {hasMore && (
+        <button onClick={loadMore} disabled={loading}>
+          {loading ? "Loading..." : "Load more"}
+        </button>
+      )}
     </div>
   );
 }
@@ -6,6 +6,9 @@ import BookingService from '../services/bookingService';
  */
 export const useBookingHistory = (userInfo, refreshTrigger) => {
   const [bookings, setBookings] = useState([]);
+  // Cursor of the next history page, null when there is none
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
   const [stats, setStats] = useState({
@@ -31,9 +34,10 @@ export const useBookingHistory = (userInfo, refreshTrigger) => {
       setError('');
       
       console.log('useBookingHistory: Fetching booking history for user:', userInfo.userId, 'isAdmin:', isAdmin);
-      const bookingData = await BookingService.fetchBookingHistory(userInfo, isAdmin);
-      console.log('useBookingHistory: Received booking data:', bookingData);
-      setBookings(bookingData);
+      const page = await BookingService.fetchBookingHistory(userInfo, isAdmin);
+      console.log('useBookingHistory: Received booking data:', page.rows);
+      setBookings(page.rows);
+      setNextCursor(page.nextCursor);
       setLoading(false);
     } catch (err) {
       console.error('useBookingHistory: Error fetching booking history:', err);
@@ -42,6 +46,22 @@ export const useBookingHistory = (userInfo, refreshTrigger) => {
     }
   }, [userInfo, isAdmin]);
 
+  // Appends the next page of history
+  const loadMoreBookings = useCallback(async () => {
+    if (!nextCursor || loadingMore) return;
+    try {
+      setLoadingMore(true);
+      const page = await BookingService.fetchBookingHistory(userInfo, isAdmin, nextCursor);
+      setBookings(current => [...current, ...page.rows]);
+      setNextCursor(page.nextCursor);
+    } catch (err) {
+      console.error('useBookingHistory: Error loading more booking history:', err);
+      setError(err.message);
+    } finally {
+      setLoadingMore(false);
+    }
+  }, [userInfo, isAdmin, nextCursor, loadingMore]);
+
   const fetchBookingStats = useCallback(async () => {
     if (!userInfo || !userInfo.userId) return;
 
@@ -71,6 +91,9 @@ export const useBookingHistory = (userInfo, refreshTrigger) => {
     stats,
     isAdmin,
     refreshData,
-    fetchBookingHistory
+    fetchBookingHistory,
+    hasMoreBookings: Boolean(nextCursor),
+    loadingMore,
+    loadMoreBookings
   };
 };
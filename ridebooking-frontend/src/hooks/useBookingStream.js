@@ -0,0 +1,36 @@
+import { useEffect, useRef } from 'react';
+
+const STREAM_URL = 'http://localhost:8081/bookings/stream';
+const EVENT_TYPES = ['CREATED', 'UPDATED', 'ACCEPTED', 'REJECTED', 'CANCELLED', 'EXPIRED', 'PURGED'];
+
+/**
+ * Custom hook that subscribes to the booking change stream (Server-Sent Events).
+ * onDelta gets each { type, bookingId, status, booking } change; onResync is called when the
+ * server could not replay what was missed, so the caller should reload its list.
+ * EventSource reconnects on its own and resumes from the last event id it saw.
+ */
+export const useBookingStream = (enabled, onDelta, onResync) => {
+  const handlers = useRef({ onDelta, onResync });
+  handlers.current = { onDelta, onResync };
+
+  useEffect(() => {
+    if (!enabled || typeof EventSource === 'undefined') {
+      return undefined;
+    }
+
+    const source = new EventSource(STREAM_URL);
+    const handleDelta = (event) => {
+      try {
+        handlers.current.onDelta(JSON.parse(event.data));
+      } catch (error) {
+        console.error('useBookingStream: Could not parse booking event:', error);
+      }
+    };
+    const handleResync = () => handlers.current.onResync();
+
+    EVENT_TYPES.forEach(type => source.addEventListener(type, handleDelta));
+    source.addEventListener('RESYNC', handleResync);
+
+    return () => source.close();
+  }, [enabled]);
+};
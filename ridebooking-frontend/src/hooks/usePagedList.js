@@ -0,0 +1,47 @@
+import { useState, useEffect, useCallback, useRef } from 'react';
+import { fetchPage } from '../utils/api';
+
+/**
+ * Custom hook for a keyset-paginated list: loads the first page, then one more page per loadMore()
+ * call, so a screen never downloads the whole table up front.
+ * options.headers is passed to every request; options.enabled = false defers loading.
+ */
+export const usePagedList = (endpoint, options = {}) => {
+  const { enabled = true, headers } = options;
+  const [rows, setRows] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loading, setLoading] = useState(false);
+  const [error, setError] = useState(null);
+  const headersRef = useRef(headers);
+  headersRef.current = headers;
+
+  const load = useCallback(async (cursor) => {
+    setLoading(true);
+    setError(null);
+    try {
+      const page = await fetchPage(endpoint, cursor, { headers: headersRef.current });
+      setRows(current => (cursor ? [...current, ...page.rows] : page.rows));
+      setNextCursor(page.nextCursor);
+    } catch (err) {
+      console.error('usePagedList: Could not load', endpoint, err);
+      setError(err.message);
+    } finally {
+      setLoading(false);
+    }
+  }, [endpoint]);
+
+  const reload = useCallback(() => load(null), [load]);
+  const loadMore = useCallback(() => {
+    if (nextCursor && !loading) {
+      load(nextCursor);
+    }
+  }, [load, nextCursor, loading]);
+
+  useEffect(() => {
+    if (enabled) {
+      load(null);
+    }
+  }, [enabled, load]);
+
+  return { rows, setRows, hasMore: Boolean(nextCursor), loading, error, loadMore, reload };
+};
@@ -1,4 +1,5 @@
 import axios from 'axios';
+import { fetchPage } from '../utils/api';
 
 const API_BASE_URL = 'http://localhost:8081';
 
@@ -8,9 +9,10 @@ const API_BASE_URL = 'http://localhost:8081';
 class BookingService {
   
   /**
-   * Fetch booking history for a specific user or admin
+   * Fetch booking history for a specific user or admin. Users get one page at a time: pass the
+   * returned nextCursor to get the next page. The admin view is the 2-day window, in one response.
    */
-  static async fetchBookingHistory(userInfo, isAdmin) {
+  static async fetchBookingHistory(userInfo, isAdmin, cursor = null) {
     try {
       console.log('BookingService: fetchBookingHistory called with userInfo:', userInfo, 'isAdmin:', isAdmin);
       
@@ -18,13 +20,13 @@ class BookingService {
         console.log('BookingService: Fetching admin booking history from /history/accepted');
         const response = await axios.get(`${API_BASE_URL}/history/accepted`);
         console.log('BookingService: Admin response:', response.data);
-        return response.data;
+        return { rows: response.data, nextCursor: null };
       } else {
         const url = `${API_BASE_URL}/history/user/${userInfo.userId}`;
         console.log('BookingService: Fetching user booking history from:', url);
-        const response = await axios.get(url);
-        console.log('BookingService: User response:', response.data);
-        return response.data;
+        const page = await fetchPage(url, cursor);
+        console.log('BookingService: User response:', page.rows);
+        return page;
       }
     } catch (error) {
       console.error('BookingService: Error fetching booking history:', error);
@@ -1,4 +1,5 @@
 import axios from 'axios';
+import { fetchPage } from '../utils/api';
 
 const API_BASE_URL = 'http://localhost:8081';
 
@@ -12,11 +13,16 @@ class UserService {
    */
   static async findOrCreateRider(userInfo) {
     try {
-      // First, try to find existing user
-      const usersResponse = await axios.get(`${API_BASE_URL}/users`);
-      let riderUser = usersResponse.data.find(user => 
-        user.name === userInfo.fullName && user.role === "RIDER"
-      );
+      // First, try to find existing user by phone number
+      let riderUser = null;
+      try {
+        const userResponse = await axios.get(`${API_BASE_URL}/users/by-phone/${encodeURIComponent(userInfo.mobileNumber)}`);
+        riderUser = userResponse.data;
+      } catch (lookupError) {
+        if (lookupError.response?.status !== 404) {
+          throw lookupError;
+        }
+      }
       
       // If user doesn't exist, create new one
       if (!riderUser) {
@@ -38,12 +44,11 @@ class UserService {
   }
 
   /**
-   * Get all users
+   * Get one page of users; pass the returned nextCursor to get the next page
    */
-  static async getAllUsers() {
+  static async getUsersPage(cursor = null) {
     try {
-      const response = await axios.get(`${API_BASE_URL}/users`);
-      return response.data;
+      return await fetchPage(`${API_BASE_URL}/users`, cursor);
     } catch (error) {
       console.error('Error fetching users:', error);
       throw new Error('Failed to fetch users');
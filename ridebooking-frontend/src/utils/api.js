@@ -31,6 +31,25 @@ const apiRequest = async (endpoint, options = {}) => {
   }
 };
 
+/**
+ * Loads one page of a keyset-paginated list endpoint
+ * @param {string} endpoint - API endpoint, may already carry query parameters
+ * @param {string|null} cursor - X-Next-Cursor of the previous page, null for the first page
+ * @param {Object} options - Fetch options (headers)
+ * @returns {Promise<{rows: Array, nextCursor: string|null}>} - the page's rows and the cursor of the
+ *   next page (null on the last page)
+ */
+export const fetchPage = async (endpoint, cursor = null, options = {}) => {
+  const url = endpoint.startsWith('http') ? endpoint : `${BASE_URL}${endpoint}`;
+  const separator = url.includes('?') ? '&' : '?';
+  const pageUrl = cursor ? `${url}${separator}after=${encodeURIComponent(cursor)}` : url;
+  const response = await fetch(pageUrl, options);
+  if (!response.ok) {
+    throw new Error(`HTTP error! status: ${response.status}`);
+  }
+  return { rows: await response.json(), nextCursor: response.headers.get('X-Next-Cursor') };
+};
+
 // User Authentication APIs
 export const authAPI = {
   login: (credentials) => apiRequest('/auth/login', {
@@ -61,29 +80,38 @@ export const bookingAPI = {
   })
 };
 
+/**
+ * Authorization header carrying the session token issued at login
+ * @returns {Object} - headers for the /admin endpoints
+ */
+const adminHeaders = () => {
+  const userInfo = JSON.parse(localStorage.getItem('userInfo') || '{}');
+  return { Authorization: `Bearer ${userInfo.token}` };
+};
+
 // Admin APIs
 export const adminAPI = {
   getStats: () => apiRequest('/admin/dashboard/stats', {
-    headers: { 'Admin-Token': 'admin' }
+    headers: adminHeaders()
   }),
   
   getUsers: () => apiRequest('/admin/dashboard/users', {
-    headers: { 'Admin-Token': 'admin' }
+    headers: adminHeaders()
   }),
   
   blockUser: (userId) => apiRequest(`/admin/dashboard/users/${userId}/status?status=BLOCKED`, {
     method: 'PUT',
-    headers: { 'Admin-Token': 'admin' }
+    headers: adminHeaders()
   }),
   
   unblockUser: (userId) => apiRequest(`/admin/dashboard/users/${userId}/status?status=ACTIVE`, {
     method: 'PUT', 
-    headers: { 'Admin-Token': 'admin' }
+    headers: adminHeaders()
   }),
   
   deleteUser: (userId) => apiRequest(`/admin/dashboard/users/${userId}`, {
     method: 'DELETE',
-    headers: { 'Admin-Token': 'admin' }
+    headers: adminHeaders()
   })
 };
 
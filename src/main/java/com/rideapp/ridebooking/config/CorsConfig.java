@@ -1,5 +1,6 @@
 package com.rideapp.ridebooking.config;
 
+import com.rideapp.ridebooking.dto.PageCursor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.lang.NonNull;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
@@ -19,6 +20,7 @@ public class CorsConfig implements WebMvcConfigurer {
                 ) // React dev servers
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders(PageCursor.NEXT_CURSOR_HEADER)
                 .allowCredentials(true);
     }
 }
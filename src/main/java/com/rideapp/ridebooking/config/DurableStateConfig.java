@@ -0,0 +1,26 @@
+package com.rideapp.ridebooking.config;
+
+import com.rideapp.ridebooking.durable.ChangeCapture;
+import com.rideapp.ridebooking.durable.ChangeCaptureInterceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Durable mode (see DurableStateService). The capture has to be wired into Hibernate as a
+// session-factory interceptor, so it exists before the EntityManagerFactory is built.
+@Configuration
+@ConditionalOnProperty(name = "durable.enabled", havingValue = "true")
+public class DurableStateConfig {
+
+    @Bean
+    public ChangeCapture changeCapture() {
+        return new ChangeCapture();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer changeCaptureInterceptor(ChangeCapture changeCapture) {
+        return properties -> properties.put(AvailableSettings.INTERCEPTOR, new ChangeCaptureInterceptor(changeCapture));
+    }
+}
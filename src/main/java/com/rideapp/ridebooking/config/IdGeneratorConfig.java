@@ -0,0 +1,27 @@
+package com.rideapp.ridebooking.config;
+
+import com.rideapp.ridebooking.ids.SnowflakeIdGenerator;
+import com.rideapp.ridebooking.ids.SnowflakeIdentifierGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Entity ids (see SnowflakeIdGenerator). Hibernate creates the id generators itself, so this node's
+// id reaches them as a Hibernate property. Every node writing to the same database needs its own.
+@Configuration
+public class IdGeneratorConfig {
+
+    @Value("${id.node-id:0}")
+    private int nodeId;
+
+    @Bean
+    public SnowflakeIdGenerator snowflakeIdGenerator() {
+        return SnowflakeIdGenerator.forNode(nodeId);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer snowflakeNodeId() {
+        return properties -> properties.put(SnowflakeIdentifierGenerator.NODE_ID_SETTING, nodeId);
+    }
+}
@@ -0,0 +1,86 @@
+package com.rideapp.ridebooking.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Read replicas (datasource.replicas.enabled=true): the application DataSource becomes a lazy proxy
+// that picks its target when a transaction runs its first statement. Read-only transactions go to
+// ReplicaRoutingDataSource, everything else to the primary pool built from spring.datasource.*.
+// The proxy is the only DataSource bean, so Boot's DataSource auto-configuration backs off; the
+// primary pool behind it still gets the hikaricp.* metrics.
+@Configuration
+@ConditionalOnProperty(name = "datasource.replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    private HikariDataSource primaryPool;
+    private ReplicaRoutingDataSource replicaRouting;
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties properties,
+                                                             Environment environment,
+                                                             @Value("${datasource.replicas.urls}") String[] urls,
+                                                             @Value("${datasource.replicas.username:${spring.datasource.username:}}") String username,
+                                                             @Value("${datasource.replicas.password:${spring.datasource.password:}}") String password,
+                                                             @Value("${datasource.replicas.pool-size:8}") int poolSize,
+                                                             @Value("${datasource.replicas.max-lag-ms:2000}") long maxLagMillis,
+                                                             @Value("${datasource.replicas.heartbeat-ms:500}") long heartbeatMillis) throws SQLException {
+        primaryPool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primaryPool));
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.length; i++) {
+            if (urls[i].isBlank()) {
+                continue;
+            }
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(urls[i].trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setMaximumPoolSize(poolSize);
+            replica.setReadOnly(true);
+            replicas.put(replica.getPoolName(), replica);
+        }
+        if (replicas.isEmpty()) {
+            throw new IllegalStateException("❌ datasource.replicas.enabled is set but datasource.replicas.urls is empty");
+        }
+        replicaRouting = new ReplicaRoutingDataSource(primaryPool, replicas, maxLagMillis, heartbeatMillis);
+        System.out.println("📚 Read replicas: " + String.join(", ", replicas.keySet()) + " (max lag " + maxLagMillis + " ms)");
+        return replicaRouting;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryPool);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (replicaRouting != null) {
+            for (DataSource replica : replicaRouting.getReplicaDataSources()) {
+                ((HikariDataSource) replica).close();
+            }
+        }
+        if (primaryPool != null) {
+            primaryPool.close();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.rideapp.ridebooking.config;
+
+import com.rideapp.ridebooking.events.BookingEvent;
+import com.rideapp.ridebooking.services.SessionTokenService;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// The read-only side of the application DataSource (see ReadReplicaConfig): hands out a replica
+// connection, round robin, for read-only transactions the application opens itself with a read-only
+// TransactionTemplate. Everything else gets the primary:
+//   - the read-only transactions Spring Data opens around each repository call on its own, since
+//     callers often go on to write what they read
+//   - reads for a user who changed one of their bookings less than max-lag ago (read-your-writes): the
+//     request addresses them in its path ({userId} or {riderId}, e.g. GET /history/user/{userId})
+//     or carries their session token
+//   - any read while no replica is within max-lag of the primary
+// Lag is measured with a heartbeat: every heartbeat-ms the current time is written to a one-row table
+// on the primary, and each replica's lag is how old the value it returns is.
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    static final String HEARTBEAT_TABLE = "replica_heartbeat";
+    // Transactions Spring Data starts for a single repository method are named after it
+    private static final String REPOSITORY_TRANSACTION_PREFIX = "org.springframework.data.";
+    // Path variables that name the user a request reads for
+    private static final String[] USER_PATH_VARIABLES = { "userId", "riderId" };
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagMillis;
+    private final long stickyMillis;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    // userId -> System.nanoTime() until which their reads stay on the primary
+    private final Map<Long, Long> stickyUntil = new ConcurrentHashMap<>();
+    private final AtomicLong primaryReads = new AtomicLong();
+    private final AtomicLong stickyReads = new AtomicLong();
+    private final AtomicLong fallbackReads = new AtomicLong();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, long maxLagMillis,
+                                    long heartbeatMillis) throws SQLException {
+        this.primary = primary;
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+        this.maxLagMillis = maxLagMillis;
+        // A write is on every replica in rotation once it is max-lag old, give or take one heartbeat
+        this.stickyMillis = maxLagMillis + heartbeatMillis;
+        try (Connection connection = primary.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists " + HEARTBEAT_TABLE + " (id int primary key, beat_millis bigint not null)");
+            try (ResultSet rows = statement.executeQuery("select count(*) from " + HEARTBEAT_TABLE)) {
+                rows.next();
+                if (rows.getLong(1) == 0) {
+                    statement.execute("insert into " + HEARTBEAT_TABLE + " (id, beat_millis) values (1, 0)");
+                }
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route().getConnection(username, password);
+    }
+
+    private DataSource route() {
+        String transaction = TransactionSynchronizationManager.getCurrentTransactionName();
+        if (transaction != null && transaction.startsWith(REPOSITORY_TRANSACTION_PREFIX)) {
+            primaryReads.incrementAndGet();
+            return primary;
+        }
+        for (Long userId : requestUserIds()) {
+            Long until = stickyUntil.get(userId);
+            if (until != null && System.nanoTime() - until < 0) {
+                stickyReads.incrementAndGet();
+                return primary;
+            }
+        }
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size()));
+            if (replica.inRotation) {
+                replica.reads.incrementAndGet();
+                return replica.dataSource;
+            }
+        }
+        fallbackReads.incrementAndGet();
+        return primary;
+    }
+
+    // The signed-in user of the request being served on this thread, if any
+    private static Long currentUserId() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        Object session = request != null
+                ? request.getAttribute(SessionTokenFilter.SESSION_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) : null;
+        return session instanceof SessionTokenService.Session s ? s.getUserId() : null;
+    }
+
+    // Users the current request reads for: the signed-in user and the user its path addresses.
+    // Riders don't send a session token, so the path is what identifies them.
+    private static List<Long> requestUserIds() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null) {
+            return List.of();
+        }
+        List<Long> userIds = new ArrayList<>(2);
+        Long signedIn = currentUserId();
+        if (signedIn != null) {
+            userIds.add(signedIn);
+        }
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (variables instanceof Map<?, ?> pathVariables) {
+            for (String name : USER_PATH_VARIABLES) {
+                if (pathVariables.get(name) instanceof String id) {
+                    try {
+                        userIds.add(Long.valueOf(id));
+                    } catch (NumberFormatException e) {
+                        // Not a user id; the request fails on its own
+                    }
+                }
+            }
+        }
+        return userIds;
+    }
+
+    // Read-your-writes: the booking's rider, and whoever made the change, read from the primary for a while
+    @EventListener
+    public void onBookingEvent(BookingEvent event) {
+        if (event.getType() == BookingEvent.Type.EXPIRED || event.getType() == BookingEvent.Type.PURGED) {
+            return;
+        }
+        long until = System.nanoTime() + stickyMillis * 1_000_000;
+        if (event.getRiderId() != null) {
+            stickyUntil.put(event.getRiderId(), until);
+        }
+        Long actor = currentUserId();
+        if (actor != null) {
+            stickyUntil.put(actor, until);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replicas.heartbeat-ms:500}")
+    public void checkReplicas() {
+        long now = System.currentTimeMillis();
+        try (Connection connection = primary.getConnection();
+             PreparedStatement beat = connection.prepareStatement("update " + HEARTBEAT_TABLE + " set beat_millis = ? where id = 1")) {
+            beat.setLong(1, now);
+            beat.executeUpdate();
+        } catch (SQLException e) {
+            System.out.println("❌ Replica heartbeat failed on the primary: " + e.getMessage());
+        }
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rows = statement.executeQuery("select beat_millis from " + HEARTBEAT_TABLE + " where id = 1")) {
+                long lag = rows.next() ? Math.max(0, now - rows.getLong(1)) : Long.MAX_VALUE;
+                replica.lagMillis = lag;
+                setInRotation(replica, lag <= maxLagMillis);
+            } catch (SQLException e) {
+                replica.lagMillis = -1;
+                setInRotation(replica, false);
+            }
+        }
+        long nanoNow = System.nanoTime();
+        stickyUntil.values().removeIf(until -> nanoNow - until >= 0);
+    }
+
+    private static void setInRotation(Replica replica, boolean inRotation) {
+        if (replica.inRotation != inRotation) {
+            System.out.println((inRotation ? "✅ Replica " + replica.name + " back in rotation"
+                    : "⚠️ Replica " + replica.name + " out of rotation") + " (lag " + replica.lagMillis + " ms)");
+        }
+        replica.inRotation = inRotation;
+    }
+
+    List<DataSource> getReplicaDataSources() {
+        return replicas.stream().map(replica -> replica.dataSource).toList();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxLagMs", maxLagMillis);
+        List<Map<String, Object>> replicaStats = new ArrayList<>();
+        for (Replica replica : replicas) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", replica.name);
+            entry.put("inRotation", replica.inRotation);
+            entry.put("lagMs", replica.lagMillis);
+            entry.put("reads", replica.reads.get());
+            replicaStats.add(entry);
+        }
+        stats.put("replicas", replicaStats);
+        stats.put("repositoryReadsOnPrimary", primaryReads.get());
+        stats.put("stickyReadsOnPrimary", stickyReads.get());
+        stats.put("fallbackReadsOnPrimary", fallbackReads.get());
+        stats.put("stickyUsers", stickyUntil.size());
+        return stats;
+    }
+
+    private static final class Replica {
+        final String name;
+        final DataSource dataSource;
+        final AtomicLong reads = new AtomicLong();
+        // Out of rotation until the first check has measured it
+        volatile boolean inRotation;
+        volatile long lagMillis = -1;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.rideapp.ridebooking.config;
+
+import com.rideapp.ridebooking.dto.RideTime;
+import com.rideapp.ridebooking.repositories.BookingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// One-time migration for bookings saved before Booking.rideAt existed: resolves their rideTime string
+// into the typed column, a chunk of ids per transaction. Runs before the application is ready (so
+// before the expiry schedule is rebuilt) and only reads rows where rideAt is still null, so once the
+// data is migrated it is a single indexed lookup.
+@Component
+public class RideAtBackfill implements CommandLineRunner {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${booking.cleanup.chunk-size:500}")
+    private int chunkSize;
+
+    @Override
+    public void run(String... args) {
+        long startedAt = System.nanoTime();
+        long scanned = 0;
+        long updated = 0;
+        long afterId = 0;
+        while (true) {
+            long from = afterId;
+            List<Object[]> rows = bookingRepository.findRideAtBackfillRows(from, PageRequest.of(0, chunkSize));
+            if (rows.isEmpty()) {
+                break;
+            }
+            updated += transactionTemplate.execute(tx -> {
+                int count = 0;
+                for (Object[] row : rows) {
+                    LocalDateTime rideAt = RideTime.resolve((String) row[1], (LocalDateTime) row[2]);
+                    if (rideAt != null) {
+                        count += bookingRepository.backfillRideAt((Long) row[0], rideAt);
+                    }
+                }
+                return count;
+            });
+            scanned += rows.size();
+            afterId = (Long) rows.get(rows.size() - 1)[0];
+        }
+        if (scanned > 0) {
+            // Rows left without rideAt have a rideTime in none of the accepted forms
+            System.out.println("🛠️ Backfilled rideAt for " + updated + " of " + scanned + " bookings in "
+                    + (System.nanoTime() - startedAt) / 1_000_000 + " ms");
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.rideapp.ridebooking.config;
+
+import com.rideapp.ridebooking.services.SessionTokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+
+// Verifies the "Authorization: Bearer <token>" issued at login and exposes the session as a request
+// attribute. /admin/** requires an ADMIN session; other endpoints still work without a token.
+@Component
+public class SessionTokenFilter extends OncePerRequestFilter {
+
+    public static final String SESSION_ATTRIBUTE = "rideapp.session";
+    private static final String BEARER_PREFIX = "Bearer ";
+    // Decodes %XX escapes and drops ;parameters, as request mapping does
+    private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SessionTokenService.Session session = null;
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.startsWith(BEARER_PREFIX)) {
+            session = sessionTokenService.verify(authorization.substring(BEARER_PREFIX.length()));
+        }
+        if (session != null) {
+            request.setAttribute(SESSION_ATTRIBUTE, session);
+        }
+
+        // Match on the path the request is routed by, not the raw URI: /%61dmin/... and /admin;x=1/...
+        // both reach the admin controllers. CORS preflights carry no credentials.
+        String path = PATH_HELPER.getPathWithinApplication(request);
+        boolean adminPath = path.equals("/admin") || path.startsWith("/admin/");
+        if (adminPath && !HttpMethod.OPTIONS.matches(request.getMethod()) && (session == null || !session.isAdmin())) {
+            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write("❌ Access denied. Admin privileges required.");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -37,20 +37,9 @@ public class AdminController {
     @Autowired
     private BookingRepository bookingRepository;
 
-    // Manual cleanup endpoint - Admin only
+    // Manual cleanup endpoint - Admin only (the admin session token is checked by SessionTokenFilter)
     @PostMapping("/cleanup-bookings")
-    public ResponseEntity<String> manualCleanup(@RequestHeader(value = "Admin-Token", required = false) String adminToken) {
-        // Check if admin token is valid (simple check for mobile number "admin")
-        if (adminToken == null || !adminToken.equals("admin")) {
-            return ResponseEntity.status(403).body("❌ Access denied. Admin privileges required.");
-        }
-        
-        // Verify admin user exists with correct credentials
-        AuthUser admin = authUserRepository.findByMobileNumber("admin").orElse(null);
-        if (admin == null || !admin.getPassword().equals("9010")) {
-            return ResponseEntity.status(403).body("❌ Invalid admin credentials.");
-        }
-        
+    public ResponseEntity<String> manualCleanup() {
         bookingCleanupService.performCleanup();
         return ResponseEntity.ok("✅ Manual booking cleanup completed!");
     }
@@ -1,20 +1,37 @@
 package com.rideapp.ridebooking.controllers;
 
+import com.rideapp.ridebooking.config.InFlightRequestFilter;
+import com.rideapp.ridebooking.config.ReplicaRoutingDataSource;
+import com.rideapp.ridebooking.dto.BookingJournalEntry;
+import com.rideapp.ridebooking.dto.PageCursor;
+import com.rideapp.ridebooking.events.BookingEvent;
 import com.rideapp.ridebooking.models.User;
 import com.rideapp.ridebooking.models.Ride;
 import com.rideapp.ridebooking.models.Booking;
 import com.rideapp.ridebooking.repositories.UserRepository;
 import com.rideapp.ridebooking.repositories.RideRepository;
 import com.rideapp.ridebooking.repositories.BookingRepository;
+import com.rideapp.ridebooking.services.BookingAcceptanceService;
+import com.rideapp.ridebooking.services.BookingJournalService;
+import com.rideapp.ridebooking.services.DashboardStatsService;
+import com.rideapp.ridebooking.services.DurableStateService;
+import com.rideapp.ridebooking.services.EntityCacheService;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.ArrayList;
 
+// Every endpoint here requires an admin session token (checked by SessionTokenFilter)
 @RestController
 @RequestMapping("/admin/dashboard")
 public class AdminDashboardController {
@@ -28,19 +45,64 @@ public class AdminDashboardController {
     @Autowired
     private BookingRepository bookingRepository;
 
-    // Check admin token
-    private boolean isValidAdmin(String token) {
-        return "admin".equals(token);
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    @Autowired
+    private EntityCacheService entityCacheService;
+
+    @Autowired
+    private InFlightRequestFilter inFlightRequestFilter;
+
+    @Autowired
+    private BookingJournalService bookingJournalService;
+
+    // Only present with durable.enabled=true
+    @Autowired(required = false)
+    private DurableStateService durableStateService;
+
+    // Only present with datasource.replicas.enabled=true
+    @Autowired(required = false)
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private BookingAcceptanceService bookingAcceptanceService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // The heavy dashboard reads run in read-only transactions, which go to a read replica when
+    // datasource.replicas.enabled is set
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    void createReadOnlyTransaction() {
+        readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnlyTransaction.setReadOnly(true);
     }
 
-    // 📊 Get all ride activities for admin dashboard
+    // 📊 Get all ride activities for admin dashboard (keyset paginated, next page cursor in X-Next-Cursor)
     @GetMapping("/rides")
-    public List<Map<String, Object>> getAllRideActivities(@RequestHeader("Admin-Token") String token) {
-        if (!isValidAdmin(token)) {
-            throw new RuntimeException("❌ Access denied. Admin privileges required.");
-        }
+    public ResponseEntity<List<Map<String, Object>>> getAllRideActivities(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return readOnlyTransaction.execute(tx -> rideActivities(after, limit));
+    }
+
+    private ResponseEntity<List<Map<String, Object>>> rideActivities(String after, Integer limit) {
+        PageCursor cursor = PageCursor.decode(after);
+        int pageSize = PageCursor.pageSize(limit);
+        List<Ride> rides = rideRepository.findByRideIdGreaterThanOrderByRideIdAsc(
+                cursor.getId(), PageCursor.rowsFor(pageSize));
 
-        return rideRepository.findAll().stream().map(ride -> {
+        // Load the bookings of every ride on this page in one query instead of one per ride
+        Map<Long, List<Booking>> bookingsByRide = bookingRepository.findByRideIn(rides).stream()
+                .collect(Collectors.groupingBy(booking -> booking.getRide().getRideId()));
+
+        return PageCursor.toResponse(rides, pageSize, ride -> new PageCursor(null, ride.getRideId()), ride -> {
             Map<String, Object> rideActivity = new HashMap<>();
             rideActivity.put("rideId", ride.getRideId());
             rideActivity.put("pickupLocation", ride.getPickupLocation());
@@ -54,7 +116,7 @@ public class AdminDashboardController {
             rideActivity.put("driverId", ride.getDriver() != null ? ride.getDriver().getUserId() : null);
             
             // Get all bookings for this ride
-            List<Booking> bookings = bookingRepository.findByRide(ride);
+            List<Booking> bookings = bookingsByRide.getOrDefault(ride.getRideId(), List.of());
             List<Map<String, Object>> bookingDetails = bookings.stream().map(booking -> {
                 Map<String, Object> bookingInfo = new HashMap<>();
                 bookingInfo.put("bookingId", booking.getBookingId());
@@ -73,18 +135,21 @@ public class AdminDashboardController {
             rideActivity.put("totalBookings", bookings.size());
             
             return rideActivity;
-        }).collect(Collectors.toList());
+        });
     }
 
     // 👥 Get all users for admin management
     @GetMapping("/users")
-    public List<Map<String, Object>> getAllUsers(@RequestHeader("Admin-Token") String token) {
-        if (!isValidAdmin(token)) {
-            throw new RuntimeException("❌ Access denied. Admin privileges required.");
-        }
+    public List<Map<String, Object>> getAllUsers() {
+        return readOnlyTransaction.execute(tx -> allUsers());
+    }
 
-        return userRepository.findAll().stream()
-                .filter(user -> !"admin".equals(user.getPhoneNumber())) // Don't show admin user
+    private List<Map<String, Object>> allUsers() {
+        // Per-user ride and booking counts, each computed with one grouped query
+        Map<Long, Long> ridesByDriver = toCountMap(rideRepository.countRidesPerDriver());
+        Map<Long, Long> bookingsByRider = toCountMap(bookingRepository.findRiderBookingCountsAtLeast(1));
+
+        return userRepository.findByPhoneNumberNot("admin").stream() // Don't show admin user
                 .map(user -> {
                     Map<String, Object> userInfo = new HashMap<>();
                     userInfo.put("userId", user.getUserId());
@@ -95,8 +160,8 @@ public class AdminDashboardController {
                     userInfo.put("status", user.getStatus().toString());
                     
                     // Count user's rides and bookings
-                    long ridesAsDriver = rideRepository.findByDriver(user).size();
-                    long bookingsAsPassenger = bookingRepository.findByRider(user).size();
+                    long ridesAsDriver = ridesByDriver.getOrDefault(user.getUserId(), 0L);
+                    long bookingsAsPassenger = bookingsByRider.getOrDefault(user.getUserId(), 0L);
                     
                     userInfo.put("totalRidesAsDriver", ridesAsDriver);
                     userInfo.put("totalBookingsAsPassenger", bookingsAsPassenger);
@@ -105,17 +170,19 @@ public class AdminDashboardController {
                 }).collect(Collectors.toList());
     }
 
+    private Map<Long, Long> toCountMap(List<Object[]> idCounts) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] idCount : idCounts) {
+            counts.put((Long) idCount[0], (Long) idCount[1]);
+        }
+        return counts;
+    }
+
     // 🚫 Block/Unblock user
     @PutMapping("/users/{userId}/status")
     public Map<String, String> updateUserStatus(
             @PathVariable Long userId,
-            @RequestParam String status,
-            @RequestHeader("Admin-Token") String token) {
-        
-        if (!isValidAdmin(token)) {
-            throw new RuntimeException("❌ Access denied. Admin privileges required.");
-        }
-
+            @RequestParam String status) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -128,6 +195,7 @@ public class AdminDashboardController {
             User.Status newStatus = User.Status.valueOf(status.toUpperCase());
             user.setStatus(newStatus);
             userRepository.save(user);
+            entityCacheService.evictUser(userId);
             
             Map<String, String> response = new HashMap<>();
             response.put("message", "✅ User status updated successfully");
@@ -141,113 +209,119 @@ public class AdminDashboardController {
     }
 
     // 🗑️ Delete user and all related data
+    // Set-based: the user's bookings, the bookings on the rides they drive and those rides are each
+    // deleted with one statement in a single transaction, then PURGED events go out per booking
     @DeleteMapping("/users/{userId}")
-    public Map<String, String> deleteUser(
-            @PathVariable Long userId,
-            @RequestHeader("Admin-Token") String token) {
-        
-        if (!isValidAdmin(token)) {
-            throw new RuntimeException("❌ Access denied. Admin privileges required.");
-        }
+    public Map<String, String> deleteUser(@PathVariable Long userId) {
+        Map<Long, Object[]> deletedBookings = new LinkedHashMap<>();
+        List<Long> rideIds = new ArrayList<>();
+        String userName = transactionTemplate.execute(tx -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+            // Don't allow deleting admin user
+            if ("admin".equals(user.getPhoneNumber())) {
+                throw new RuntimeException("❌ Cannot delete admin user");
+            }
 
-        // Don't allow deleting admin user
-        if ("admin".equals(user.getPhoneNumber())) {
-            throw new RuntimeException("❌ Cannot delete admin user");
-        }
+            // Bookings by this user, and every booking on the rides they drive
+            bookingRepository.findKeysByRiderId(userId).forEach(key -> deletedBookings.put((Long) key[0], key));
+            rideIds.addAll(rideRepository.findRideIdsByDriverId(userId));
+            if (!rideIds.isEmpty()) {
+                bookingRepository.findKeysByRideIds(rideIds).forEach(key -> deletedBookings.putIfAbsent((Long) key[0], key));
+            }
 
-        String userName = user.getName();
-        
-        // Delete all bookings by this user
-        List<Booking> userBookings = bookingRepository.findByRider(user);
-        bookingRepository.deleteAll(userBookings);
-        
-        // Delete all rides by this user
-        List<Ride> userRides = rideRepository.findByDriver(user);
-        rideRepository.deleteAll(userRides);
-        
-        // Delete the user
-        userRepository.delete(user);
+            bookingRepository.deleteByRiderId(userId);
+            if (!rideIds.isEmpty()) {
+                bookingRepository.deleteByRideIds(rideIds);
+                rideRepository.deleteByRideIds(rideIds);
+            }
+            userRepository.delete(user);
+            return user.getName();
+        });
+
+        deletedBookings.values().forEach(key -> eventPublisher.publishEvent(BookingEvent.removed(BookingEvent.Type.PURGED,
+                (Long) key[0], (Long) key[1], (Booking.BookingStatus) key[2])));
+        entityCacheService.evictRides(rideIds);
+        entityCacheService.evictUser(userId);
         
         Map<String, String> response = new HashMap<>();
         response.put("message", "✅ User and all related data deleted successfully");
         response.put("deletedUser", userName);
-        response.put("deletedBookings", String.valueOf(userBookings.size()));
-        response.put("deletedRides", String.valueOf(userRides.size()));
+        response.put("deletedBookings", String.valueOf(deletedBookings.size()));
+        response.put("deletedRides", String.valueOf(rideIds.size()));
         return response;
     }
 
     // 📈 Get dashboard statistics
     @GetMapping("/stats")
-    public Map<String, Object> getDashboardStats(@RequestHeader("Admin-Token") String token) {
-        if (!isValidAdmin(token)) {
-            throw new RuntimeException("❌ Access denied. Admin privileges required.");
+    public Map<String, Object> getDashboardStats() {
+        return dashboardStatsService.getStats();
+    }
+
+    // 🗃️ Hit/miss/eviction counts of the user and ride lookup cache, for sizing it
+    @GetMapping("/cache-stats")
+    public Map<String, Object> getCacheStats() {
+        return entityCacheService.stats();
+    }
+
+    // 🧵 Requests in flight now and at peak, and whether they run on virtual threads
+    @GetMapping("/request-stats")
+    public Map<String, Object> getRequestStats() {
+        return inFlightRequestFilter.stats();
+    }
+
+    // 📒 Booking journal entries from a sequence number on, read from the journal files (not the database)
+    @GetMapping("/journal")
+    public ResponseEntity<?> getJournal(@RequestParam(defaultValue = "1") long from,
+                                        @RequestParam(defaultValue = "100") int limit) throws IOException {
+        if (!bookingJournalService.isEnabled()) {
+            return ResponseEntity.status(404).body("❌ Booking journal is disabled");
+        }
+        if (limit < 1 || limit > 1000) {
+            return ResponseEntity.badRequest().body("❌ limit must be between 1 and 1000");
         }
+        List<BookingJournalEntry> entries = bookingJournalService.read(from, limit);
+        return ResponseEntity.ok(entries);
+    }
 
-        Map<String, Object> stats = new HashMap<>();
-        
-        // User statistics
-        long totalUsers = userRepository.count() - 1; // Exclude admin
-        long activeUsers = userRepository.findAll().stream()
-                .filter(user -> !"admin".equals(user.getPhoneNumber()))
-                .filter(user -> user.getStatus() == User.Status.ACTIVE)
-                .count();
-        long blockedUsers = totalUsers - activeUsers;
-        
-        // Ride statistics
-        long totalRides = rideRepository.count();
-        long pendingRides = rideRepository.findAll().stream()
-                .filter(ride -> ride.getStatus() == Ride.RideStatus.PENDING)
-                .count();
-        long completedRides = rideRepository.findAll().stream()
-                .filter(ride -> ride.getStatus() == Ride.RideStatus.COMPLETED)
-                .count();
-        
-        // Booking statistics
-        long totalBookings = bookingRepository.count();
-        long acceptedBookings = bookingRepository.findAll().stream()
-                .filter(booking -> booking.getStatus() == Booking.BookingStatus.ACCEPTED)
-                .count();
-        long pendingBookings = bookingRepository.findAll().stream()
-                .filter(booking -> booking.getStatus() == Booking.BookingStatus.REQUESTED)
-                .count();
-        
-        stats.put("users", Map.of(
-                "total", totalUsers,
-                "active", activeUsers,
-                "blocked", blockedUsers
-        ));
-        
-        stats.put("rides", Map.of(
-                "total", totalRides,
-                "pending", pendingRides,
-                "completed", completedRides
-        ));
-        
-        stats.put("bookings", Map.of(
-                "total", totalBookings,
-                "accepted", acceptedBookings,
-                "pending", pendingBookings
-        ));
-        
-        return stats;
+    // 📒 Journal position, durable position and flush timing
+    @GetMapping("/journal-stats")
+    public Map<String, Object> getJournalStats() {
+        return bookingJournalService.stats();
+    }
+
+    // 💾 Durable mode: what the last restore and snapshot did and how much change log a restart would replay
+    @GetMapping("/durable-stats")
+    public ResponseEntity<?> getDurableStats() {
+        if (durableStateService == null) {
+            return ResponseEntity.status(404).body("❌ Durable mode is disabled");
+        }
+        return ResponseEntity.ok(durableStateService.stats());
+    }
+
+    // 📚 Read replicas: lag and rotation per replica, and how many reads were kept on the primary
+    @GetMapping("/replica-stats")
+    public ResponseEntity<?> getReplicaStats() {
+        if (replicaRoutingDataSource == null) {
+            return ResponseEntity.status(404).body("❌ Read replicas are disabled");
+        }
+        return ResponseEntity.ok(replicaRoutingDataSource.stats());
     }
 
     // 🚨 Get suspicious activities (self-bookings, rapid bookings, etc.)
     @GetMapping("/suspicious-activities")
-    public List<Map<String, Object>> getSuspiciousActivities(@RequestHeader("Admin-Token") String token) {
-        if (!isValidAdmin(token)) {
-            throw new RuntimeException("❌ Access denied. Admin privileges required.");
-        }
+    public List<Map<String, Object>> getSuspiciousActivities() {
+        return readOnlyTransaction.execute(tx -> suspiciousActivities());
+    }
 
+    private List<Map<String, Object>> suspiciousActivities() {
         List<Map<String, Object>> suspiciousActivities = new java.util.ArrayList<>();
         
         // Find self-bookings (rider and driver are the same person)
-        List<Booking> allBookings = bookingRepository.findAll();
+        List<Booking> selfBookings = bookingRepository.findSelfBookings();
         
-        for (Booking booking : allBookings) {
+        for (Booking booking : selfBookings) {
             Ride ride = booking.getRide();
             User rider = booking.getRider();
             
@@ -292,27 +366,32 @@ public class AdminDashboardController {
         }
         
         // Find rapid booking patterns (multiple bookings in short time by same user)
-        Map<Long, List<Booking>> userBookings = allBookings.stream()
-                .collect(Collectors.groupingBy(booking -> booking.getRider().getUserId()));
-        
-        for (Map.Entry<Long, List<Booking>> entry : userBookings.entrySet()) {
-            List<Booking> bookings = entry.getValue();
-            if (bookings.size() >= 3) { // 3 or more bookings might indicate suspicious activity
-                User user = bookings.get(0).getRider();
-                
-                Map<String, Object> activity = new HashMap<>();
-                activity.put("type", "RAPID_BOOKING");
-                activity.put("severity", "MEDIUM");
-                activity.put("userId", user.getUserId());
-                activity.put("userName", user.getName());
-                activity.put("userPhone", user.getPhoneNumber());
-                activity.put("rideId", bookings.get(0).getRide().getRideId());
-                activity.put("bookingId", bookings.get(0).getBookingId());
-                activity.put("description", "User has " + bookings.size() + " bookings, which may indicate suspicious activity");
-                activity.put("timestamp", bookings.get(0).getCreatedAt() != null ? bookings.get(0).getCreatedAt() : new java.util.Date());
-                
-                suspiciousActivities.add(activity);
+        // 3 or more bookings might indicate suspicious activity; each rider's first booking comes from one query
+        Map<Long, Booking> firstBookingByRider = new HashMap<>();
+        for (Booking booking : bookingRepository.findFirstBookingsOfRidersWithAtLeast(3)) {
+            firstBookingByRider.put(booking.getRider().getUserId(), booking);
+        }
+        for (Object[] riderCount : bookingRepository.findRiderBookingCountsAtLeast(3)) {
+            Long riderId = (Long) riderCount[0];
+            long bookingCount = (Long) riderCount[1];
+            Booking firstBooking = firstBookingByRider.get(riderId);
+            if (firstBooking == null) {
+                continue;
             }
+            User user = firstBooking.getRider();
+            
+            Map<String, Object> activity = new HashMap<>();
+            activity.put("type", "RAPID_BOOKING");
+            activity.put("severity", "MEDIUM");
+            activity.put("userId", user.getUserId());
+            activity.put("userName", user.getName());
+            activity.put("userPhone", user.getPhoneNumber());
+            activity.put("rideId", firstBooking.getRide().getRideId());
+            activity.put("bookingId", firstBooking.getBookingId());
+            activity.put("description", "User has " + bookingCount + " bookings, which may indicate suspicious activity");
+            activity.put("timestamp", firstBooking.getCreatedAt() != null ? firstBooking.getCreatedAt() : new java.util.Date());
+            
+            suspiciousActivities.add(activity);
         }
         
         return suspiciousActivities;
@@ -320,20 +399,12 @@ public class AdminDashboardController {
 
     // 🚫 Cancel suspicious booking
     @PutMapping("/bookings/{bookingId}/cancel")
-    public Map<String, String> cancelSuspiciousBooking(
-            @PathVariable Long bookingId, 
-            @RequestHeader("Admin-Token") String token) {
-        
-        if (!isValidAdmin(token)) {
-            throw new RuntimeException("❌ Access denied. Admin privileges required.");
-        }
-
+    public Map<String, String> cancelSuspiciousBooking(@PathVariable Long bookingId) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
 
-        // Cancel the booking by setting status to REJECTED
-        booking.setStatus(Booking.BookingStatus.REJECTED);
-        bookingRepository.save(booking);
+        // Cancel the booking by setting status to REJECTED (409 if its status changed since it was read)
+        bookingAcceptanceService.changeStatus(booking, Booking.BookingStatus.REJECTED, BookingEvent.Type.REJECTED);
 
         Map<String, String> response = new HashMap<>();
         response.put("message", "Suspicious booking #" + bookingId + " has been cancelled successfully");
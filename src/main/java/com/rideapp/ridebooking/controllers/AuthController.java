@@ -7,6 +7,8 @@ import com.rideapp.ridebooking.models.AuthUser;
 import com.rideapp.ridebooking.models.User;
 import com.rideapp.ridebooking.repositories.AuthUserRepository;
 import com.rideapp.ridebooking.repositories.UserRepository;
+import com.rideapp.ridebooking.services.EntityCacheService;
+import com.rideapp.ridebooking.services.SessionTokenService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -23,6 +25,12 @@ public class AuthController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private EntityCacheService entityCacheService;
+
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
     @PostMapping("/register")
     public ResponseEntity<AuthResponse> register(@RequestBody RegisterRequest request) {
         try {
@@ -118,17 +126,19 @@ public class AuthController {
                 AuthUser authUser = userOpt.get();
                 if (authUser.isActive()) {
                     // Find the corresponding user in the User table by phone number
-                    Optional<User> mainUserOpt = userRepository.findByPhoneNumber(authUser.getMobileNumber());
+                    Optional<User> mainUserOpt = entityCacheService.findUserByPhone(authUser.getMobileNumber());
                     if (mainUserOpt.isPresent()) {
                         User mainUser = mainUserOpt.get();
-                        return ResponseEntity.ok(new AuthResponse(
+                        AuthResponse response = new AuthResponse(
                             true,
                             "Login successful",
                             mainUser.getUserId(),  // Use the userId from the User table
                             authUser.getFullName(),
                             authUser.getMobileNumber(),
                             mainUser.getRole().toString()  // Include role information
-                        ));
+                        );
+                        response.setToken(sessionTokenService.issue(mainUser.getUserId(), mainUser.getRole()));
+                        return ResponseEntity.ok(response);
                     } else {
                         return ResponseEntity.badRequest().body(new AuthResponse(false, "User profile not found"));
                     }
@@ -1,18 +1,35 @@
 package com.rideapp.ridebooking.controllers;
 
+import com.rideapp.ridebooking.dto.BookingBatchResult;
 import com.rideapp.ridebooking.dto.BookingDTO;
-import com.rideapp.ridebooking.dto.RideDTO;
+import com.rideapp.ridebooking.dto.LocationDetails;
+import com.rideapp.ridebooking.dto.PageCursor;
+import com.rideapp.ridebooking.dto.RideTime;
+import com.rideapp.ridebooking.events.BookingEvent;
 import com.rideapp.ridebooking.exceptions.BookingNotFoundException;
+import com.rideapp.ridebooking.exceptions.InvalidSearchException;
 import com.rideapp.ridebooking.models.Booking;
 import com.rideapp.ridebooking.models.Ride;
 import com.rideapp.ridebooking.models.User;
 import com.rideapp.ridebooking.repositories.BookingRepository;
 import com.rideapp.ridebooking.repositories.RideRepository;
 import com.rideapp.ridebooking.repositories.UserRepository;
+import com.rideapp.ridebooking.services.BookingAcceptanceService;
+import com.rideapp.ridebooking.services.BookingBatchService;
+import com.rideapp.ridebooking.services.BookingStreamService;
+import com.rideapp.ridebooking.services.EntityCacheService;
+import com.rideapp.ridebooking.services.PendingBookingGeoIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @RestController
@@ -28,65 +45,111 @@ public class BookingController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private BookingAcceptanceService bookingAcceptanceService;
+
+    @Autowired
+    private PendingBookingGeoIndex pendingBookingGeoIndex;
+
+    @Autowired
+    private BookingStreamService bookingStreamService;
+
+    @Autowired
+    private BookingBatchService bookingBatchService;
+
+    @Autowired
+    private EntityCacheService entityCacheService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Largest radius GET /bookings/pending/near accepts
+    @Value("${booking.geo.max-radius-miles:50}")
+    private double maxNearRadiusMiles;
+
     // Rider posts a booking request
     @PostMapping("/{rideId}/{riderId}")
     public BookingDTO createBooking(@PathVariable Long rideId,
                                     @PathVariable Long riderId,
                                     @RequestBody BookingDTO bookingRequest) {
-        Ride ride = rideRepository.findById(rideId)
+        Ride ride = entityCacheService.findRide(rideId)
                 .orElseThrow(() -> new RuntimeException("Ride not found"));
-        User rider = userRepository.findById(riderId)
+        User rider = entityCacheService.findUser(riderId)
                 .orElseThrow(() -> new RuntimeException("Rider not found"));
 
-        // VALIDATION: Prevent users from booking their own rides
-        if (ride.getDriver() != null && ride.getDriver().getUserId().equals(riderId)) {
-            throw new RuntimeException("🚫 SELF-BOOKING BLOCKED: You cannot book your own ride!");
-        }
-
-        // ADDITIONAL VALIDATION: Check phone number match (safety check for same user)
-        if (ride.getDriver() != null && ride.getDriver().getPhoneNumber().equals(rider.getPhoneNumber())) {
-            throw new RuntimeException("🚫 SELF-BOOKING BLOCKED: Same user detected attempting to book own ride!");
+        // VALIDATION: Prevent users from booking their own rides (same id or same phone number)
+        String selfBookingError = bookingBatchService.selfBookingError(ride, rider);
+        if (selfBookingError != null) {
+            throw new RuntimeException(selfBookingError);
         }
 
-        Booking booking = new Booking();
-        booking.setRide(ride);
-        booking.setRider(rider);
-        booking.setStatus(Booking.BookingStatus.REQUESTED);
-
-        // Extra details from request
-        booking.setPickupLocation(bookingRequest.getPickupLocation());
-        booking.setDropLocation(bookingRequest.getDropLocation());
-        booking.setRideTime(bookingRequest.getRideTime());
-        
-        // Set booking-specific distance and fare (if provided, otherwise use ride defaults)
-        booking.setDistanceInMiles(bookingRequest.getDistanceInMiles() != null ? 
-            bookingRequest.getDistanceInMiles() : ride.getDistanceInMiles());
-        booking.setFare(bookingRequest.getFare() != null ? 
-            bookingRequest.getFare() : ride.getPrice());
-
-        // Set enhanced location data for Google Maps integration
-        booking.setPickupLocationDetails(bookingRequest.getPickupLocationDetails());
-        booking.setDropLocationDetails(bookingRequest.getDropLocationDetails());
-
+        Booking booking = bookingBatchService.newBooking(ride, rider, bookingRequest);
         Booking savedBooking = bookingRepository.save(booking);
+        eventPublisher.publishEvent(BookingEvent.changed(BookingEvent.Type.CREATED, savedBooking, null));
         return mapToDTO(savedBooking);
     }
 
-    // Get all bookings
+    // Rider or booking agent posts many booking requests at once; each item carries its rideId and
+    // riderId, and gets its own CREATED / FAILED result in request order
+    @PostMapping("/batch")
+    public List<BookingBatchResult> createBookings(@RequestBody List<BookingDTO> bookingRequests) {
+        return bookingBatchService.createAll(bookingRequests);
+    }
+
+    // Get all bookings (keyset paginated, next page cursor in X-Next-Cursor)
     @GetMapping
-    public List<BookingDTO> getAllBookings() {
-        return bookingRepository.findAll()
-                .stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+    public ResponseEntity<List<BookingDTO>> getAllBookings(@RequestParam(required = false) String after,
+                                                           @RequestParam(required = false) Integer limit) {
+        PageCursor cursor = PageCursor.decode(after);
+        int pageSize = PageCursor.pageSize(limit);
+        List<Booking> rows = bookingRepository.findPageAfter(
+                cursor.getCreatedAt(), cursor.getId(), PageCursor.rowsFor(pageSize));
+        return PageCursor.toResponse(rows, pageSize, this::cursorOf, this::mapToDTO);
     }
 
     // Get only pending bookings (for drivers to see available ride requests)
     @GetMapping("/pending")
-    public List<BookingDTO> getPendingBookings() {
-        return bookingRepository.findAll()
-                .stream()
+    public ResponseEntity<List<BookingDTO>> getPendingBookings(@RequestParam(required = false) String after,
+                                                               @RequestParam(required = false) Integer limit) {
+        PageCursor cursor = PageCursor.decode(after);
+        int pageSize = PageCursor.pageSize(limit);
+        List<Booking> rows = bookingRepository.findPageByStatusAfter(Booking.BookingStatus.REQUESTED,
+                cursor.getCreatedAt(), cursor.getId(), PageCursor.rowsFor(pageSize));
+        return PageCursor.toResponse(rows, pageSize, this::cursorOf, this::mapToDTO);
+    }
+
+    // Live feed of booking changes (Server-Sent Events). Clients load /bookings/pending once, then apply
+    // the deltas; EventSource resends Last-Event-ID on reconnect, and a RESYNC event means reload.
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBookings(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+                                     @RequestParam(required = false) Long lastEventId) {
+        return bookingStreamService.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+
+    // Get pending bookings nearest to a driver's position (radius in miles), nearest first
+    @GetMapping("/pending/near")
+    public List<BookingDTO> getPendingBookingsNear(@RequestParam double lat,
+                                                   @RequestParam double lng,
+                                                   @RequestParam(defaultValue = "10") double radius,
+                                                   @RequestParam(defaultValue = "20") int limit) {
+        if (lat < -90 || lat > 90 || lng < -180 || lng > 180) {
+            throw new InvalidSearchException("❌ Invalid location: " + lat + ", " + lng);
+        }
+        // The search walks a ring of grid cells per cell-width of radius, so the radius is bounded
+        if (!(radius > 0) || radius > maxNearRadiusMiles) {
+            throw new InvalidSearchException("❌ radius must be greater than 0 and at most " + maxNearRadiusMiles + " miles");
+        }
+        List<Long> nearestIds = pendingBookingGeoIndex.findNearest(lat, lng, radius, PageCursor.pageSize(limit));
+        if (nearestIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Booking> bookingsById = bookingRepository.findByBookingIdIn(nearestIds).stream()
                 .filter(booking -> booking.getStatus() == Booking.BookingStatus.REQUESTED)
+                .collect(Collectors.toMap(Booking::getBookingId, booking -> booking));
+        return nearestIds.stream()
+                .map(bookingsById::get)
+                .filter(Objects::nonNull)
                 .map(this::mapToDTO)
                 .collect(Collectors.toList());
     }
@@ -106,7 +169,7 @@ public class BookingController {
                 .orElseThrow(() -> new BookingNotFoundException(bookingId));
 
         // Find the user who is accepting the booking
-        User acceptingDriver = userRepository.findById(driverId)
+        User acceptingDriver = entityCacheService.findUser(driverId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         // DUAL-ROLE SYSTEM: Allow any user to act as driver (except ADMIN)
@@ -124,21 +187,9 @@ public class BookingController {
             throw new RuntimeException("🚫 SELF-BOOKING BLOCKED: Same user detected attempting self-booking! Please use a different account to accept this booking.");
         }
 
-        // VALIDATION: Check if booking is already accepted
-        if (booking.getStatus() == Booking.BookingStatus.ACCEPTED) {
-            throw new RuntimeException("❌ BOOKING ALREADY ACCEPTED: This booking has already been accepted by another driver!");
-        }
-
-        // Update the ride to be assigned to the accepting driver
-        Ride ride = booking.getRide();
-        ride.setDriver(acceptingDriver);
-        
-        // Update ride status to CONFIRMED when a booking is accepted
-        ride.setStatus(Ride.RideStatus.CONFIRMED);
-        rideRepository.save(ride);
-
-        booking.setStatus(Booking.BookingStatus.ACCEPTED);
-        return mapToDTO(bookingRepository.save(booking));
+        // Exactly one concurrent accept wins; the others get 409 BOOKING ALREADY ACCEPTED
+        Booking acceptedBooking = bookingAcceptanceService.accept(booking, acceptingDriver);
+        return mapToDTO(acceptedBooking);
     }
 
     // Driver rejects booking
@@ -148,7 +199,7 @@ public class BookingController {
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
 
         // Verify the user exists and can act as driver
-        User driver = userRepository.findById(driverId)
+        User driver = entityCacheService.findUser(driverId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         // DUAL-ROLE SYSTEM: Allow any user to act as driver (except ADMIN)
@@ -156,15 +207,16 @@ public class BookingController {
             throw new RuntimeException("Admin users cannot reject bookings as drivers!");
         }
 
-        booking.setStatus(Booking.BookingStatus.REJECTED);
-        return mapToDTO(bookingRepository.save(booking));
+        // Conditional on the status read above, so a concurrent accept is never overwritten (409 instead)
+        Booking rejectedBooking = bookingAcceptanceService.changeStatus(booking, Booking.BookingStatus.REJECTED, BookingEvent.Type.REJECTED);
+        return mapToDTO(rejectedBooking);
     }
 
     // Get all bookings accepted by a specific driver
     @GetMapping("/drivers/{driverId}/accepted")
     public List<BookingDTO> getAcceptedBookingsByDriver(@PathVariable Long driverId) {
         // Find the driver
-        User driver = userRepository.findById(driverId)
+        User driver = entityCacheService.findUser(driverId)
                 .orElseThrow(() -> new RuntimeException("Driver not found"));
 
         if (!driver.getRole().equals(User.Role.DRIVER)) {
@@ -172,67 +224,39 @@ public class BookingController {
         }
 
         // Get all accepted bookings where this user is the driver
-        List<Booking> acceptedBookings = bookingRepository.findAll().stream()
-                .filter(booking -> booking.getStatus() == Booking.BookingStatus.ACCEPTED)
-                .filter(booking -> booking.getRide().getDriver() != null)
-                .filter(booking -> booking.getRide().getDriver().getUserId().equals(driverId))
-                .collect(Collectors.toList());
+        List<Booking> acceptedBookings = bookingRepository.findByStatusAndRideDriverUserId(
+                Booking.BookingStatus.ACCEPTED, driverId);
 
         return acceptedBookings.stream()
                 .map(this::mapToDTO)
                 .collect(Collectors.toList());
     }
 
+    // Copy the pickup coordinates out of the details JSON into the typed columns
+    private void setPickupCoordinates(Booking booking) {
+        double[] coordinates = LocationDetails.coordinatesOf(booking.getPickupLocationDetails());
+        booking.setPickupLatitude(coordinates != null ? coordinates[0] : null);
+        booking.setPickupLongitude(coordinates != null ? coordinates[1] : null);
+    }
+
+    private PageCursor cursorOf(Booking booking) {
+        return new PageCursor(booking.getCreatedAt(), booking.getBookingId());
+    }
+
     // Convert Booking -> BookingDTO
     private BookingDTO mapToDTO(Booking booking) {
-        BookingDTO dto = new BookingDTO();
-        dto.setBookingId(booking.getBookingId());
-        dto.setRideId(booking.getRide().getRideId());
-        dto.setRiderId(booking.getRider().getUserId());
-        dto.setPickupLocation(booking.getPickupLocation());
-        dto.setDropLocation(booking.getDropLocation());
-        dto.setRideTime(booking.getRideTime());
-        dto.setDistanceInMiles(booking.getDistanceInMiles());
-        dto.setFare(booking.getFare());
-        dto.setStatus(booking.getStatus().name());
-        
-        // Set additional user information
-        dto.setRiderName(booking.getRider().getName());
-        dto.setRiderPhone(booking.getRider().getPhoneNumber());
-        dto.setDriverName(booking.getRide().getDriver() != null ? booking.getRide().getDriver().getName() : "Looking for driver...");
-        dto.setDriverPhone(booking.getRide().getDriver() != null ? booking.getRide().getDriver().getPhoneNumber() : "N/A");
-        
-        // Set enhanced location data
-        dto.setPickupLocationDetails(booking.getPickupLocationDetails());
-        dto.setDropLocationDetails(booking.getDropLocationDetails());
-        
-        // Create RideDTO for nested ride information
-        RideDTO rideDTO = new RideDTO(
-            booking.getRide().getRideId(),
-            booking.getRide().getPickupLocation(),
-            booking.getRide().getDropLocation(),
-            booking.getRide().getPrice(),
-            booking.getRide().getStatus().name(),
-            booking.getRide().getDriver() != null ? booking.getRide().getDriver().getName() : "Looking for driver...",
-            booking.getRide().getDistanceInMiles(),
-            booking.getRide().getEstimatedDurationMinutes()
-        );
-        dto.setRide(rideDTO);
-        
-        return dto;
+        return BookingDTO.fromBooking(booking);
     }
 
     // Update booking details (only allowed for REQUESTED status)
     @PutMapping("/{bookingId}")
     public BookingDTO updateBooking(@PathVariable Long bookingId, @RequestBody BookingDTO bookingRequest) {
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new BookingNotFoundException("Booking not found with id: " + bookingId));
-        
-        // Only allow updates if booking is still in REQUESTED status
-        if (booking.getStatus() != Booking.BookingStatus.REQUESTED) {
-            throw new RuntimeException("Cannot update booking. Booking has already been " + booking.getStatus().name().toLowerCase());
-        }
-        
+        // Only allow updates if booking is still in REQUESTED status (409 otherwise, 404 if it is gone)
+        Booking updatedBooking = bookingAcceptanceService.updateRequested(bookingId, booking -> applyUpdate(booking, bookingRequest));
+        return mapToDTO(updatedBooking);
+    }
+
+    private void applyUpdate(Booking booking, BookingDTO bookingRequest) {
         // Update the booking details
         if (bookingRequest.getPickupLocation() != null) {
             booking.setPickupLocation(bookingRequest.getPickupLocation());
@@ -242,10 +266,18 @@ public class BookingController {
         }
         if (bookingRequest.getRideTime() != null) {
             booking.setRideTime(bookingRequest.getRideTime());
+            booking.setRideAt(RideTime.resolve(booking.getRideTime(), booking.getCreatedAt()));
         }
         if (bookingRequest.getFare() != null) {
             booking.setFare(bookingRequest.getFare());
         }
+        if (bookingRequest.getPickupLocationDetails() != null) {
+            booking.setPickupLocationDetails(bookingRequest.getPickupLocationDetails());
+            setPickupCoordinates(booking);
+        }
+        if (bookingRequest.getDropLocationDetails() != null) {
+            booking.setDropLocationDetails(bookingRequest.getDropLocationDetails());
+        }
         
         // Recalculate distance if locations changed
         if (bookingRequest.getPickupLocation() != null || bookingRequest.getDropLocation() != null) {
@@ -253,23 +285,13 @@ public class BookingController {
             double estimatedDistance = Math.random() * 10 + 1; // Random between 1-11 miles for demo
             booking.setDistanceInMiles(estimatedDistance);
         }
-        
-        Booking updatedBooking = bookingRepository.save(booking);
-        return mapToDTO(updatedBooking);
     }
 
     // Cancel/Delete booking (only allowed for REQUESTED status)
     @DeleteMapping("/{bookingId}")
     public String cancelBooking(@PathVariable Long bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new BookingNotFoundException("Booking not found with id: " + bookingId));
-        
-        // Only allow cancellation if booking is still in REQUESTED status
-        if (booking.getStatus() != Booking.BookingStatus.REQUESTED) {
-            throw new RuntimeException("Cannot cancel booking. Booking has already been " + booking.getStatus().name().toLowerCase());
-        }
-        
-        bookingRepository.delete(booking);
+        // Conditional delete: an accept that commits first makes this a 409 instead of losing the booking
+        bookingAcceptanceService.cancelRequested(bookingId);
         return "Booking cancelled successfully";
     }
 }
@@ -1,12 +1,19 @@
 package com.rideapp.ridebooking.controllers;
 
 import com.rideapp.ridebooking.dto.BookingDTO;
+import com.rideapp.ridebooking.dto.PageCursor;
 import com.rideapp.ridebooking.models.Booking;
 import com.rideapp.ridebooking.repositories.BookingRepository;
+import com.rideapp.ridebooking.services.BookingCounterService;
 import com.rideapp.ridebooking.services.BookingHistoryService;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -20,22 +27,54 @@ public class BookingHistoryController {
     @Autowired
     private BookingHistoryService bookingHistoryService;
 
-    // Get booking history for a specific user
+    @Autowired
+    private BookingCounterService bookingCounterService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // History scans run in read-only transactions (a read replica when datasource.replicas.enabled is set)
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    void createReadOnlyTransaction() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    // Get booking history for a specific user, optionally only one status (keyset paginated, next page
+    // cursor in X-Next-Cursor)
     @GetMapping("/user/{userId}")
-    public List<BookingDTO> getUserBookingHistory(@PathVariable Long userId) {
-        return bookingRepository.findAll()
-                .stream()
-                .filter(booking -> booking.getRider().getUserId().equals(userId))
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+    public ResponseEntity<List<BookingDTO>> getUserBookingHistory(@PathVariable Long userId,
+                                                                  @RequestParam(required = false) Booking.BookingStatus status,
+                                                                  @RequestParam(required = false) String after,
+                                                                  @RequestParam(required = false) Integer limit) {
+        return readOnlyTransaction.execute(tx -> userBookingHistory(userId, status, after, limit));
+    }
+
+    private ResponseEntity<List<BookingDTO>> userBookingHistory(Long userId, Booking.BookingStatus status,
+                                                                String after, Integer limit) {
+        PageCursor cursor = PageCursor.decode(after);
+        int pageSize = PageCursor.pageSize(limit);
+        List<Booking> rows = status == null
+                ? bookingRepository.findPageByRiderAfter(userId,
+                        cursor.getCreatedAt(), cursor.getId(), PageCursor.rowsFor(pageSize))
+                : bookingRepository.findPageByRiderAndStatusAfter(userId, status,
+                        cursor.getCreatedAt(), cursor.getId(), PageCursor.rowsFor(pageSize));
+        return PageCursor.toResponse(rows, pageSize,
+                booking -> new PageCursor(booking.getCreatedAt(), booking.getBookingId()), this::mapToDTO);
     }
 
     // Get all accepted bookings (2-day history)
     @GetMapping("/accepted")
     public List<BookingDTO> getAcceptedBookingsHistory() {
-        return bookingRepository.findAll()
+        return readOnlyTransaction.execute(tx -> acceptedBookingsHistory());
+    }
+
+    private List<BookingDTO> acceptedBookingsHistory() {
+        LocalDateTime historyStart = LocalDateTime.now().minusDays(2);
+        return bookingRepository.findByStatusAndCreatedAtAfter(Booking.BookingStatus.ACCEPTED, historyStart)
                 .stream()
-                .filter(booking -> booking.getStatus() == Booking.BookingStatus.ACCEPTED)
                 .map(this::mapToDTO)
                 .collect(Collectors.toList());
     }
@@ -46,46 +85,22 @@ public class BookingHistoryController {
         return bookingHistoryService.performManualCleanup();
     }
 
-    // Get booking statistics for all users (admin only)
+    // Get booking statistics for all users (admin only), served from the maintained counters
     @GetMapping("/stats")
     public BookingStats getBookingStats() {
-        List<Booking> allBookings = bookingRepository.findAll();
-        
-        long acceptedCount = allBookings.stream()
-                .filter(booking -> booking.getStatus() == Booking.BookingStatus.ACCEPTED)
-                .count();
-                
-        long requestedCount = allBookings.stream()
-                .filter(booking -> booking.getStatus() == Booking.BookingStatus.REQUESTED)
-                .count();
-                
-        long rejectedCount = allBookings.stream()
-                .filter(booking -> booking.getStatus() == Booking.BookingStatus.REJECTED)
-                .count();
-
-        return new BookingStats(allBookings.size(), acceptedCount, requestedCount, rejectedCount);
+        return new BookingStats((int) bookingCounterService.getTotalCount(),
+                bookingCounterService.getCount(Booking.BookingStatus.ACCEPTED),
+                bookingCounterService.getCount(Booking.BookingStatus.REQUESTED),
+                bookingCounterService.getCount(Booking.BookingStatus.REJECTED));
     }
 
-    // Get booking statistics for a specific user
+    // Get booking statistics for a specific user, served from the maintained counters
     @GetMapping("/user/{userId}/stats")
     public BookingStats getUserBookingStats(@PathVariable Long userId) {
-        List<Booking> userBookings = bookingRepository.findAll().stream()
-                .filter(booking -> booking.getRider().getUserId().equals(userId))
-                .collect(Collectors.toList());
-        
-        long acceptedCount = userBookings.stream()
-                .filter(booking -> booking.getStatus() == Booking.BookingStatus.ACCEPTED)
-                .count();
-                
-        long requestedCount = userBookings.stream()
-                .filter(booking -> booking.getStatus() == Booking.BookingStatus.REQUESTED)
-                .count();
-                
-        long rejectedCount = userBookings.stream()
-                .filter(booking -> booking.getStatus() == Booking.BookingStatus.REJECTED)
-                .count();
-
-        return new BookingStats(userBookings.size(), acceptedCount, requestedCount, rejectedCount);
+        return new BookingStats((int) bookingCounterService.getRiderTotalCount(userId),
+                bookingCounterService.getRiderCount(userId, Booking.BookingStatus.ACCEPTED),
+                bookingCounterService.getRiderCount(userId, Booking.BookingStatus.REQUESTED),
+                bookingCounterService.getRiderCount(userId, Booking.BookingStatus.REJECTED));
     }
 
     private BookingDTO mapToDTO(Booking booking) {
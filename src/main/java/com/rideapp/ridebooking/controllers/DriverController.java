@@ -0,0 +1,53 @@
+package com.rideapp.ridebooking.controllers;
+
+import com.rideapp.ridebooking.models.User;
+import com.rideapp.ridebooking.services.DriverLocationRegistry;
+import com.rideapp.ridebooking.services.EntityCacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/drivers")
+public class DriverController {
+
+    @Autowired
+    private EntityCacheService entityCacheService;
+
+    @Autowired
+    private DriverLocationRegistry driverLocationRegistry;
+
+    // Driver reports their position (and whether they can take a new ride) for automatic dispatch
+    @PutMapping("/{driverId}/location")
+    public Map<String, Object> updateLocation(@PathVariable Long driverId,
+                                              @RequestParam double lat,
+                                              @RequestParam double lng,
+                                              @RequestParam(defaultValue = "true") boolean available) {
+        User driver = entityCacheService.findUser(driverId)
+                .orElseThrow(() -> new RuntimeException("Driver not found"));
+
+        // DUAL-ROLE SYSTEM: Allow any user to act as driver (except ADMIN)
+        if (driver.getRole().equals(User.Role.ADMIN)) {
+            throw new RuntimeException("Admin users cannot act as drivers!");
+        }
+        if (lat < -90 || lat > 90 || lng < -180 || lng > 180) {
+            throw new RuntimeException("Invalid location");
+        }
+
+        driverLocationRegistry.update(driverId, lat, lng, available);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("driverId", driverId);
+        response.put("available", available);
+        return response;
+    }
+
+    // Driver goes offline
+    @DeleteMapping("/{driverId}/location")
+    public String clearLocation(@PathVariable Long driverId) {
+        driverLocationRegistry.remove(driverId);
+        return "Driver " + driverId + " is offline";
+    }
+}
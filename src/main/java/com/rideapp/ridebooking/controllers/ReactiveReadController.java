@@ -0,0 +1,49 @@
+package com.rideapp.ridebooking.controllers;
+
+import com.rideapp.ridebooking.dto.BookingDTO;
+import com.rideapp.ridebooking.dto.PageCursor;
+import com.rideapp.ridebooking.dto.RideDTO;
+import com.rideapp.ridebooking.exceptions.BookingNotFoundException;
+import com.rideapp.ridebooking.models.Booking;
+import com.rideapp.ridebooking.repositories.ReactiveReadRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Non-blocking versions of the hottest reads (GET /bookings/pending, /rides, /bookings/{id}).
+// Lists are streamed as newline-delimited JSON: each row is written as soon as it arrives and the
+// next one is requested only after the previous was written, so a slow client slows the query
+// instead of buffering it. No servlet thread or connection is held while waiting on the database.
+// Cursors are the X-Next-Cursor tokens of the blocking endpoints; without a limit the stream runs to the end.
+@RestController
+@RequestMapping("/reactive")
+@ConditionalOnProperty(name = "reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveReadController {
+
+    @Autowired
+    private ReactiveReadRepository reactiveReadRepository;
+
+    @GetMapping(value = "/bookings/pending", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BookingDTO> streamPendingBookings(@RequestParam(required = false) String after,
+                                                  @RequestParam(required = false) Integer limit) {
+        PageCursor cursor = PageCursor.decode(after);
+        return reactiveReadRepository.findBookingsByStatusAfter(Booking.BookingStatus.REQUESTED,
+                cursor.getCreatedAt(), cursor.getId(), limit != null ? PageCursor.pageSize(limit) : null);
+    }
+
+    @GetMapping(value = "/rides", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<RideDTO> streamRides(@RequestParam(required = false) String after,
+                                     @RequestParam(required = false) Integer limit) {
+        PageCursor cursor = PageCursor.decode(after);
+        return reactiveReadRepository.findRidesAfter(cursor.getId(), limit != null ? PageCursor.pageSize(limit) : null);
+    }
+
+    @GetMapping("/bookings/{id}")
+    public Mono<BookingDTO> getBooking(@PathVariable Long id) {
+        return reactiveReadRepository.findBookingById(id)
+                .switchIfEmpty(Mono.error(() -> new BookingNotFoundException(id)));
+    }
+}
@@ -1,16 +1,17 @@
 package com.rideapp.ridebooking.controllers;
 
+import com.rideapp.ridebooking.dto.PageCursor;
 import com.rideapp.ridebooking.dto.RideDTO;
 import com.rideapp.ridebooking.models.Ride;
 import com.rideapp.ridebooking.models.User;
 import com.rideapp.ridebooking.repositories.RideRepository;
-import com.rideapp.ridebooking.repositories.UserRepository;
+import com.rideapp.ridebooking.services.EntityCacheService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/rides")
@@ -20,12 +21,12 @@ public class RideController {
     private RideRepository rideRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private EntityCacheService entityCacheService;
 
     // ✅ Create ride (driver posts a ride)
     @PostMapping("/{driverId}")
     public RideDTO createRide(@PathVariable Long driverId, @RequestBody Ride ride) {
-        Optional<User> driver = userRepository.findById(driverId);
+        Optional<User> driver = entityCacheService.findUser(driverId);
         if (driver.isPresent()) {
             ride.setDriver(driver.get());
             ride.setStatus(Ride.RideStatus.PENDING);
@@ -36,19 +37,24 @@ public class RideController {
         }
     }
 
-    // ✅ Get all rides
+    // ✅ Get all rides, or only those in one status (keyset paginated, next page cursor in X-Next-Cursor)
     @GetMapping
-    public List<RideDTO> getAllRides() {
-        return rideRepository.findAll()
-                .stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+    public ResponseEntity<List<RideDTO>> getAllRides(@RequestParam(required = false) Ride.RideStatus status,
+                                                     @RequestParam(required = false) String after,
+                                                     @RequestParam(required = false) Integer limit) {
+        PageCursor cursor = PageCursor.decode(after);
+        int pageSize = PageCursor.pageSize(limit);
+        List<Ride> rows = status != null
+                ? rideRepository.findByStatusAndRideIdGreaterThanOrderByRideIdAsc(status, cursor.getId(), PageCursor.rowsFor(pageSize))
+                : rideRepository.findByRideIdGreaterThanOrderByRideIdAsc(cursor.getId(), PageCursor.rowsFor(pageSize));
+        return PageCursor.toResponse(rows, pageSize,
+                ride -> new PageCursor(null, ride.getRideId()), this::mapToDTO);
     }
 
     // ✅ Get ride by id
     @GetMapping("/{rideId}")
     public RideDTO getRideById(@PathVariable Long rideId) {
-        Ride ride = rideRepository.findById(rideId)
+        Ride ride = entityCacheService.findRide(rideId)
                 .orElseThrow(() -> new RuntimeException("Ride not found with id: " + rideId));
         return mapToDTO(ride);
     }
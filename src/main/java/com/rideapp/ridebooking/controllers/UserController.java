@@ -1,9 +1,12 @@
 package com.rideapp.ridebooking.controllers;
 
 
+import com.rideapp.ridebooking.dto.PageCursor;
 import com.rideapp.ridebooking.models.User;
 import com.rideapp.ridebooking.repositories.UserRepository;
+import com.rideapp.ridebooking.services.EntityCacheService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -16,16 +19,27 @@ public class UserController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private EntityCacheService entityCacheService;
+
     // Create user
     @PostMapping
     public User createUser(@RequestBody User user) {
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        // The body may carry an existing userId, which makes this an update
+        entityCacheService.evictUser(savedUser.getUserId());
+        return savedUser;
     }
 
-    // Get all users
+    // Get all users (keyset paginated, next page cursor in X-Next-Cursor)
     @GetMapping
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public ResponseEntity<List<User>> getAllUsers(@RequestParam(required = false) String after,
+                                                  @RequestParam(required = false) Integer limit) {
+        PageCursor cursor = PageCursor.decode(after);
+        int pageSize = PageCursor.pageSize(limit);
+        List<User> rows = userRepository.findByUserIdGreaterThanOrderByUserIdAsc(
+                cursor.getId(), PageCursor.rowsFor(pageSize));
+        return PageCursor.toResponse(rows, pageSize, user -> new PageCursor(null, user.getUserId()), user -> user);
     }
 
     // Get user by id
@@ -34,10 +48,19 @@ public class UserController {
         return userRepository.findById(id);
     }
 
+    // Get user by phone number (404 when there is none)
+    @GetMapping("/by-phone/{phoneNumber}")
+    public ResponseEntity<User> getUserByPhone(@PathVariable String phoneNumber) {
+        return entityCacheService.findUserByPhone(phoneNumber)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     // Delete user by id
     @DeleteMapping("/{id}")
     public String deleteUser(@PathVariable Long id) {
         userRepository.deleteById(id);
+        entityCacheService.evictUser(id);
         return "User deleted with id " + id;
     }
 }
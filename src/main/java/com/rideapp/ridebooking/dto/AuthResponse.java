@@ -7,6 +7,7 @@ public class AuthResponse {
     private String fullName;
     private String mobileNumber;
     private String role;
+    private String token; // Signed session token, sent back as "Authorization: Bearer <token>"
 
     // Constructors
     public AuthResponse() {}
@@ -81,4 +82,12 @@ public class AuthResponse {
     public void setRole(String role) {
         this.role = role;
     }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
 }
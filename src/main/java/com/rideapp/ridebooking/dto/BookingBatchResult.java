@@ -0,0 +1,35 @@
+package com.rideapp.ridebooking.dto;
+
+// Outcome of one item of POST /bookings/batch, in request order: CREATED with the booking, or
+// FAILED with the reason. Failed items do not stop the rest of the batch.
+public class BookingBatchResult {
+    private int index;
+    private String status;
+    private String error;
+    private BookingDTO booking;
+
+    public static BookingBatchResult created(int index, BookingDTO booking) {
+        BookingBatchResult result = new BookingBatchResult();
+        result.index = index;
+        result.status = "CREATED";
+        result.booking = booking;
+        return result;
+    }
+
+    public static BookingBatchResult failed(int index, String error) {
+        BookingBatchResult result = new BookingBatchResult();
+        result.index = index;
+        result.status = "FAILED";
+        result.error = error;
+        return result;
+    }
+
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+    public BookingDTO getBooking() { return booking; }
+    public void setBooking(BookingDTO booking) { this.booking = booking; }
+}
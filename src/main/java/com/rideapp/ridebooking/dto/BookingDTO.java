@@ -1,5 +1,7 @@
 package com.rideapp.ridebooking.dto;
 
+import com.rideapp.ridebooking.models.Booking;
+
 public class BookingDTO {
     private Long bookingId;
     private Long rideId;
@@ -36,6 +38,45 @@ public class BookingDTO {
         this.driverPhone = driverPhone;
     }
 
+    // Booking entity -> response DTO, shared by BookingController and the booking stream
+    public static BookingDTO fromBooking(Booking booking) {
+        BookingDTO dto = new BookingDTO();
+        dto.setBookingId(booking.getBookingId());
+        dto.setRideId(booking.getRide().getRideId());
+        dto.setRiderId(booking.getRider().getUserId());
+        dto.setPickupLocation(booking.getPickupLocation());
+        dto.setDropLocation(booking.getDropLocation());
+        dto.setRideTime(booking.getRideTime());
+        dto.setDistanceInMiles(booking.getDistanceInMiles());
+        dto.setFare(booking.getFare());
+        dto.setStatus(booking.getStatus().name());
+        
+        // Set additional user information
+        dto.setRiderName(booking.getRider().getName());
+        dto.setRiderPhone(booking.getRider().getPhoneNumber());
+        dto.setDriverName(booking.getRide().getDriver() != null ? booking.getRide().getDriver().getName() : "Looking for driver...");
+        dto.setDriverPhone(booking.getRide().getDriver() != null ? booking.getRide().getDriver().getPhoneNumber() : "N/A");
+        
+        // Set enhanced location data
+        dto.setPickupLocationDetails(booking.getPickupLocationDetails());
+        dto.setDropLocationDetails(booking.getDropLocationDetails());
+        
+        // Create RideDTO for nested ride information
+        RideDTO rideDTO = new RideDTO(
+            booking.getRide().getRideId(),
+            booking.getRide().getPickupLocation(),
+            booking.getRide().getDropLocation(),
+            booking.getRide().getPrice(),
+            booking.getRide().getStatus().name(),
+            booking.getRide().getDriver() != null ? booking.getRide().getDriver().getName() : "Looking for driver...",
+            booking.getRide().getDistanceInMiles(),
+            booking.getRide().getEstimatedDurationMinutes()
+        );
+        dto.setRide(rideDTO);
+        
+        return dto;
+    }
+
     // Getters and Setters
     public Long getBookingId() { return bookingId; }
     public void setBookingId(Long bookingId) { this.bookingId = bookingId; }
@@ -0,0 +1,69 @@
+package com.rideapp.ridebooking.dto;
+
+import java.time.LocalDateTime;
+
+// One decoded booking journal record. The booking fields are only set when the event carried the
+// booking itself; bulk deletes journal just the key columns.
+public class BookingJournalEntry {
+    private long sequence;
+    private long timestamp;
+    private String type;
+    private Long bookingId;
+    private Long riderId;
+    private String previousStatus;
+    private String status;
+    private Long rideId;
+    private Long driverId;
+    private String pickupLocation;
+    private String dropLocation;
+    private String rideTime;
+    private Double distanceInMiles;
+    private Double fare;
+    private LocalDateTime createdAt;
+    private LocalDateTime rideAt;
+    private Double pickupLatitude;
+    private Double pickupLongitude;
+    private String pickupLocationDetails;
+    private String dropLocationDetails;
+
+    public long getSequence() { return sequence; }
+    public void setSequence(long sequence) { this.sequence = sequence; }
+    public long getTimestamp() { return timestamp; }
+    public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public Long getBookingId() { return bookingId; }
+    public void setBookingId(Long bookingId) { this.bookingId = bookingId; }
+    public Long getRiderId() { return riderId; }
+    public void setRiderId(Long riderId) { this.riderId = riderId; }
+    public String getPreviousStatus() { return previousStatus; }
+    public void setPreviousStatus(String previousStatus) { this.previousStatus = previousStatus; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public Long getRideId() { return rideId; }
+    public void setRideId(Long rideId) { this.rideId = rideId; }
+    public Long getDriverId() { return driverId; }
+    public void setDriverId(Long driverId) { this.driverId = driverId; }
+    public String getPickupLocation() { return pickupLocation; }
+    public void setPickupLocation(String pickupLocation) { this.pickupLocation = pickupLocation; }
+    public String getDropLocation() { return dropLocation; }
+    public void setDropLocation(String dropLocation) { this.dropLocation = dropLocation; }
+    public String getRideTime() { return rideTime; }
+    public void setRideTime(String rideTime) { this.rideTime = rideTime; }
+    public Double getDistanceInMiles() { return distanceInMiles; }
+    public void setDistanceInMiles(Double distanceInMiles) { this.distanceInMiles = distanceInMiles; }
+    public Double getFare() { return fare; }
+    public void setFare(Double fare) { this.fare = fare; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getRideAt() { return rideAt; }
+    public void setRideAt(LocalDateTime rideAt) { this.rideAt = rideAt; }
+    public Double getPickupLatitude() { return pickupLatitude; }
+    public void setPickupLatitude(Double pickupLatitude) { this.pickupLatitude = pickupLatitude; }
+    public Double getPickupLongitude() { return pickupLongitude; }
+    public void setPickupLongitude(Double pickupLongitude) { this.pickupLongitude = pickupLongitude; }
+    public String getPickupLocationDetails() { return pickupLocationDetails; }
+    public void setPickupLocationDetails(String pickupLocationDetails) { this.pickupLocationDetails = pickupLocationDetails; }
+    public String getDropLocationDetails() { return dropLocationDetails; }
+    public void setDropLocationDetails(String dropLocationDetails) { this.dropLocationDetails = dropLocationDetails; }
+}
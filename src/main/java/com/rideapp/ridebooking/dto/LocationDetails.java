@@ -0,0 +1,36 @@
+package com.rideapp.ridebooking.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Reads the coordinates out of the location details JSON sent by the frontend,
+// e.g. {"name": "...", "placeId": "...", "coordinates": {"lat": 35.1, "lng": -89.9}}
+public final class LocationDetails {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private LocationDetails() {}
+
+    // Returns {lat, lng}, or null when the JSON is missing, malformed or has no usable coordinates
+    public static double[] coordinatesOf(String detailsJson) {
+        if (detailsJson == null || detailsJson.isBlank()) {
+            return null;
+        }
+        try {
+            JsonNode coordinates = MAPPER.readTree(detailsJson).path("coordinates");
+            JsonNode lat = coordinates.path("lat");
+            JsonNode lng = coordinates.path("lng");
+            if (!lat.isNumber() || !lng.isNumber()) {
+                return null;
+            }
+            double latitude = lat.asDouble();
+            double longitude = lng.asDouble();
+            if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+                return null;
+            }
+            return new double[] { latitude, longitude };
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
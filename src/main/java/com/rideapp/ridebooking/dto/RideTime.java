@@ -0,0 +1,36 @@
+package com.rideapp.ridebooking.dto;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+
+// Turns the free-form rideTime string sent by the frontend into a timestamp once, when the
+// booking is saved. Accepted forms: "HH:mm" from <input type="time"> (taken as that time on the
+// day the booking was made, like the old cleanup sweeps assumed), an ISO local date-time
+// ("2030-01-01T10:00") and an ISO instant or offset date-time ("2030-01-01T16:00:00.000Z").
+public final class RideTime {
+
+    private RideTime() {}
+
+    // Returns null when rideTime is missing or in none of the accepted forms
+    public static LocalDateTime resolve(String rideTime, LocalDateTime bookedAt) {
+        if (rideTime == null || rideTime.isBlank()) {
+            return null;
+        }
+        String value = rideTime.trim();
+        try {
+            if (value.indexOf('T') < 0) {
+                return bookedAt.toLocalDate().atTime(LocalTime.parse(value));
+            }
+            char last = value.charAt(value.length() - 1);
+            if (last == 'Z' || value.lastIndexOf('+') > value.indexOf('T') || value.lastIndexOf('-') > value.indexOf('T')) {
+                return OffsetDateTime.parse(value).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+            }
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
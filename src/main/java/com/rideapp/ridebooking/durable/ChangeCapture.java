@@ -0,0 +1,221 @@
+package com.rideapp.ridebooking.durable;
+
+import com.rideapp.ridebooking.journal.Journal;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Row-level change log of the database for durable mode. A trigger on every table (ChangeCaptureTrigger)
+// hands each inserted, updated or deleted row to capture(). Inside a Hibernate transaction (which is
+// every Spring-managed one) the rows are buffered per thread and appended as one record by
+// ChangeCaptureInterceptor just before the commit - after Hibernate's flush, while the row locks are
+// still held, so the log orders conflicting transactions the way the database did. Statements run
+// outside one (auto-commit JDBC) are appended right away.
+//
+// Records: SCHEMA lists the tables and their columns (written at every start), CHANGES holds one
+// transaction's rows as (table index, UPSERT + every column | DELETE + primary key columns), ABORT
+// holds the sequence of a CHANGES record whose commit then failed, which replay must skip.
+public class ChangeCapture {
+
+    static final byte SCHEMA = 1;
+    static final byte CHANGES = 2;
+    static final byte ABORT = 3;
+    static final byte UPSERT = 1;
+    static final byte DELETE = 2;
+    static final String TRIGGER_PREFIX = "DURABLE_";
+
+    // Triggers are instantiated by H2, and find their capture through the id in their name
+    private static final AtomicInteger IDS = new AtomicInteger();
+    private static final Map<Integer, ChangeCapture> CAPTURES = new ConcurrentHashMap<>();
+    private static final int MAX_RETAINED_BUFFER = 1024 * 1024;
+
+    private final int id = IDS.incrementAndGet();
+    private final ThreadLocal<Pending> pending = ThreadLocal.withInitial(Pending::new);
+    // Sequences appended before their commit completed
+    private final ConcurrentSkipListSet<Long> uncommitted = new ConcurrentSkipListSet<>();
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    private volatile Journal log;
+    private volatile Map<String, TableSchema> tables = Map.of();
+    private volatile Map<String, Integer> tableIndexes = Map.of();
+
+    static ChangeCapture byTriggerName(String triggerName) {
+        int end = triggerName.indexOf('_', TRIGGER_PREFIX.length());
+        return CAPTURES.get(Integer.parseInt(triggerName.substring(TRIGGER_PREFIX.length(), end)));
+    }
+
+    // Logs the schema and puts a trigger on every table; changes from then on are captured
+    public void start(Journal log, Connection connection, List<TableSchema> schemas) throws SQLException {
+        Map<String, TableSchema> byName = new HashMap<>();
+        Map<String, Integer> indexes = new HashMap<>();
+        RowCodec.Buffer buffer = new RowCodec.Buffer(1024);
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeShort(schemas.size());
+            for (int i = 0; i < schemas.size(); i++) {
+                TableSchema table = schemas.get(i);
+                table.write(out);
+                byName.put(table.name, table);
+                indexes.put(table.name, i);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.tables = byName;
+        this.tableIndexes = indexes;
+        this.log = log;
+        CAPTURES.put(id, this);
+        log.append(SCHEMA, buffer.asByteBuffer());
+
+        try (Statement statement = connection.createStatement()) {
+            for (TableSchema table : schemas) {
+                statement.execute("create trigger if not exists " + TableSchema.quote(TRIGGER_PREFIX + id + "_" + table.name) +
+                        " after insert, update, delete on " + TableSchema.quote(table.name) +
+                        " for each row call '" + ChangeCaptureTrigger.class.getName() + "'");
+            }
+        }
+    }
+
+    public void stop() {
+        CAPTURES.remove(id);
+        log = null;
+    }
+
+    void capture(String table, Object[] oldRow, Object[] newRow) throws IOException {
+        Journal current = log;
+        Integer index = tableIndexes.get(table);
+        if (current == null || index == null) {
+            return;
+        }
+        TableSchema schema = tables.get(table);
+        Pending state = pending.get();
+        boolean autoCommit = !state.inTransaction;
+        DataOutputStream out = autoCommit ? state.statementOut : state.transactionOut;
+        if (oldRow != null && (newRow == null || !samePrimaryKey(schema, oldRow, newRow))) {
+            out.writeByte(index);
+            out.writeByte(DELETE);
+            for (int column : schema.primaryKey) {
+                RowCodec.writeValue(out, oldRow[column]);
+            }
+        }
+        if (newRow != null) {
+            out.writeByte(index);
+            out.writeByte(UPSERT);
+            for (Object value : newRow) {
+                RowCodec.writeValue(out, value);
+            }
+        }
+        if (autoCommit) {
+            current.append(CHANGES, state.statement.asByteBuffer());
+            state.statement.reset();
+        }
+    }
+
+    void afterBegin() {
+        pending.get().inTransaction = true;
+    }
+
+    // Hibernate is about to commit: log what this transaction changed
+    void beforeCommit() {
+        Journal current = log;
+        Pending state = pending.get();
+        if (current == null || state.transaction.size() == 0) {
+            return;
+        }
+        long sequence;
+        appendLock.lock();
+        try {
+            sequence = current.append(CHANGES, state.transaction.asByteBuffer());
+            uncommitted.add(sequence);
+        } finally {
+            appendLock.unlock();
+        }
+        state.clearTransaction();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Spring reports whether the JDBC commit went through once it is done
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    completed(sequence, status == STATUS_COMMITTED);
+                }
+            });
+        } else {
+            state.sequence = sequence;
+        }
+    }
+
+    // Hibernate is done with the transaction. A transaction rolled back before beforeCommit logged nothing
+    void afterCompletion(boolean committed) {
+        Pending state = pending.get();
+        state.inTransaction = false;
+        if (state.sequence != 0) {
+            completed(state.sequence, committed);
+            state.sequence = 0;
+        }
+        state.clearTransaction();
+    }
+
+    // A logged transaction whose commit failed has its CHANGES record cancelled by an ABORT record,
+    // appended before a snapshot's replay point can move past it
+    private void completed(long sequence, boolean committed) {
+        Journal current = log;
+        if (!committed && current != null) {
+            current.append(ABORT, ByteBuffer.allocate(Long.BYTES).putLong(0, sequence));
+        }
+        uncommitted.remove(sequence);
+    }
+
+    // First sequence a snapshot taken from now on has to replay: every record before it belongs to a
+    // transaction that has already committed
+    long replayPoint() {
+        appendLock.lock();
+        try {
+            long next = log.getLastSequence() + 1;
+            return uncommitted.isEmpty() ? next : Math.min(uncommitted.first(), next);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private static boolean samePrimaryKey(TableSchema schema, Object[] oldRow, Object[] newRow) {
+        for (int column : schema.primaryKey) {
+            if (!Objects.equals(oldRow[column], newRow[column])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Pending {
+        RowCodec.Buffer transaction = new RowCodec.Buffer(512);
+        DataOutputStream transactionOut = new DataOutputStream(transaction);
+        final RowCodec.Buffer statement = new RowCodec.Buffer(512);
+        final DataOutputStream statementOut = new DataOutputStream(statement);
+        boolean inTransaction;
+        long sequence;
+
+        // Drops the buffer after a very large transaction instead of keeping it per thread
+        void clearTransaction() {
+            if (transaction.capacity() > MAX_RETAINED_BUFFER) {
+                transaction = new RowCodec.Buffer(512);
+                transactionOut = new DataOutputStream(transaction);
+            } else {
+                transaction.reset();
+            }
+        }
+    }
+}
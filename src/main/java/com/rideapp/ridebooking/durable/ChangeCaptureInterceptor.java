@@ -0,0 +1,32 @@
+package com.rideapp.ridebooking.durable;
+
+import org.hibernate.Interceptor;
+import org.hibernate.Transaction;
+
+// Hibernate calls beforeTransactionCompletion after its commit-time flush and before the JDBC commit,
+// the one point where a transaction's rows are all known and still locked
+public class ChangeCaptureInterceptor implements Interceptor {
+
+    private final ChangeCapture capture;
+
+    public ChangeCaptureInterceptor(ChangeCapture capture) {
+        this.capture = capture;
+    }
+
+    @Override
+    public void afterTransactionBegin(Transaction transaction) {
+        capture.afterBegin();
+    }
+
+    @Override
+    public void beforeTransactionCompletion(Transaction transaction) {
+        capture.beforeCommit();
+    }
+
+    @Override
+    public void afterTransactionCompletion(Transaction transaction) {
+        // Hibernate has reset the status by now; the outcome of a Spring-managed commit reaches
+        // ChangeCapture through the synchronization it registered in beforeCommit
+        capture.afterCompletion(true);
+    }
+}
@@ -0,0 +1,34 @@
+package com.rideapp.ridebooking.durable;
+
+import org.h2.api.Trigger;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Row trigger installed on every table in durable mode (see ChangeCapture). H2 runs it on the thread
+// executing the statement, which is what lets ChangeCapture buffer rows per transaction (the
+// connection H2 passes in always reports auto-commit off, so it cannot tell).
+public class ChangeCaptureTrigger implements Trigger {
+
+    private ChangeCapture capture;
+    private String table;
+
+    @Override
+    public void init(Connection connection, String schemaName, String triggerName, String tableName, boolean before, int type) {
+        this.capture = ChangeCapture.byTriggerName(triggerName);
+        this.table = tableName;
+    }
+
+    @Override
+    public void fire(Connection connection, Object[] oldRow, Object[] newRow) throws SQLException {
+        if (capture == null) {
+            return;
+        }
+        try {
+            capture.capture(table, oldRow, newRow);
+        } catch (IOException e) {
+            throw new SQLException("Cannot log the change to " + table, e);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.rideapp.ridebooking.durable;
+
+import com.rideapp.ridebooking.journal.Journal;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Durable mode for the in-memory H2 database: <dir>/changes holds the change log (a Journal fed by
+// ChangeCapture) and <dir>/snapshots the periodic snapshots. start() restores the database from the
+// newest snapshot plus the log after it and turns capture on; snapshot() writes a new snapshot and
+// drops the log segments and snapshots nothing would replay any more.
+public class DurableState implements AutoCloseable {
+
+    // H2's SNAPSHOT isolation level: every read sees the database as of the transaction's first read
+    private static final int TRANSACTION_SNAPSHOT = 6;
+    // Auto-commit statements log their rows just before committing; a snapshot waits this long so
+    // that everything logged before its replay point is visible to it
+    private static final long AUTO_COMMIT_GRACE_MS = 50;
+
+    private final Path snapshotDirectory;
+    private final Path logDirectory;
+    private final ChangeCapture capture;
+    private final int segmentSize;
+    private final Journal.FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalMillis;
+    private final int snapshotsKept;
+
+    private Journal changeLog;
+    private List<TableSchema> tables;
+    private Map<String, Object> restoreStats = Map.of();
+    private Map<String, Object> lastSnapshot = Map.of();
+    private volatile long lastReplayPoint;
+    private volatile long lastSnapshotAt = System.currentTimeMillis();
+    // One snapshot at a time (scheduled, change-count triggered and at shutdown)
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+
+    public DurableState(Path directory, ChangeCapture capture, int segmentSize, Journal.FsyncPolicy fsyncPolicy,
+                        long fsyncIntervalMillis, int snapshotsKept) {
+        this.snapshotDirectory = directory.resolve("snapshots");
+        this.logDirectory = directory.resolve("changes");
+        this.capture = capture;
+        this.segmentSize = segmentSize;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalMillis = fsyncIntervalMillis;
+        this.snapshotsKept = Math.max(1, snapshotsKept);
+    }
+
+    // Restores the (empty, freshly created) database and starts capturing changes
+    public Map<String, Object> start(DataSource dataSource) throws IOException, SQLException {
+        Files.createDirectories(snapshotDirectory);
+        changeLog = Journal.open(logDirectory, segmentSize, fsyncPolicy, fsyncIntervalMillis);
+        try (Connection connection = dataSource.getConnection()) {
+            String product = connection.getMetaData().getDatabaseProductName();
+            if (!"H2".equals(product)) {
+                throw new IllegalStateException("Durable mode keeps an in-memory H2 database, not " + product);
+            }
+            restoreStats = new StateRestorer(snapshotDirectory, logDirectory).restore(connection);
+            lastReplayPoint = (Long) restoreStats.get("replayFrom");
+            tables = TableSchema.loadAll(connection);
+            capture.start(changeLog, connection, tables);
+        }
+        return restoreStats;
+    }
+
+    // Writes a snapshot unless nothing was logged since the last one; returns what it did
+    public Map<String, Object> snapshot(DataSource dataSource) throws IOException, SQLException {
+        snapshotLock.lock();
+        try {
+            return takeSnapshot(dataSource);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    private Map<String, Object> takeSnapshot(DataSource dataSource) throws IOException, SQLException {
+        long replayPoint = capture.replayPoint();
+        if (replayPoint == lastReplayPoint && Files.exists(snapshotDirectory.resolve(String.format("snapshot-%020d.bin", replayPoint)))) {
+            lastSnapshotAt = System.currentTimeMillis();
+            return lastSnapshot;
+        }
+        try {
+            Thread.sleep(AUTO_COMMIT_GRACE_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long startedAt = System.nanoTime();
+        long rows;
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            int isolation = connection.getTransactionIsolation();
+            connection.setAutoCommit(false);
+            connection.setTransactionIsolation(TRANSACTION_SNAPSHOT);
+            try {
+                rows = Snapshots.write(snapshotDirectory, connection, tables, replayPoint);
+                connection.commit();
+            } finally {
+                connection.setTransactionIsolation(isolation);
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+
+        // Keep the newest few snapshots and the log from the oldest of them on
+        List<Path> snapshots = Snapshots.list(snapshotDirectory);
+        for (Path old : snapshots.subList(Math.min(snapshotsKept, snapshots.size()), snapshots.size())) {
+            Files.deleteIfExists(old);
+        }
+        long oldestKept = Snapshots.replayPointOf(snapshots.get(Math.min(snapshotsKept, snapshots.size()) - 1));
+        int segmentsDeleted = changeLog.deleteSegmentsBefore(oldestKept);
+
+        lastReplayPoint = replayPoint;
+        lastSnapshotAt = System.currentTimeMillis();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("replayPoint", replayPoint);
+        stats.put("rows", rows);
+        stats.put("snapshotMs", (System.nanoTime() - startedAt) / 1_000_000);
+        stats.put("logSegmentsDeleted", segmentsDeleted);
+        lastSnapshot = stats;
+        return stats;
+    }
+
+    // Change-log records a restart would replay on top of the newest snapshot
+    public long changesSinceSnapshot() {
+        return changeLog.getLastSequence() + 1 - lastReplayPoint;
+    }
+
+    public long millisSinceSnapshot() {
+        return System.currentTimeMillis() - lastSnapshotAt;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("restore", restoreStats);
+        stats.put("lastSnapshot", lastSnapshot);
+        stats.put("changesSinceSnapshot", changesSinceSnapshot());
+        stats.put("changeLog", changeLog.stats());
+        return stats;
+    }
+
+    @Override
+    public void close() throws IOException {
+        capture.stop();
+        if (changeLog != null) {
+            changeLog.close();
+        }
+    }
+}
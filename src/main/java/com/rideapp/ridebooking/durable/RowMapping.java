@@ -0,0 +1,80 @@
+package com.rideapp.ridebooking.durable;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Binds rows recorded with a logged TableSchema to the columns the table has now. Columns that no
+// longer exist are skipped and new ones keep their defaults.
+final class RowMapping {
+
+    private final String table;
+    private final List<String> columns = new ArrayList<>();
+    private final int[] loggedIndexes;
+    private final List<String> keyColumns = new ArrayList<>();
+
+    private RowMapping(TableSchema logged, TableSchema current) {
+        this.table = current.name;
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < logged.columns.size(); i++) {
+            if (current.indexOf(logged.columns.get(i)) >= 0) {
+                columns.add(logged.columns.get(i));
+                indexes.add(i);
+            }
+        }
+        this.loggedIndexes = indexes.stream().mapToInt(Integer::intValue).toArray();
+        for (int column : logged.primaryKey) {
+            keyColumns.add(logged.columns.get(column));
+        }
+    }
+
+    // null when the table is gone or its primary key changed
+    static RowMapping of(TableSchema logged, TableSchema current) {
+        if (current == null) {
+            return null;
+        }
+        for (int column : current.primaryKey) {
+            if (logged.indexOf(current.columns.get(column)) < 0) {
+                return null;
+            }
+        }
+        return new RowMapping(logged, current);
+    }
+
+    String insertSql() {
+        return "insert into " + TableSchema.quote(table) + " (" + columnList(columns) + ") values (" + placeholders(columns.size()) + ")";
+    }
+
+    String mergeSql() {
+        return "merge into " + TableSchema.quote(table) + " (" + columnList(columns) + ") key (" + columnList(keyColumns) +
+                ") values (" + placeholders(columns.size()) + ")";
+    }
+
+    String deleteSql() {
+        return "delete from " + TableSchema.quote(table) + " where " +
+                keyColumns.stream().map(column -> TableSchema.quote(column) + " = ?").collect(Collectors.joining(" and "));
+    }
+
+    void bindRow(PreparedStatement statement, Object[] loggedRow) throws SQLException {
+        for (int i = 0; i < loggedIndexes.length; i++) {
+            statement.setObject(i + 1, loggedRow[loggedIndexes[i]]);
+        }
+    }
+
+    void bindKey(PreparedStatement statement, Object[] key) throws SQLException {
+        for (int i = 0; i < key.length; i++) {
+            statement.setObject(i + 1, key[i]);
+        }
+    }
+
+    private static String columnList(List<String> columns) {
+        return columns.stream().map(TableSchema::quote).collect(Collectors.joining(", "));
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
@@ -0,0 +1,176 @@
+package com.rideapp.ridebooking.durable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+// Binary snapshot files of every table, named snapshot-<replay point>.bin:
+//   magic, version, replay point (first change-log sequence not reflected in the rows), created at,
+//   then per table its schema and rows (1 + one RowCodec value per column), ended by 0,
+//   and a CRC32C of everything before it. A file is written under a temporary name and renamed
+//   once complete, so a crash never leaves a partial snapshot behind.
+final class Snapshots {
+
+    private static final int MAGIC = 0x52425353;
+    private static final int VERSION = 1;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+    private static final int BATCH_SIZE = 1000;
+
+    private Snapshots() {
+    }
+
+    // Writes the rows visible to the connection's transaction; returns the number of rows
+    static long write(Path directory, Connection connection, List<TableSchema> tables, long replayPoint) throws IOException, SQLException {
+        Files.createDirectories(directory);
+        Path target = directory.resolve(String.format("%s%020d%s", PREFIX, replayPoint, SUFFIX));
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        CRC32C crc = new CRC32C();
+        long rows = 0;
+        try (OutputStream file = Files.newOutputStream(temporary)) {
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(file, 64 * 1024), crc));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(replayPoint);
+            out.writeLong(System.currentTimeMillis());
+            out.writeShort(tables.size());
+            for (TableSchema table : tables) {
+                table.write(out);
+                String columns = table.columns.stream().map(TableSchema::quote).collect(Collectors.joining(", "));
+                try (Statement statement = connection.createStatement()) {
+                    statement.setFetchSize(BATCH_SIZE);
+                    try (ResultSet result = statement.executeQuery("select " + columns + " from " + TableSchema.quote(table.name))) {
+                        while (result.next()) {
+                            out.writeByte(1);
+                            for (int i = 1; i <= table.columns.size(); i++) {
+                                RowCodec.writeValue(out, result.getObject(i));
+                            }
+                            rows++;
+                        }
+                    }
+                }
+                out.writeByte(0);
+            }
+            // The checksum itself is not part of what it covers
+            out.flush();
+            new DataOutputStream(file).writeInt((int) crc.getValue());
+        }
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return rows;
+    }
+
+    // Snapshot files, newest first
+    static List<Path> list(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted(Comparator.comparing(Path::getFileName).reversed())
+                    .collect(Collectors.toList());
+        }
+    }
+
+    static long replayPointOf(Path snapshot) {
+        String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    // Reads the whole file once to check it is complete and intact
+    static boolean isValid(Path snapshot) {
+        try (InputStream file = new BufferedInputStream(Files.newInputStream(snapshot), 64 * 1024)) {
+            long size = Files.size(snapshot);
+            if (size < 4) {
+                return false;
+            }
+            CRC32C crc = new CRC32C();
+            byte[] chunk = new byte[64 * 1024];
+            long remaining = size - 4;
+            while (remaining > 0) {
+                int read = file.read(chunk, 0, (int) Math.min(chunk.length, remaining));
+                if (read < 0) {
+                    return false;
+                }
+                crc.update(chunk, 0, read);
+                remaining -= read;
+            }
+            return new DataInputStream(file).readInt() == (int) crc.getValue();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // Inserts the snapshot's rows into the (empty) tables of the same name, matching columns by name
+    static Loaded load(Path snapshot, Connection connection, Map<String, TableSchema> current) throws IOException, SQLException {
+        Loaded loaded = new Loaded();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot), 64 * 1024))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a snapshot: " + snapshot);
+            }
+            in.readLong();
+            in.readLong();
+            for (int tableCount = in.readShort(); tableCount > 0; tableCount--) {
+                TableSchema logged = TableSchema.read(in);
+                loaded.tables.add(logged);
+                RowMapping mapping = RowMapping.of(logged, current.get(logged.name));
+                Object[] row = new Object[logged.columns.size()];
+                try (PreparedStatement insert = mapping != null ? connection.prepareStatement(mapping.insertSql()) : null) {
+                    int batched = 0;
+                    while (in.readByte() == 1) {
+                        for (int i = 0; i < row.length; i++) {
+                            row[i] = RowCodec.readValue(in);
+                        }
+                        if (insert == null) {
+                            continue;
+                        }
+                        mapping.bindRow(insert, row);
+                        insert.addBatch();
+                        loaded.rows++;
+                        if (++batched == BATCH_SIZE) {
+                            insert.executeBatch();
+                            batched = 0;
+                        }
+                    }
+                    if (batched > 0) {
+                        insert.executeBatch();
+                    }
+                }
+            }
+        }
+        return loaded;
+    }
+
+    // The tables in change-log order (the snapshot is written with the schema the log is using) and rows loaded
+    static final class Loaded {
+        final List<TableSchema> tables = new ArrayList<>();
+        long rows;
+    }
+}
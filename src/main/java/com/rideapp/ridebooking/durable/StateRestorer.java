@@ -0,0 +1,237 @@
+package com.rideapp.ridebooking.durable;
+
+import com.rideapp.ridebooking.journal.JournalReader;
+import com.rideapp.ridebooking.journal.JournalRecord;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Rebuilds the database at startup, before anything else reads it: loads the newest intact snapshot,
+// replays the change log from the snapshot's replay point, and reports the largest restored key so
+// the id generator can move past it. The work is proportional to the rows in the snapshot plus the
+// changes since it was taken, not to everything that was ever logged. Replay is idempotent (rows are
+// merged by primary key and deletes of missing rows do nothing), so records the snapshot already
+// reflects are harmless.
+public final class StateRestorer {
+
+    private final Path snapshotDirectory;
+    private final Path logDirectory;
+
+    public StateRestorer(Path snapshotDirectory, Path logDirectory) {
+        this.snapshotDirectory = snapshotDirectory;
+        this.logDirectory = logDirectory;
+    }
+
+    public Map<String, Object> restore(Connection connection) throws IOException, SQLException {
+        long startedAt = System.nanoTime();
+        Map<String, TableSchema> current = new HashMap<>();
+        for (TableSchema table : TableSchema.loadAll(connection)) {
+            current.put(table.name, table);
+        }
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        Map<String, Object> result = new LinkedHashMap<>();
+        try (Statement statement = connection.createStatement()) {
+            // Rows arrive table by table, not in foreign key order
+            statement.execute("set referential_integrity false");
+            try {
+                long replayFrom = 1;
+                List<TableSchema> logged = null;
+                long rows = 0;
+                for (Path snapshot : Snapshots.list(snapshotDirectory)) {
+                    if (!Snapshots.isValid(snapshot)) {
+                        System.out.println("⚠️ Durable state: skipping damaged snapshot " + snapshot.getFileName());
+                        continue;
+                    }
+                    Snapshots.Loaded loaded = Snapshots.load(snapshot, connection, current);
+                    replayFrom = Snapshots.replayPointOf(snapshot);
+                    logged = loaded.tables;
+                    rows = loaded.rows;
+                    result.put("snapshot", snapshot.getFileName().toString());
+                    break;
+                }
+                result.put("snapshotRows", rows);
+                result.put("replayFrom", replayFrom);
+                long[] replayed = replay(connection, current, logged, replayFrom);
+                result.put("replayedRecords", replayed[0]);
+                result.put("replayedRowChanges", replayed[1]);
+                result.put("largestKey", largestKey(connection, current));
+            } finally {
+                statement.execute("set referential_integrity true");
+            }
+            connection.commit();
+        } catch (IOException | SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        result.put("restoreMs", (System.nanoTime() - startedAt) / 1_000_000);
+        return result;
+    }
+
+    // Returns {records, row changes}
+    private long[] replay(Connection connection, Map<String, TableSchema> current, List<TableSchema> logged,
+                          long fromSequence) throws IOException, SQLException {
+        long records = 0;
+        long changes = 0;
+        Set<Long> aborted = abortedSequences(fromSequence);
+        Replayer replayer = new Replayer(connection, current);
+        if (logged != null) {
+            replayer.useSchema(logged);
+        }
+        try (JournalReader reader = JournalReader.open(logDirectory, fromSequence)) {
+            JournalRecord record;
+            boolean first = true;
+            while ((record = reader.next()) != null) {
+                if (first && record.getSequence() > fromSequence) {
+                    System.out.println("⚠️ Durable state: change log starts at " + record.getSequence()
+                            + " but replay needs " + fromSequence + ", changes in between are lost");
+                }
+                first = false;
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(record.getBody()));
+                if (record.getType() == ChangeCapture.SCHEMA) {
+                    List<TableSchema> tables = new ArrayList<>();
+                    for (int count = in.readShort(); count > 0; count--) {
+                        tables.add(TableSchema.read(in));
+                    }
+                    replayer.useSchema(tables);
+                } else if (record.getType() == ChangeCapture.CHANGES && !aborted.contains(record.getSequence())) {
+                    changes += replayer.apply(in);
+                }
+                records++;
+            }
+        }
+        replayer.finish();
+        return new long[] { records, changes };
+    }
+
+    // CHANGES records whose commit failed after they were logged
+    private Set<Long> abortedSequences(long fromSequence) throws IOException {
+        Set<Long> aborted = new HashSet<>();
+        try (JournalReader reader = JournalReader.open(logDirectory, fromSequence)) {
+            JournalRecord record;
+            while ((record = reader.next()) != null) {
+                if (record.getType() == ChangeCapture.ABORT) {
+                    aborted.add(ByteBuffer.wrap(record.getBody()).getLong());
+                }
+            }
+        }
+        return aborted;
+    }
+
+    // The largest numeric single-column key of any table, for SnowflakeIdGenerator.advancePast: ids are
+    // not generated by the database, so there are no identity columns or sequences to restore
+    private static long largestKey(Connection connection, Map<String, TableSchema> current) throws SQLException {
+        long largest = 0;
+        for (TableSchema table : current.values()) {
+            if (table.primaryKey.length != 1) {
+                continue;
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet result = statement.executeQuery("select max(" + TableSchema.quote(table.columns.get(table.primaryKey[0])) +
+                         ") from " + TableSchema.quote(table.name))) {
+                result.next();
+                if (result.getObject(1) instanceof Number key) {
+                    largest = Math.max(largest, key.longValue());
+                }
+            }
+        }
+        return largest;
+    }
+
+    // Applies CHANGES records; consecutive changes of the same kind to the same table share a JDBC batch
+    private static final class Replayer {
+
+        private final Connection connection;
+        private final Map<String, TableSchema> current;
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+        private List<TableSchema> logged = List.of();
+        private List<RowMapping> mappings = List.of();
+        private PreparedStatement batch;
+        private int batched;
+
+        Replayer(Connection connection, Map<String, TableSchema> current) {
+            this.connection = connection;
+            this.current = current;
+        }
+
+        void useSchema(List<TableSchema> tables) throws SQLException {
+            flush();
+            logged = tables;
+            mappings = new ArrayList<>();
+            for (TableSchema table : tables) {
+                mappings.add(RowMapping.of(table, current.get(table.name)));
+            }
+        }
+
+        int apply(DataInputStream in) throws IOException, SQLException {
+            int changes = 0;
+            while (in.available() > 0) {
+                int index = in.readUnsignedByte();
+                byte operation = in.readByte();
+                TableSchema table = logged.get(index);
+                Object[] values = new Object[operation == ChangeCapture.UPSERT ? table.columns.size() : table.primaryKey.length];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = RowCodec.readValue(in);
+                }
+                RowMapping mapping = mappings.get(index);
+                if (mapping == null) {
+                    continue;
+                }
+                String sql = operation == ChangeCapture.UPSERT ? mapping.mergeSql() : mapping.deleteSql();
+                PreparedStatement statement = statements.get(sql);
+                if (statement == null) {
+                    statement = connection.prepareStatement(sql);
+                    statements.put(sql, statement);
+                }
+                if (statement != batch) {
+                    flush();
+                    batch = statement;
+                }
+                if (operation == ChangeCapture.UPSERT) {
+                    mapping.bindRow(statement, values);
+                } else {
+                    mapping.bindKey(statement, values);
+                }
+                statement.addBatch();
+                changes++;
+                if (++batched == 1000) {
+                    flush();
+                    batch = statement;
+                }
+            }
+            return changes;
+        }
+
+        void finish() throws SQLException {
+            flush();
+            for (PreparedStatement statement : statements.values()) {
+                statement.close();
+            }
+        }
+
+        private void flush() throws SQLException {
+            if (batch != null && batched > 0) {
+                batch.executeBatch();
+            }
+            batch = null;
+            batched = 0;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.rideapp.ridebooking.durable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Columns of one application table as the database reports them, in ordinal order (the order H2
+// passes rows to triggers). Snapshots and the change log carry these lists, so rows written by an
+// older build are matched to today's columns by name.
+final class TableSchema {
+
+    final String name;
+    final List<String> columns;
+    // Indexes into columns
+    final int[] primaryKey;
+
+    TableSchema(String name, List<String> columns, int[] primaryKey) {
+        this.name = name;
+        this.columns = columns;
+        this.primaryKey = primaryKey;
+    }
+
+    int indexOf(String column) {
+        return columns.indexOf(column);
+    }
+
+    // Tables of the PUBLIC schema that have a primary key
+    static List<TableSchema> loadAll(Connection connection) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "select table_name from information_schema.tables " +
+                "where table_schema = 'PUBLIC' and table_type = 'BASE TABLE' order by table_name");
+             ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                tables.add(rows.getString(1));
+            }
+        }
+        List<TableSchema> schemas = new ArrayList<>();
+        for (String table : tables) {
+            List<String> columns = new ArrayList<>();
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "select column_name from information_schema.columns " +
+                    "where table_schema = 'PUBLIC' and table_name = ? order by ordinal_position")) {
+                statement.setString(1, table);
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        columns.add(rows.getString(1));
+                    }
+                }
+            }
+            List<Integer> primaryKey = new ArrayList<>();
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "select k.column_name from information_schema.table_constraints c " +
+                    "join information_schema.key_column_usage k on k.constraint_schema = c.constraint_schema " +
+                    "and k.constraint_name = c.constraint_name " +
+                    "where c.table_schema = 'PUBLIC' and c.table_name = ? and c.constraint_type = 'PRIMARY KEY' " +
+                    "order by k.ordinal_position")) {
+                statement.setString(1, table);
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        primaryKey.add(columns.indexOf(rows.getString(1)));
+                    }
+                }
+            }
+            if (primaryKey.isEmpty()) {
+                System.out.println("⚠️ Durable state: table " + table + " has no primary key and is not persisted");
+                continue;
+            }
+            schemas.add(new TableSchema(table, columns, primaryKey.stream().mapToInt(Integer::intValue).toArray()));
+        }
+        return schemas;
+    }
+
+    void write(DataOutput out) throws IOException {
+        RowCodec.writeName(out, name);
+        out.writeShort(columns.size());
+        for (String column : columns) {
+            RowCodec.writeName(out, column);
+        }
+        out.writeShort(primaryKey.length);
+        for (int index : primaryKey) {
+            out.writeShort(index);
+        }
+    }
+
+    static TableSchema read(DataInput in) throws IOException {
+        String name = RowCodec.readName(in);
+        List<String> columns = new ArrayList<>();
+        for (int i = in.readShort(); i > 0; i--) {
+            columns.add(RowCodec.readName(in));
+        }
+        int[] primaryKey = new int[in.readShort()];
+        for (int i = 0; i < primaryKey.length; i++) {
+            primaryKey[i] = in.readShort();
+        }
+        return new TableSchema(name, columns, primaryKey);
+    }
+
+    static String quote(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+}
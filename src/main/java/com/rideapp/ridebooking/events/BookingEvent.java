@@ -0,0 +1,55 @@
+package com.rideapp.ridebooking.events;
+
+import com.rideapp.ridebooking.models.Booking;
+
+// Published (via Spring's ApplicationEventPublisher) after every booking lifecycle change.
+// previousStatus is null for CREATED, status is null once the booking row is gone
+// (CANCELLED, EXPIRED, PURGED). booking is the saved or deleted entity when one was loaded,
+// and null for set-based bulk changes that only know the row's id, rider and status.
+public class BookingEvent {
+
+    public enum Type {
+        CREATED, UPDATED, ACCEPTED, REJECTED, CANCELLED, EXPIRED, PURGED
+    }
+
+    private final Type type;
+    private final Long bookingId;
+    private final Long riderId;
+    private final Booking.BookingStatus previousStatus;
+    private final Booking.BookingStatus status;
+    private final Booking booking;
+
+    public BookingEvent(Type type, Long bookingId, Long riderId,
+                        Booking.BookingStatus previousStatus, Booking.BookingStatus status, Booking booking) {
+        this.type = type;
+        this.bookingId = bookingId;
+        this.riderId = riderId;
+        this.previousStatus = previousStatus;
+        this.status = status;
+        this.booking = booking;
+    }
+
+    // Booking saved with a (possibly unchanged) status
+    public static BookingEvent changed(Type type, Booking booking, Booking.BookingStatus previousStatus) {
+        return new BookingEvent(type, booking.getBookingId(), booking.getRider().getUserId(),
+                previousStatus, booking.getStatus(), booking);
+    }
+
+    // Booking row deleted
+    public static BookingEvent removed(Type type, Booking booking) {
+        return new BookingEvent(type, booking.getBookingId(), booking.getRider().getUserId(),
+                booking.getStatus(), null, booking);
+    }
+
+    // Booking row deleted by a bulk statement, only its key columns are known
+    public static BookingEvent removed(Type type, Long bookingId, Long riderId, Booking.BookingStatus previousStatus) {
+        return new BookingEvent(type, bookingId, riderId, previousStatus, null, null);
+    }
+
+    public Type getType() { return type; }
+    public Long getBookingId() { return bookingId; }
+    public Long getRiderId() { return riderId; }
+    public Booking.BookingStatus getPreviousStatus() { return previousStatus; }
+    public Booking.BookingStatus getStatus() { return status; }
+    public Booking getBooking() { return booking; }
+}
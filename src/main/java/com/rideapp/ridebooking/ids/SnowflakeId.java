@@ -0,0 +1,16 @@
+package com.rideapp.ridebooking.ids;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Put on an entity's @Id (instead of @GeneratedValue) to take its ids from this node's
+// SnowflakeIdGenerator. The id is known before the INSERT, so inserts can be JDBC-batched.
+@IdGeneratorType(SnowflakeIdentifierGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.FIELD, ElementType.METHOD })
+public @interface SnowflakeId {
+}
@@ -0,0 +1,80 @@
+package com.rideapp.ridebooking.ids;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Time-ordered 64-bit ids that each node hands out on its own, with no shared sequence:
+//
+//   | timestamp: 41 bits, ms since 2025-01-01 UTC | node: 4 bits | sequence: 8 bits |
+//
+// 53 bits in all, so an id is still exact as a JavaScript number (the frontend parses them), and the
+// timestamp lasts until 2094. Up to 16 nodes, each making 256 ids per millisecond before it borrows the
+// next millisecond. Ids from one node strictly increase; across nodes they are ordered by time to
+// within clock skew, so ordering by id is ordering by creation time - a keyset page key on its own.
+//
+// Lock-free: the last (timestamp, sequence) pair is one AtomicLong advanced by compare-and-set. A clock
+// that steps backwards, or a full millisecond, continues from the last value instead of waiting, so
+// ids never repeat or go backwards while the process runs.
+public final class SnowflakeIdGenerator {
+
+    public static final long EPOCH_MILLIS = 1_735_689_600_000L;
+    public static final int NODE_BITS = 4;
+    public static final int SEQUENCE_BITS = 8;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final ConcurrentMap<Integer, SnowflakeIdGenerator> NODES = new ConcurrentHashMap<>();
+
+    private final int nodeId;
+    private final LongSupplier clock;
+    // (timestamp << SEQUENCE_BITS) | sequence of the last id handed out
+    private final AtomicLong last = new AtomicLong();
+
+    SnowflakeIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("❌ Node id must be between 0 and " + MAX_NODE_ID + ", got " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    // One generator per node id in this JVM, shared by every entity that uses it
+    public static SnowflakeIdGenerator forNode(int nodeId) {
+        return NODES.computeIfAbsent(nodeId, id -> new SnowflakeIdGenerator(id, System::currentTimeMillis));
+    }
+
+    public long nextId() {
+        while (true) {
+            long previous = last.get();
+            long now = clock.getAsLong() - EPOCH_MILLIS;
+            long next = now > previous >>> SEQUENCE_BITS ? now << SEQUENCE_BITS : previous + 1;
+            if (last.compareAndSet(previous, next)) {
+                return (next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS)
+                        | (long) nodeId << SEQUENCE_BITS
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    // Makes every later id sort after the given one, e.g. the largest id restored from disk, in case
+    // the clock is now behind the one that made it
+    public void advancePast(long id) {
+        long floor = (timestampOf(id) - EPOCH_MILLIS) << SEQUENCE_BITS | SEQUENCE_MASK;
+        last.accumulateAndGet(floor, Math::max);
+    }
+
+    public int getNodeId() {
+        return nodeId;
+    }
+
+    // When the id was made, in epoch milliseconds
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+
+    public static int nodeOf(long id) {
+        return (int) (id >>> SEQUENCE_BITS) & MAX_NODE_ID;
+    }
+}
@@ -0,0 +1,39 @@
+package com.rideapp.ridebooking.ids;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.AnnotationBasedGenerator;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.generator.GeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+
+// Hibernate side of @SnowflakeId. The node id comes from the NODE_ID_SETTING Hibernate property,
+// which IdGeneratorConfig sets from id.node-id. Spring's bean container may be the one creating this,
+// so it has a no-argument constructor and is set up in initialize().
+public class SnowflakeIdentifierGenerator implements BeforeExecutionGenerator, AnnotationBasedGenerator<SnowflakeId> {
+
+    public static final String NODE_ID_SETTING = "rideapp.id.node-id";
+
+    private SnowflakeIdGenerator ids;
+
+    @Override
+    public void initialize(SnowflakeId annotation, Member member, GeneratorCreationContext context) {
+        Object nodeId = context.getServiceRegistry().requireService(ConfigurationService.class)
+                .getSettings().get(NODE_ID_SETTING);
+        ids = SnowflakeIdGenerator.forNode(nodeId != null ? Integer.parseInt(nodeId.toString()) : 0);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return ids.nextId();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
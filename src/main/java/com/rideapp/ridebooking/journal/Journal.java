@@ -0,0 +1,399 @@
+package com.rideapp.ridebooking.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Append-only journal of binary records in fixed-size memory-mapped segment files (see JournalSegment).
+// An append copies the record into the mapped segment under a short lock and returns; making it durable
+// is left to the flusher thread, which forces everything appended since its last pass in one go
+// (group commit) and keeps the next segment pre-allocated so rolling over does not create files on the
+// appending thread. A single process owns a journal directory at a time.
+public class Journal implements AutoCloseable {
+
+    public enum FsyncPolicy {
+        // Flusher thread forces the appended records every fsync interval
+        GROUP,
+        // Every append forces its own record before returning
+        ALWAYS,
+        // Left to the operating system's page cache write-back
+        NEVER
+    }
+
+    private static final String LOCK_FILE = "journal.lock";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final FsyncPolicy fsyncPolicy;
+    private final FileChannel lockChannel;
+    private final FileLock fileLock;
+    private final ScheduledExecutorService flusher;
+
+    // Guarded by lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<JournalSegment> rolled = new ArrayList<>();
+    private JournalSegment current;
+    private JournalSegment spare;
+    private int position;
+    private long nextSequence;
+    private boolean closed;
+
+    // Guarded by flushLock
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private JournalSegment forcedSegment;
+    private int forcedPosition;
+
+    private volatile long lastSequence;
+    private volatile long durableSequence;
+    private volatile long lastFlushNanos;
+
+    private Journal(Path directory, int segmentSize, FsyncPolicy fsyncPolicy, FileChannel lockChannel, FileLock fileLock) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsyncPolicy = fsyncPolicy;
+        this.lockChannel = lockChannel;
+        this.fileLock = fileLock;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static Journal open(Path directory, int segmentSize, FsyncPolicy fsyncPolicy, long fsyncIntervalMillis) throws IOException {
+        if (segmentSize < 64 * 1024) {
+            throw new IllegalArgumentException("Journal segments must be at least 64 KB");
+        }
+        Files.createDirectories(directory);
+        FileChannel lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock fileLock;
+        try {
+            fileLock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            fileLock = null;
+        }
+        if (fileLock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Journal directory " + directory + " is already in use");
+        }
+
+        Journal journal = new Journal(directory, segmentSize, fsyncPolicy, lockChannel, fileLock);
+        try {
+            journal.recover();
+        } catch (IOException | RuntimeException e) {
+            journal.close();
+            throw e;
+        }
+        journal.flusher.scheduleWithFixedDelay(journal::flushAndPrepare,
+                fsyncIntervalMillis, fsyncIntervalMillis, TimeUnit.MILLISECONDS);
+        return journal;
+    }
+
+    // Appends one record and returns its sequence number (1, 2, 3, ... across restarts)
+    public long append(byte type, ByteBuffer body) {
+        int length = JournalSegment.PAYLOAD_HEADER_SIZE + body.remaining();
+        int size = JournalSegment.RECORD_HEADER_SIZE + length;
+        if (size > segmentSize - JournalSegment.HEADER_SIZE - 4) {
+            throw new IllegalArgumentException("Journal record of " + size + " bytes does not fit in a segment");
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed");
+            }
+            // Always leave room for the end-of-segment marker
+            if (position + size > current.capacity() - 4) {
+                roll();
+            }
+            MappedByteBuffer buffer = current.buffer;
+            int start = position;
+            int payload = start + JournalSegment.RECORD_HEADER_SIZE;
+            long sequence = nextSequence++;
+            buffer.putLong(payload, sequence);
+            buffer.putLong(payload + 8, System.currentTimeMillis());
+            buffer.put(payload + 16, type);
+            buffer.put(payload + JournalSegment.PAYLOAD_HEADER_SIZE, body, body.position(), body.remaining());
+            buffer.putInt(start + 4, current.crcOf(payload, length));
+            // The length goes in last: a reader that sees it also sees the payload
+            VarHandle.releaseFence();
+            buffer.putInt(start, length);
+            position = start + size;
+            lastSequence = sequence;
+            if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                current.force(start, size);
+                durableSequence = sequence;
+            }
+            return sequence;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Reads records from fromSequence on, from the segment files rather than through this instance
+    public JournalReader openReader(long fromSequence) throws IOException {
+        return JournalReader.open(directory, fromSequence);
+    }
+
+    // Forces every record appended so far
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<JournalSegment> sealed;
+            JournalSegment segment;
+            int end;
+            long sequence;
+            lock.lock();
+            try {
+                sealed = new ArrayList<>(rolled);
+                rolled.clear();
+                segment = current;
+                end = position;
+                sequence = lastSequence;
+            } finally {
+                lock.unlock();
+            }
+            long start = System.nanoTime();
+            for (JournalSegment segmentToSeal : sealed) {
+                segmentToSeal.buffer.force();
+                closeQuietly(segmentToSeal);
+            }
+            if (segment != forcedSegment) {
+                forcedSegment = segment;
+                forcedPosition = 0;
+            }
+            if (end > forcedPosition || !sealed.isEmpty()) {
+                segment.force(forcedPosition, end - forcedPosition);
+                forcedPosition = end;
+                lastFlushNanos = System.nanoTime() - start;
+            }
+            durableSequence = sequence;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Deletes the segments holding only records before sequence (never the one being written);
+    // returns how many were deleted
+    public int deleteSegmentsBefore(long sequence) throws IOException {
+        long currentIndex;
+        lock.lock();
+        try {
+            currentIndex = current.index;
+        } finally {
+            lock.unlock();
+        }
+        List<Path> files = segmentFiles(directory);
+        int deleted = 0;
+        for (int i = 0; i + 1 < files.size() && JournalSegment.indexOf(files.get(i)) < currentIndex; i++) {
+            long nextFirst = JournalSegment.readFirstSequence(files.get(i + 1));
+            if (nextFirst == 0 || nextFirst > sequence) {
+                break;
+            }
+            Files.delete(files.get(i));
+            deleted++;
+        }
+        return deleted;
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public long getDurableSequence() {
+        return durableSequence;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            stats.put("segment", current != null ? current.path.getFileName().toString() : null);
+            stats.put("segmentPosition", position);
+        } finally {
+            lock.unlock();
+        }
+        stats.put("segmentSize", segmentSize);
+        stats.put("fsyncPolicy", fsyncPolicy.name());
+        stats.put("lastSequence", lastSequence);
+        stats.put("durableSequence", durableSequence);
+        stats.put("lastFlushMicros", lastFlushNanos / 1000);
+        return stats;
+    }
+
+    @Override
+    public void close() throws IOException {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (current != null) {
+            flush();
+        }
+        lock.lock();
+        try {
+            closed = true;
+            if (current != null) {
+                closeQuietly(current);
+            }
+            if (spare != null) {
+                closeQuietly(spare);
+            }
+        } finally {
+            lock.unlock();
+        }
+        fileLock.release();
+        lockChannel.close();
+    }
+
+    // Called with the lock held
+    private void roll() throws IOException {
+        current.buffer.putInt(position, JournalSegment.END_OF_SEGMENT);
+        JournalSegment next = spare != null ? spare : JournalSegment.create(directory, current.index + 1, segmentSize);
+        spare = null;
+        next.activate(nextSequence);
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+            current.force(position, 4);
+            next.force(0, JournalSegment.HEADER_SIZE);
+        }
+        rolled.add(current);
+        current = next;
+        position = JournalSegment.HEADER_SIZE;
+    }
+
+    private void flushAndPrepare() {
+        try {
+            if (fsyncPolicy == FsyncPolicy.GROUP) {
+                flush();
+            }
+            prepareSpare();
+        } catch (RuntimeException | IOException e) {
+            // Keep the flusher scheduled, the next pass retries
+            System.out.println("❌ Journal flush failed: " + e.getMessage());
+        }
+    }
+
+    private void prepareSpare() throws IOException {
+        lock.lock();
+        try {
+            if (spare == null && !closed) {
+                spare = JournalSegment.create(directory, current.index + 1, segmentSize);
+                syncDirectory();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Finds the end of the journal: the last activated segment is scanned up to the first record that
+    // is missing or fails its checksum, and anything after that (a write torn by a crash) is cleared
+    private void recover() throws IOException {
+        List<Path> files = segmentFiles(directory);
+        if (!files.isEmpty()) {
+            JournalSegment last = JournalSegment.open(files.get(files.size() - 1), true);
+            if (last.firstSequence() == 0 && files.size() > 1) {
+                spare = last;
+                last = JournalSegment.open(files.get(files.size() - 2), true);
+            }
+            current = last;
+        }
+        if (current == null) {
+            current = JournalSegment.create(directory, 1, segmentSize);
+            syncDirectory();
+        }
+        if (current.firstSequence() == 0) {
+            current.activate(1);
+        }
+
+        long last = current.firstSequence() - 1;
+        int at = JournalSegment.HEADER_SIZE;
+        while (true) {
+            int length = current.recordAt(at);
+            if (length > 0) {
+                last = current.sequenceAt(at);
+                at += JournalSegment.RECORD_HEADER_SIZE + length;
+            } else if (length == JournalSegment.END_OF_SEGMENT) {
+                // Stopped between sealing this segment and activating the next one
+                rolled.add(current);
+                JournalSegment next = spare != null ? spare : JournalSegment.create(directory, current.index + 1, segmentSize);
+                spare = null;
+                next.activate(last + 1);
+                current = next;
+                at = JournalSegment.HEADER_SIZE;
+                break;
+            } else {
+                if (length < 0) {
+                    System.out.println("⚠️ Journal: discarding a torn record at " + current.path.getFileName() + ":" + at);
+                }
+                clearFrom(current.buffer, at);
+                break;
+            }
+        }
+        position = at;
+        nextSequence = last + 1;
+        lastSequence = last;
+        durableSequence = last;
+    }
+
+    static List<Path> segmentFiles(Path directory) throws IOException {
+        try (Stream<Path> list = Files.list(directory)) {
+            return list.filter(JournalSegment::isSegmentFile).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static void clearFrom(MappedByteBuffer buffer, int from) {
+        int i = from;
+        while (i < buffer.capacity() && (i & 7) != 0) {
+            buffer.put(i++, (byte) 0);
+        }
+        // Only touches non-zero words, so the untouched part of a sparse file stays sparse
+        for (; i + 8 <= buffer.capacity(); i += 8) {
+            if (buffer.getLong(i) != 0) {
+                buffer.putLong(i, 0);
+            }
+        }
+        buffer.force();
+    }
+
+    // Makes a new segment file's directory entry durable (best effort, not every platform supports it)
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Ignored
+        }
+    }
+
+    private static void closeQuietly(JournalSegment segment) {
+        try {
+            segment.close();
+        } catch (IOException e) {
+            System.out.println("⚠️ Journal: could not close " + segment.path.getFileName() + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.rideapp.ridebooking.journal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+// Tails a journal directory: next() returns records in sequence order and null once it has caught up
+// with the writer, after which it can be polled again for newer records. Readers map the segment files
+// read-only and never coordinate with the writer, so they can run in another process.
+public class JournalReader implements AutoCloseable {
+
+    private final Path directory;
+    private final long fromSequence;
+    private JournalSegment segment;
+    private int position;
+
+    private JournalReader(Path directory, long fromSequence) {
+        this.directory = directory;
+        this.fromSequence = fromSequence;
+    }
+
+    // Starts at fromSequence, or at the oldest record still on disk if that is later
+    public static JournalReader open(Path directory, long fromSequence) throws IOException {
+        JournalReader reader = new JournalReader(directory, fromSequence);
+        reader.seek();
+        return reader;
+    }
+
+    public JournalRecord next() throws IOException {
+        if (segment == null && !seek()) {
+            return null;
+        }
+        while (true) {
+            int length = segment.recordAt(position);
+            if (length == JournalSegment.END_OF_SEGMENT) {
+                JournalSegment next = openActivated(directory.resolve(JournalSegment.fileName(segment.index + 1)));
+                if (next == null) {
+                    return null;
+                }
+                segment.close();
+                segment = next;
+                position = JournalSegment.HEADER_SIZE;
+                continue;
+            }
+            // 0: caught up; negative: a record still being written
+            if (length <= 0) {
+                return null;
+            }
+            int at = position;
+            position += JournalSegment.RECORD_HEADER_SIZE + length;
+            if (segment.sequenceAt(at) >= fromSequence) {
+                return segment.readRecord(at, length);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (segment != null) {
+            segment.close();
+            segment = null;
+        }
+    }
+
+    // Picks the last segment starting at or before fromSequence
+    private boolean seek() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return false;
+        }
+        List<Path> files = Journal.segmentFiles(directory);
+        JournalSegment chosen = null;
+        for (Path file : files) {
+            JournalSegment candidate = openActivated(file);
+            if (candidate == null) {
+                break;
+            }
+            if (chosen != null && candidate.firstSequence() > fromSequence) {
+                candidate.close();
+                break;
+            }
+            if (chosen != null) {
+                chosen.close();
+            }
+            chosen = candidate;
+        }
+        segment = chosen;
+        position = JournalSegment.HEADER_SIZE;
+        return chosen != null;
+    }
+
+    // null for a missing segment or a pre-allocated one the writer has not moved to yet
+    private static JournalSegment openActivated(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        JournalSegment candidate = JournalSegment.open(file, false);
+        if (candidate.firstSequence() == 0) {
+            candidate.close();
+            return null;
+        }
+        return candidate;
+    }
+}
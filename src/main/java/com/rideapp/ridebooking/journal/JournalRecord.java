@@ -0,0 +1,22 @@
+package com.rideapp.ridebooking.journal;
+
+// One journal entry: its position in the journal, when it was appended and what it holds
+public final class JournalRecord {
+
+    private final long sequence;
+    private final long timestamp;
+    private final byte type;
+    private final byte[] body;
+
+    JournalRecord(long sequence, long timestamp, byte type, byte[] body) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.type = type;
+        this.body = body;
+    }
+
+    public long getSequence() { return sequence; }
+    public long getTimestamp() { return timestamp; }
+    public byte getType() { return type; }
+    public byte[] getBody() { return body; }
+}
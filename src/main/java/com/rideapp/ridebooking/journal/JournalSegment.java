@@ -0,0 +1,144 @@
+package com.rideapp.ridebooking.journal;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+// One fixed-size, memory-mapped journal file. Layout:
+//   header (64 bytes): magic, version, first sequence (0 while the segment is a pre-allocated spare)
+//   records:           int payload length | int CRC32C of the payload | payload
+//   payload:           long sequence | long timestamp (epoch ms) | byte record type | body
+// A length of 0 marks the end of what has been written, -1 that the journal continues in the next segment.
+final class JournalSegment {
+
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_HEADER_SIZE = 8;
+    static final int PAYLOAD_HEADER_SIZE = 17;
+    static final int END_OF_SEGMENT = -1;
+    private static final int MAGIC = 0x524A4E4C;
+    private static final int VERSION = 1;
+    private static final String SUFFIX = ".journal";
+
+    final long index;
+    final Path path;
+    final MappedByteBuffer buffer;
+    private final FileChannel channel;
+
+    private JournalSegment(long index, Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.index = index;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    // New spare segment; the file is sparse until written
+    static JournalSegment create(Path directory, long index, int size) throws IOException {
+        Path path = directory.resolve(fileName(index));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putLong(8, 0);
+        return new JournalSegment(index, path, channel, buffer);
+    }
+
+    static JournalSegment open(Path path, boolean writable) throws IOException {
+        FileChannel channel = writable
+                ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ);
+        MappedByteBuffer buffer = channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            channel.close();
+            throw new IOException("Not a journal segment: " + path);
+        }
+        return new JournalSegment(indexOf(path), path, channel, buffer);
+    }
+
+    static String fileName(long index) {
+        return String.format("%020d%s", index, SUFFIX);
+    }
+
+    static boolean isSegmentFile(Path path) {
+        String name = path.getFileName().toString();
+        return name.endsWith(SUFFIX) && name.length() == 20 + SUFFIX.length();
+    }
+
+    static long indexOf(Path path) {
+        return Long.parseLong(path.getFileName().toString().substring(0, 20));
+    }
+
+    // First sequence of a segment file without mapping it (0 for a spare)
+    static long readFirstSequence(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(16);
+            while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                // Keep reading
+            }
+            return header.position() == 16 && header.getInt(0) == MAGIC ? header.getLong(8) : 0;
+        }
+    }
+
+    int capacity() {
+        return buffer.capacity();
+    }
+
+    long firstSequence() {
+        return buffer.getLong(8);
+    }
+
+    void activate(long firstSequence) {
+        buffer.putLong(8, firstSequence);
+    }
+
+    // Payload length of the record at position: > 0 for a complete record, 0 at the end of the written
+    // data, END_OF_SEGMENT, or -2 for a torn or corrupt record (a crash mid-write)
+    int recordAt(int position) {
+        if (position + RECORD_HEADER_SIZE > buffer.capacity()) {
+            return position + 4 <= buffer.capacity() && buffer.getInt(position) == END_OF_SEGMENT ? END_OF_SEGMENT : 0;
+        }
+        int length = buffer.getInt(position);
+        if (length == 0 || length == END_OF_SEGMENT) {
+            return length;
+        }
+        // Pairs with the release fence in append: the payload is visible once its length is
+        VarHandle.acquireFence();
+        if (length < PAYLOAD_HEADER_SIZE || position + RECORD_HEADER_SIZE + length > buffer.capacity()) {
+            return -2;
+        }
+        return crcOf(position + RECORD_HEADER_SIZE, length) == buffer.getInt(position + 4) ? length : -2;
+    }
+
+    int crcOf(int payloadPosition, int length) {
+        CRC32C crc = new CRC32C();
+        ByteBuffer payload = buffer.duplicate();
+        payload.limit(payloadPosition + length).position(payloadPosition);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    long sequenceAt(int position) {
+        return buffer.getLong(position + RECORD_HEADER_SIZE);
+    }
+
+    JournalRecord readRecord(int position, int length) {
+        int payload = position + RECORD_HEADER_SIZE;
+        byte[] body = new byte[length - PAYLOAD_HEADER_SIZE];
+        buffer.get(payload + PAYLOAD_HEADER_SIZE, body);
+        return new JournalRecord(buffer.getLong(payload), buffer.getLong(payload + 8), buffer.get(payload + 16), body);
+    }
+
+    void force(int from, int length) {
+        if (length > 0) {
+            buffer.force(from, length);
+        }
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+}
@@ -1,5 +1,6 @@
 package com.rideapp.ridebooking.models;
 
+import com.rideapp.ridebooking.ids.SnowflakeId;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
@@ -7,7 +8,7 @@ import java.time.LocalDateTime;
 @Table(name = "auth_users")
 public class AuthUser {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long userId;
     
     @Column(nullable = false)
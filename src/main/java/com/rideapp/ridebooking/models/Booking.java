@@ -1,13 +1,23 @@
 package com.rideapp.ridebooking.models;
 
+import com.rideapp.ridebooking.ids.SnowflakeId;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_booking_created", columnList = "created_at, booking_id"),
+    @Index(name = "idx_booking_status_created", columnList = "status, created_at, booking_id"),
+    @Index(name = "idx_booking_rider_status", columnList = "rider_id, status"),
+    @Index(name = "idx_booking_rider_created", columnList = "rider_id, created_at, booking_id"),
+    @Index(name = "idx_booking_ride_status", columnList = "ride_id, status"),
+    @Index(name = "idx_booking_ride_at", columnList = "ride_at, booking_id")
+})
 public class Booking {
 
+    // Ids are known before the INSERT (unlike IDENTITY), so inserts can be sent as JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long bookingId;
 
     @ManyToOne
@@ -32,6 +42,13 @@ public class Booking {
     @Column(columnDefinition = "TEXT")
     private String dropLocationDetails; // JSON string with coordinates and place details
 
+    // Pickup coordinates extracted from pickupLocationDetails, used by the nearby-requests index
+    private Double pickupLatitude;
+    private Double pickupLongitude;
+
+    // rideTime resolved to a timestamp when the booking is saved, used by the expiry cleanup
+    private LocalDateTime rideAt;
+
     @Enumerated(EnumType.STRING)
     private BookingStatus status = BookingStatus.REQUESTED;
 
@@ -58,10 +75,17 @@ public class Booking {
     public BookingStatus getStatus() { return status; }
     public void setStatus(BookingStatus status) { this.status = status; }
     public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     
     // Enhanced location data getters and setters
     public String getPickupLocationDetails() { return pickupLocationDetails; }
     public void setPickupLocationDetails(String pickupLocationDetails) { this.pickupLocationDetails = pickupLocationDetails; }
     public String getDropLocationDetails() { return dropLocationDetails; }
     public void setDropLocationDetails(String dropLocationDetails) { this.dropLocationDetails = dropLocationDetails; }
+    public Double getPickupLatitude() { return pickupLatitude; }
+    public void setPickupLatitude(Double pickupLatitude) { this.pickupLatitude = pickupLatitude; }
+    public Double getPickupLongitude() { return pickupLongitude; }
+    public void setPickupLongitude(Double pickupLongitude) { this.pickupLongitude = pickupLongitude; }
+    public LocalDateTime getRideAt() { return rideAt; }
+    public void setRideAt(LocalDateTime rideAt) { this.rideAt = rideAt; }
 }
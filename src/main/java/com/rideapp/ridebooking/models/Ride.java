@@ -1,13 +1,17 @@
 package com.rideapp.ridebooking.models;
 
+import com.rideapp.ridebooking.ids.SnowflakeId;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "rides")
+@Table(name = "rides", indexes = {
+    @Index(name = "idx_ride_status", columnList = "status, ride_id"),
+    @Index(name = "idx_ride_driver_status", columnList = "driver_id, status")
+})
 public class Ride {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long rideId;
 
     // Link to driver (User)
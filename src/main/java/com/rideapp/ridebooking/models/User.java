@@ -1,9 +1,13 @@
 package com.rideapp.ridebooking.models;
 
+import com.rideapp.ridebooking.ids.SnowflakeId;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    @Index(name = "idx_user_status", columnList = "status"),
+    @Index(name = "idx_user_phone", columnList = "phone_number")
+})
 public class User {
 
     public enum Role {
@@ -15,7 +19,7 @@ public class User {
     }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long userId;
 
     private String name;
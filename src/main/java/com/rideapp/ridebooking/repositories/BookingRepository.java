@@ -3,11 +3,157 @@ package com.rideapp.ridebooking.repositories;
 import com.rideapp.ridebooking.models.Booking;
 import com.rideapp.ridebooking.models.Ride;
 import com.rideapp.ridebooking.models.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+// List reads use the "ride, ride.driver, rider" entity graph so a page of bookings is loaded
+// together with its ride, driver and rider in a single joined SELECT instead of one per row.
 public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findByRide(Ride ride);
     List<Booking> findByRider(User rider);
+
+    // Status / rider / driver lookups backed by the indexes declared on Booking
+    List<Booking> findByStatus(Booking.BookingStatus status);
+
+    @EntityGraph(attributePaths = {"ride", "ride.driver", "rider"})
+    List<Booking> findByRideIn(List<Ride> rides);
+
+    @EntityGraph(attributePaths = {"ride", "ride.driver", "rider"})
+    List<Booking> findByStatusAndRideDriverUserId(Booking.BookingStatus status, Long driverId);
+
+    @EntityGraph(attributePaths = {"ride", "ride.driver", "rider"})
+    List<Booking> findByStatusAndCreatedAtAfter(Booking.BookingStatus status, LocalDateTime createdAfter);
+
+    // Compare-and-set on the status column: only the caller whose expected status still matches updates the row
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking b set b.status = :newStatus where b.bookingId = :bookingId and b.status = :expectedStatus")
+    int compareAndSetStatus(Long bookingId, Booking.BookingStatus expectedStatus, Booking.BookingStatus newStatus);
+
+    // Deletes the booking only while it still has the expected status, like compareAndSetStatus
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Booking b where b.bookingId = :bookingId and b.status = :expectedStatus")
+    int deleteIfStatus(Long bookingId, Booking.BookingStatus expectedStatus);
+
+    @EntityGraph(attributePaths = {"ride", "ride.driver", "rider"})
+    List<Booking> findByBookingIdIn(List<Long> bookingIds);
+
+    // (bookingId, latitude, longitude) of every REQUESTED booking with pickup coordinates
+    @Query("select b.bookingId, b.pickupLatitude, b.pickupLongitude from Booking b " +
+           "where b.status = com.rideapp.ridebooking.models.Booking.BookingStatus.REQUESTED " +
+           "and b.pickupLatitude is not null and b.pickupLongitude is not null")
+    List<Object[]> findPendingPickupCoordinates();
+
+    // Number of bookings per status in a single GROUP BY pass
+    @Query("select b.status, count(b) from Booking b group by b.status")
+    List<Object[]> countGroupedByStatus();
+
+    // Number of bookings per (rider, status) in a single GROUP BY pass
+    @Query("select b.rider.userId, b.status, count(b) from Booking b group by b.rider.userId, b.status")
+    List<Object[]> countGroupedByRiderAndStatus();
+
+    // Keyset pages ordered by (createdAt, bookingId); the leading createdAt >= bound keeps them index range scans
+    @EntityGraph(attributePaths = {"ride", "ride.driver", "rider"})
+    @Query("select b from Booking b where b.createdAt >= :createdAt " +
+           "and (b.createdAt > :createdAt or b.bookingId > :bookingId) order by b.createdAt, b.bookingId")
+    List<Booking> findPageAfter(LocalDateTime createdAt, Long bookingId, Pageable page);
+
+    @EntityGraph(attributePaths = {"ride", "ride.driver", "rider"})
+    @Query("select b from Booking b where b.status = :status and b.createdAt >= :createdAt " +
+           "and (b.createdAt > :createdAt or b.bookingId > :bookingId) order by b.createdAt, b.bookingId")
+    List<Booking> findPageByStatusAfter(Booking.BookingStatus status, LocalDateTime createdAt, Long bookingId, Pageable page);
+
+    @EntityGraph(attributePaths = {"ride", "ride.driver", "rider"})
+    @Query("select b from Booking b where b.rider.userId = :riderId and b.createdAt >= :createdAt " +
+           "and (b.createdAt > :createdAt or b.bookingId > :bookingId) order by b.createdAt, b.bookingId")
+    List<Booking> findPageByRiderAfter(Long riderId, LocalDateTime createdAt, Long bookingId, Pageable page);
+
+    @EntityGraph(attributePaths = {"ride", "ride.driver", "rider"})
+    @Query("select b from Booking b where b.rider.userId = :riderId and b.status = :status and b.createdAt >= :createdAt " +
+           "and (b.createdAt > :createdAt or b.bookingId > :bookingId) order by b.createdAt, b.bookingId")
+    List<Booking> findPageByRiderAndStatusAfter(Long riderId, Booking.BookingStatus status, LocalDateTime createdAt,
+                                                Long bookingId, Pageable page);
+
+    // Bookings where the rider looks like the ride's own driver (same id, phone or name)
+    @EntityGraph(attributePaths = {"ride", "ride.driver", "rider"})
+    @Query("select b from Booking b join b.ride r join r.driver d join b.rider u " +
+           "where d.userId = u.userId or d.phoneNumber = u.phoneNumber or d.name = u.name")
+    List<Booking> findSelfBookings();
+
+    // Rider ids together with their booking count, for riders with at least minBookings bookings
+    @Query("select b.rider.userId, count(b) from Booking b group by b.rider.userId having count(b) >= :minBookings")
+    List<Object[]> findRiderBookingCountsAtLeast(long minBookings);
+
+    // The first booking of each of those riders
+    @EntityGraph(attributePaths = {"ride", "ride.driver", "rider"})
+    @Query("select b from Booking b where b.bookingId in (select min(f.bookingId) from Booking f " +
+           "group by f.rider.userId having count(f) >= :minBookings)")
+    List<Booking> findFirstBookingsOfRidersWithAtLeast(long minBookings);
+
+    // Expiry cleanup, one chunk at a time as (bookingId, riderId, status):
+    // accepted bookings expire 2 days after creation, the others 20 minutes after their ride time
+    @Query("select b.bookingId, b.rider.userId, b.status from Booking b " +
+           "where b.status = com.rideapp.ridebooking.models.Booking.BookingStatus.ACCEPTED and b.createdAt < :cutoff")
+    List<Object[]> findExpiredAcceptedKeys(LocalDateTime cutoff, Pageable page);
+
+    @Query("select b.bookingId, b.rider.userId, b.status from Booking b " +
+           "where b.status <> com.rideapp.ridebooking.models.Booking.BookingStatus.ACCEPTED and b.rideAt < :cutoff")
+    List<Object[]> findExpiredUnacceptedKeys(LocalDateTime cutoff, Pageable page);
+
+    // The deletes repeat the expiry condition, so a booking accepted since it was selected is kept
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Booking b where b.bookingId in :bookingIds " +
+           "and b.status = com.rideapp.ridebooking.models.Booking.BookingStatus.ACCEPTED and b.createdAt < :cutoff")
+    int deleteExpiredAccepted(List<Long> bookingIds, LocalDateTime cutoff);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Booking b where b.bookingId in :bookingIds " +
+           "and b.status <> com.rideapp.ridebooking.models.Booking.BookingStatus.ACCEPTED and b.rideAt < :cutoff")
+    int deleteExpiredUnaccepted(List<Long> bookingIds, LocalDateTime cutoff);
+
+    @Query("select b.bookingId from Booking b where b.bookingId in :bookingIds")
+    List<Long> findExistingIds(List<Long> bookingIds);
+
+    @Query("select b.bookingId, b.rider.userId, b.status from Booking b where b.bookingId in :bookingIds")
+    List<Object[]> findKeysByBookingIds(List<Long> bookingIds);
+
+    @Query("select b.bookingId, b.rider.userId, b.status from Booking b where b.ride.rideId in :rideIds")
+    List<Object[]> findKeysByRideIds(List<Long> rideIds);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Booking b where b.ride.rideId in :rideIds")
+    int deleteByRideIds(List<Long> rideIds);
+
+    @Query("select b.bookingId, b.rider.userId, b.status from Booking b where b.rider.userId = :riderId")
+    List<Object[]> findKeysByRiderId(Long riderId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Booking b where b.rider.userId = :riderId")
+    int deleteByRiderId(Long riderId);
+
+    // (bookingId, status, createdAt, rideAt) of every booking, to rebuild the expiry schedule at startup
+    @Query("select b.bookingId, b.status, b.createdAt, b.rideAt from Booking b")
+    List<Object[]> findExpiryKeys();
+
+    // Every booking whose ride time is over, whatever its status (admin manual cleanup)
+    @Query("select b.bookingId, b.rider.userId, b.status from Booking b where b.rideAt < :cutoff")
+    List<Object[]> findKeysWithRideAtBefore(LocalDateTime cutoff, Pageable page);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Booking b where b.bookingId in :bookingIds and b.rideAt < :cutoff")
+    int deleteWithRideAtBefore(List<Long> bookingIds, LocalDateTime cutoff);
+
+    // rideAt backfill for rows saved before the column existed, keyset by id
+    @Query("select b.bookingId, b.rideTime, b.createdAt from Booking b " +
+           "where b.rideAt is null and b.rideTime is not null and b.bookingId > :afterId order by b.bookingId")
+    List<Object[]> findRideAtBackfillRows(Long afterId, Pageable page);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking b set b.rideAt = :rideAt where b.bookingId = :bookingId and b.rideAt is null")
+    int backfillRideAt(Long bookingId, LocalDateTime rideAt);
 }
@@ -0,0 +1,121 @@
+package com.rideapp.ridebooking.repositories;
+
+import com.rideapp.ridebooking.dto.BookingDTO;
+import com.rideapp.ridebooking.dto.RideDTO;
+import com.rideapp.ridebooking.models.Booking;
+import io.r2dbc.spi.Row;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+// Read-only R2DBC queries behind the /reactive endpoints. Each one is a single joined SELECT mapped
+// straight to the response DTOs (the same fields BookingDTO.fromBooking and RideController produce),
+// emitted row by row as the driver delivers them.
+@Repository
+@ConditionalOnProperty(name = "reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveReadRepository {
+
+    private static final String BOOKING_SELECT =
+            "select b.booking_id, b.ride_id, b.rider_id, b.pickup_location, b.drop_location, b.ride_time, " +
+            "b.distance_in_miles, b.fare, b.status, b.pickup_location_details, b.drop_location_details, " +
+            "r.driver_id, r.pickup_location as ride_pickup_location, r.drop_location as ride_drop_location, r.price, " +
+            "r.status as ride_status, r.distance_in_miles as ride_distance_in_miles, r.estimated_duration_minutes, " +
+            "u.name as rider_name, u.phone_number as rider_phone, d.name as driver_name, d.phone_number as driver_phone " +
+            "from booking b join rides r on r.ride_id = b.ride_id join users u on u.user_id = b.rider_id " +
+            "left join users d on d.user_id = r.driver_id ";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveReadRepository(DatabaseClient reactiveDatabaseClient) {
+        this.databaseClient = reactiveDatabaseClient;
+    }
+
+    // Bookings with the given status after the (createdAt, bookingId) keyset position, oldest first
+    // The status is written into the SQL as a literal: r2dbc-h2 binds strings as CLOBs, which H2 cannot
+    // compare with its ENUM columns (the value is an enum constant, never client input)
+    public Flux<BookingDTO> findBookingsByStatusAfter(Booking.BookingStatus status, LocalDateTime createdAt, long bookingId, Integer limit) {
+        String sql = BOOKING_SELECT +
+                "where b.status = '" + status.name() + "' and b.created_at >= :createdAt " +
+                "and (b.created_at > :createdAt or b.booking_id > :bookingId) " +
+                "order by b.created_at, b.booking_id" + limitClause(limit);
+        return databaseClient.sql(sql)
+                .bind("createdAt", createdAt)
+                .bind("bookingId", bookingId)
+                .map((row, metadata) -> toBookingDTO(row))
+                .all();
+    }
+
+    public Mono<BookingDTO> findBookingById(long bookingId) {
+        return databaseClient.sql(BOOKING_SELECT + "where b.booking_id = :bookingId")
+                .bind("bookingId", bookingId)
+                .map((row, metadata) -> toBookingDTO(row))
+                .one();
+    }
+
+    // Rides after the given id, in id order
+    public Flux<RideDTO> findRidesAfter(long rideId, Integer limit) {
+        String sql = "select r.ride_id, r.pickup_location, r.drop_location, r.price, r.status, r.distance_in_miles, " +
+                "r.estimated_duration_minutes, d.name as driver_name " +
+                "from rides r left join users d on d.user_id = r.driver_id " +
+                "where r.ride_id > :rideId order by r.ride_id" + limitClause(limit);
+        return databaseClient.sql(sql)
+                .bind("rideId", rideId)
+                .map((row, metadata) -> {
+                    String driverName = row.get("driver_name", String.class);
+                    return new RideDTO(
+                            row.get("ride_id", Long.class),
+                            row.get("pickup_location", String.class),
+                            row.get("drop_location", String.class),
+                            priceOf(row, "price"),
+                            row.get("status", String.class),
+                            driverName != null ? driverName : "No driver assigned",
+                            row.get("distance_in_miles", Double.class),
+                            row.get("estimated_duration_minutes", Integer.class));
+                })
+                .all();
+    }
+
+    // Limits are validated page sizes, never user text
+    private static String limitClause(Integer limit) {
+        return limit != null ? " limit " + limit : "";
+    }
+
+    private static double priceOf(Row row, String column) {
+        Double price = row.get(column, Double.class);
+        return price != null ? price : 0.0;
+    }
+
+    private static BookingDTO toBookingDTO(Row row) {
+        BookingDTO dto = new BookingDTO();
+        dto.setBookingId(row.get("booking_id", Long.class));
+        dto.setRideId(row.get("ride_id", Long.class));
+        dto.setRiderId(row.get("rider_id", Long.class));
+        dto.setPickupLocation(row.get("pickup_location", String.class));
+        dto.setDropLocation(row.get("drop_location", String.class));
+        dto.setRideTime(row.get("ride_time", String.class));
+        dto.setDistanceInMiles(row.get("distance_in_miles", Double.class));
+        dto.setFare(row.get("fare", Double.class));
+        dto.setStatus(row.get("status", String.class));
+        dto.setRiderName(row.get("rider_name", String.class));
+        dto.setRiderPhone(row.get("rider_phone", String.class));
+        boolean hasDriver = row.get("driver_id", Long.class) != null;
+        dto.setDriverName(hasDriver ? row.get("driver_name", String.class) : "Looking for driver...");
+        dto.setDriverPhone(hasDriver ? row.get("driver_phone", String.class) : "N/A");
+        dto.setPickupLocationDetails(row.get("pickup_location_details", String.class));
+        dto.setDropLocationDetails(row.get("drop_location_details", String.class));
+        dto.setRide(new RideDTO(
+                dto.getRideId(),
+                row.get("ride_pickup_location", String.class),
+                row.get("ride_drop_location", String.class),
+                priceOf(row, "price"),
+                row.get("ride_status", String.class),
+                dto.getDriverName(),
+                row.get("ride_distance_in_miles", Double.class),
+                row.get("estimated_duration_minutes", Integer.class)));
+        return dto;
+    }
+}
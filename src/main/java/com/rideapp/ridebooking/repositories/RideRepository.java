@@ -2,11 +2,57 @@ package com.rideapp.ridebooking.repositories;
 
 import com.rideapp.ridebooking.models.Ride;
 import com.rideapp.ridebooking.models.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface RideRepository extends JpaRepository<Ride, Long> {
     List<Ride> findByDriver(User driver);
-}
 
+    @Modifying(clearAutomatically = true)
+    @Query("update Ride r set r.driver = :driver, r.status = :status where r.rideId = :rideId")
+    int assignDriver(Long rideId, User driver, Ride.RideStatus status);
+
+    // Driver ids together with the number of rides they drive
+    @Query("select r.driver.userId, count(r) from Ride r where r.driver is not null group by r.driver.userId")
+    List<Object[]> countRidesPerDriver();
+
+    // Status lookups backed by the indexes declared on Ride
+    List<Ride> findByStatus(Ride.RideStatus status);
+
+    // Number of rides per status in a single GROUP BY pass
+    @Query("select r.status, count(r) from Ride r group by r.status")
+    List<Object[]> countGroupedByStatus();
+
+    // Keyset pages ordered by the primary key, loaded together with their driver
+    @EntityGraph(attributePaths = {"driver"})
+    List<Ride> findByRideIdGreaterThanOrderByRideIdAsc(Long rideId, Pageable page);
+
+    // Keyset page of rides in one status (seeks on idx_ride_status)
+    @EntityGraph(attributePaths = {"driver"})
+    List<Ride> findByStatusAndRideIdGreaterThanOrderByRideIdAsc(Ride.RideStatus status, Long rideId, Pageable page);
+
+    // Rides that got bookings but none accepted, all of them 20 minutes past their ride time
+    @Query("select r.rideId from Ride r where exists (select b from Booking b where b.ride = r) " +
+           "and not exists (select b from Booking b where b.ride = r and " +
+           "(b.status = com.rideapp.ridebooking.models.Booking.BookingStatus.ACCEPTED or b.rideAt is null or b.rideAt >= :cutoff)) " +
+           "order by r.rideId")
+    List<Long> findUnacceptedExpiredRideIds(LocalDateTime cutoff, Pageable page);
+
+    // Rides loaded together with their driver, for set-based validation
+    @EntityGraph(attributePaths = {"driver"})
+    List<Ride> findByRideIdIn(Collection<Long> rideIds);
+
+    @Query("select r.rideId from Ride r where r.driver.userId = :driverId")
+    List<Long> findRideIdsByDriverId(Long driverId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Ride r where r.rideId in :rideIds")
+    int deleteByRideIds(List<Long> rideIds);
+}
@@ -1,10 +1,24 @@
 package com.rideapp.ridebooking.repositories;
 
 import com.rideapp.ridebooking.models.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Optional<User> findByPhoneNumber(String phoneNumber);
+
+    // Status / phone lookups backed by the indexes declared on User
+    List<User> findByPhoneNumberNot(String phoneNumber);
+
+    // Number of non-admin users per status in a single GROUP BY pass
+    @Query("select u.status, count(u) from User u where u.phoneNumber is null or u.phoneNumber <> 'admin' group by u.status")
+    List<Object[]> countNonAdminGroupedByStatus();
+
+    // Keyset pages ordered by the primary key
+    List<User> findByUserIdGreaterThanOrderByUserIdAsc(Long userId, Pageable page);
 }
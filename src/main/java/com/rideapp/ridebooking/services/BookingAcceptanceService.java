@@ -0,0 +1,117 @@
+package com.rideapp.ridebooking.services;
+
+import com.rideapp.ridebooking.events.BookingEvent;
+import com.rideapp.ridebooking.exceptions.BookingConflictException;
+import com.rideapp.ridebooking.exceptions.BookingNotFoundException;
+import com.rideapp.ridebooking.models.Booking;
+import com.rideapp.ridebooking.models.Ride;
+import com.rideapp.ridebooking.models.User;
+import com.rideapp.ridebooking.repositories.BookingRepository;
+import com.rideapp.ridebooking.repositories.RideRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Consumer;
+
+// Assigns a booking to a driver with a conditional UPDATE on the booking's status, so when
+// several drivers accept the same booking at once exactly one of them wins and the rest get
+// a 409, without row locks or a version column. Every other status change (reject, admin cancel)
+// and detail edit goes through the same conditional UPDATE, and a rider cancel through the matching
+// conditional DELETE, so none of them can overwrite or remove an accepted booking.
+@Service
+public class BookingAcceptanceService {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public Booking accept(Booking booking, User driver) {
+        Booking.BookingStatus previousStatus = booking.getStatus();
+        if (previousStatus == Booking.BookingStatus.ACCEPTED) {
+            throw new BookingConflictException("❌ BOOKING ALREADY ACCEPTED: This booking has already been accepted by another driver!");
+        }
+
+        Ride ride = booking.getRide();
+        Boolean won = transactionTemplate.execute(tx -> {
+            int updated = bookingRepository.compareAndSetStatus(
+                    booking.getBookingId(), previousStatus, Booking.BookingStatus.ACCEPTED);
+            if (updated == 0) {
+                return false;
+            }
+            // Update the ride to be assigned to the accepting driver and mark it CONFIRMED
+            rideRepository.assignDriver(ride.getRideId(), driver, Ride.RideStatus.CONFIRMED);
+            return true;
+        });
+
+        if (!Boolean.TRUE.equals(won)) {
+            throw new BookingConflictException("❌ BOOKING ALREADY ACCEPTED: This booking has already been accepted by another driver!");
+        }
+
+        // The updates cleared the persistence context, so these only refresh the detached copy we return
+        ride.setDriver(driver);
+        ride.setStatus(Ride.RideStatus.CONFIRMED);
+        booking.setStatus(Booking.BookingStatus.ACCEPTED);
+
+        eventPublisher.publishEvent(BookingEvent.changed(BookingEvent.Type.ACCEPTED, booking, previousStatus));
+        return booking;
+    }
+
+    // Moves a booking from the status it was read with to newStatus; 409 if it changed in between
+    public Booking changeStatus(Booking booking, Booking.BookingStatus newStatus, BookingEvent.Type eventType) {
+        Booking.BookingStatus previousStatus = booking.getStatus();
+        Integer updated = transactionTemplate.execute(tx ->
+                bookingRepository.compareAndSetStatus(booking.getBookingId(), previousStatus, newStatus));
+        if (updated == null || updated == 0) {
+            throw new BookingConflictException("❌ BOOKING CHANGED: This booking is no longer " +
+                    previousStatus.name().toLowerCase() + ", please reload it");
+        }
+        booking.setStatus(newStatus);
+        eventPublisher.publishEvent(BookingEvent.changed(eventType, booking, previousStatus));
+        return booking;
+    }
+
+    // Deletes a booking that is still REQUESTED; 409 if it was accepted or rejected in the meantime
+    public void cancelRequested(Long bookingId) {
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new BookingNotFoundException("Booking not found with id: " + bookingId));
+        if (booking.getStatus() != Booking.BookingStatus.REQUESTED) {
+            throw new BookingConflictException("❌ Cannot cancel booking. Booking has already been " +
+                    booking.getStatus().name().toLowerCase());
+        }
+        Integer deleted = transactionTemplate.execute(tx ->
+                bookingRepository.deleteIfStatus(bookingId, Booking.BookingStatus.REQUESTED));
+        if (deleted == null || deleted == 0) {
+            throw new BookingConflictException("❌ BOOKING CHANGED: This booking is no longer requested, please reload it");
+        }
+        eventPublisher.publishEvent(BookingEvent.removed(BookingEvent.Type.CANCELLED, booking));
+    }
+
+    // Applies changes to a booking that is still REQUESTED. A no-op compare-and-set claims the row
+    // first: an accept that commits before it makes this a 409, one that comes after waits for these
+    // changes to commit.
+    public Booking updateRequested(Long bookingId, Consumer<Booking> changes) {
+        Booking updated = transactionTemplate.execute(tx -> {
+            if (bookingRepository.compareAndSetStatus(bookingId, Booking.BookingStatus.REQUESTED, Booking.BookingStatus.REQUESTED) == 0) {
+                Booking current = bookingRepository.findById(bookingId)
+                        .orElseThrow(() -> new BookingNotFoundException("Booking not found with id: " + bookingId));
+                throw new BookingConflictException("❌ Cannot update booking. Booking has already been " +
+                        current.getStatus().name().toLowerCase());
+            }
+            Booking booking = bookingRepository.findById(bookingId).orElseThrow();
+            changes.accept(booking);
+            return booking;
+        });
+        eventPublisher.publishEvent(BookingEvent.changed(BookingEvent.Type.UPDATED, updated, updated.getStatus()));
+        return updated;
+    }
+}
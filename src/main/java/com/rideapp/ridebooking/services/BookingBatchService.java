@@ -0,0 +1,135 @@
+package com.rideapp.ridebooking.services;
+
+import com.rideapp.ridebooking.dto.BookingBatchResult;
+import com.rideapp.ridebooking.dto.BookingDTO;
+import com.rideapp.ridebooking.dto.LocationDetails;
+import com.rideapp.ridebooking.dto.RideTime;
+import com.rideapp.ridebooking.events.BookingEvent;
+import com.rideapp.ridebooking.models.Booking;
+import com.rideapp.ridebooking.models.Ride;
+import com.rideapp.ridebooking.models.User;
+import com.rideapp.ridebooking.repositories.BookingRepository;
+import com.rideapp.ridebooking.repositories.RideRepository;
+import com.rideapp.ridebooking.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Creates many bookings in one request (corporate and event customers). The whole batch is checked
+// with two set-based lookups - its rides with their drivers, and its riders - and the valid bookings
+// are inserted in one transaction as JDBC batches (hibernate.jdbc.batch_size), which ids made before
+// the INSERT (@SnowflakeId) make possible. Each item gets its own result; an invalid item does not stop the others.
+@Service
+public class BookingBatchService {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${booking.batch.max-size:100}")
+    private int maxSize;
+
+    public List<BookingBatchResult> createAll(List<BookingDTO> requests) {
+        if (requests.size() > maxSize) {
+            throw new RuntimeException("❌ Too many bookings in one batch: " + requests.size() + " (at most " + maxSize + ")");
+        }
+        Set<Long> rideIds = new HashSet<>();
+        Set<Long> riderIds = new HashSet<>();
+        for (BookingDTO request : requests) {
+            if (request != null && request.getRideId() != null && request.getRiderId() != null) {
+                rideIds.add(request.getRideId());
+                riderIds.add(request.getRiderId());
+            }
+        }
+        Map<Long, Ride> rides = rideIds.isEmpty() ? Map.of() : rideRepository.findByRideIdIn(rideIds).stream()
+                .collect(Collectors.toMap(Ride::getRideId, Function.identity()));
+        Map<Long, User> riders = riderIds.isEmpty() ? Map.of() : userRepository.findAllById(riderIds).stream()
+                .collect(Collectors.toMap(User::getUserId, Function.identity()));
+
+        BookingBatchResult[] results = new BookingBatchResult[requests.size()];
+        List<Integer> indexes = new ArrayList<>();
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            BookingDTO request = requests.get(i);
+            if (request == null || request.getRideId() == null || request.getRiderId() == null) {
+                results[i] = BookingBatchResult.failed(i, "rideId and riderId are required");
+                continue;
+            }
+            Ride ride = rides.get(request.getRideId());
+            User rider = riders.get(request.getRiderId());
+            String error = ride == null ? "Ride not found" : rider == null ? "Rider not found" : selfBookingError(ride, rider);
+            if (error != null) {
+                results[i] = BookingBatchResult.failed(i, error);
+                continue;
+            }
+            indexes.add(i);
+            bookings.add(newBooking(ride, rider, request));
+        }
+
+        if (!bookings.isEmpty()) {
+            List<Booking> saved = transactionTemplate.execute(tx -> bookingRepository.saveAll(bookings));
+            for (int i = 0; i < saved.size(); i++) {
+                Booking booking = saved.get(i);
+                eventPublisher.publishEvent(BookingEvent.changed(BookingEvent.Type.CREATED, booking, null));
+                results[indexes.get(i)] = BookingBatchResult.created(indexes.get(i), BookingDTO.fromBooking(booking));
+            }
+        }
+        return List.of(results);
+    }
+
+    // The reason this rider may not book this ride, or null
+    public String selfBookingError(Ride ride, User rider) {
+        User driver = ride.getDriver();
+        if (driver == null) {
+            return null;
+        }
+        if (driver.getUserId().equals(rider.getUserId())) {
+            return "🚫 SELF-BOOKING BLOCKED: You cannot book your own ride!";
+        }
+        if (driver.getPhoneNumber().equals(rider.getPhoneNumber())) {
+            return "🚫 SELF-BOOKING BLOCKED: Same user detected attempting to book own ride!";
+        }
+        return null;
+    }
+
+    // A new REQUESTED booking from the request fields; distance and fare default to the ride's
+    public Booking newBooking(Ride ride, User rider, BookingDTO request) {
+        Booking booking = new Booking();
+        booking.setRide(ride);
+        booking.setRider(rider);
+        booking.setStatus(Booking.BookingStatus.REQUESTED);
+        booking.setPickupLocation(request.getPickupLocation());
+        booking.setDropLocation(request.getDropLocation());
+        booking.setRideTime(request.getRideTime());
+        booking.setRideAt(RideTime.resolve(booking.getRideTime(), booking.getCreatedAt()));
+        booking.setDistanceInMiles(request.getDistanceInMiles() != null ? request.getDistanceInMiles() : ride.getDistanceInMiles());
+        booking.setFare(request.getFare() != null ? request.getFare() : ride.getPrice());
+        booking.setPickupLocationDetails(request.getPickupLocationDetails());
+        booking.setDropLocationDetails(request.getDropLocationDetails());
+        double[] coordinates = LocationDetails.coordinatesOf(booking.getPickupLocationDetails());
+        booking.setPickupLatitude(coordinates != null ? coordinates[0] : null);
+        booking.setPickupLongitude(coordinates != null ? coordinates[1] : null);
+        return booking;
+    }
+}
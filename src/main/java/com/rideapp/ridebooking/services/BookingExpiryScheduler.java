@@ -0,0 +1,118 @@
+package com.rideapp.ridebooking.services;
+
+import com.rideapp.ridebooking.events.BookingEvent;
+import com.rideapp.ridebooking.models.Booking;
+import com.rideapp.ridebooking.repositories.BookingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Expires each booking at its own deadline instead of waiting for the next sweep:
+// ride time + 20 minutes while unaccepted, creation + 2 days once accepted.
+// Deadlines live in an ExpiryWheel kept in sync from BookingEvents and rebuilt from the database
+// at startup; a dedicated thread advances it every tick (1 s by default) and deletes what is due.
+@Service
+public class BookingExpiryScheduler {
+
+    private static final int WHEEL_SLOTS = 4096;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingHistoryService bookingHistoryService;
+
+    @Value("${booking.expiry.tick-ms:1000}")
+    private long tickMs = 1000;
+
+    private volatile ExpiryWheel wheel;
+    private ScheduledExecutorService ticker;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        // Installed before the read so changes made meanwhile are scheduled too; a deadline that
+        // comes out stale just triggers a delete whose expiry condition no longer matches
+        ExpiryWheel rebuilt = new ExpiryWheel(tickMs, WHEEL_SLOTS, System.currentTimeMillis());
+        wheel = rebuilt;
+        for (Object[] row : bookingRepository.findExpiryKeys()) {
+            LocalDateTime deadline = deadlineOf((Booking.BookingStatus) row[1], (LocalDateTime) row[2], (LocalDateTime) row[3]);
+            if (deadline != null) {
+                rebuilt.schedule((Long) row[0], toMillis(deadline));
+            }
+        }
+        System.out.println("⏰ Scheduled expiry for " + rebuilt.size() + " bookings");
+
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void shutdown() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    @EventListener
+    public void onBookingEvent(BookingEvent event) {
+        ExpiryWheel current = wheel;
+        if (current == null) {
+            // Not started yet; the startup rebuild reads the row from the database
+            return;
+        }
+        Booking booking = event.getBooking();
+        LocalDateTime deadline = event.getStatus() != null && booking != null
+                ? deadlineOf(booking.getStatus(), booking.getCreatedAt(), booking.getRideAt())
+                : null;
+        if (deadline != null) {
+            current.schedule(event.getBookingId(), toMillis(deadline));
+        } else {
+            current.cancel(event.getBookingId());
+        }
+    }
+
+    public int getScheduledCount() {
+        ExpiryWheel current = wheel;
+        return current != null ? current.size() : 0;
+    }
+
+    void tick() {
+        try {
+            List<Long> due = wheel.advance(System.currentTimeMillis());
+            if (due.isEmpty()) {
+                return;
+            }
+            int deleted = bookingHistoryService.expireBookings(due, LocalDateTime.now());
+            System.out.println("⏰ Expired " + deleted + " of " + due.size() + " bookings due");
+        } catch (RuntimeException e) {
+            // Anything missed here is picked up by the safety-net sweep
+            System.err.println("❌ Booking expiry tick failed: " + e.getMessage());
+        }
+    }
+
+    // null when the booking has no deadline (unaccepted without a usable ride time)
+    static LocalDateTime deadlineOf(Booking.BookingStatus status, LocalDateTime createdAt, LocalDateTime rideAt) {
+        if (status == Booking.BookingStatus.ACCEPTED) {
+            return createdAt != null ? createdAt.plusDays(BookingHistoryService.ACCEPTED_RETENTION_DAYS) : null;
+        }
+        return rideAt != null ? rideAt.plusMinutes(BookingHistoryService.UNACCEPTED_GRACE_MINUTES) : null;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -1,141 +1,212 @@
 package com.rideapp.ridebooking.services;
 
+import com.rideapp.ridebooking.events.BookingEvent;
 import com.rideapp.ridebooking.models.Booking;
-import com.rideapp.ridebooking.models.Ride;
 import com.rideapp.ridebooking.repositories.BookingRepository;
 import com.rideapp.ridebooking.repositories.RideRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
 
+// Deletes expired bookings and rides with set-based statements, a chunk of ids at a time.
+// Each chunk is selected, deleted and committed in its own short transaction, so the sweep never
+// holds locks on more than chunk-size rows; EXPIRED events go out after each chunk commits.
+// BookingExpiryScheduler expires bookings on time; the periodic sweep is the safety net behind it.
 @Service
 public class BookingHistoryService {
 
+    // Accepted bookings are kept this long after creation, the others this long after their ride time
+    public static final long ACCEPTED_RETENTION_DAYS = 2;
+    public static final long UNACCEPTED_GRACE_MINUTES = 20;
+
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Autowired
     private RideRepository rideRepository;
 
-    // Run cleanup every 10 minutes
-    @Scheduled(fixedRate = 600000) // 10 minutes = 600,000 milliseconds
-    public void performBookingAndRideCleanup() {
-        LocalDateTime now = LocalDateTime.now();
-        System.out.println("🧹 Running booking and ride cleanup at: " + now);
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
-        cleanupExpiredBookings(now);
-        cleanupUnacceptedRides(now);
-    }
+    @Autowired
+    private EntityCacheService entityCacheService;
 
-    private void cleanupExpiredBookings(LocalDateTime now) {
-        List<Booking> allBookings = bookingRepository.findAll();
-        int deletedBookings = 0;
+    @Autowired
+    private BookingMetrics bookingMetrics;
 
-        for (Booking booking : allBookings) {
-            if (shouldDeleteBooking(booking, now)) {
-                System.out.println("🗑️ Deleting expired booking: " + booking.getBookingId() + 
-                    " (Status: " + booking.getStatus() + ")");
-                bookingRepository.delete(booking);
-                deletedBookings++;
-            }
-        }
+    @Value("${booking.cleanup.chunk-size:500}")
+    private int chunkSize;
 
-        if (deletedBookings > 0) {
-            System.out.println("✅ Deleted " + deletedBookings + " expired bookings");
-        }
+    // Safety-net sweep, hourly by default
+    @Scheduled(fixedRateString = "${booking.cleanup.sweep-ms:3600000}")
+    public void performBookingAndRideCleanup() {
+        LocalDateTime now = LocalDateTime.now();
+        System.out.println("🧹 Running booking and ride cleanup at: " + now);
+        runCleanup(now);
     }
 
-    private void cleanupUnacceptedRides(LocalDateTime now) {
-        List<Ride> allRides = rideRepository.findAll();
-        int deletedRides = 0;
-
-        for (Ride ride : allRides) {
-            if (shouldDeleteRide(ride, now)) {
-                System.out.println("🗑️ Deleting unaccepted ride: " + ride.getRideId() + 
-                    " (No bookings accepted within time limit)");
-                rideRepository.delete(ride);
-                deletedRides++;
-            }
-        }
+    // Manual cleanup method for testing
+    public String performManualCleanup() {
+        LocalDateTime now = LocalDateTime.now();
+        CleanupReport report = runCleanup(now);
+        return "✅ Manual booking and ride cleanup completed at " + now + " (" + report + ")";
+    }
 
-        if (deletedRides > 0) {
-            System.out.println("✅ Deleted " + deletedRides + " unaccepted rides");
-        }
+    public CleanupReport runCleanup(LocalDateTime now) {
+        long startedAt = System.nanoTime();
+        CleanupReport report = new CleanupReport();
+
+        // Keep accepted bookings for 2 days from creation
+        LocalDateTime acceptedCutoff = now.minusDays(ACCEPTED_RETENTION_DAYS);
+        deleteBookingsInChunks(report,
+                page -> bookingRepository.findExpiredAcceptedKeys(acceptedCutoff, page),
+                ids -> bookingRepository.deleteExpiredAccepted(ids, acceptedCutoff));
+
+        // Delete unaccepted bookings 20 minutes after ride time
+        LocalDateTime rideCutoff = now.minusMinutes(UNACCEPTED_GRACE_MINUTES);
+        deleteBookingsInChunks(report,
+                page -> bookingRepository.findExpiredUnacceptedKeys(rideCutoff, page),
+                ids -> bookingRepository.deleteExpiredUnaccepted(ids, rideCutoff));
+
+        deleteUnacceptedRides(report, rideCutoff);
+
+        long elapsedNanos = System.nanoTime() - startedAt;
+        report.elapsedMillis = elapsedNanos / 1_000_000;
+        bookingMetrics.recordCleanup(BookingMetrics.CleanupRun.SWEEP, elapsedNanos, report.bookingsDeleted, report.ridesDeleted);
+        System.out.println("✅ Cleanup finished: " + report);
+        return report;
     }
 
-    private boolean shouldDeleteBooking(Booking booking, LocalDateTime now) {
-        if (booking.getStatus() == Booking.BookingStatus.ACCEPTED) {
-            // Keep accepted bookings for 2 days from creation
-            LocalDateTime expiryTime = booking.getCreatedAt().plusDays(2);
-            return now.isAfter(expiryTime);
-        } else {
-            // Delete unaccepted bookings 20 minutes after ride time
-            return isBookingExpiredAfterRideTime(booking, now);
+    // Deletes the given bookings that are expired as of now; returns how many were deleted
+    public int expireBookings(List<Long> bookingIds, LocalDateTime now) {
+        long startedAt = System.nanoTime();
+        LocalDateTime acceptedCutoff = now.minusDays(ACCEPTED_RETENTION_DAYS);
+        LocalDateTime rideCutoff = now.minusMinutes(UNACCEPTED_GRACE_MINUTES);
+        int deletedCount = 0;
+        for (int from = 0; from < bookingIds.size(); from += chunkSize) {
+            List<Long> ids = bookingIds.subList(from, Math.min(from + chunkSize, bookingIds.size()));
+            List<Object[]> deleted = transactionTemplate.execute(tx -> {
+                List<Object[]> keys = bookingRepository.findKeysByBookingIds(ids);
+                int count = bookingRepository.deleteExpiredAccepted(ids, acceptedCutoff)
+                        + bookingRepository.deleteExpiredUnaccepted(ids, rideCutoff);
+                return count == keys.size() ? keys : withoutSurvivors(keys, bookingRepository.findExistingIds(ids));
+            });
+            publishExpired(deleted);
+            deletedCount += deleted.size();
         }
+        bookingMetrics.recordCleanup(BookingMetrics.CleanupRun.EXPIRY, System.nanoTime() - startedAt, deletedCount, 0);
+        return deletedCount;
     }
 
-    private boolean shouldDeleteRide(Ride ride, LocalDateTime now) {
-        // Check if any booking for this ride was accepted
-        List<Booking> rideBookings = bookingRepository.findAll().stream()
-            .filter(booking -> booking.getRide().getRideId().equals(ride.getRideId()))
-            .toList();
+    // findChunk returns up to a page of (bookingId, riderId, status) keys still matching the condition,
+    // deleteChunk deletes those ids that still match it; repeated until a short chunk comes back
+    void deleteBookingsInChunks(CleanupReport report,
+                                       Function<Pageable, List<Object[]>> findChunk,
+                                       Function<List<Long>, Integer> deleteChunk) {
+        Pageable firstChunk = PageRequest.of(0, chunkSize);
+        int[] selected = new int[1];
+        do {
+            // Deleted rows drop out of the expiry condition, so every chunk is read from the start
+            List<Object[]> deleted = transactionTemplate.execute(tx -> {
+                List<Object[]> keys = findChunk.apply(firstChunk);
+                selected[0] = keys.size();
+                report.bookingsScanned += keys.size();
+                if (keys.isEmpty()) {
+                    return keys;
+                }
+                List<Long> ids = idsOf(keys);
+                int count = deleteChunk.apply(ids);
+                return count == ids.size() ? keys : withoutSurvivors(keys, bookingRepository.findExistingIds(ids));
+            });
+            publishExpired(deleted);
+            report.bookingsDeleted += deleted.size();
+        } while (selected[0] == chunkSize);
+    }
 
-        boolean hasAcceptedBooking = rideBookings.stream()
-            .anyMatch(booking -> booking.getStatus() == Booking.BookingStatus.ACCEPTED);
+    // Rides with bookings but none accepted, all past ride time + 20 minutes; their bookings go with them
+    private void deleteUnacceptedRides(CleanupReport report, LocalDateTime rideCutoff) {
+        Pageable firstChunk = PageRequest.of(0, chunkSize);
+        int[] selected = new int[1];
+        do {
+            List<Object[]> deletedBookings = new ArrayList<>();
+            List<Long> rideIds = new ArrayList<>();
+            int deletedRides = transactionTemplate.execute(tx -> {
+                rideIds.addAll(rideRepository.findUnacceptedExpiredRideIds(rideCutoff, firstChunk));
+                selected[0] = rideIds.size();
+                report.ridesScanned += rideIds.size();
+                if (rideIds.isEmpty()) {
+                    return 0;
+                }
+                deletedBookings.addAll(bookingRepository.findKeysByRideIds(rideIds));
+                bookingRepository.deleteByRideIds(rideIds);
+                return rideRepository.deleteByRideIds(rideIds);
+            });
+            entityCacheService.evictRides(rideIds);
+            publishExpired(deletedBookings);
+            report.bookingsDeleted += deletedBookings.size();
+            report.ridesDeleted += deletedRides;
+        } while (selected[0] == chunkSize);
+    }
 
-        if (hasAcceptedBooking) {
-            // Don't delete rides with accepted bookings
-            return false;
+    private void publishExpired(List<Object[]> keys) {
+        for (Object[] key : keys) {
+            eventPublisher.publishEvent(BookingEvent.removed(BookingEvent.Type.EXPIRED,
+                    (Long) key[0], (Long) key[1], (Booking.BookingStatus) key[2]));
         }
+    }
 
-        // Delete ride if no bookings were accepted and it's past ride time + 20 minutes
-        if (rideBookings.isEmpty()) {
-            // No bookings at all - keep the ride (it's available for new bookings)
-            return false;
+    private static List<Long> idsOf(List<Object[]> keys) {
+        List<Long> ids = new ArrayList<>(keys.size());
+        for (Object[] key : keys) {
+            ids.add((Long) key[0]);
         }
-
-        // Check if all bookings are expired (ride time + 20 minutes passed)
-        return rideBookings.stream()
-            .allMatch(booking -> isBookingExpiredAfterRideTime(booking, now));
+        return ids;
     }
 
-    private boolean isBookingExpiredAfterRideTime(Booking booking, LocalDateTime now) {
-        try {
-            String rideTimeStr = booking.getRideTime();
-            if (rideTimeStr == null || rideTimeStr.trim().isEmpty()) {
-                return false;
-            }
-
-            // Parse the ride time (format: "HH:mm")
-            LocalTime rideTime = LocalTime.parse(rideTimeStr, DateTimeFormatter.ofPattern("HH:mm"));
-            
-            // Create today's date with the ride time
-            LocalDateTime rideDateTime = now.toLocalDate().atTime(rideTime);
-            
-            // If ride time is in the future today, don't delete
-            if (rideDateTime.isAfter(now)) {
-                return false;
+    // Bookings that changed between the select and the delete are still there; leave them out
+    private static List<Object[]> withoutSurvivors(List<Object[]> keys, List<Long> survivorIds) {
+        Set<Long> survivors = new HashSet<>(survivorIds);
+        List<Object[]> deleted = new ArrayList<>();
+        for (Object[] key : keys) {
+            if (!survivors.contains((Long) key[0])) {
+                deleted.add(key);
             }
-            
-            // If ride time was today but in the past, check if 20 minutes have passed
-            LocalDateTime expiryTime = rideDateTime.plusMinutes(20);
-            return now.isAfter(expiryTime);
-            
-        } catch (Exception e) {
-            System.out.println("⚠️ Could not parse ride time: " + booking.getRideTime() + " - " + e.getMessage());
-            return false;
         }
+        return deleted;
     }
 
-    // Manual cleanup method for testing
-    public String performManualCleanup() {
-        LocalDateTime now = LocalDateTime.now();
-        performBookingAndRideCleanup();
-        return "✅ Manual booking and ride cleanup completed at " + now;
+    public static class CleanupReport {
+        private long bookingsScanned;
+        private long bookingsDeleted;
+        private long ridesScanned;
+        private long ridesDeleted;
+        private long elapsedMillis;
+
+        public long getBookingsScanned() { return bookingsScanned; }
+        public long getBookingsDeleted() { return bookingsDeleted; }
+        public long getRidesScanned() { return ridesScanned; }
+        public long getRidesDeleted() { return ridesDeleted; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        @Override
+        public String toString() {
+            return "scanned " + bookingsScanned + " bookings / " + ridesScanned + " rides, deleted "
+                    + bookingsDeleted + " bookings / " + ridesDeleted + " rides in " + elapsedMillis + " ms";
+        }
     }
 }
@@ -0,0 +1,255 @@
+package com.rideapp.ridebooking.services;
+
+import com.rideapp.ridebooking.dto.BookingJournalEntry;
+import com.rideapp.ridebooking.events.BookingEvent;
+import com.rideapp.ridebooking.journal.Journal;
+import com.rideapp.ridebooking.journal.JournalReader;
+import com.rideapp.ridebooking.journal.JournalRecord;
+import com.rideapp.ridebooking.models.Booking;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Writes every BookingEvent to the booking journal, an append-only audit trail of the lifecycle that
+// analytics and audit consumers can tail (openReader / read) without querying the database.
+// The event is encoded into a per-thread buffer and copied into the mapped segment on the publishing
+// thread; fsyncs are batched on the journal's flusher thread, so requests never wait for the disk.
+//
+// Record body: event type, bookingId, riderId, previous and new status (ordinal + 1, 0 for none), then,
+// when the event carries the booking, its ride, driver, times, fare, coordinates and location fields.
+@Service
+public class BookingJournalService {
+
+    public static final byte BOOKING_EVENT = 1;
+
+    private static final BookingEvent.Type[] TYPES = BookingEvent.Type.values();
+    private static final Booking.BookingStatus[] STATUSES = Booking.BookingStatus.values();
+
+    @Value("${journal.enabled:true}")
+    private boolean enabled;
+
+    @Value("${journal.dir:journal}")
+    private String directory;
+
+    @Value("${journal.segment-size-mb:64}")
+    private int segmentSizeMb;
+
+    @Value("${journal.fsync:group}")
+    private String fsync;
+
+    @Value("${journal.fsync-interval-ms:20}")
+    private long fsyncIntervalMillis;
+
+    private Journal journal;
+    private final ThreadLocal<ByteBuffer> buffers = ThreadLocal.withInitial(() -> ByteBuffer.allocate(4096));
+    private final AtomicLong failedAppends = new AtomicLong();
+
+    @PostConstruct
+    void openJournal() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Journal.FsyncPolicy policy = Journal.FsyncPolicy.valueOf(fsync.trim().toUpperCase());
+        journal = Journal.open(Path.of(directory), segmentSizeMb * 1024 * 1024, policy, fsyncIntervalMillis);
+        System.out.println("📒 Booking journal at " + journal.getDirectory().toAbsolutePath()
+                + " (last sequence " + journal.getLastSequence() + ", fsync " + policy + ")");
+    }
+
+    @PreDestroy
+    void closeJournal() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @EventListener
+    public void onBookingEvent(BookingEvent event) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.append(BOOKING_EVENT, encode(event));
+        } catch (RuntimeException e) {
+            // The database change has already happened; a journal problem must not fail the request
+            failedAppends.incrementAndGet();
+            System.out.println("❌ Booking journal append failed for booking " + event.getBookingId() + ": " + e.getMessage());
+        }
+    }
+
+    public boolean isEnabled() {
+        return journal != null;
+    }
+
+    // Tails the journal from fromSequence (see JournalReader); the caller closes the reader
+    public JournalReader openReader(long fromSequence) throws IOException {
+        if (journal == null) {
+            throw new IllegalStateException("Booking journal is disabled");
+        }
+        return journal.openReader(fromSequence);
+    }
+
+    // Up to limit entries from fromSequence on
+    public List<BookingJournalEntry> read(long fromSequence, int limit) throws IOException {
+        List<BookingJournalEntry> entries = new ArrayList<>();
+        try (JournalReader reader = openReader(fromSequence)) {
+            JournalRecord record;
+            while (entries.size() < limit && (record = reader.next()) != null) {
+                if (record.getType() == BOOKING_EVENT) {
+                    entries.add(decode(record));
+                }
+            }
+        }
+        return entries;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", journal != null);
+        if (journal != null) {
+            stats.putAll(journal.stats());
+        }
+        stats.put("failedAppends", failedAppends.get());
+        return stats;
+    }
+
+    ByteBuffer encode(BookingEvent event) {
+        ByteBuffer buffer = buffers.get();
+        while (true) {
+            try {
+                buffer.clear();
+                writeEvent(buffer, event);
+                return buffer.flip();
+            } catch (BufferOverflowException e) {
+                // Long location details; grow this thread's buffer and retry
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+                buffers.set(buffer);
+            }
+        }
+    }
+
+    private static void writeEvent(ByteBuffer buffer, BookingEvent event) {
+        buffer.put((byte) event.getType().ordinal());
+        buffer.putLong(idOf(event.getBookingId()));
+        buffer.putLong(idOf(event.getRiderId()));
+        buffer.put(statusOf(event.getPreviousStatus()));
+        buffer.put(statusOf(event.getStatus()));
+        Booking booking = event.getBooking();
+        buffer.put((byte) (booking != null ? 1 : 0));
+        if (booking == null) {
+            return;
+        }
+        buffer.putLong(booking.getRide() != null ? idOf(booking.getRide().getRideId()) : 0);
+        buffer.putLong(booking.getRide() != null && booking.getRide().getDriver() != null
+                ? idOf(booking.getRide().getDriver().getUserId()) : 0);
+        buffer.putLong(timeOf(booking.getCreatedAt()));
+        buffer.putLong(timeOf(booking.getRideAt()));
+        buffer.putDouble(valueOf(booking.getFare()));
+        buffer.putDouble(valueOf(booking.getDistanceInMiles()));
+        buffer.putDouble(valueOf(booking.getPickupLatitude()));
+        buffer.putDouble(valueOf(booking.getPickupLongitude()));
+        putString(buffer, booking.getPickupLocation());
+        putString(buffer, booking.getDropLocation());
+        putString(buffer, booking.getRideTime());
+        putString(buffer, booking.getPickupLocationDetails());
+        putString(buffer, booking.getDropLocationDetails());
+    }
+
+    public static BookingJournalEntry decode(JournalRecord record) {
+        ByteBuffer buffer = ByteBuffer.wrap(record.getBody());
+        BookingJournalEntry entry = new BookingJournalEntry();
+        entry.setSequence(record.getSequence());
+        entry.setTimestamp(record.getTimestamp());
+        entry.setType(TYPES[buffer.get()].name());
+        entry.setBookingId(idFrom(buffer.getLong()));
+        entry.setRiderId(idFrom(buffer.getLong()));
+        entry.setPreviousStatus(statusFrom(buffer.get()));
+        entry.setStatus(statusFrom(buffer.get()));
+        if (buffer.get() == 0) {
+            return entry;
+        }
+        entry.setRideId(idFrom(buffer.getLong()));
+        entry.setDriverId(idFrom(buffer.getLong()));
+        entry.setCreatedAt(timeFrom(buffer.getLong()));
+        entry.setRideAt(timeFrom(buffer.getLong()));
+        entry.setFare(valueFrom(buffer.getDouble()));
+        entry.setDistanceInMiles(valueFrom(buffer.getDouble()));
+        entry.setPickupLatitude(valueFrom(buffer.getDouble()));
+        entry.setPickupLongitude(valueFrom(buffer.getDouble()));
+        entry.setPickupLocation(getString(buffer));
+        entry.setDropLocation(getString(buffer));
+        entry.setRideTime(getString(buffer));
+        entry.setPickupLocationDetails(getString(buffer));
+        entry.setDropLocationDetails(getString(buffer));
+        return entry;
+    }
+
+    // Ids start at 1, so 0 stands for none
+    private static long idOf(Long id) {
+        return id != null ? id : 0;
+    }
+
+    private static Long idFrom(long id) {
+        return id != 0 ? id : null;
+    }
+
+    private static byte statusOf(Booking.BookingStatus status) {
+        return (byte) (status != null ? status.ordinal() + 1 : 0);
+    }
+
+    private static String statusFrom(byte status) {
+        return status != 0 ? STATUSES[status - 1].name() : null;
+    }
+
+    // Local date-times are stored as their wall-clock millis
+    private static long timeOf(LocalDateTime time) {
+        return time != null ? time.toInstant(ZoneOffset.UTC).toEpochMilli() : Long.MIN_VALUE;
+    }
+
+    private static LocalDateTime timeFrom(long millis) {
+        return millis != Long.MIN_VALUE ? LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC) : null;
+    }
+
+    private static double valueOf(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+
+    private static Double valueFrom(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
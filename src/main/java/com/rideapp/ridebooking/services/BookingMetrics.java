@@ -0,0 +1,111 @@
+package com.rideapp.ridebooking.services;
+
+import com.rideapp.ridebooking.events.BookingEvent;
+import com.rideapp.ridebooking.models.Booking;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+// Booking lifecycle metrics, exported with the rest at /actuator/prometheus:
+//   booking.transitions          status changes by event type (from/to "none" when the row is new or gone)
+//   booking.accept.latency       time from booking request to driver acceptance, one sample per booking
+//   booking.cleanup.duration     cleanup runs by kind (sweep, expiry tick, ride-time cleanup)
+//   booking.cleanup.deleted      rows those runs deleted, by table
+// Meters are looked up once and kept in arrays indexed by enum ordinal, so recording is a plain
+// increment with no tag or id allocation.
+@Service
+public class BookingMetrics {
+
+    public enum CleanupRun {
+        SWEEP, EXPIRY, RIDE_TIME
+    }
+
+    private static final BookingEvent.Type[] TYPES = BookingEvent.Type.values();
+    private static final Booking.BookingStatus[] STATUSES = Booking.BookingStatus.values();
+    private static final CleanupRun[] RUNS = CleanupRun.values();
+    // Status slots: 0 for "none", then one per status
+    private static final int SLOTS = STATUSES.length + 1;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Created on first use; only a few of the type/from/to combinations ever occur
+    private final Counter[] transitions = new Counter[TYPES.length * SLOTS * SLOTS];
+    private Timer acceptLatency;
+    private Timer[] cleanupDurations;
+    private Counter[] bookingsDeleted;
+    private Counter[] ridesDeleted;
+
+    @PostConstruct
+    void registerMeters() {
+        acceptLatency = Timer.builder("booking.accept.latency")
+                .description("Time from booking request to driver acceptance")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofSeconds(1))
+                .maximumExpectedValue(Duration.ofDays(1))
+                .register(meterRegistry);
+        cleanupDurations = new Timer[RUNS.length];
+        bookingsDeleted = new Counter[RUNS.length];
+        ridesDeleted = new Counter[RUNS.length];
+        for (CleanupRun run : RUNS) {
+            String tag = run.name().toLowerCase();
+            cleanupDurations[run.ordinal()] = Timer.builder("booking.cleanup.duration")
+                    .description("Duration of booking cleanup runs")
+                    .tag("run", tag)
+                    .register(meterRegistry);
+            bookingsDeleted[run.ordinal()] = Counter.builder("booking.cleanup.deleted")
+                    .description("Rows deleted by booking cleanup runs")
+                    .tags("run", tag, "table", "booking")
+                    .register(meterRegistry);
+            ridesDeleted[run.ordinal()] = Counter.builder("booking.cleanup.deleted")
+                    .description("Rows deleted by booking cleanup runs")
+                    .tags("run", tag, "table", "rides")
+                    .register(meterRegistry);
+        }
+    }
+
+    @EventListener
+    public void onBookingEvent(BookingEvent event) {
+        int from = slotOf(event.getPreviousStatus());
+        int to = slotOf(event.getStatus());
+        int index = (event.getType().ordinal() * SLOTS + from) * SLOTS + to;
+        Counter counter = transitions[index];
+        if (counter == null) {
+            // Racing threads get the same counter back from the registry
+            counter = Counter.builder("booking.transitions")
+                    .description("Booking status changes")
+                    .tags("event", event.getType().name().toLowerCase(), "from", nameOf(from), "to", nameOf(to))
+                    .register(meterRegistry);
+            transitions[index] = counter;
+        }
+        counter.increment();
+
+        Booking booking = event.getBooking();
+        if (event.getType() == BookingEvent.Type.ACCEPTED && booking != null && booking.getCreatedAt() != null) {
+            long requestedAt = booking.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            acceptLatency.record(Math.max(0, System.currentTimeMillis() - requestedAt), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void recordCleanup(CleanupRun run, long elapsedNanos, long bookings, long rides) {
+        cleanupDurations[run.ordinal()].record(elapsedNanos, TimeUnit.NANOSECONDS);
+        bookingsDeleted[run.ordinal()].increment(bookings);
+        ridesDeleted[run.ordinal()].increment(rides);
+    }
+
+    private static int slotOf(Booking.BookingStatus status) {
+        return status != null ? status.ordinal() + 1 : 0;
+    }
+
+    private static String nameOf(int slot) {
+        return slot == 0 ? "none" : STATUSES[slot - 1].name().toLowerCase();
+    }
+}
@@ -0,0 +1,290 @@
+package com.rideapp.ridebooking.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rideapp.ridebooking.dto.BookingDTO;
+import com.rideapp.ridebooking.events.BookingEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Fans BookingEvents out to Server-Sent Events subscribers (GET /bookings/stream).
+// Every event is serialized once, numbered, and kept in a replay buffer so a reconnecting client
+// can resume from its Last-Event-ID. Each subscriber has its own bounded queue drained by a small
+// sender pool, so a slow connection never blocks the request that published the event; when a
+// queue overflows the oldest deltas are dropped and the client is told to resync.
+@Service
+public class BookingStreamService {
+
+    public static final String RESYNC_EVENT = "RESYNC";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${booking.stream.replay-size:1024}")
+    private int replaySize = 1024;
+
+    @Value("${booking.stream.subscriber-buffer:256}")
+    private int subscriberBuffer = 256;
+
+    @Value("${booking.stream.timeout-ms:1800000}")
+    private long timeoutMs = 1800000;
+
+    private final ReentrantLock publishLock = new ReentrantLock();
+    // Ids keep increasing across restarts, so an id from before a restart is always older than the buffer
+    private volatile long lastEventId = System.currentTimeMillis() * 1000;
+    private StreamEvent[] replay;
+    private int replayCount;
+    private int replayNext;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sender = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "booking-stream-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Opens a stream; lastEventId (may be null) replays everything the client missed, or asks it to resync
+    public SseEmitter subscribe(Long lastEventId) {
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeoutMs));
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(error -> subscribers.remove(subscriber));
+
+        // Register and take the replay snapshot under the publish lock so no event falls in between
+        publishLock.lock();
+        try {
+            if (lastEventId != null) {
+                List<StreamEvent> missed = eventsAfter(lastEventId);
+                if (missed == null) {
+                    subscriber.offer(resyncEvent());
+                } else {
+                    missed.forEach(subscriber::offer);
+                }
+            }
+            // Flushes the response headers so the client's onopen fires right away
+            subscriber.offerHeartbeat();
+            subscribers.add(subscriber);
+        } finally {
+            publishLock.unlock();
+        }
+        subscriber.scheduleDrain();
+        return subscriber.emitter;
+    }
+
+    @EventListener
+    public void onBookingEvent(BookingEvent event) {
+        Map<String, Object> delta = new LinkedHashMap<>();
+        delta.put("type", event.getType());
+        delta.put("bookingId", event.getBookingId());
+        delta.put("riderId", event.getRiderId());
+        delta.put("previousStatus", event.getPreviousStatus());
+        delta.put("status", event.getStatus());
+        // Full booking only while the row exists; removals just carry the id
+        if (event.getStatus() != null && event.getBooking() != null) {
+            delta.put("booking", BookingDTO.fromBooking(event.getBooking()));
+        }
+        publish(event.getType().name(), delta);
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    // Comment line every 15 s keeps idle connections open through proxies and notices dead clients
+    @Scheduled(fixedRateString = "${booking.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offerHeartbeat();
+            subscriber.scheduleDrain();
+        }
+    }
+
+    // Close the streams before the web server's graceful shutdown starts waiting on open requests
+    @EventListener(ContextClosedEvent.class)
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+        sender.shutdown();
+    }
+
+    void publish(String name, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            System.err.println("❌ Could not serialize booking stream event: " + e.getMessage());
+            return;
+        }
+
+        publishLock.lock();
+        try {
+            StreamEvent event = new StreamEvent(++lastEventId, name, json);
+            if (replay == null) {
+                replay = new StreamEvent[replaySize];
+            }
+            replay[replayNext] = event;
+            replayNext = (replayNext + 1) % replay.length;
+            replayCount = Math.min(replayCount + 1, replay.length);
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(event);
+            }
+        } finally {
+            publishLock.unlock();
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.scheduleDrain();
+        }
+    }
+
+    // Events newer than lastEventId, or null when some of them have already left the replay buffer
+    private List<StreamEvent> eventsAfter(long lastEventId) {
+        List<StreamEvent> missed = new ArrayList<>();
+        if (lastEventId >= this.lastEventId) {
+            return lastEventId == this.lastEventId ? missed : null;
+        }
+        long oldestRetained = this.lastEventId - replayCount + 1;
+        if (lastEventId < oldestRetained - 1) {
+            return null;
+        }
+        for (int i = replayCount - 1; i >= 0; i--) {
+            StreamEvent event = replay[Math.floorMod(replayNext - 1 - i, replay.length)];
+            if (event.id > lastEventId) {
+                missed.add(event);
+            }
+        }
+        return missed;
+    }
+
+    private StreamEvent resyncEvent() {
+        return new StreamEvent(lastEventId, RESYNC_EVENT, "{}");
+    }
+
+    private static final class StreamEvent {
+        static final StreamEvent HEARTBEAT = new StreamEvent(0, null, null);
+
+        final long id;
+        final String name;
+        final String json;
+
+        StreamEvent(long id, String name, String json) {
+            this.id = id;
+            this.name = name;
+            this.json = json;
+        }
+    }
+
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final ArrayDeque<StreamEvent> queue = new ArrayDeque<>();
+        final ReentrantLock queueLock = new ReentrantLock();
+        final AtomicBoolean draining = new AtomicBoolean();
+        boolean overflowed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        // Drop-oldest: a full queue loses its oldest delta and the client gets a RESYNC instead
+        void offer(StreamEvent event) {
+            queueLock.lock();
+            try {
+                if (queue.size() >= subscriberBuffer) {
+                    queue.pollFirst();
+                    overflowed = true;
+                }
+                queue.addLast(event);
+            } finally {
+                queueLock.unlock();
+            }
+        }
+
+        // Heartbeats only go into an idle queue, they never push out a real delta
+        void offerHeartbeat() {
+            queueLock.lock();
+            try {
+                if (queue.isEmpty()) {
+                    queue.addLast(StreamEvent.HEARTBEAT);
+                }
+            } finally {
+                queueLock.unlock();
+            }
+        }
+
+        void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RuntimeException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                while (true) {
+                    StreamEvent event;
+                    boolean resync;
+                    queueLock.lock();
+                    try {
+                        event = queue.pollFirst();
+                        resync = overflowed;
+                        overflowed = false;
+                    } finally {
+                        queueLock.unlock();
+                    }
+                    if (resync) {
+                        send(resyncEvent());
+                    }
+                    if (event == null) {
+                        break;
+                    }
+                    send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the emitter callbacks take it out of the subscriber set
+                subscribers.remove(this);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // Something may have been queued after the last poll but before draining was cleared
+            queueLock.lock();
+            boolean pending;
+            try {
+                pending = !queue.isEmpty();
+            } finally {
+                queueLock.unlock();
+            }
+            if (pending) {
+                scheduleDrain();
+            }
+        }
+
+        private void send(StreamEvent event) throws IOException {
+            if (event == StreamEvent.HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } else {
+                emitter.send(SseEmitter.event().id(Long.toString(event.id)).name(event.name).data(event.json));
+            }
+        }
+    }
+}
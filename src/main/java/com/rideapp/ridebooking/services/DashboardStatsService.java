@@ -0,0 +1,138 @@
+package com.rideapp.ridebooking.services;
+
+import com.rideapp.ridebooking.models.Booking;
+import com.rideapp.ridebooking.models.Ride;
+import com.rideapp.ridebooking.models.User;
+import com.rideapp.ridebooking.repositories.BookingRepository;
+import com.rideapp.ridebooking.repositories.RideRepository;
+import com.rideapp.ridebooking.repositories.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+public class DashboardStatsService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    // How long a computed snapshot is served before the counts are re-queried
+    @Value("${admin.dashboard.stats-ttl-ms:5000}")
+    private long statsTtlMillis;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // The counts are read in a read-only transaction (a read replica when datasource.replicas.enabled is set)
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    void createReadOnlyTransaction() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+
+    // Returns the shared snapshot; only one caller recomputes it once it has expired,
+    // concurrent admin requests wait for that refresh instead of querying on their own.
+    public Map<String, Object> getStats() {
+        Snapshot current = snapshot;
+        if (current != null && !current.isExpired()) {
+            return current.stats;
+        }
+
+        refreshLock.lock();
+        try {
+            current = snapshot;
+            if (current == null || current.isExpired()) {
+                current = new Snapshot(readOnlyTransaction.execute(tx -> computeStats()),
+                        System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(statsTtlMillis));
+                snapshot = current;
+            }
+            return current.stats;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private Map<String, Object> computeStats() {
+        // User statistics (admin excluded by the query)
+        Map<Object, Long> users = toStatusCounts(userRepository.countNonAdminGroupedByStatus());
+        long totalUsers = sum(users);
+        long activeUsers = users.getOrDefault(User.Status.ACTIVE, 0L);
+
+        // Ride statistics
+        Map<Object, Long> rides = toStatusCounts(rideRepository.countGroupedByStatus());
+
+        // Booking statistics
+        Map<Object, Long> bookings = toStatusCounts(bookingRepository.countGroupedByStatus());
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("users", Map.of(
+                "total", totalUsers,
+                "active", activeUsers,
+                "blocked", totalUsers - activeUsers
+        ));
+        stats.put("rides", Map.of(
+                "total", sum(rides),
+                "pending", rides.getOrDefault(Ride.RideStatus.PENDING, 0L),
+                "completed", rides.getOrDefault(Ride.RideStatus.COMPLETED, 0L)
+        ));
+        stats.put("bookings", Map.of(
+                "total", sum(bookings),
+                "accepted", bookings.getOrDefault(Booking.BookingStatus.ACCEPTED, 0L),
+                "pending", bookings.getOrDefault(Booking.BookingStatus.REQUESTED, 0L)
+        ));
+        return Collections.unmodifiableMap(stats);
+    }
+
+    // Turns [status, count] rows into a map; a null status is kept as its own key so it still counts towards totals
+    private Map<Object, Long> toStatusCounts(List<Object[]> rows) {
+        Map<Object, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put(row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    private long sum(Map<Object, Long> counts) {
+        long total = 0;
+        for (Long count : counts.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    private static class Snapshot {
+        private final Map<String, Object> stats;
+        private final long expiresAtNanos;
+
+        Snapshot(Map<String, Object> stats, long expiresAtNanos) {
+            this.stats = stats;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos >= 0;
+        }
+    }
+}
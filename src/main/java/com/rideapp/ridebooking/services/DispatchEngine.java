@@ -0,0 +1,142 @@
+package com.rideapp.ridebooking.services;
+
+import com.rideapp.ridebooking.exceptions.BookingConflictException;
+import com.rideapp.ridebooking.models.Booking;
+import com.rideapp.ridebooking.models.User;
+import com.rideapp.ridebooking.repositories.BookingRepository;
+import com.rideapp.ridebooking.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Automatic batch dispatch: on every tick, matches the pending bookings in PendingBookingGeoIndex
+// against the available drivers in DriverLocationRegistry and accepts the chosen pairs through
+// BookingAcceptanceService, the same atomic path as PUT /bookings/{id}/accept.
+// Disabled unless dispatch.enabled=true; drivers can keep accepting manually either way.
+@Service
+public class DispatchEngine {
+
+    @Autowired
+    private PendingBookingGeoIndex pendingBookingGeoIndex;
+
+    @Autowired
+    private DriverLocationRegistry driverLocationRegistry;
+
+    @Autowired
+    private BookingAcceptanceService bookingAcceptanceService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${dispatch.enabled:false}")
+    private boolean enabled;
+
+    @Value("${dispatch.max-pickup-miles:5}")
+    private double maxPickupMiles;
+
+    // Batches with at most this many request x driver pairs are solved exactly
+    @Value("${dispatch.small-batch-limit:40000}")
+    private long smallBatchLimit;
+
+    @Scheduled(fixedDelayString = "${dispatch.tick-ms:5000}")
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+        runDispatch();
+    }
+
+    public int runDispatch() {
+        long startedAt = System.nanoTime();
+
+        // Snapshot of open requests with coordinates, straight from the in-memory index
+        List<Long> requestIds = new ArrayList<>();
+        List<double[]> requestPositions = new ArrayList<>();
+        pendingBookingGeoIndex.forEachPending((bookingId, latitude, longitude) -> {
+            requestIds.add(bookingId);
+            requestPositions.add(new double[] { latitude, longitude });
+        });
+        List<DriverLocationRegistry.DriverPosition> drivers = driverLocationRegistry.getAvailableDrivers();
+        if (requestIds.isEmpty() || drivers.isEmpty()) {
+            return 0;
+        }
+
+        double[] requestLat = new double[requestIds.size()];
+        double[] requestLng = new double[requestIds.size()];
+        for (int i = 0; i < requestIds.size(); i++) {
+            requestLat[i] = requestPositions.get(i)[0];
+            requestLng[i] = requestPositions.get(i)[1];
+        }
+        double[] driverLat = new double[drivers.size()];
+        double[] driverLng = new double[drivers.size()];
+        for (int i = 0; i < drivers.size(); i++) {
+            driverLat[i] = drivers.get(i).getLatitude();
+            driverLng[i] = drivers.get(i).getLongitude();
+        }
+
+        List<DispatchMatcher.Assignment> assignments = new DispatchMatcher(maxPickupMiles, smallBatchLimit)
+                .match(requestLat, requestLng, driverLat, driverLng);
+        long matchedAt = System.nanoTime();
+
+        int applied = applyAssignments(assignments, requestIds, drivers);
+
+        System.out.println("🚕 Dispatch tick: " + requestIds.size() + " requests, " + drivers.size() + " drivers, "
+                + assignments.size() + " matched in " + (matchedAt - startedAt) / 1_000_000 + " ms, "
+                + applied + " accepted in " + (System.nanoTime() - matchedAt) / 1_000_000 + " ms");
+        return applied;
+    }
+
+    private int applyAssignments(List<DispatchMatcher.Assignment> assignments, List<Long> requestIds,
+                                 List<DriverLocationRegistry.DriverPosition> drivers) {
+        if (assignments.isEmpty()) {
+            return 0;
+        }
+
+        // Load every matched booking and driver with one query each
+        List<Long> bookingIds = new ArrayList<>();
+        List<Long> driverIds = new ArrayList<>();
+        for (DispatchMatcher.Assignment assignment : assignments) {
+            bookingIds.add(requestIds.get(assignment.getRequestIndex()));
+            driverIds.add(drivers.get(assignment.getDriverIndex()).getDriverId());
+        }
+        Map<Long, Booking> bookingsById = bookingRepository.findByBookingIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(Booking::getBookingId, Function.identity()));
+        Map<Long, User> driversById = userRepository.findAllById(driverIds).stream()
+                .collect(Collectors.toMap(User::getUserId, Function.identity()));
+
+        int applied = 0;
+        for (int i = 0; i < assignments.size(); i++) {
+            Booking booking = bookingsById.get(bookingIds.get(i));
+            User driver = driversById.get(driverIds.get(i));
+            if (booking == null || driver == null || !canAccept(booking, driver)) {
+                continue;
+            }
+            try {
+                bookingAcceptanceService.accept(booking, driver);
+                driverLocationRegistry.markBusy(driver.getUserId());
+                applied++;
+            } catch (BookingConflictException e) {
+                // Accepted manually (or by another node) since the snapshot was taken
+            }
+        }
+        return applied;
+    }
+
+    // Same rules as BookingController.acceptBooking
+    private boolean canAccept(Booking booking, User driver) {
+        return booking.getStatus() == Booking.BookingStatus.REQUESTED
+                && driver.getRole() != User.Role.ADMIN
+                && !booking.getRider().getUserId().equals(driver.getUserId())
+                && !booking.getRider().getPhoneNumber().equals(driver.getPhoneNumber());
+    }
+}
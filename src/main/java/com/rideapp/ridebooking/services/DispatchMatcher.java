@@ -0,0 +1,289 @@
+package com.rideapp.ridebooking.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Computes a one-to-one assignment of ride requests to drivers that keeps total pickup distance low.
+// Small batches are solved exactly with the Hungarian algorithm; larger ones use a greedy pass over
+// each request's nearest candidate drivers (found through a coarse grid), shortest edges first.
+// Pure computation, no Spring or database access, so it can be benchmarked on its own.
+public class DispatchMatcher {
+
+    private static final double MILES_PER_DEGREE_LAT = 69.0;
+    private static final int CANDIDATES_PER_REQUEST = 8;
+    private static final int GREEDY_ROUNDS = 3;
+
+    private final double maxPickupMiles;
+    private final long smallBatchLimit;
+
+    public DispatchMatcher(double maxPickupMiles, long smallBatchLimit) {
+        this.maxPickupMiles = maxPickupMiles;
+        this.smallBatchLimit = smallBatchLimit;
+    }
+
+    public static class Assignment {
+        private final int requestIndex;
+        private final int driverIndex;
+        private final double distanceMiles;
+
+        public Assignment(int requestIndex, int driverIndex, double distanceMiles) {
+            this.requestIndex = requestIndex;
+            this.driverIndex = driverIndex;
+            this.distanceMiles = distanceMiles;
+        }
+
+        public int getRequestIndex() { return requestIndex; }
+        public int getDriverIndex() { return driverIndex; }
+        public double getDistanceMiles() { return distanceMiles; }
+    }
+
+    public List<Assignment> match(double[] requestLat, double[] requestLng, double[] driverLat, double[] driverLng) {
+        int requests = requestLat.length;
+        int drivers = driverLat.length;
+        if (requests == 0 || drivers == 0) {
+            return new ArrayList<>();
+        }
+        if ((long) requests * drivers <= smallBatchLimit) {
+            return matchOptimal(requestLat, requestLng, driverLat, driverLng);
+        }
+        return matchGreedy(requestLat, requestLng, driverLat, driverLng);
+    }
+
+    // Exact minimum-total-distance assignment (Hungarian algorithm with potentials, O(n² m))
+    List<Assignment> matchOptimal(double[] requestLat, double[] requestLng, double[] driverLat, double[] driverLng) {
+        boolean requestsAreRows = requestLat.length <= driverLat.length;
+        int rows = Math.min(requestLat.length, driverLat.length);
+        int cols = Math.max(requestLat.length, driverLat.length);
+        // Pairs beyond the pickup limit get a cost larger than any real total, and are dropped afterwards
+        double unreachable = maxPickupMiles * (rows + 1) * 10 + 1;
+
+        double[][] cost = new double[rows + 1][cols + 1];
+        for (int i = 1; i <= rows; i++) {
+            for (int j = 1; j <= cols; j++) {
+                int request = requestsAreRows ? i - 1 : j - 1;
+                int driver = requestsAreRows ? j - 1 : i - 1;
+                double distance = PendingBookingGeoIndex.distanceMiles(
+                        requestLat[request], requestLng[request], driverLat[driver], driverLng[driver]);
+                cost[i][j] = distance <= maxPickupMiles ? distance : unreachable;
+            }
+        }
+
+        double[] u = new double[rows + 1];
+        double[] v = new double[cols + 1];
+        int[] matchedRow = new int[cols + 1];
+        int[] way = new int[cols + 1];
+        for (int i = 1; i <= rows; i++) {
+            matchedRow[0] = i;
+            int j0 = 0;
+            double[] minv = new double[cols + 1];
+            boolean[] used = new boolean[cols + 1];
+            Arrays.fill(minv, Double.POSITIVE_INFINITY);
+            do {
+                used[j0] = true;
+                int i0 = matchedRow[j0];
+                int j1 = 0;
+                double delta = Double.POSITIVE_INFINITY;
+                for (int j = 1; j <= cols; j++) {
+                    if (!used[j]) {
+                        double reduced = cost[i0][j] - u[i0] - v[j];
+                        if (reduced < minv[j]) {
+                            minv[j] = reduced;
+                            way[j] = j0;
+                        }
+                        if (minv[j] < delta) {
+                            delta = minv[j];
+                            j1 = j;
+                        }
+                    }
+                }
+                for (int j = 0; j <= cols; j++) {
+                    if (used[j]) {
+                        u[matchedRow[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minv[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (matchedRow[j0] != 0);
+            do {
+                int j1 = way[j0];
+                matchedRow[j0] = matchedRow[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+
+        List<Assignment> assignments = new ArrayList<>();
+        for (int j = 1; j <= cols; j++) {
+            int i = matchedRow[j];
+            if (i != 0 && cost[i][j] < unreachable) {
+                int request = requestsAreRows ? i - 1 : j - 1;
+                int driver = requestsAreRows ? j - 1 : i - 1;
+                assignments.add(new Assignment(request, driver, cost[i][j]));
+            }
+        }
+        return assignments;
+    }
+
+    // Greedy: candidate edges to each request's nearest free drivers, assigned shortest first
+    List<Assignment> matchGreedy(double[] requestLat, double[] requestLng, double[] driverLat, double[] driverLng) {
+        int requests = requestLat.length;
+        boolean[] requestTaken = new boolean[requests];
+        boolean[] driverTaken = new boolean[driverLat.length];
+        double cellDegrees = maxPickupMiles / MILES_PER_DEGREE_LAT;
+        List<Assignment> assignments = new ArrayList<>();
+
+        for (int round = 0; round < GREEDY_ROUNDS; round++) {
+            Map<Long, int[]> grid = buildGrid(driverLat, driverLng, driverTaken, cellDegrees);
+            if (grid.isEmpty()) {
+                break;
+            }
+
+            int maxEdges = requests * CANDIDATES_PER_REQUEST;
+            int[] edgeRequest = new int[maxEdges];
+            int[] edgeDriver = new int[maxEdges];
+            double[] edgeDistance = new double[maxEdges];
+            int edges = 0;
+
+            int[] nearestDriver = new int[CANDIDATES_PER_REQUEST];
+            double[] nearestDistance = new double[CANDIDATES_PER_REQUEST];
+            for (int r = 0; r < requests; r++) {
+                if (requestTaken[r]) {
+                    continue;
+                }
+                int found = nearestFreeDrivers(grid, cellDegrees, requestLat[r], requestLng[r],
+                        driverLat, driverLng, nearestDriver, nearestDistance);
+                for (int k = 0; k < found; k++) {
+                    edgeRequest[edges] = r;
+                    edgeDriver[edges] = nearestDriver[k];
+                    edgeDistance[edges] = nearestDistance[k];
+                    edges++;
+                }
+            }
+            if (edges == 0) {
+                break;
+            }
+
+            int assignedThisRound = 0;
+            for (int e : sortedByDistance(edgeDistance, edges)) {
+                if (!requestTaken[edgeRequest[e]] && !driverTaken[edgeDriver[e]]) {
+                    requestTaken[edgeRequest[e]] = true;
+                    driverTaken[edgeDriver[e]] = true;
+                    assignments.add(new Assignment(edgeRequest[e], edgeDriver[e], edgeDistance[e]));
+                    assignedThisRound++;
+                }
+            }
+            if (assignedThisRound == 0) {
+                break;
+            }
+        }
+        return assignments;
+    }
+
+    private Map<Long, int[]> buildGrid(double[] driverLat, double[] driverLng, boolean[] driverTaken, double cellDegrees) {
+        Map<Long, int[]> counts = new HashMap<>();
+        for (int d = 0; d < driverLat.length; d++) {
+            if (!driverTaken[d]) {
+                counts.computeIfAbsent(cellKey(driverLat[d], driverLng[d], cellDegrees), key -> new int[1])[0]++;
+            }
+        }
+        // Replace each count with an exact-size array of driver indexes; slot 0 tracks the fill position
+        Map<Long, int[]> grid = new HashMap<>(counts.size() * 2);
+        for (Map.Entry<Long, int[]> entry : counts.entrySet()) {
+            grid.put(entry.getKey(), new int[entry.getValue()[0] + 1]);
+        }
+        for (int d = 0; d < driverLat.length; d++) {
+            if (!driverTaken[d]) {
+                int[] cell = grid.get(cellKey(driverLat[d], driverLng[d], cellDegrees));
+                cell[++cell[0]] = d;
+            }
+        }
+        return grid;
+    }
+
+    // Fills the nearest free drivers within the pickup limit, closest first; returns how many were found.
+    // Candidates are ranked with a flat-earth approximation (plenty accurate across a few miles) and only
+    // the survivors get the exact haversine distance.
+    private int nearestFreeDrivers(Map<Long, int[]> grid, double cellDegrees, double lat, double lng,
+                                   double[] driverLat, double[] driverLng,
+                                   int[] nearestDriver, double[] nearestDistance) {
+        int found = 0;
+        int latIndex = (int) Math.floor(lat / cellDegrees);
+        int lngIndex = (int) Math.floor(lng / cellDegrees);
+        double cosLat = Math.max(Math.cos(Math.toRadians(Math.min(89.0, Math.abs(lat) + cellDegrees))), 0.01);
+        int lngReach = (int) Math.ceil(1.0 / cosLat);
+        double milesPerDegreeLng = MILES_PER_DEGREE_LAT * Math.cos(Math.toRadians(lat));
+        // Small margin so the approximation never drops a driver the exact check would keep
+        double limitSquared = (maxPickupMiles * 1.01) * (maxPickupMiles * 1.01);
+
+        for (int dLat = -1; dLat <= 1; dLat++) {
+            for (int dLng = -lngReach; dLng <= lngReach; dLng++) {
+                int[] cell = grid.get(cellKey(latIndex + dLat, lngIndex + dLng));
+                if (cell == null) {
+                    continue;
+                }
+                for (int c = 1; c < cell.length; c++) {
+                    int d = cell[c];
+                    double northSouth = (driverLat[d] - lat) * MILES_PER_DEGREE_LAT;
+                    double eastWest = (driverLng[d] - lng) * milesPerDegreeLng;
+                    double distanceSquared = northSouth * northSouth + eastWest * eastWest;
+                    if (distanceSquared > limitSquared) {
+                        continue;
+                    }
+                    if (found < nearestDriver.length) {
+                        found++;
+                    } else if (distanceSquared >= nearestDistance[found - 1]) {
+                        continue;
+                    }
+                    // Insertion into the small sorted candidate arrays
+                    int position = found - 1;
+                    while (position > 0 && nearestDistance[position - 1] > distanceSquared) {
+                        nearestDistance[position] = nearestDistance[position - 1];
+                        nearestDriver[position] = nearestDriver[position - 1];
+                        position--;
+                    }
+                    nearestDistance[position] = distanceSquared;
+                    nearestDriver[position] = d;
+                }
+            }
+        }
+
+        // Swap in exact distances and drop anything the approximation let through beyond the limit
+        int kept = 0;
+        for (int k = 0; k < found; k++) {
+            int d = nearestDriver[k];
+            double distance = PendingBookingGeoIndex.distanceMiles(lat, lng, driverLat[d], driverLng[d]);
+            if (distance <= maxPickupMiles) {
+                nearestDriver[kept] = d;
+                nearestDistance[kept] = distance;
+                kept++;
+            }
+        }
+        return kept;
+    }
+
+    private static int[] sortedByDistance(double[] distance, int count) {
+        // Sort (distance, index) pairs packed into longs; non-negative float bits sort like the values
+        long[] keys = new long[count];
+        for (int e = 0; e < count; e++) {
+            keys[e] = ((long) Float.floatToIntBits((float) distance[e]) << 32) | e;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[count];
+        for (int e = 0; e < count; e++) {
+            order[e] = (int) keys[e];
+        }
+        return order;
+    }
+
+    private static long cellKey(double lat, double lng, double cellDegrees) {
+        return cellKey((int) Math.floor(lat / cellDegrees), (int) Math.floor(lng / cellDegrees));
+    }
+
+    private static long cellKey(int latIndex, int lngIndex) {
+        return ((long) latIndex << 32) | (lngIndex & 0xffffffffL);
+    }
+}
@@ -0,0 +1,67 @@
+package com.rideapp.ridebooking.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Last reported position of each driver, used by the dispatch engine to find available drivers.
+// Positions older than dispatch.driver-location-ttl-ms are treated as offline.
+@Service
+public class DriverLocationRegistry {
+
+    @Value("${dispatch.driver-location-ttl-ms:120000}")
+    private long locationTtlMillis;
+
+    private final Map<Long, DriverPosition> positions = new ConcurrentHashMap<>();
+
+    public void update(Long driverId, double latitude, double longitude, boolean available) {
+        positions.put(driverId, new DriverPosition(driverId, latitude, longitude, available, System.currentTimeMillis()));
+    }
+
+    public void remove(Long driverId) {
+        positions.remove(driverId);
+    }
+
+    // Driver got a booking: keep the position but stop offering them until they report available again
+    public void markBusy(Long driverId) {
+        positions.computeIfPresent(driverId, (id, position) -> new DriverPosition(
+                id, position.getLatitude(), position.getLongitude(), false, position.getReportedAtMillis()));
+    }
+
+    public List<DriverPosition> getAvailableDrivers() {
+        long freshAfter = System.currentTimeMillis() - locationTtlMillis;
+        List<DriverPosition> available = new ArrayList<>();
+        for (DriverPosition position : positions.values()) {
+            if (position.isAvailable() && position.getReportedAtMillis() >= freshAfter) {
+                available.add(position);
+            }
+        }
+        return available;
+    }
+
+    public static class DriverPosition {
+        private final Long driverId;
+        private final double latitude;
+        private final double longitude;
+        private final boolean available;
+        private final long reportedAtMillis;
+
+        public DriverPosition(Long driverId, double latitude, double longitude, boolean available, long reportedAtMillis) {
+            this.driverId = driverId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.available = available;
+            this.reportedAtMillis = reportedAtMillis;
+        }
+
+        public Long getDriverId() { return driverId; }
+        public double getLatitude() { return latitude; }
+        public double getLongitude() { return longitude; }
+        public boolean isAvailable() { return available; }
+        public long getReportedAtMillis() { return reportedAtMillis; }
+    }
+}
@@ -0,0 +1,114 @@
+package com.rideapp.ridebooking.services;
+
+import com.rideapp.ridebooking.durable.ChangeCapture;
+import com.rideapp.ridebooking.durable.DurableState;
+import com.rideapp.ridebooking.ids.SnowflakeIdGenerator;
+import com.rideapp.ridebooking.journal.Journal;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.Map;
+
+// Durable mode (durable.enabled=true): the in-memory database survives restarts. Startup restores
+// it from the newest snapshot plus the change log written since (before the web server, the data
+// initializer and the startup rebuilds touch it), so restart time follows the size of the data and
+// of the last few minutes of changes, not of the whole history. A snapshot is taken every
+// durable.snapshot-interval-ms, sooner after durable.snapshot-after-changes logged transactions,
+// and at shutdown.
+@Service
+@ConditionalOnProperty(name = "durable.enabled", havingValue = "true")
+public class DurableStateService {
+
+    @Autowired
+    private DataSource dataSource;
+
+    // Restoring needs the schema Hibernate creates
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ChangeCapture changeCapture;
+
+    @Autowired
+    private SnowflakeIdGenerator snowflakeIdGenerator;
+
+    @Value("${durable.dir:data}")
+    private String directory;
+
+    @Value("${durable.segment-size-mb:64}")
+    private int segmentSizeMb;
+
+    @Value("${durable.fsync:group}")
+    private String fsync;
+
+    @Value("${durable.fsync-interval-ms:20}")
+    private long fsyncIntervalMillis;
+
+    @Value("${durable.snapshot-interval-ms:300000}")
+    private long snapshotIntervalMillis;
+
+    @Value("${durable.snapshot-after-changes:100000}")
+    private long snapshotAfterChanges;
+
+    @Value("${durable.snapshots-kept:2}")
+    private int snapshotsKept;
+
+    @Value("${durable.snapshot-on-shutdown:true}")
+    private boolean snapshotOnShutdown;
+
+    private DurableState state;
+
+    @PostConstruct
+    void restore() throws IOException, SQLException {
+        Journal.FsyncPolicy policy = Journal.FsyncPolicy.valueOf(fsync.trim().toUpperCase());
+        state = new DurableState(Path.of(directory), changeCapture, segmentSizeMb * 1024 * 1024, policy,
+                fsyncIntervalMillis, snapshotsKept);
+        Map<String, Object> restored = state.start(dataSource);
+        // New ids sort after the restored ones even if this machine's clock is behind the last one's
+        snowflakeIdGenerator.advancePast((Long) restored.get("largestKey"));
+        System.out.println("💾 Durable state restored from " + Path.of(directory).toAbsolutePath() + ": " + restored);
+    }
+
+    @Scheduled(fixedDelay = 5000, initialDelay = 5000)
+    public void snapshotIfDue() {
+        if (state.millisSinceSnapshot() >= snapshotIntervalMillis || state.changesSinceSnapshot() >= snapshotAfterChanges) {
+            snapshot();
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        try {
+            Map<String, Object> snapshot = state.snapshot(dataSource);
+            System.out.println("💾 Snapshot written: " + snapshot);
+            return snapshot;
+        } catch (IOException | SQLException e) {
+            System.out.println("❌ Snapshot failed: " + e.getMessage());
+            throw new RuntimeException("❌ Snapshot failed: " + e.getMessage(), e);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        return state.stats();
+    }
+
+    @PreDestroy
+    void shutdown() throws IOException {
+        try {
+            if (snapshotOnShutdown) {
+                snapshot();
+            }
+        } finally {
+            state.close();
+        }
+    }
+}
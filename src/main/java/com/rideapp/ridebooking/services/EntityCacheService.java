@@ -0,0 +1,108 @@
+package com.rideapp.ridebooking.services;
+
+import com.rideapp.ridebooking.events.BookingEvent;
+import com.rideapp.ridebooking.models.Booking;
+import com.rideapp.ridebooking.models.Ride;
+import com.rideapp.ridebooking.models.User;
+import com.rideapp.ridebooking.repositories.RideRepository;
+import com.rideapp.ridebooking.repositories.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+// Read-through cache in front of the hot User and Ride lookups (by id, and users by phone number).
+// Entries are bounded by size (LRU) and expire after entity.cache.ttl-ms, and every write path in
+// the application evicts what it changes. The cached entities are detached and shared between
+// requests: read them, never modify or save them - load through the repository to update a row.
+@Service
+public class EntityCacheService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Value("${entity.cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${entity.cache.ttl-ms:60000}")
+    private long ttlMillis;
+
+    private LruTtlCache<Long, User> users;
+    private LruTtlCache<String, Long> userIdsByPhone;
+    private LruTtlCache<Long, Ride> rides;
+
+    @PostConstruct
+    void createCaches() {
+        users = new LruTtlCache<>(maxSize, ttlMillis);
+        userIdsByPhone = new LruTtlCache<>(maxSize, ttlMillis);
+        rides = new LruTtlCache<>(maxSize, ttlMillis);
+    }
+
+    public Optional<User> findUser(Long userId) {
+        return Optional.ofNullable(users.get(userId, id -> userRepository.findById(id).orElse(null)));
+    }
+
+    public Optional<User> findUserByPhone(String phoneNumber) {
+        Long userId = userIdsByPhone.getIfPresent(phoneNumber);
+        if (userId != null) {
+            // The mapping can outlive a phone number change, so check it still points at this number
+            Optional<User> user = findUser(userId);
+            if (user.isPresent() && Objects.equals(user.get().getPhoneNumber(), phoneNumber)) {
+                return user;
+            }
+            userIdsByPhone.invalidate(phoneNumber);
+        }
+        Optional<User> loaded = userRepository.findByPhoneNumber(phoneNumber);
+        loaded.ifPresent(user -> {
+            users.put(user.getUserId(), user);
+            userIdsByPhone.put(phoneNumber, user.getUserId());
+        });
+        return loaded;
+    }
+
+    public Optional<Ride> findRide(Long rideId) {
+        return Optional.ofNullable(rides.get(rideId, id -> rideRepository.findById(id).orElse(null)));
+    }
+
+    public void evictUser(Long userId) {
+        User removed = users.invalidate(userId);
+        if (removed != null && removed.getPhoneNumber() != null) {
+            userIdsByPhone.invalidate(removed.getPhoneNumber());
+        }
+    }
+
+    public void evictRide(Long rideId) {
+        rides.invalidate(rideId);
+    }
+
+    public void evictRides(Iterable<Long> rideIds) {
+        rideIds.forEach(this::evictRide);
+    }
+
+    // Accepting a booking assigns the ride's driver and confirms it
+    @EventListener
+    public void onBookingEvent(BookingEvent event) {
+        Booking booking = event.getBooking();
+        if (event.getType() == BookingEvent.Type.ACCEPTED && booking != null && booking.getRide() != null) {
+            evictRide(booking.getRide().getRideId());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ttlMs", ttlMillis);
+        stats.put("users", users.stats());
+        stats.put("userIdsByPhone", userIdsByPhone.stats());
+        stats.put("rides", rides.stats());
+        return stats;
+    }
+}
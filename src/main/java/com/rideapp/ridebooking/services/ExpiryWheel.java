@@ -0,0 +1,105 @@
+package com.rideapp.ridebooking.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Hashed timing wheel of (id -> deadline). Deadlines are rounded up to whole ticks and hashed into
+// slotCount slots; advancing the clock only visits the slots of the ticks that passed, so scheduling,
+// rescheduling and cancelling are O(1) and a tick costs about (entries / slotCount).
+// Entries further away than one turn of the wheel simply stay in their slot until their tick comes round.
+class ExpiryWheel {
+
+    private final long tickMillis;
+    private final List<Map<Long, Long>> slots;
+    private final Map<Long, Long> deadlineTicks = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private long currentTick;
+
+    ExpiryWheel(long tickMillis, int slotCount, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots.add(new HashMap<>());
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    // Adds or moves an entry; a deadline already in the past fires on the next tick
+    void schedule(long id, long deadlineMillis) {
+        lock.lock();
+        try {
+            long tick = Math.max(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), currentTick + 1);
+            Long previous = deadlineTicks.put(id, tick);
+            if (previous != null && previous != tick) {
+                slots.get(slotOf(previous)).remove(id);
+            }
+            slots.get(slotOf(tick)).put(id, tick);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void cancel(long id) {
+        lock.lock();
+        try {
+            Long previous = deadlineTicks.remove(id);
+            if (previous != null) {
+                slots.get(slotOf(previous)).remove(id);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Moves the clock to nowMillis and returns the ids whose deadline has been reached
+    List<Long> advance(long nowMillis) {
+        List<Long> due = new ArrayList<>();
+        lock.lock();
+        try {
+            long nowTick = nowMillis / tickMillis;
+            if (nowTick - currentTick >= slots.size()) {
+                // Fell a whole turn behind (long pause): one pass over every slot is enough
+                for (Map<Long, Long> slot : slots) {
+                    collectDue(slot, nowTick, due);
+                }
+                currentTick = nowTick;
+            }
+            while (currentTick < nowTick) {
+                currentTick++;
+                collectDue(slots.get(slotOf(currentTick)), currentTick, due);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return due;
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return deadlineTicks.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void collectDue(Map<Long, Long> slot, long upToTick, List<Long> due) {
+        Iterator<Map.Entry<Long, Long>> entries = slot.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<Long, Long> entry = entries.next();
+            if (entry.getValue() <= upToTick) {
+                entries.remove();
+                deadlineTicks.remove(entry.getKey());
+                due.add(entry.getKey());
+            }
+        }
+    }
+
+    private int slotOf(long tick) {
+        return (int) Math.floorMod(tick, (long) slots.size());
+    }
+}
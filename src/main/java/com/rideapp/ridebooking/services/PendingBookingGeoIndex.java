@@ -0,0 +1,211 @@
+package com.rideapp.ridebooking.services;
+
+import com.rideapp.ridebooking.events.BookingEvent;
+import com.rideapp.ridebooking.models.Booking;
+import com.rideapp.ridebooking.repositories.BookingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory spatial index of REQUESTED bookings by pickup coordinates.
+// Bookings are bucketed into a fixed lat/lng grid; a nearest-first query walks rings of cells
+// outwards from the driver's cell and stops as soon as no unvisited cell can hold a closer pickup.
+// Kept in sync from BookingEvents and rebuilt from the database at startup.
+@Service
+public class PendingBookingGeoIndex {
+
+    private static final double EARTH_RADIUS_MILES = 3958.8;
+    private static final double MILES_PER_DEGREE_LAT = 69.0;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    // Grid cell size in degrees (0.02° is roughly 1.4 miles north-south)
+    @Value("${booking.geo.cell-size-degrees:0.02}")
+    private double cellSizeDegrees = 0.02;
+
+    private final Map<Long, Map<Long, Point>> cells = new ConcurrentHashMap<>();
+    private final Map<Long, Point> points = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        cells.clear();
+        points.clear();
+        for (Object[] row : bookingRepository.findPendingPickupCoordinates()) {
+            put((Long) row[0], (Double) row[1], (Double) row[2]);
+        }
+        System.out.println("📍 Indexed " + points.size() + " pending bookings by pickup location");
+    }
+
+    @EventListener
+    public void onBookingEvent(BookingEvent event) {
+        Booking booking = event.getBooking();
+        if (event.getStatus() == Booking.BookingStatus.REQUESTED && booking != null
+                && booking.getPickupLatitude() != null && booking.getPickupLongitude() != null) {
+            put(event.getBookingId(), booking.getPickupLatitude(), booking.getPickupLongitude());
+        } else {
+            remove(event.getBookingId());
+        }
+    }
+
+    // The point and its cell change together inside points.compute, which holds that booking's entry
+    // locked: a remove racing a put can never leave the id in a cell without its point, or the reverse
+    public void put(Long bookingId, double latitude, double longitude) {
+        Point point = new Point(bookingId, latitude, longitude, cellKey(latIndex(latitude), lngIndex(longitude)));
+        points.compute(bookingId, (id, previous) -> {
+            if (previous != null && previous.cellKey != point.cellKey) {
+                removeFromCell(previous);
+            }
+            cells.compute(point.cellKey, (key, cell) -> {
+                Map<Long, Point> target = cell != null ? cell : new ConcurrentHashMap<>();
+                target.put(bookingId, point);
+                return target;
+            });
+            return point;
+        });
+    }
+
+    public void remove(Long bookingId) {
+        points.computeIfPresent(bookingId, (id, previous) -> {
+            removeFromCell(previous);
+            return null;
+        });
+    }
+
+    public int size() {
+        return points.size();
+    }
+
+    // Visits every indexed booking without copying the index
+    public void forEachPending(PendingBookingConsumer consumer) {
+        for (Point point : points.values()) {
+            consumer.accept(point.bookingId, point.latitude, point.longitude);
+        }
+    }
+
+    @FunctionalInterface
+    public interface PendingBookingConsumer {
+        void accept(long bookingId, double latitude, double longitude);
+    }
+
+    // Booking ids within radiusMiles of (latitude, longitude), nearest first, at most limit of them
+    public List<Long> findNearest(double latitude, double longitude, double radiusMiles, int limit) {
+        // Max-heap on distance holding the best `limit` candidates seen so far
+        PriorityQueue<double[]> best = new PriorityQueue<>(limit + 1, (a, b) -> Double.compare(b[0], a[0]));
+
+        int centerLat = latIndex(latitude);
+        int centerLng = lngIndex(longitude);
+        double cellMilesNorthSouth = cellSizeDegrees * MILES_PER_DEGREE_LAT;
+        // Cells are narrowest east-west at the pole-most latitude we might reach
+        double cosLat = Math.max(Math.cos(Math.toRadians(Math.min(89.0, Math.abs(latitude) + radiusMiles / MILES_PER_DEGREE_LAT))), 0.01);
+        double cellMilesEastWest = cellMilesNorthSouth * cosLat;
+        double minCellMiles = Math.min(cellMilesNorthSouth, cellMilesEastWest);
+        int maxRing = (int) Math.min(Integer.MAX_VALUE - 1L, (long) Math.ceil(radiusMiles / minCellMiles) + 1);
+        if (cells.isEmpty()) {
+            return List.of();
+        }
+        // Walking the rings costs about maxRing² lookups; when that is more than the populated cells,
+        // stop at the farthest populated cell instead
+        if ((long) maxRing * maxRing > cells.size()) {
+            maxRing = Math.min(maxRing, farthestPopulatedRing(centerLat, centerLng));
+        }
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // Every cell in this ring is at least (ring - 1) cells away from the query point
+            double ringMinMiles = Math.max(0, ring - 1) * minCellMiles;
+            if (ringMinMiles > radiusMiles || (best.size() == limit && ringMinMiles > best.peek()[0])) {
+                break;
+            }
+            for (int dLat = -ring; dLat <= ring; dLat++) {
+                boolean edgeRow = dLat == -ring || dLat == ring;
+                int step = edgeRow ? 1 : 2 * ring;
+                for (int dLng = -ring; dLng <= ring; dLng += Math.max(step, 1)) {
+                    Map<Long, Point> cell = cells.get(cellKey(centerLat + dLat, centerLng + dLng));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (Point point : cell.values()) {
+                        double distance = distanceMiles(latitude, longitude, point.latitude, point.longitude);
+                        if (distance > radiusMiles) {
+                            continue;
+                        }
+                        if (best.size() < limit) {
+                            best.add(new double[] { distance, point.bookingId });
+                        } else if (distance < best.peek()[0]) {
+                            best.poll();
+                            best.add(new double[] { distance, point.bookingId });
+                        }
+                    }
+                }
+            }
+        }
+
+        List<Long> nearestFirst = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            nearestFirst.add((long) best.poll()[1]);
+        }
+        Collections.reverse(nearestFirst);
+        return nearestFirst;
+    }
+
+    public static double distanceMiles(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_MILES * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    // Empty cells are dropped, so cells only holds the populated extent of the grid
+    private void removeFromCell(Point point) {
+        cells.computeIfPresent(point.cellKey, (key, cell) -> {
+            cell.remove(point.bookingId, point);
+            return cell.isEmpty() ? null : cell;
+        });
+    }
+
+    private int farthestPopulatedRing(int centerLat, int centerLng) {
+        long farthest = 0;
+        for (long key : cells.keySet()) {
+            long dLat = Math.abs((long) (int) (key >> 32) - centerLat);
+            long dLng = Math.abs((long) (int) key - centerLng);
+            farthest = Math.max(farthest, Math.max(dLat, dLng));
+        }
+        return (int) Math.min(Integer.MAX_VALUE - 1L, farthest);
+    }
+
+    private int latIndex(double latitude) {
+        return (int) Math.floor(latitude / cellSizeDegrees);
+    }
+
+    private int lngIndex(double longitude) {
+        return (int) Math.floor(longitude / cellSizeDegrees);
+    }
+
+    private static long cellKey(int latIndex, int lngIndex) {
+        return ((long) latIndex << 32) | (lngIndex & 0xffffffffL);
+    }
+
+    private static final class Point {
+        private final long bookingId;
+        private final double latitude;
+        private final double longitude;
+        private final long cellKey;
+
+        Point(long bookingId, double latitude, double longitude, long cellKey) {
+            this.bookingId = bookingId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.cellKey = cellKey;
+        }
+    }
+}
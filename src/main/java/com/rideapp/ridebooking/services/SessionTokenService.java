@@ -0,0 +1,221 @@
+package com.rideapp.ridebooking.services;
+
+import com.rideapp.ridebooking.models.User;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Stateless session tokens: login signs the user's id, role and expiry with HMAC-SHA256, and each
+// request is authenticated by re-computing the signature in memory - no auth_users/users read.
+//
+// Token = base64url(payload) "." base64url(first 16 bytes of the HMAC), 41 characters, where the
+// payload is userId (8 bytes) + role ordinal (1) + expiry in epoch seconds (4). Verification borrows a
+// Mac and its buffers from a small pool, so the only allocation is the Session it returns. Not a
+// ThreadLocal: with virtual request threads every request runs on a new thread, which would build
+// a new Mac each time.
+@Service
+public class SessionTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int PAYLOAD_BYTES = 13;
+    private static final int SIGNATURE_BYTES = 16;
+    private static final int PAYLOAD_CHARS = 18;
+    private static final int SIGNATURE_CHARS = 22;
+    static final int TOKEN_LENGTH = PAYLOAD_CHARS + 1 + SIGNATURE_CHARS;
+
+    private static final User.Role[] ROLES = User.Role.values();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final byte[] DECODE = new byte[128];
+
+    static {
+        Arrays.fill(DECODE, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            DECODE[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    // Empty secret: a random key per process, so tokens do not survive a restart
+    @Value("${auth.token.secret:}")
+    private String secret;
+
+    @Value("${auth.token.ttl-minutes:720}")
+    private long ttlMinutes;
+
+    private SecretKeySpec key;
+    // Sized to the cores that can verify at once; a miss builds a Verifier that is kept if there is room
+    private final BlockingQueue<Verifier> verifiers =
+            new ArrayBlockingQueue<>(Math.max(2, Runtime.getRuntime().availableProcessors() * 2));
+
+    @PostConstruct
+    void initKey() {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        key = new SecretKeySpec(keyBytes, ALGORITHM);
+        verifiers.clear();
+    }
+
+    public String issue(Long userId, User.Role role) {
+        return issue(userId, role, System.currentTimeMillis() / 1000 + ttlMinutes * 60);
+    }
+
+    String issue(long userId, User.Role role, long expiresAtSeconds) {
+        byte[] payload = new byte[PAYLOAD_BYTES];
+        putLong(payload, 0, userId);
+        payload[8] = (byte) role.ordinal();
+        putInt(payload, 9, (int) expiresAtSeconds);
+        byte[] mac = newMac().doFinal(payload);
+        return ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(Arrays.copyOf(mac, SIGNATURE_BYTES));
+    }
+
+    // The session carried by a valid, unexpired token; null for anything else
+    public Session verify(String token) {
+        return verify(token, System.currentTimeMillis() / 1000);
+    }
+
+    Session verify(String token, long nowSeconds) {
+        if (token == null || token.length() != TOKEN_LENGTH || token.charAt(PAYLOAD_CHARS) != '.') {
+            return null;
+        }
+        Verifier verifier = verifiers.poll();
+        if (verifier == null) {
+            verifier = new Verifier(newMac());
+        }
+        try {
+            return verify(verifier, token, nowSeconds);
+        } finally {
+            verifiers.offer(verifier);
+        }
+    }
+
+    private Session verify(Verifier verifier, String token, long nowSeconds) {
+        byte[] payload = verifier.payload;
+        byte[] signature = verifier.signature;
+        if (!decode(token, 0, PAYLOAD_CHARS, payload) || !decode(token, PAYLOAD_CHARS + 1, SIGNATURE_CHARS, signature)) {
+            return null;
+        }
+        byte[] expected = verifier.expected;
+        try {
+            verifier.mac.update(payload, 0, PAYLOAD_BYTES);
+            verifier.mac.doFinal(expected, 0);
+        } catch (GeneralSecurityException e) {
+            return null;
+        }
+        // Constant-time comparison
+        int diff = 0;
+        for (int i = 0; i < SIGNATURE_BYTES; i++) {
+            diff |= expected[i] ^ signature[i];
+        }
+        long expiresAt = getInt(payload, 9) & 0xFFFFFFFFL;
+        int role = payload[8];
+        if (diff != 0 || expiresAt <= nowSeconds || role < 0 || role >= ROLES.length) {
+            return null;
+        }
+        return new Session(getLong(payload, 0), ROLES[role], expiresAt);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    // Unpadded base64url: whole 4-char groups, then a 2- or 3-char tail
+    private static boolean decode(String source, int from, int length, byte[] out) {
+        int outIndex = 0;
+        int bits = 0;
+        int bitCount = 0;
+        for (int i = from; i < from + length; i++) {
+            char c = source.charAt(i);
+            int value = c < 128 ? DECODE[c] : -1;
+            if (value < 0) {
+                return false;
+            }
+            bits = (bits << 6) | value;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                out[outIndex++] = (byte) (bits >> bitCount);
+            }
+        }
+        // Leftover bits must be zero, so each token has exactly one spelling
+        return (bits & ((1 << bitCount) - 1)) == 0;
+    }
+
+    private static void putLong(byte[] bytes, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static void putInt(byte[] bytes, int offset, int value) {
+        for (int i = 3; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static long getLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static int getInt(byte[] bytes, int offset) {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static final class Verifier {
+        final Mac mac;
+        final byte[] payload = new byte[PAYLOAD_BYTES];
+        final byte[] signature = new byte[SIGNATURE_BYTES];
+        final byte[] expected = new byte[32];
+
+        Verifier(Mac mac) {
+            this.mac = mac;
+        }
+    }
+
+    public static final class Session {
+        private final long userId;
+        private final User.Role role;
+        private final long expiresAt;
+
+        Session(long userId, User.Role role, long expiresAt) {
+            this.userId = userId;
+            this.role = role;
+            this.expiresAt = expiresAt;
+        }
+
+        public long getUserId() { return userId; }
+        public User.Role getRole() { return role; }
+        public long getExpiresAt() { return expiresAt; }
+        public boolean isAdmin() { return role == User.Role.ADMIN; }
+    }
+}
@@ -0,0 +1,78 @@
+package com.rideapp.ridebooking;
+
+import com.rideapp.ridebooking.models.Booking;
+import com.rideapp.ridebooking.models.Ride;
+import com.rideapp.ridebooking.models.User;
+import com.rideapp.ridebooking.repositories.BookingRepository;
+import com.rideapp.ridebooking.repositories.RideRepository;
+import com.rideapp.ridebooking.repositories.UserRepository;
+import com.rideapp.ridebooking.services.PendingBookingGeoIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+
+import java.time.LocalDateTime;
+
+// Saves the users, rides and bookings tests seed their data with. Users are looked up by phone number
+// and updated in place, so a test reusing a cached application context can seed the same users again.
+// Use with @Import(TestFixtures.class).
+@TestComponent
+public class TestFixtures {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PendingBookingGeoIndex pendingBookingGeoIndex;
+
+    public User saveUser(String name, String phoneNumber, User.Role role) {
+        User user = userRepository.findByPhoneNumber(phoneNumber).orElseGet(User::new);
+        user.setName(name);
+        user.setPhoneNumber(phoneNumber);
+        user.setEmail(phoneNumber + "@ridebooking.com");
+        user.setRole(role);
+        user.setStatus(User.Status.ACTIVE);
+        return userRepository.save(user);
+    }
+
+    // A ride two hours from now; driver may be null for a ride no driver has taken yet
+    public Ride saveRide(User driver, String place, Ride.RideStatus status) {
+        Ride ride = new Ride(driver, place + " pickup", place + " drop", LocalDateTime.now().plusHours(2), 15.0);
+        ride.setStatus(status);
+        return rideRepository.save(ride);
+    }
+
+    public Booking saveBooking(User rider, Ride ride, Booking.BookingStatus status) {
+        return bookingRepository.save(newBooking(rider, ride, status));
+    }
+
+    // A booking with its pickup at (latitude, longitude); requested ones go into the geo index the
+    // way the booking endpoints add them
+    public Booking saveBooking(User rider, Ride ride, Booking.BookingStatus status, double latitude, double longitude) {
+        Booking booking = newBooking(rider, ride, status);
+        booking.setPickupLatitude(latitude);
+        booking.setPickupLongitude(longitude);
+        booking = bookingRepository.save(booking);
+        if (status == Booking.BookingStatus.REQUESTED) {
+            pendingBookingGeoIndex.put(booking.getBookingId(), latitude, longitude);
+        }
+        return booking;
+    }
+
+    private Booking newBooking(User rider, Ride ride, Booking.BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setRide(ride);
+        booking.setRider(rider);
+        booking.setPickupLocation(ride.getPickupLocation());
+        booking.setDropLocation(ride.getDropLocation());
+        booking.setRideTime("23:59");
+        booking.setRideAt(ride.getTime());
+        booking.setStatus(status);
+        return booking;
+    }
+}
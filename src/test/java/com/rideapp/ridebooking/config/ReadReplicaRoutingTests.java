@@ -0,0 +1,188 @@
+package com.rideapp.ridebooking.config;
+
+import com.rideapp.ridebooking.models.Booking;
+import com.rideapp.ridebooking.models.Ride;
+import com.rideapp.ridebooking.models.User;
+import com.rideapp.ridebooking.repositories.BookingRepository;
+import com.rideapp.ridebooking.repositories.RideRepository;
+import com.rideapp.ridebooking.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Runs against two in-memory databases: the primary and a "replica" that only changes when the test
+// copies the primary over it, so every read shows which of the two it came from.
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "reactive.enabled=false",
+        "entity.cache.max-size=0",
+        "admin.dashboard.stats-ttl-ms=0",
+        "datasource.replicas.enabled=true",
+        "datasource.replicas.max-lag-ms=300",
+        // The test runs the heartbeat itself
+        "datasource.replicas.heartbeat-ms=3600000"
+})
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTests {
+
+    private static final String PRIMARY_URL = "jdbc:h2:mem:primary-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    private static final String REPLICA_URL = "jdbc:h2:mem:replica-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+
+    @DynamicPropertySource
+    static void databases(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> PRIMARY_URL);
+        registry.add("datasource.replicas.urls", () -> REPLICA_URL);
+    }
+
+    @TempDir
+    Path directory;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRouting;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private TransactionTemplate readOnlyTransaction;
+    private User rider;
+    private User driver;
+    private Ride ride;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnlyTransaction.setReadOnly(true);
+        String suffix = String.valueOf(System.nanoTime() % 1_000_000_000L);
+        rider = userRepository.save(user("Replica Rider", "71" + suffix, User.Role.RIDER));
+        driver = userRepository.save(user("Replica Driver", "72" + suffix, User.Role.DRIVER));
+        ride = rideRepository.save(new Ride(driver, "Midtown", "Airport", LocalDateTime.now().plusHours(2), 30.0));
+        catchUp();
+    }
+
+    @Test
+    void readOnlyTransactionsReadTheReplicaAndEverythingElseThePrimary() throws Exception {
+        long replicated = rideRepository.count();
+        rideRepository.save(new Ride(driver, "Downtown", "Airport", LocalDateTime.now().plusHours(3), 25.0));
+
+        assertEquals(replicated, (long) readOnlyTransaction.execute(tx -> rideRepository.count()));
+        // Repository calls on their own and read-write transactions stay on the primary
+        assertEquals(replicated + 1, rideRepository.count());
+        assertEquals(replicated + 1, (long) transactionTemplate.execute(tx -> rideRepository.count()));
+
+        catchUp();
+        assertEquals(replicated + 1, (long) readOnlyTransaction.execute(tx -> rideRepository.count()));
+    }
+
+    @Test
+    void replicaBehindByMoreThanMaxLagLeavesRotation() throws Exception {
+        rideRepository.save(new Ride(driver, "Downtown", "Airport", LocalDateTime.now().plusHours(3), 25.0));
+        Thread.sleep(400);
+        replicaRouting.checkReplicas();
+
+        assertEquals(rideRepository.count(), (long) readOnlyTransaction.execute(tx -> rideRepository.count()));
+        Map<?, ?> replica = (Map<?, ?>) ((List<?>) replicaRouting.stats().get("replicas")).get(0);
+        assertEquals(false, replica.get("inRotation"));
+
+        catchUp();
+        replica = (Map<?, ?>) ((List<?>) replicaRouting.stats().get("replicas")).get(0);
+        assertEquals(true, replica.get("inRotation"));
+    }
+
+    @Test
+    void riderReadsTheirOwnBookingRightAfterMakingIt() throws Exception {
+        // Riders send no session token: the frontend's calls, as they are
+        mockMvc.perform(post("/bookings/" + ride.getRideId() + "/" + rider.getUserId())
+                        .contentType("application/json")
+                        .content("{\"pickupLocation\":\"Midtown\",\"dropLocation\":\"Airport\",\"rideTime\":\"23:59\"}"))
+                .andExpect(status().isOk());
+        // Another rider's booking, written without a booking event, so nobody is pinned for it
+        User other = userRepository.save(user("Other Rider", "73" + System.nanoTime() % 1_000_000_000L, User.Role.RIDER));
+        transactionTemplate.executeWithoutResult(tx -> rideRepository.findById(ride.getRideId())
+                .ifPresent(r -> bookingRepository.save(booking(r, other))));
+
+        // The rider the request addresses is pinned to the primary; other reads use the lagging replica
+        mockMvc.perform(get("/history/user/" + rider.getUserId()))
+                .andExpect(jsonPath("$.length()").value(1));
+        mockMvc.perform(get("/history/user/" + other.getUserId()))
+                .andExpect(jsonPath("$.length()").value(0));
+
+        catchUp();
+        mockMvc.perform(get("/history/user/" + other.getUserId()))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    // Heartbeat, copy the primary over the replica, then measure: the replica is as fresh as the beat
+    private void catchUp() throws SQLException {
+        replicaRouting.checkReplicas();
+        String script = directory.resolve("replica-" + System.nanoTime() + ".sql").toString().replace('\\', '/');
+        new JdbcTemplate(dataSource).execute("script to '" + script + "'");
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "password");
+             Statement statement = replica.createStatement()) {
+            statement.execute("drop all objects");
+            statement.execute("runscript from '" + script + "'");
+        }
+        replicaRouting.checkReplicas();
+    }
+
+    private static Booking booking(Ride ride, User rider) {
+        Booking booking = new Booking();
+        booking.setRide(ride);
+        booking.setRider(rider);
+        booking.setPickupLocation("Midtown");
+        booking.setDropLocation("Airport");
+        booking.setRideTime(ride.getTime().toString());
+        booking.setRideAt(ride.getTime());
+        booking.setFare(30.0);
+        return booking;
+    }
+
+    private static User user(String name, String phone, User.Role role) {
+        User user = new User();
+        user.setName(name);
+        user.setPhoneNumber(phone);
+        user.setEmail(phone + "@example.com");
+        user.setRole(role);
+        user.setStatus(User.Status.ACTIVE);
+        return user;
+    }
+}
@@ -0,0 +1,92 @@
+package com.rideapp.ridebooking.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+// Test configuration that wraps the application DataSource so every JDBC statement executed on a
+// thread between start() and stop() is recorded with its SQL. Counts executions (a batch counts
+// once), whatever issued them: Hibernate, Spring Data bulk statements or plain JDBC.
+// Use with @Import(SqlStatementRecorder.class).
+@TestConfiguration
+public class SqlStatementRecorder {
+
+    private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+    @Bean
+    static BeanPostProcessor statementRecordingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? wrap(DataSource.class, dataSource, null) : bean;
+            }
+        };
+    }
+
+    public static void start() {
+        CAPTURED.set(new ArrayList<>());
+    }
+
+    // Statements executed on this thread since start()
+    public static List<String> stop() {
+        List<String> statements = CAPTURED.get();
+        CAPTURED.remove();
+        return statements != null ? statements : List.of();
+    }
+
+    private static void record(String sql) {
+        List<String> statements = CAPTURED.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+    }
+
+    // DataSources hand out recording Connections, Connections hand out recording Statements
+    @SuppressWarnings("unchecked")
+    private static <T> T wrap(Class<T> type, T target, String sql) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getName().equals("equals") && args != null && args.length == 1) {
+                return proxy == args[0];
+            }
+            if (method.getName().startsWith("execute") && Statement.class.isAssignableFrom(type)) {
+                record(args != null && args.length > 0 && args[0] instanceof String statement ? statement : sql);
+            }
+            Object result = invoke(target, method, args);
+            if (result instanceof Connection connection && method.getReturnType() == Connection.class) {
+                return wrap(Connection.class, connection, null);
+            }
+            if (type == Connection.class && result instanceof Statement statement) {
+                String preparedSql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                if (statement instanceof CallableStatement callable) {
+                    return wrap(CallableStatement.class, callable, preparedSql);
+                }
+                if (statement instanceof PreparedStatement prepared) {
+                    return wrap(PreparedStatement.class, prepared, preparedSql);
+                }
+                return wrap(Statement.class, statement, null);
+            }
+            return result;
+        };
+        return (T) Proxy.newProxyInstance(SqlStatementRecorder.class.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
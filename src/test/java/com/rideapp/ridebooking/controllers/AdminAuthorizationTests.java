@@ -0,0 +1,72 @@
+package com.rideapp.ridebooking.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rideapp.ridebooking.models.User;
+import com.rideapp.ridebooking.services.SessionTokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The admin endpoints accept only the admin session token issued by /auth/login
+@SpringBootTest
+@AutoConfigureMockMvc
+class AdminAuthorizationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
+    @Test
+    void adminEndpointsRequireAnAdminSessionToken() throws Exception {
+        String body = mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"mobileNumber\":\"admin\",\"password\":\"9010\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode login = objectMapper.readTree(body);
+        String adminToken = login.get("token").asText();
+        assertTrue(adminToken.length() > 0);
+
+        mockMvc.perform(get("/admin/dashboard/stats").header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/admin/cleanup-bookings").header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk());
+
+        String riderToken = sessionTokenService.issue(login.get("userId").asLong() + 1000, User.Role.RIDER);
+        mockMvc.perform(get("/admin/dashboard/stats").header("Authorization", "Bearer " + riderToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/admin/dashboard/stats").header("Admin-Token", "admin"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/admin/dashboard/users"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/admin/cleanup-bookings").header("Authorization", "Bearer " + adminToken + "x"))
+                .andExpect(status().isForbidden());
+
+        // Spellings of the admin paths that request mapping routes to the same controllers
+        for (String path : new String[] { "/%61dmin/dashboard/stats", "/%61dmin/dashboard/users",
+                "/admin;x=1/dashboard/stats", "/admin/dashboard;x=1/users" }) {
+            mockMvc.perform(get(URI.create(path)))
+                    .andExpect(status().isForbidden());
+            mockMvc.perform(get(URI.create(path)).header("Authorization", "Bearer " + riderToken))
+                    .andExpect(status().isForbidden());
+        }
+        mockMvc.perform(get(URI.create("/%61dmin/dashboard/stats")).header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk());
+    }
+}
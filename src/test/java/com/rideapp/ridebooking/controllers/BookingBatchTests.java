@@ -0,0 +1,125 @@
+package com.rideapp.ridebooking.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rideapp.ridebooking.TestFixtures;
+import com.rideapp.ridebooking.config.SqlStatementRecorder;
+import com.rideapp.ridebooking.models.Booking;
+import com.rideapp.ridebooking.models.Ride;
+import com.rideapp.ridebooking.models.User;
+import com.rideapp.ridebooking.repositories.BookingRepository;
+import com.rideapp.ridebooking.repositories.RideRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// POST /bookings/batch: per-item results in request order, invalid items reported without stopping
+// the rest, and the inserts sent as JDBC batches rather than one statement per booking.
+@SpringBootTest(properties = {
+        "entity.cache.max-size=0",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+@Import({SqlStatementRecorder.class, TestFixtures.class})
+class BookingBatchTests {
+
+    private static final int BOOKINGS = 80;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void createsValidItemsAndReportsInvalidOnes() throws Exception {
+        User driver = fixtures.saveUser("Batch Driver", "930001", User.Role.DRIVER);
+        User rider = fixtures.saveUser("Batch Rider", "930002", User.Role.RIDER);
+        List<Ride> rides = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            rides.add(rideRepository.save(new Ride(driver, "Batch pickup " + i, "Batch drop", LocalDateTime.now().plusHours(2), 20.0 + i)));
+        }
+
+        List<String> items = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            items.add(item(rides.get(i % rides.size()).getRideId(), rider.getUserId(), "Stop " + i));
+        }
+        // A driver booking their own ride, a missing ride and an item without ids
+        items.add(item(rides.get(0).getRideId(), driver.getUserId(), "Own ride"));
+        items.add(item(Long.MAX_VALUE, rider.getUserId(), "Nowhere"));
+        items.add("{\"pickupLocation\":\"No ids\"}");
+        long bookingsBefore = bookingRepository.count();
+
+        SqlStatementRecorder.start();
+        String body;
+        try {
+            body = mockMvc.perform(post("/bookings/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[" + String.join(",", items) + "]"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+        } finally {
+            List<String> statements = SqlStatementRecorder.stop();
+            // Rides with drivers, riders and two insert batches of 50
+            assertTrue(statements.size() <= 4, "Batch creation ran " + statements.size() + " statements:\n    "
+                    + String.join("\n    ", statements));
+        }
+
+        JsonNode results = objectMapper.readTree(body);
+        assertEquals(BOOKINGS + 3, results.size());
+        for (int i = 0; i < BOOKINGS; i++) {
+            JsonNode result = results.get(i);
+            assertEquals(i, result.get("index").asInt());
+            assertEquals("CREATED", result.get("status").asText());
+            assertEquals("Stop " + i, result.get("booking").get("pickupLocation").asText());
+            assertEquals(20.0 + i % rides.size(), result.get("booking").get("fare").asDouble());
+            Booking saved = bookingRepository.findById(result.get("booking").get("bookingId").asLong()).orElseThrow();
+            assertEquals(Booking.BookingStatus.REQUESTED, saved.getStatus());
+        }
+        assertEquals("FAILED", results.get(BOOKINGS).get("status").asText());
+        assertTrue(results.get(BOOKINGS).get("error").asText().contains("SELF-BOOKING BLOCKED"));
+        assertEquals("Ride not found", results.get(BOOKINGS + 1).get("error").asText());
+        assertEquals("rideId and riderId are required", results.get(BOOKINGS + 2).get("error").asText());
+        assertEquals(bookingsBefore + BOOKINGS, bookingRepository.count());
+    }
+
+    @Test
+    void rejectsOversizedBatch() throws Exception {
+        List<String> items = new ArrayList<>();
+        for (int i = 0; i <= 100; i++) {
+            items.add(item(1L, 1L, "Too many"));
+        }
+        Exception failure = assertThrows(Exception.class, () -> mockMvc.perform(post("/bookings/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[" + String.join(",", items) + "]")));
+        assertTrue(failure.getCause().getMessage().contains("Too many bookings in one batch"));
+    }
+
+    private static String item(long rideId, long riderId, String pickup) {
+        return "{\"rideId\":" + rideId + ",\"riderId\":" + riderId + ",\"pickupLocation\":\"" + pickup +
+                "\",\"dropLocation\":\"Batch drop\",\"rideTime\":\"23:59\"}";
+    }
+}
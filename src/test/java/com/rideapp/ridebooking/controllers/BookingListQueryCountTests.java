@@ -0,0 +1,101 @@
+package com.rideapp.ridebooking.controllers;
+
+import com.rideapp.ridebooking.TestFixtures;
+import com.rideapp.ridebooking.models.Booking;
+import com.rideapp.ridebooking.models.Ride;
+import com.rideapp.ridebooking.models.User;
+import com.rideapp.ridebooking.repositories.BookingRepository;
+import com.rideapp.ridebooking.repositories.RideRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Uses Hibernate statistics to check that booking list endpoints issue the same number of
+// statements whether they return a handful of rows or many (no per-row N+1 loading).
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class BookingListQueryCountTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        bookingRepository.deleteAll();
+        rideRepository.deleteAll();
+    }
+
+    @Test
+    void bookingListsUseConstantStatementCount() throws Exception {
+        String[] endpoints = {
+                "/bookings",
+                "/bookings/pending",
+                "/history/accepted",
+                "/history/user/{riderId}",
+                "/bookings/drivers/{driverId}/accepted"
+        };
+
+        User driver = fixtures.saveUser("Count Driver", "900100", User.Role.DRIVER);
+        User rider = fixtures.saveUser("Count Rider", "900200", User.Role.RIDER);
+
+        seedBookings(driver, rider, 2);
+        // Warm-up pass so lookups served by the entity cache count the same in both measurements
+        countStatements(endpoints, driver, rider);
+        long[] smallCounts = countStatements(endpoints, driver, rider);
+
+        seedBookings(driver, rider, 20);
+        long[] largeCounts = countStatements(endpoints, driver, rider);
+
+        for (int i = 0; i < endpoints.length; i++) {
+            assertEquals(smallCounts[i], largeCounts[i],
+                    "Statement count for " + endpoints[i] + " grew with the number of bookings");
+        }
+    }
+
+    private long[] countStatements(String[] endpoints, User driver, User rider) throws Exception {
+        long[] counts = new long[endpoints.length];
+        for (int i = 0; i < endpoints.length; i++) {
+            String url = endpoints[i]
+                    .replace("{riderId}", rider.getUserId().toString())
+                    .replace("{driverId}", driver.getUserId().toString());
+            statistics.clear();
+            mockMvc.perform(get(url)).andExpect(status().isOk());
+            counts[i] = statistics.getPrepareStatementCount();
+        }
+        return counts;
+    }
+
+    private void seedBookings(User driver, User rider, int count) {
+        for (int i = 0; i < count; i++) {
+            fixtures.saveBooking(rider, fixtures.saveRide(driver, "Count " + i, Ride.RideStatus.PENDING),
+                    i % 2 == 0 ? Booking.BookingStatus.ACCEPTED : Booking.BookingStatus.REQUESTED);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.rideapp.ridebooking.controllers;
+
+import com.rideapp.ridebooking.models.Ride;
+import com.rideapp.ridebooking.models.User;
+import com.rideapp.ridebooking.repositories.RideRepository;
+import com.rideapp.ridebooking.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Subscribes to GET /bookings/stream over a real connection: live deltas arrive as they happen,
+// a reconnect with Last-Event-ID replays only what was missed, and a too-old id gets a RESYNC.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class BookingStreamTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void streamsDeltasAndResumesFromLastEventId() throws Exception {
+        User rider = new User();
+        rider.setName("Stream Rider");
+        rider.setEmail("stream.rider@example.com");
+        rider.setPhoneNumber("700001");
+        rider.setRole(User.Role.RIDER);
+        rider.setStatus(User.Status.ACTIVE);
+        rider = userRepository.save(rider);
+        Ride ride = new Ride();
+        ride.setPickupLocation("Stream A");
+        ride.setDropLocation("Stream B");
+        ride.setPrice(12.0);
+        ride.setStatus(Ride.RideStatus.PENDING);
+        ride = rideRepository.save(ride);
+
+        BlockingQueue<String> live = open(null);
+        awaitConnected(live);
+
+        String created = send("POST", "/bookings/" + ride.getRideId() + "/" + rider.getUserId(),
+                "{\"pickupLocation\":\"Stream A\",\"dropLocation\":\"Stream B\",\"rideTime\":\"10:30\"}");
+        String bookingId = created.replaceAll(".*\"bookingId\":(\\d+).*", "$1");
+        String[] createdEvent = nextEvent(live);
+        assertEquals("CREATED", createdEvent[1]);
+        assertTrue(createdEvent[2].contains("\"bookingId\":" + bookingId));
+        assertTrue(createdEvent[2].contains("\"status\":\"REQUESTED\""));
+
+        send("PUT", "/bookings/" + bookingId, "{\"dropLocation\":\"Stream C\"}");
+        String[] updatedEvent = nextEvent(live);
+        assertEquals("UPDATED", updatedEvent[1]);
+        assertTrue(updatedEvent[2].contains("Stream C"));
+
+        // Reconnecting after the CREATED event replays just the UPDATED one
+        BlockingQueue<String> resumed = open(createdEvent[0]);
+        String[] replayed = nextEvent(resumed);
+        assertEquals(updatedEvent[0], replayed[0]);
+        assertEquals("UPDATED", replayed[1]);
+
+        // An id from before the replay buffer (or a previous server run) asks the client to reload
+        BlockingQueue<String> stale = open("1");
+        assertEquals("RESYNC", nextEvent(stale)[1]);
+    }
+
+    private BlockingQueue<String> open(String lastEventId) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/bookings/stream"))
+                .header("Accept", "text/event-stream");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofLines())
+                .thenAccept(response -> response.body().forEach(lines::add));
+        return lines;
+    }
+
+    // The stream starts with a heartbeat comment once the subscription is registered
+    private void awaitConnected(BlockingQueue<String> lines) throws InterruptedException {
+        String line;
+        do {
+            line = lines.poll(10, TimeUnit.SECONDS);
+            assertNotNull(line, "Stream did not open");
+        } while (!line.startsWith(":"));
+    }
+
+    // { id, event name, data } of the next event, skipping heartbeats
+    private String[] nextEvent(BlockingQueue<String> lines) throws InterruptedException {
+        String[] event = new String[3];
+        while (true) {
+            String line = lines.poll(10, TimeUnit.SECONDS);
+            assertNotNull(line, "No event arrived");
+            if (line.startsWith("id:")) {
+                event[0] = line.substring(3);
+            } else if (line.startsWith("event:")) {
+                event[1] = line.substring(6);
+            } else if (line.startsWith("data:")) {
+                event[2] = line.substring(5);
+            } else if (line.isEmpty() && event[1] != null) {
+                return event;
+            }
+        }
+    }
+
+    private String send(String method, String path, String json) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), response.body());
+        return response.body();
+    }
+}
@@ -0,0 +1,86 @@
+package com.rideapp.ridebooking.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rideapp.ridebooking.TestFixtures;
+import com.rideapp.ridebooking.models.Ride;
+import com.rideapp.ridebooking.models.User;
+import com.rideapp.ridebooking.repositories.RideRepository;
+import com.rideapp.ridebooking.services.BookingHistoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// A booking requested, accepted and swept shows up in the Prometheus scrape, next to the
+// endpoint timers, Hibernate statistics and connection pool metrics
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@Import(TestFixtures.class)
+class MetricsEndpointTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private BookingHistoryService bookingHistoryService;
+
+    @Test
+    void prometheusScrapeCoversBookingLifecycleAndPersistence() throws Exception {
+        User driver = fixtures.saveUser("Metrics Driver", "830001", User.Role.DRIVER);
+        User rider = fixtures.saveUser("Metrics Rider", "830002", User.Role.RIDER);
+        Ride ride = rideRepository.save(new Ride(driver, "Midtown", "Airport", LocalDateTime.now().plusHours(1), 20.0));
+
+        String created = mockMvc.perform(post("/bookings/" + ride.getRideId() + "/" + rider.getUserId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"pickupLocation\":\"Midtown\",\"dropLocation\":\"Airport\",\"rideTime\":\"23:59\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long bookingId = objectMapper.readTree(created).get("bookingId").asLong();
+        mockMvc.perform(put("/bookings/" + bookingId + "/accept").param("driverId", driver.getUserId().toString()))
+                .andExpect(status().isOk());
+        bookingHistoryService.performManualCleanup();
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertContains(scrape, "booking_transitions_total{application=\"ridebooking\",event=\"created\",from=\"none\",to=\"requested\"}");
+        assertContains(scrape, "booking_transitions_total{application=\"ridebooking\",event=\"accepted\",from=\"requested\",to=\"accepted\"}");
+        assertContains(scrape, "booking_accept_latency_seconds_bucket{");
+        assertContains(scrape, "booking_accept_latency_seconds_count{application=\"ridebooking\"} ");
+        assertContains(scrape, "booking_cleanup_duration_seconds_count{application=\"ridebooking\",run=\"sweep\"} ");
+        assertContains(scrape, "booking_cleanup_deleted_total{application=\"ridebooking\",run=\"sweep\",table=\"rides\"}");
+        assertContains(scrape, "uri=\"/bookings/{rideId}/{riderId}\"");
+        assertContains(scrape, "http_server_requests_seconds_bucket{");
+        assertContains(scrape, "hibernate_statements_total{");
+        assertContains(scrape, "hibernate_entities_loads_total{");
+        assertContains(scrape, "hibernate_flushes_total{");
+        assertContains(scrape, "hikaricp_connections_acquire_seconds_count{");
+    }
+
+    private static void assertContains(String scrape, String expected) {
+        assertTrue(scrape.contains(expected), "missing from /actuator/prometheus: " + expected);
+    }
+}
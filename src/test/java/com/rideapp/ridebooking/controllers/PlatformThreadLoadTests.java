@@ -0,0 +1,16 @@
+package com.rideapp.ridebooking.controllers;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Current mode: Tomcat's platform-thread pool caps the requests in flight at its size
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"server.tomcat.threads.max=" + ThreadModeLoadTest.TOMCAT_THREADS, "spring.jpa.show-sql=false"})
+class PlatformThreadLoadTests extends ThreadModeLoadTest {
+
+    @Override
+    void verify(LoadResult result) {
+        assertTrue(result.maxInFlight <= TOMCAT_THREADS, "More requests in flight than worker threads: " + result);
+    }
+}
@@ -0,0 +1,216 @@
+package com.rideapp.ridebooking.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rideapp.ridebooking.TestFixtures;
+import com.rideapp.ridebooking.dto.PageCursor;
+import com.rideapp.ridebooking.models.Booking;
+import com.rideapp.ridebooking.models.Ride;
+import com.rideapp.ridebooking.models.User;
+import com.rideapp.ridebooking.repositories.BookingRepository;
+import com.rideapp.ridebooking.repositories.RideRepository;
+import com.rideapp.ridebooking.repositories.UserRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.pool.ConnectionPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The /reactive endpoints return exactly what their blocking counterparts return, streamed as NDJSON,
+// and a burst of concurrent clients is served from the small R2DBC pool. The footprint comparison
+// prints peak threads, connections and heap for both stacks; run it at production scale with
+// -Dfootprint.clients=10000 (and server.tomcat.max-connections above that).
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import(TestFixtures.class)
+class ReactiveReadTests {
+
+    private static final int FOOTPRINT_CLIENTS = Integer.getInteger("footprint.clients", 100);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private DatabaseClient reactiveDatabaseClient;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @BeforeEach
+    void seed() {
+        if (userRepository.findByPhoneNumber("710001").isPresent()) {
+            return;
+        }
+        User driver = fixtures.saveUser("Reactive Driver", "710001", User.Role.DRIVER);
+        User rider = fixtures.saveUser("Reactive Rider", "710002", User.Role.RIDER);
+        for (int i = 0; i < 30; i++) {
+            Ride ride = new Ride(i % 2 == 0 ? driver : null, "Reactive A" + i, "Reactive B" + i, null, 8.0 + i);
+            ride.setDistanceInMiles(1.5 + i);
+            rideRepository.save(ride);
+            Booking booking = new Booking();
+            booking.setRide(ride);
+            booking.setRider(rider);
+            booking.setPickupLocation("Reactive A" + i);
+            booking.setDropLocation("Reactive B" + i);
+            booking.setRideTime("10:" + (10 + i));
+            booking.setFare(8.0 + i);
+            booking.setPickupLocationDetails("{\"coordinates\":{\"lat\":35.1,\"lng\":-89.9" + i + "}}");
+            booking.setStatus(i % 3 == 0 ? Booking.BookingStatus.ACCEPTED : Booking.BookingStatus.REQUESTED);
+            bookingRepository.save(booking);
+        }
+    }
+
+    @Test
+    void reactiveReadsMatchTheBlockingEndpoints() throws Exception {
+        assertEquals(json("/bookings/pending?limit=500"), ndjson("/reactive/bookings/pending"));
+        assertEquals(json("/rides?limit=500"), ndjson("/reactive/rides"));
+
+        // Same keyset cursors and page sizes
+        HttpResponse<String> firstPage = get("/bookings/pending?limit=5");
+        String cursor = firstPage.headers().firstValue(PageCursor.NEXT_CURSOR_HEADER).orElseThrow();
+        assertEquals(json("/bookings/pending?limit=5&after=" + cursor),
+                ndjson("/reactive/bookings/pending?limit=5&after=" + cursor));
+
+        long bookingId = bookingRepository.findAll().get(0).getBookingId();
+        assertEquals(objectMapper.readTree(get("/bookings/" + bookingId).body()),
+                objectMapper.readTree(get("/reactive/bookings/" + bookingId).body()));
+        assertEquals(404, get("/reactive/bookings/999999").statusCode());
+    }
+
+    @Test
+    void concurrentClientsShareAFewConnections() throws Exception {
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        ConnectionPool reactiveConnectionPool = (ConnectionPool) reactiveDatabaseClient.getConnectionFactory();
+        Footprint blocking = measure("/bookings/pending?limit=100",
+                () -> hikari.getHikariPoolMXBean().getActiveConnections());
+        Footprint reactive = measure("/reactive/bookings/pending?limit=100",
+                () -> reactiveConnectionPool.getMetrics().map(metrics -> metrics.acquiredSize()).orElse(0));
+        System.out.println("🌊 " + FOOTPRINT_CLIENTS + " concurrent clients - blocking: " + blocking + " | reactive: " + reactive);
+
+        int poolSize = reactiveConnectionPool.getMetrics().map(metrics -> metrics.getMaxAllocatedSize()).orElse(0);
+        assertTrue(reactive.peakConnections <= poolSize, "Reactive reads used " + reactive.peakConnections + " connections");
+    }
+
+    private Footprint measure(String path, IntSupplier connectionsInUse) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        System.gc();
+        long heapBefore = usedHeap();
+        threads.resetPeakThreadCount();
+
+        AtomicInteger peakConnections = new AtomicInteger();
+        AtomicBoolean sampling = new AtomicBoolean(true);
+        Thread sampler = new Thread(() -> {
+            while (sampling.get()) {
+                peakConnections.accumulateAndGet(connectionsInUse.getAsInt(), Math::max);
+                Thread.onSpinWait();
+            }
+        });
+        sampler.start();
+        long peakHeap = heapBefore;
+        try {
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < FOOTPRINT_CLIENTS; i++) {
+                responses.add(client.sendAsync(request(path), HttpResponse.BodyHandlers.ofString()));
+            }
+            for (CompletableFuture<HttpResponse<String>> response : responses) {
+                assertEquals(200, response.get().statusCode());
+                peakHeap = Math.max(peakHeap, usedHeap());
+            }
+        } finally {
+            sampling.set(false);
+            sampler.join();
+        }
+        return new Footprint(threads.getPeakThreadCount(), peakConnections.get(), (peakHeap - heapBefore) / (1024 * 1024));
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private List<JsonNode> json(String path) throws Exception {
+        HttpResponse<String> response = get(path);
+        assertEquals(200, response.statusCode(), response.body());
+        List<JsonNode> rows = new ArrayList<>();
+        objectMapper.readTree(response.body()).forEach(rows::add);
+        return rows;
+    }
+
+    private List<JsonNode> ndjson(String path) throws Exception {
+        HttpResponse<String> response = get(path);
+        assertEquals(200, response.statusCode(), response.body());
+        assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("application/x-ndjson"));
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : response.body().split("\n")) {
+            if (!line.isBlank()) {
+                rows.add(objectMapper.readTree(line));
+            }
+        }
+        return rows;
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(request(path), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(60))
+                .build();
+    }
+
+    private static final class Footprint {
+        final int peakThreads;
+        final int peakConnections;
+        final long heapGrowthMb;
+
+        Footprint(int peakThreads, int peakConnections, long heapGrowthMb) {
+            this.peakThreads = peakThreads;
+            this.peakConnections = peakConnections;
+            this.heapGrowthMb = heapGrowthMb;
+        }
+
+        @Override
+        public String toString() {
+            return peakThreads + " threads, " + peakConnections + " connections, +" + heapGrowthMb + " MB heap";
+        }
+    }
+}
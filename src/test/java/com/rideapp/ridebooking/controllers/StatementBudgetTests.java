@@ -0,0 +1,235 @@
+package com.rideapp.ridebooking.controllers;
+
+import com.rideapp.ridebooking.TestFixtures;
+import com.rideapp.ridebooking.config.SqlStatementRecorder;
+import com.rideapp.ridebooking.models.Booking;
+import com.rideapp.ridebooking.models.Ride;
+import com.rideapp.ridebooking.models.User;
+import com.rideapp.ridebooking.repositories.BookingRepository;
+import com.rideapp.ridebooking.repositories.UserRepository;
+import com.rideapp.ridebooking.services.SessionTokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Every endpoint of the booking, ride, history and admin dashboard controllers declares how many
+// JDBC statements one request may execute. Each is measured on a small dataset and again after the
+// dataset has grown several times over: a request over its budget, or one whose statement count
+// grew with the data (an N+1), fails the build with the SQL it ran.
+// The entity cache and the dashboard stats snapshot are switched off, so budgets are cold-cache counts.
+@SpringBootTest(properties = {
+        "entity.cache.max-size=0",
+        "admin.dashboard.stats-ttl-ms=0",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+@Import({SqlStatementRecorder.class, TestFixtures.class})
+class StatementBudgetTests {
+
+    private static final double LAT = 35.1495;
+    private static final double LNG = -90.0490;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
+    private final Map<String, Budget> budgets = new LinkedHashMap<>();
+    private User driver;
+    private User rider;
+    private Ride ride;
+    private Booking booking;
+    private String adminToken;
+    private int phoneSequence;
+
+    private void declareBudgets() {
+        // BookingController
+        budget("POST /bookings/{rideId}/{riderId}", 3, () -> post("/bookings/" + ride.getRideId() + "/" + rider.getUserId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"pickupLocation\":\"Budget pickup\",\"dropLocation\":\"Budget drop\",\"rideTime\":\"23:59\"}"));
+        // Rides with drivers, riders, one insert batch
+        budget("POST /bookings/batch", 3, () -> post("/bookings/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(batchOfTen()));
+        budget("GET /bookings", 1, () -> get("/bookings"));
+        budget("GET /bookings/pending", 1, () -> get("/bookings/pending"));
+        budget("GET /bookings/pending/near", 1, () -> get("/bookings/pending/near").param("lat", String.valueOf(LAT))
+                .param("lng", String.valueOf(LNG)).param("limit", "100"));
+        budget("GET /bookings/{id}", 1, () -> get("/bookings/" + booking.getBookingId()));
+        budget("PUT /bookings/{bookingId}/accept", 3, () -> put("/bookings/" + fixtures.saveBooking(rider, ride, Booking.BookingStatus.REQUESTED, LAT, LNG)
+                .getBookingId() + "/accept").param("driverId", driver.getUserId().toString()));
+        budget("PUT /bookings/{bookingId}/reject", 2, () -> put("/bookings/" + fixtures.saveBooking(rider, ride, Booking.BookingStatus.REQUESTED, LAT, LNG)
+                .getBookingId() + "/reject").param("driverId", driver.getUserId().toString()));
+        budget("GET /bookings/drivers/{driverId}/accepted", 2, () -> get("/bookings/drivers/" + driver.getUserId() + "/accepted"));
+        // Claim (conditional UPDATE), load, update
+        budget("PUT /bookings/{bookingId}", 3, () -> put("/bookings/" + fixtures.saveBooking(rider, ride, Booking.BookingStatus.REQUESTED, LAT, LNG).getBookingId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"pickupLocation\":\"Moved pickup\",\"dropLocation\":\"Moved drop\",\"rideTime\":\"23:30\"}"));
+        budget("DELETE /bookings/{bookingId}", 2, () -> delete("/bookings/" + fixtures.saveBooking(rider, ride, Booking.BookingStatus.REQUESTED, LAT, LNG).getBookingId()));
+        // RideController
+        budget("POST /rides/{driverId}", 2, () -> post("/rides/" + driver.getUserId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"pickupLocation\":\"Budget pickup\",\"dropLocation\":\"Budget drop\",\"price\":12.5}"));
+        budget("GET /rides", 1, () -> get("/rides"));
+        budget("GET /rides?status", 1, () -> get("/rides").param("status", "PENDING"));
+        budget("GET /rides/{rideId}", 1, () -> get("/rides/" + ride.getRideId()));
+        // BookingHistoryController
+        budget("GET /history/user/{userId}", 1, () -> get("/history/user/" + rider.getUserId()));
+        budget("GET /history/user/{userId}?status", 1, () -> get("/history/user/" + rider.getUserId()).param("status", "ACCEPTED"));
+        budget("GET /history/accepted", 1, () -> get("/history/accepted"));
+        budget("GET /history/stats", 0, () -> get("/history/stats"));
+        budget("GET /history/user/{userId}/stats", 0, () -> get("/history/user/" + rider.getUserId() + "/stats"));
+        budget("POST /history/cleanup", 3, () -> post("/history/cleanup"));
+        // AdminDashboardController
+        budget("GET /admin/dashboard/rides", 2, () -> admin(get("/admin/dashboard/rides")));
+        budget("GET /admin/dashboard/users", 3, () -> admin(get("/admin/dashboard/users")));
+        budget("PUT /admin/dashboard/users/{userId}/status", 2, () -> admin(put("/admin/dashboard/users/" +
+                saveUser("Blocked", User.Role.RIDER).getUserId() + "/status").param("status", "BLOCKED")));
+        budget("DELETE /admin/dashboard/users/{userId}", 9, () -> admin(delete("/admin/dashboard/users/" + userWithHistory().getUserId())));
+        budget("GET /admin/dashboard/stats", 3, () -> admin(get("/admin/dashboard/stats")));
+        budget("GET /admin/dashboard/cache-stats", 0, () -> admin(get("/admin/dashboard/cache-stats")));
+        budget("GET /admin/dashboard/request-stats", 0, () -> admin(get("/admin/dashboard/request-stats")));
+        budget("GET /admin/dashboard/suspicious-activities", 3, () -> admin(get("/admin/dashboard/suspicious-activities")));
+        budget("PUT /admin/dashboard/bookings/{bookingId}/cancel", 2, () -> admin(put("/admin/dashboard/bookings/" +
+                fixtures.saveBooking(rider, ride, Booking.BookingStatus.REQUESTED, LAT, LNG).getBookingId() + "/cancel")));
+    }
+
+    @Test
+    void everyEndpointStaysWithinItsStatementBudget() throws Exception {
+        User admin = userRepository.findByPhoneNumber("admin").orElseThrow();
+        adminToken = sessionTokenService.issue(admin.getUserId(), User.Role.ADMIN);
+        driver = saveUser("Budget Driver", User.Role.DRIVER);
+        rider = saveUser("Budget Rider", User.Role.RIDER);
+        declareBudgets();
+
+        growDataset(3);
+        Map<String, List<String>> small = measure();
+        growDataset(15);
+        Map<String, List<String>> large = measure();
+
+        List<String> failures = new ArrayList<>();
+        for (Budget budget : budgets.values()) {
+            List<String> smallSql = small.get(budget.endpoint);
+            List<String> largeSql = large.get(budget.endpoint);
+            System.out.printf("🧮 %-52s %2d / %2d statements (budget %d)%n",
+                    budget.endpoint, smallSql.size(), largeSql.size(), budget.maxStatements);
+            if (largeSql.size() > smallSql.size()) {
+                failures.add(budget.endpoint + " grew from " + smallSql.size() + " to " + largeSql.size()
+                        + " statements with the dataset:\n    " + String.join("\n    ", largeSql));
+            } else if (Math.max(smallSql.size(), largeSql.size()) > budget.maxStatements) {
+                List<String> sql = smallSql.size() > budget.maxStatements ? smallSql : largeSql;
+                failures.add(budget.endpoint + " ran " + sql.size() + " statements, budget " + budget.maxStatements
+                        + ":\n    " + String.join("\n    ", sql));
+            }
+        }
+        assertTrue(failures.isEmpty(), "Statement budgets exceeded:\n" + String.join("\n", failures));
+    }
+
+    private void budget(String endpoint, int maxStatements, RequestFactory request) {
+        budgets.put(endpoint, new Budget(endpoint, maxStatements, request));
+    }
+
+    // Runs every endpoint twice (the first time warms up the path) and records the second run
+    private Map<String, List<String>> measure() throws Exception {
+        Map<String, List<String>> statements = new LinkedHashMap<>();
+        for (Budget budget : budgets.values()) {
+            mockMvc.perform(budget.request.create()).andExpect(status().is2xxSuccessful());
+            MockHttpServletRequestBuilder request = budget.request.create();
+            SqlStatementRecorder.start();
+            try {
+                mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+            } finally {
+                statements.put(budget.endpoint, SqlStatementRecorder.stop());
+            }
+        }
+        return statements;
+    }
+
+    // Adds rides, bookings in every status, pending pickups near (LAT, LNG), riders with several
+    // bookings and self-bookings, so every list endpoint returns more rows than before
+    private void growDataset(int count) {
+        Booking.BookingStatus[] statuses = Booking.BookingStatus.values();
+        for (int i = 0; i < count; i++) {
+            ride = fixtures.saveRide(driver, "Budget", Ride.RideStatus.CONFIRMED);
+            booking = fixtures.saveBooking(rider, ride, statuses[i % statuses.length], LAT, LNG);
+            User frequentRider = saveUser("Frequent Rider", User.Role.RIDER);
+            for (int j = 0; j < 3; j++) {
+                fixtures.saveBooking(frequentRider, ride, Booking.BookingStatus.REQUESTED, LAT, LNG);
+            }
+            User selfBooker = saveUser("Self Booker", User.Role.DRIVER);
+            fixtures.saveBooking(selfBooker, fixtures.saveRide(selfBooker, "Budget", Ride.RideStatus.CONFIRMED), Booking.BookingStatus.REQUESTED, LAT, LNG);
+        }
+    }
+
+    private String batchOfTen() {
+        List<String> items = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            items.add("{\"rideId\":" + ride.getRideId() + ",\"riderId\":" + rider.getUserId() +
+                    ",\"pickupLocation\":\"Batch pickup\",\"dropLocation\":\"Batch drop\",\"rideTime\":\"23:59\"}");
+        }
+        return "[" + String.join(",", items) + "]";
+    }
+
+    // A rider who also drives, with bookings and rides to delete along with the account
+    private User userWithHistory() {
+        User user = saveUser("Deleted User", User.Role.RIDER);
+        for (int i = 0; i < bookingRepository.count() / 20 + 1; i++) {
+            fixtures.saveBooking(user, ride, Booking.BookingStatus.REQUESTED, LAT, LNG);
+            fixtures.saveRide(user, "Budget", Ride.RideStatus.CONFIRMED);
+        }
+        return user;
+    }
+
+    private MockHttpServletRequestBuilder admin(MockHttpServletRequestBuilder request) {
+        return request.header("Authorization", "Bearer " + adminToken);
+    }
+
+    // Each call saves a new user with a phone number no other user has
+    private User saveUser(String name, User.Role role) {
+        int sequence = phoneSequence++;
+        return fixtures.saveUser(name + " " + sequence, String.valueOf(7_100_000 + sequence), role);
+    }
+
+    private interface RequestFactory {
+        MockHttpServletRequestBuilder create() throws Exception;
+    }
+
+    private static final class Budget {
+        final String endpoint;
+        final int maxStatements;
+        final RequestFactory request;
+
+        Budget(String endpoint, int maxStatements, RequestFactory request) {
+            this.endpoint = endpoint;
+            this.maxStatements = maxStatements;
+            this.request = request;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.rideapp.ridebooking.controllers;
+
+import com.rideapp.ridebooking.config.InFlightRequestFilter;
+import com.rideapp.ridebooking.models.Ride;
+import com.rideapp.ridebooking.repositories.RideRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The same closed-loop load against the app in each request execution mode: CLIENTS concurrent
+// clients on a 16-thread Tomcat, reporting p99 latency and the peak number of requests in flight.
+// Subclasses boot the app in platform-thread and virtual-thread mode so the two runs compare directly.
+abstract class ThreadModeLoadTest {
+
+    static final int TOMCAT_THREADS = 16;
+    static final int CLIENTS = 64;
+    static final int REQUESTS_PER_CLIENT = 10;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private InFlightRequestFilter inFlightRequestFilter;
+
+    // Checks specific to the mode under test
+    abstract void verify(LoadResult result);
+
+    @Test
+    void servesConcurrentClients() throws Exception {
+        List<Long> rideIds = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Ride ride = new Ride();
+            ride.setPickupLocation("Load A" + i);
+            ride.setDropLocation("Load B" + i);
+            ride.setPrice(10.0 + i);
+            ride.setStatus(Ride.RideStatus.PENDING);
+            rideIds.add(rideRepository.save(ride).getRideId());
+        }
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        inFlightRequestFilter.resetMaxInFlight();
+        long startedAt = System.nanoTime();
+        try {
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                int clientId = c;
+                results.add(clients.submit(() -> {
+                    long[] latencies = new long[REQUESTS_PER_CLIENT];
+                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                        String path = r % 2 == 0 ? "/bookings/pending"
+                                : "/rides/" + rideIds.get((clientId + r) % rideIds.size());
+                        long sentAt = System.nanoTime();
+                        HttpResponse<String> response = client.send(
+                                HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+                                HttpResponse.BodyHandlers.ofString());
+                        latencies[r] = System.nanoTime() - sentAt;
+                        assertEquals(200, response.statusCode(), path);
+                    }
+                    return latencies;
+                }));
+            }
+            long[] all = new long[CLIENTS * REQUESTS_PER_CLIENT];
+            int next = 0;
+            for (Future<long[]> result : results) {
+                long[] latencies = result.get();
+                System.arraycopy(latencies, 0, all, next, latencies.length);
+                next += latencies.length;
+            }
+            Arrays.sort(all);
+            LoadResult result = new LoadResult(all.length, (System.nanoTime() - startedAt) / 1_000_000,
+                    all[(int) Math.ceil(all.length * 0.99) - 1] / 1_000_000.0,
+                    inFlightRequestFilter.getMaxInFlight());
+            System.out.println("🧵 " + getClass().getSimpleName() + ": " + result);
+            verify(result);
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    static final class LoadResult {
+        final int requests;
+        final long elapsedMillis;
+        final double p99Millis;
+        final int maxInFlight;
+
+        LoadResult(int requests, long elapsedMillis, double p99Millis, int maxInFlight) {
+            this.requests = requests;
+            this.elapsedMillis = elapsedMillis;
+            this.p99Millis = p99Millis;
+            this.maxInFlight = maxInFlight;
+        }
+
+        @Override
+        public String toString() {
+            return requests + " requests in " + elapsedMillis + " ms, p99 " + String.format("%.2f", p99Millis)
+                    + " ms, max in flight " + maxInFlight;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.rideapp.ridebooking.controllers;
+
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Virtual-thread mode under the same load and Tomcat thread setting, which no longer limits
+// concurrency. Needs a Java 21+ runtime (mvn -Pvirtual-threads test); skipped on older JDKs.
+@EnabledForJreRange(min = JRE.JAVA_21)
+@ActiveProfiles("virtual-threads")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"server.tomcat.threads.max=" + ThreadModeLoadTest.TOMCAT_THREADS, "spring.jpa.show-sql=false"})
+class VirtualThreadLoadTests extends ThreadModeLoadTest {
+
+    @Override
+    void verify(LoadResult result) {
+        // The 16 worker threads the platform run is capped at no longer bound how many requests run at once
+        assertTrue(result.maxInFlight > TOMCAT_THREADS, "No more requests in flight than worker threads: " + result);
+    }
+}
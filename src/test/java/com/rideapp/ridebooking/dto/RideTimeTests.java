@@ -0,0 +1,39 @@
+package com.rideapp.ridebooking.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// The rideTime forms the frontend sends, resolved against the moment the booking was made
+class RideTimeTests {
+
+    private static final LocalDateTime BOOKED_AT = LocalDateTime.of(2026, 3, 14, 9, 15, 30);
+
+    @Test
+    void timeOfDayIsOnTheBookingDay() {
+        assertEquals(LocalDateTime.of(2026, 3, 14, 10, 30), RideTime.resolve("10:30", BOOKED_AT));
+        assertEquals(LocalDateTime.of(2026, 3, 14, 8, 0), RideTime.resolve(" 08:00 ", BOOKED_AT));
+    }
+
+    @Test
+    void isoDateTimesAreTakenAsGiven() {
+        assertEquals(LocalDateTime.of(2030, 1, 1, 10, 0), RideTime.resolve("2030-01-01T10:00", BOOKED_AT));
+        LocalDateTime expected = OffsetDateTime.parse("2030-01-01T16:00:00Z")
+                .atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        assertEquals(expected, RideTime.resolve("2030-01-01T16:00:00.000Z", BOOKED_AT));
+        assertEquals(expected, RideTime.resolve("2030-01-01T11:00:00-05:00", BOOKED_AT));
+    }
+
+    @Test
+    void missingOrUnreadableTimesHaveNoRideAt() {
+        assertNull(RideTime.resolve(null, BOOKED_AT));
+        assertNull(RideTime.resolve("  ", BOOKED_AT));
+        assertNull(RideTime.resolve("tomorrow morning", BOOKED_AT));
+        assertNull(RideTime.resolve("25:99", BOOKED_AT));
+    }
+}
@@ -0,0 +1,105 @@
+package com.rideapp.ridebooking.durable;
+
+import com.rideapp.ridebooking.journal.Journal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Drives ChangeCapture the way ChangeCaptureInterceptor does, including a commit that fails after its
+// changes were logged, and restores the log into a fresh database
+class ChangeCaptureTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void changesOfAFailedCommitAreNotReplayed() throws Exception {
+        Path logDirectory = directory.resolve("changes");
+        Path snapshotDirectory = Files.createDirectories(directory.resolve("snapshots"));
+        ChangeCapture capture = new ChangeCapture();
+        try (Journal log = Journal.open(logDirectory, 1024 * 1024, Journal.FsyncPolicy.NEVER, 20);
+             Connection connection = newDatabase()) {
+            capture.start(log, connection, TableSchema.loadAll(connection));
+            connection.setAutoCommit(false);
+
+            capture.afterBegin();
+            insert(connection, 1, "committed");
+            capture.beforeCommit();
+            connection.commit();
+            capture.afterCompletion(true);
+
+            // The JDBC commit fails after the record was appended
+            capture.afterBegin();
+            insert(connection, 2, "commit failed");
+            capture.beforeCommit();
+            connection.rollback();
+            capture.afterCompletion(false);
+
+            capture.afterBegin();
+            insert(connection, 3, "committed after");
+            capture.beforeCommit();
+            connection.commit();
+            capture.afterCompletion(true);
+
+            // In a Spring-managed transaction the outcome comes from Spring, after Hibernate's callback
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                capture.afterBegin();
+                insert(connection, 4, "spring commit failed");
+                capture.beforeCommit();
+                connection.rollback();
+                capture.afterCompletion(true);
+                TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                        TransactionSynchronization.STATUS_ROLLED_BACK);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        } finally {
+            capture.stop();
+        }
+
+        try (Connection restored = newDatabase()) {
+            new StateRestorer(snapshotDirectory, logDirectory).restore(restored);
+            assertEquals(List.of("committed", "committed after"), names(restored));
+        }
+    }
+
+    private static Connection newDatabase() throws Exception {
+        Connection connection = DriverManager.getConnection("jdbc:h2:mem:capture-" + UUID.randomUUID(), "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table riders (rider_id bigint primary key, name varchar(64))");
+        }
+        return connection;
+    }
+
+    private static void insert(Connection connection, long id, String name) throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("insert into riders (rider_id, name) values (" + id + ", '" + name + "')");
+        }
+    }
+
+    private static List<String> names(Connection connection) throws Exception {
+        List<String> names = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("select name from riders order by rider_id")) {
+            while (rows.next()) {
+                names.add(rows.getString(1));
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,104 @@
+package com.rideapp.ridebooking.ids;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnowflakeIdGeneratorTests {
+
+    private static final long NOW = SnowflakeIdGenerator.EPOCH_MILLIS + 500L * 24 * 3600 * 1000;
+
+    @Test
+    void idsCarryTimestampAndNodeAndStayJavaScriptSafe() {
+        SnowflakeIdGenerator ids = new SnowflakeIdGenerator(9, () -> NOW);
+        long first = ids.nextId();
+        long second = ids.nextId();
+        assertEquals(NOW, SnowflakeIdGenerator.timestampOf(first));
+        assertEquals(9, SnowflakeIdGenerator.nodeOf(first));
+        assertEquals(first + 1, second);
+
+        // The last millisecond the layout can hold is still below 2^53
+        long last = new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID,
+                () -> SnowflakeIdGenerator.EPOCH_MILLIS + (1L << 41) - 1).nextId() | 0xFF;
+        assertTrue(last < 1L << 53);
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(16, () -> NOW));
+    }
+
+    @Test
+    void keepsIncreasingWhenTheClockStepsBackOrAMillisecondFillsUp() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator ids = new SnowflakeIdGenerator(1, clock::get);
+        long previous = ids.nextId();
+        // 256 ids fit in a millisecond; the rest borrow the following ones
+        for (int i = 0; i < 1000; i++) {
+            long id = ids.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+        assertEquals(NOW + 3, SnowflakeIdGenerator.timestampOf(previous));
+
+        clock.set(NOW - 60_000);
+        long afterStepBack = ids.nextId();
+        assertTrue(afterStepBack > previous);
+
+        clock.set(NOW + 10);
+        assertEquals(NOW + 10, SnowflakeIdGenerator.timestampOf(ids.nextId()));
+    }
+
+    @Test
+    void advancePastMovesLaterIdsBeyondARestoredOne() {
+        long restored = new SnowflakeIdGenerator(3, () -> NOW + 5_000).nextId();
+        SnowflakeIdGenerator ids = new SnowflakeIdGenerator(0, () -> NOW);
+        ids.advancePast(restored);
+        assertTrue(ids.nextId() > restored);
+        // Never moves backwards
+        ids.advancePast(1);
+        assertTrue(ids.nextId() > restored);
+    }
+
+    @Test
+    void concurrentCallersGetUniqueIncreasingIds() throws Exception {
+        SnowflakeIdGenerator ids = new SnowflakeIdGenerator(2, System::currentTimeMillis);
+        int threads = 4;
+        int perThread = 50_000;
+        long[][] generated = new long[threads][perThread];
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            long[] mine = generated[t];
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < perThread; i++) {
+                    mine[i] = ids.nextId();
+                }
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        long[] all = new long[threads * perThread];
+        for (int t = 0; t < threads; t++) {
+            for (int i = 1; i < perThread; i++) {
+                assertTrue(generated[t][i] > generated[t][i - 1]);
+            }
+            System.arraycopy(generated[t], 0, all, t * perThread, perThread);
+        }
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            assertTrue(all[i] > all[i - 1], "duplicate id " + all[i]);
+        }
+    }
+}
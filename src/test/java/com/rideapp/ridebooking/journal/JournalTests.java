@@ -0,0 +1,184 @@
+package com.rideapp.ridebooking.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Append/read round trips, segment rolling, recovery after a restart or a torn write, tailing a
+// journal that is being written, and the cost of an append
+class JournalTests {
+
+    private static final int SEGMENT_SIZE = 64 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackWhatWasAppendedAcrossSegments() throws IOException {
+        try (Journal journal = open(Journal.FsyncPolicy.GROUP)) {
+            for (int i = 1; i <= 2000; i++) {
+                assertEquals(i, journal.append((byte) 1, body(i)));
+            }
+            assertTrue(segmentCount() >= 3, "Expected the journal to roll over");
+
+            List<JournalRecord> records = readAll(1);
+            assertEquals(2000, records.size());
+            for (int i = 0; i < records.size(); i++) {
+                assertEquals(i + 1, records.get(i).getSequence());
+                assertArrayEquals(body(i + 1).array(), records.get(i).getBody());
+            }
+            // Starting in the middle skips to the right segment and record
+            assertEquals(1234, readAll(1234).get(0).getSequence());
+            assertEquals(767, readAll(1234).size());
+        }
+    }
+
+    @Test
+    void continuesTheSequenceAfterARestart() throws IOException {
+        try (Journal journal = open(Journal.FsyncPolicy.ALWAYS)) {
+            for (int i = 1; i <= 500; i++) {
+                journal.append((byte) 1, body(i));
+            }
+            assertEquals(500, journal.getDurableSequence());
+        }
+        try (Journal journal = open(Journal.FsyncPolicy.GROUP)) {
+            assertEquals(500, journal.getLastSequence());
+            assertEquals(501, journal.append((byte) 2, body(501)));
+        }
+        List<JournalRecord> records = readAll(1);
+        assertEquals(501, records.size());
+        assertEquals(2, records.get(500).getType());
+    }
+
+    @Test
+    void dropsATornRecordOnRecovery() throws IOException {
+        try (Journal journal = open(Journal.FsyncPolicy.GROUP)) {
+            for (int i = 1; i <= 10; i++) {
+                journal.append((byte) 1, body(i));
+            }
+        }
+        // Corrupt the last record's payload as if the crash hit in the middle of writing it
+        Path segment = directory.resolve(JournalSegment.fileName(1));
+        int recordSize = JournalSegment.RECORD_HEADER_SIZE + JournalSegment.PAYLOAD_HEADER_SIZE + body(1).remaining();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) 0xFF, (byte) 0xFF}),
+                    JournalSegment.HEADER_SIZE + 9L * recordSize + recordSize - 2);
+        }
+
+        try (Journal journal = open(Journal.FsyncPolicy.GROUP)) {
+            assertEquals(9, journal.getLastSequence());
+            assertEquals(10, journal.append((byte) 1, body(10)));
+        }
+        List<JournalRecord> records = readAll(1);
+        assertEquals(10, records.size());
+        assertArrayEquals(body(10).array(), records.get(9).getBody());
+    }
+
+    @Test
+    void tailsAJournalWhileItIsWritten() throws Exception {
+        int total = 20_000;
+        try (Journal journal = open(Journal.FsyncPolicy.GROUP)) {
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            Thread writer = new Thread(() -> {
+                try {
+                    for (int i = 1; i <= total; i++) {
+                        journal.append((byte) 1, body(i));
+                    }
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            });
+            writer.start();
+
+            long expected = 1;
+            try (JournalReader reader = journal.openReader(1)) {
+                long deadline = System.nanoTime() + 30_000_000_000L;
+                while (expected <= total && System.nanoTime() < deadline) {
+                    JournalRecord record = reader.next();
+                    if (record == null) {
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                    assertEquals(expected, record.getSequence());
+                    assertArrayEquals(body((int) expected).array(), record.getBody());
+                    expected++;
+                }
+                assertNull(reader.next());
+            }
+            writer.join();
+            assertNull(failure.get());
+            assertEquals(total + 1, expected);
+        }
+    }
+
+    @Test
+    void allowsOneOwnerPerDirectory() throws IOException {
+        try (Journal journal = open(Journal.FsyncPolicy.GROUP)) {
+            assertThrows(IllegalStateException.class, () -> open(Journal.FsyncPolicy.GROUP));
+        }
+    }
+
+    @Test
+    void appendsInAFewMicroseconds() throws IOException {
+        try (Journal journal = Journal.open(directory, 64 * 1024 * 1024, Journal.FsyncPolicy.GROUP, 20)) {
+            ByteBuffer body = ByteBuffer.allocate(200);
+            for (int i = 0; i < 50_000; i++) {
+                journal.append((byte) 1, body.clear());
+            }
+            int appends = 200_000;
+            long start = System.nanoTime();
+            for (int i = 0; i < appends; i++) {
+                journal.append((byte) 1, body.clear());
+            }
+            double micros = (System.nanoTime() - start) / 1000.0 / appends;
+            System.out.printf("Journal append: %.2f us%n", micros);
+            // A generous bound that still catches an fsync or a file operation on the append path
+            assertTrue(micros < 20, "Append took " + micros + " us");
+        }
+    }
+
+    private Journal open(Journal.FsyncPolicy policy) throws IOException {
+        return Journal.open(directory, SEGMENT_SIZE, policy, 5);
+    }
+
+    private List<JournalRecord> readAll(long from) throws IOException {
+        List<JournalRecord> records = new ArrayList<>();
+        try (JournalReader reader = JournalReader.open(directory, from)) {
+            JournalRecord record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(JournalSegment::isSegmentFile).count();
+        }
+    }
+
+    private static ByteBuffer body(int i) {
+        ByteBuffer body = ByteBuffer.allocate(64);
+        for (int j = 0; j < 8; j++) {
+            body.putLong((long) i * 31 + j);
+        }
+        return body.flip();
+    }
+}
@@ -0,0 +1,174 @@
+package com.rideapp.ridebooking.services;
+
+import com.rideapp.ridebooking.TestFixtures;
+import com.rideapp.ridebooking.events.BookingEvent;
+import com.rideapp.ridebooking.exceptions.BookingConflictException;
+import com.rideapp.ridebooking.models.Booking;
+import com.rideapp.ridebooking.models.Ride;
+import com.rideapp.ridebooking.models.User;
+import com.rideapp.ridebooking.repositories.BookingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 64 drivers accept the same bookings at the same moment: each booking must end up with
+// exactly one winner, and every loser must get a BookingConflictException. Rejects and edits based
+// on a read from before the accept must get one too instead of overwriting it, and a rider cancel
+// racing an accept must either delete the still-requested booking or lose with a conflict.
+@SpringBootTest
+@Import(TestFixtures.class)
+class BookingAcceptanceContentionTests {
+
+    private static final int ACCEPTORS = 64;
+    private static final int BOOKINGS = 50;
+
+    @Autowired
+    private BookingAcceptanceService bookingAcceptanceService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void exactlyOneConcurrentAcceptWinsPerBooking() throws Exception {
+        User rider = fixtures.saveUser("Contention Rider", "800000", User.Role.RIDER);
+        List<User> drivers = new ArrayList<>();
+        for (int i = 0; i < ACCEPTORS; i++) {
+            drivers.add(fixtures.saveUser("Contention Driver " + i, "80" + (1000 + i), User.Role.DRIVER));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(ACCEPTORS);
+        long totalAttempts = 0;
+        long elapsedNanos = 0;
+        try {
+            for (int b = 0; b < BOOKINGS; b++) {
+                Long bookingId = fixtures.saveBooking(rider, fixtures.saveRide(null, "Contention " + b, Ride.RideStatus.PENDING),
+                        Booking.BookingStatus.REQUESTED).getBookingId();
+
+                AtomicInteger winners = new AtomicInteger();
+                AtomicInteger conflicts = new AtomicInteger();
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> attempts = new ArrayList<>();
+                for (User driver : drivers) {
+                    attempts.add(pool.submit(() -> {
+                        Booking booking = bookingRepository.findById(bookingId).orElseThrow();
+                        start.await();
+                        try {
+                            bookingAcceptanceService.accept(booking, driver);
+                            winners.incrementAndGet();
+                        } catch (BookingConflictException e) {
+                            conflicts.incrementAndGet();
+                        }
+                        return null;
+                    }));
+                }
+
+                long startedAt = System.nanoTime();
+                start.countDown();
+                for (Future<?> attempt : attempts) {
+                    attempt.get(30, TimeUnit.SECONDS);
+                }
+                elapsedNanos += System.nanoTime() - startedAt;
+                totalAttempts += attempts.size();
+
+                assertEquals(1, winners.get(), "Booking " + bookingId + " must have exactly one winner");
+                assertEquals(ACCEPTORS - 1, conflicts.get());
+                assertEquals(Booking.BookingStatus.ACCEPTED,
+                        bookingRepository.findById(bookingId).orElseThrow().getStatus());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        System.out.printf("⚡ %d accept attempts by %d concurrent drivers in %d ms (%.0f attempts/s)%n",
+                totalAttempts, ACCEPTORS, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                totalAttempts / (elapsedNanos / 1_000_000_000.0));
+    }
+
+    @Test
+    void riderCancelRacingAnAcceptNeverDeletesTheAcceptedBooking() throws Exception {
+        User rider = fixtures.saveUser("Cancel Race Rider", "820000", User.Role.RIDER);
+        User driver = fixtures.saveUser("Cancel Race Driver", "820001", User.Role.DRIVER);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        int accepted = 0;
+        int cancelled = 0;
+        try {
+            for (int b = 0; b < BOOKINGS; b++) {
+                Long bookingId = fixtures.saveBooking(rider, fixtures.saveRide(null, "Contention " + b, Ride.RideStatus.PENDING),
+                        Booking.BookingStatus.REQUESTED).getBookingId();
+                Booking booking = bookingRepository.findById(bookingId).orElseThrow();
+                CountDownLatch start = new CountDownLatch(1);
+                Future<Boolean> accept = pool.submit(() -> {
+                    start.await();
+                    try {
+                        bookingAcceptanceService.accept(booking, driver);
+                        return true;
+                    } catch (BookingConflictException e) {
+                        return false;
+                    }
+                });
+                Future<Boolean> cancel = pool.submit(() -> {
+                    start.await();
+                    try {
+                        bookingAcceptanceService.cancelRequested(bookingId);
+                        return true;
+                    } catch (BookingConflictException e) {
+                        return false;
+                    }
+                });
+                start.countDown();
+                boolean acceptWon = accept.get(30, TimeUnit.SECONDS);
+                boolean cancelWon = cancel.get(30, TimeUnit.SECONDS);
+
+                // Exactly one wins, and the row shows which
+                assertTrue(acceptWon ^ cancelWon, "Booking " + bookingId + ": accept " + acceptWon + ", cancel " + cancelWon);
+                if (acceptWon) {
+                    assertEquals(Booking.BookingStatus.ACCEPTED, bookingRepository.findById(bookingId).orElseThrow().getStatus());
+                    accepted++;
+                } else {
+                    assertFalse(bookingRepository.existsById(bookingId));
+                    cancelled++;
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        System.out.printf("⚡ Accept vs cancel over %d bookings: %d accepted, %d cancelled%n", BOOKINGS, accepted, cancelled);
+    }
+
+    @Test
+    void rejectAndEditReadBeforeAnAcceptDoNotOverwriteIt() {
+        User rider = fixtures.saveUser("Overwrite Rider", "810000", User.Role.RIDER);
+        User driver = fixtures.saveUser("Overwrite Driver", "810001", User.Role.DRIVER);
+        Booking booking = fixtures.saveBooking(rider, fixtures.saveRide(null, "Overwrite", Ride.RideStatus.PENDING),
+                Booking.BookingStatus.REQUESTED);
+        // Both read the booking as REQUESTED, then the accept commits
+        Booking staleCopy = bookingRepository.findById(booking.getBookingId()).orElseThrow();
+        bookingAcceptanceService.accept(bookingRepository.findById(booking.getBookingId()).orElseThrow(), driver);
+
+        assertThrows(BookingConflictException.class, () ->
+                bookingAcceptanceService.changeStatus(staleCopy, Booking.BookingStatus.REJECTED, BookingEvent.Type.REJECTED));
+        assertThrows(BookingConflictException.class, () ->
+                bookingAcceptanceService.updateRequested(booking.getBookingId(), edited -> edited.setPickupLocation("Edited")));
+        Booking stored = bookingRepository.findById(booking.getBookingId()).orElseThrow();
+        assertEquals(Booking.BookingStatus.ACCEPTED, stored.getStatus());
+        assertEquals("Overwrite pickup", stored.getPickupLocation());
+    }
+}
@@ -0,0 +1,92 @@
+package com.rideapp.ridebooking.services;
+
+import com.rideapp.ridebooking.events.BookingEvent;
+import com.rideapp.ridebooking.models.Booking;
+import com.rideapp.ridebooking.repositories.BookingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// A reconcile must not lose the events published while its recount query runs, and a change it
+// counts twice (committed before the query, published during it) must be gone after the next reconcile
+class BookingCounterServiceTests {
+
+    private static final Long RIDER = 7L;
+
+    @Test
+    void eventsDuringReconcileReachTheRebuiltCounters() {
+        BookingCounterService service = new BookingCounterService();
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] { RIDER, Booking.BookingStatus.REQUESTED, 2L });
+        Runnable[] duringQuery = { () -> { } };
+        ReflectionTestUtils.setField(service, "bookingRepository", repository(rows, duringQuery));
+        service.reconcile();
+        assertEquals(2, service.getCount(Booking.BookingStatus.REQUESTED));
+
+        // One booking is accepted and one created after the query read its snapshot
+        duringQuery[0] = () -> {
+            service.onBookingEvent(new BookingEvent(BookingEvent.Type.ACCEPTED, 1L, RIDER,
+                    Booking.BookingStatus.REQUESTED, Booking.BookingStatus.ACCEPTED, null));
+            service.onBookingEvent(new BookingEvent(BookingEvent.Type.CREATED, 3L, RIDER,
+                    null, Booking.BookingStatus.REQUESTED, null));
+        };
+        service.reconcile();
+
+        assertEquals(2, service.getCount(Booking.BookingStatus.REQUESTED));
+        assertEquals(1, service.getCount(Booking.BookingStatus.ACCEPTED));
+        assertEquals(1, service.getRiderCount(RIDER, Booking.BookingStatus.ACCEPTED));
+        assertEquals(3, service.getRiderTotalCount(RIDER));
+
+        // And once swapped in, events go to the new counters only once
+        duringQuery[0] = () -> { };
+        service.onBookingEvent(new BookingEvent(BookingEvent.Type.CREATED, 4L, RIDER,
+                null, Booking.BookingStatus.REQUESTED, null));
+        assertEquals(4, service.getTotalCount());
+    }
+
+    @Test
+    void changeCountedByBothTheQueryAndItsEventIsCorrectedByTheNextReconcile() {
+        BookingCounterService service = new BookingCounterService();
+        List<Object[]> rows = new ArrayList<>();
+        Runnable[] duringQuery = { () -> { } };
+        ReflectionTestUtils.setField(service, "bookingRepository", repository(rows, duringQuery));
+        service.reconcile();
+
+        // Booking 1 commits before the query reads its snapshot, but its event is published during the query
+        rows.add(new Object[] { RIDER, Booking.BookingStatus.REQUESTED, 1L });
+        duringQuery[0] = () -> service.onBookingEvent(new BookingEvent(BookingEvent.Type.CREATED, 1L, RIDER,
+                null, Booking.BookingStatus.REQUESTED, null));
+        service.reconcile();
+        assertEquals(2, service.getCount(Booking.BookingStatus.REQUESTED));
+
+        // Later events move the counts by their exact deltas, so the error stays at one
+        duringQuery[0] = () -> { };
+        service.onBookingEvent(new BookingEvent(BookingEvent.Type.ACCEPTED, 1L, RIDER,
+                Booking.BookingStatus.REQUESTED, Booking.BookingStatus.ACCEPTED, null));
+        assertEquals(2, service.getTotalCount());
+
+        rows.set(0, new Object[] { RIDER, Booking.BookingStatus.ACCEPTED, 1L });
+        service.reconcile();
+        assertEquals(0, service.getCount(Booking.BookingStatus.REQUESTED));
+        assertEquals(1, service.getRiderCount(RIDER, Booking.BookingStatus.ACCEPTED));
+        assertEquals(1, service.getTotalCount());
+    }
+
+    // Returns the rows as they were before the events, running the events as the query "executes"
+    private static BookingRepository repository(List<Object[]> rows, Runnable[] duringQuery) {
+        return (BookingRepository) Proxy.newProxyInstance(BookingRepository.class.getClassLoader(),
+                new Class<?>[] { BookingRepository.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("countGroupedByRiderAndStatus")) {
+                        List<Object[]> snapshot = new ArrayList<>(rows);
+                        duringQuery[0].run();
+                        return snapshot;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,117 @@
+package com.rideapp.ridebooking.services;
+
+import com.rideapp.ridebooking.events.BookingEvent;
+import com.rideapp.ridebooking.models.Booking;
+import com.rideapp.ridebooking.models.Ride;
+import com.rideapp.ridebooking.models.User;
+import com.rideapp.ridebooking.repositories.BookingRepository;
+import com.rideapp.ridebooking.repositories.RideRepository;
+import com.rideapp.ridebooking.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs the chunked cleanup over more rows than one chunk holds and checks that exactly the
+// expired bookings are deleted, each with one EXPIRED event, and fresh ones are left alone.
+@SpringBootTest(properties = "booking.cleanup.chunk-size=100")
+class BookingHistoryCleanupTests {
+
+    @Autowired
+    private BookingHistoryService bookingHistoryService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ExpiredEvents expiredEvents;
+
+    @Test
+    void deletesOnlyExpiredBookingsInChunks() {
+        User rider = new User();
+        rider.setName("Cleanup Rider");
+        rider.setPhoneNumber("600001");
+        rider.setEmail("600001@ridebooking.com");
+        rider.setRole(User.Role.RIDER);
+        rider.setStatus(User.Status.ACTIVE);
+        rider = userRepository.save(rider);
+        Ride ride = rideRepository.save(new Ride(null, "Cleanup A", "Cleanup B", null, 12.0));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = new ArrayList<>();
+        // 450 requests whose ride was an hour ago, 50 still ahead
+        for (int i = 0; i < 500; i++) {
+            bookings.add(booking(ride, rider, Booking.BookingStatus.REQUESTED, now, now.plusMinutes(i < 450 ? -60 : 60)));
+        }
+        // 30 accepted three days ago, 20 accepted today
+        for (int i = 0; i < 50; i++) {
+            bookings.add(booking(ride, rider, Booking.BookingStatus.ACCEPTED, now.minusDays(i < 30 ? 3 : 0), now.minusDays(3)));
+        }
+        List<Long> ids = new ArrayList<>();
+        for (Booking saved : bookingRepository.saveAll(bookings)) {
+            ids.add(saved.getBookingId());
+        }
+        Set<Long> expired = new HashSet<>(ids.subList(0, 450));
+        expired.addAll(ids.subList(500, 530));
+
+        expiredEvents.ids.clear();
+        BookingHistoryService.CleanupReport report = bookingHistoryService.runCleanup(now);
+        System.out.println("🧹 " + report);
+
+        assertEquals(70, bookingRepository.findExistingIds(ids).size());
+        for (Long id : bookingRepository.findExistingIds(ids)) {
+            assertTrue(!expired.contains(id), "Booking " + id + " should have been deleted");
+        }
+        assertTrue(expiredEvents.ids.containsAll(expired));
+        assertEquals(expiredEvents.ids.size(), new HashSet<>(expiredEvents.ids).size(), "One EXPIRED event per booking");
+        assertTrue(report.getBookingsDeleted() >= 480);
+        assertTrue(rideRepository.existsById(ride.getRideId()), "The ride still has live bookings");
+    }
+
+    private static Booking booking(Ride ride, User rider, Booking.BookingStatus status,
+                                   LocalDateTime createdAt, LocalDateTime rideAt) {
+        Booking booking = new Booking();
+        booking.setRide(ride);
+        booking.setRider(rider);
+        booking.setStatus(status);
+        booking.setCreatedAt(createdAt);
+        booking.setRideAt(rideAt);
+        return booking;
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        ExpiredEvents expiredEvents() {
+            return new ExpiredEvents();
+        }
+    }
+
+    static class ExpiredEvents {
+        final List<Long> ids = new ArrayList<>();
+
+        @EventListener
+        public void onBookingEvent(BookingEvent event) {
+            if (event.getType() == BookingEvent.Type.EXPIRED) {
+                ids.add(event.getBookingId());
+            }
+        }
+    }
+}
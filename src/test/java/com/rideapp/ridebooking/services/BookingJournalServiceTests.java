@@ -0,0 +1,111 @@
+package com.rideapp.ridebooking.services;
+
+import com.rideapp.ridebooking.dto.BookingJournalEntry;
+import com.rideapp.ridebooking.events.BookingEvent;
+import com.rideapp.ridebooking.models.Booking;
+import com.rideapp.ridebooking.models.Ride;
+import com.rideapp.ridebooking.models.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Every event type is journaled and decodes back to the same booking fields
+class BookingJournalServiceTests {
+
+    @TempDir
+    Path directory;
+
+    private BookingJournalService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        service = new BookingJournalService();
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "directory", directory.toString());
+        ReflectionTestUtils.setField(service, "segmentSizeMb", 1);
+        ReflectionTestUtils.setField(service, "fsync", "group");
+        ReflectionTestUtils.setField(service, "fsyncIntervalMillis", 10L);
+        service.openJournal();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        service.closeJournal();
+    }
+
+    @Test
+    void journalsEveryEventType() throws IOException {
+        Booking booking = booking();
+        for (BookingEvent.Type type : BookingEvent.Type.values()) {
+            service.onBookingEvent(BookingEvent.changed(type, booking, Booking.BookingStatus.REQUESTED));
+        }
+        // A bulk delete only knows the key columns
+        service.onBookingEvent(BookingEvent.removed(BookingEvent.Type.PURGED, 99L, 7L, Booking.BookingStatus.ACCEPTED));
+
+        List<BookingJournalEntry> entries = service.read(1, 100);
+        assertEquals(BookingEvent.Type.values().length + 1, entries.size());
+        for (int i = 0; i < BookingEvent.Type.values().length; i++) {
+            BookingJournalEntry entry = entries.get(i);
+            assertEquals(i + 1, entry.getSequence());
+            assertEquals(BookingEvent.Type.values()[i].name(), entry.getType());
+            assertEquals(42L, entry.getBookingId());
+            assertEquals(7L, entry.getRiderId());
+            assertEquals("REQUESTED", entry.getPreviousStatus());
+            assertEquals("ACCEPTED", entry.getStatus());
+            assertEquals(5L, entry.getRideId());
+            assertEquals(8L, entry.getDriverId());
+            assertEquals("Airport", entry.getPickupLocation());
+            assertEquals("Downtown ✈️", entry.getDropLocation());
+            assertEquals(23.5, entry.getFare());
+            assertNull(entry.getDistanceInMiles());
+            assertEquals(LocalDateTime.of(2026, 3, 1, 8, 30), entry.getRideAt());
+            assertEquals(LocalDateTime.of(2026, 2, 28, 19, 5, 12, 345_000_000), entry.getCreatedAt());
+            assertEquals(40.6413, entry.getPickupLatitude());
+            assertEquals("x".repeat(10_000), entry.getPickupLocationDetails());
+            assertNull(entry.getDropLocationDetails());
+        }
+        BookingJournalEntry purged = entries.get(entries.size() - 1);
+        assertEquals("PURGED", purged.getType());
+        assertEquals(99L, purged.getBookingId());
+        assertEquals("ACCEPTED", purged.getPreviousStatus());
+        assertNull(purged.getStatus());
+        assertNull(purged.getRideId());
+
+        assertEquals(3, service.read(6, 3).size());
+    }
+
+    private static Booking booking() {
+        User rider = new User();
+        rider.setUserId(7L);
+        User driver = new User();
+        driver.setUserId(8L);
+        Ride ride = new Ride();
+        ride.setRideId(5L);
+        ride.setDriver(driver);
+        Booking booking = new Booking();
+        ReflectionTestUtils.setField(booking, "bookingId", 42L);
+        booking.setRider(rider);
+        booking.setRide(ride);
+        booking.setStatus(Booking.BookingStatus.ACCEPTED);
+        booking.setPickupLocation("Airport");
+        booking.setDropLocation("Downtown ✈️");
+        booking.setFare(23.5);
+        booking.setRideAt(LocalDateTime.of(2026, 3, 1, 8, 30));
+        booking.setCreatedAt(LocalDateTime.of(2026, 2, 28, 19, 5, 12, 345_000_000));
+        booking.setPickupLatitude(40.6413);
+        booking.setPickupLongitude(-73.7781);
+        // Larger than the initial encode buffer
+        booking.setPickupLocationDetails("x".repeat(10_000));
+        return booking;
+    }
+}
@@ -0,0 +1,118 @@
+package com.rideapp.ridebooking.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Checks the exact matcher against brute force on small batches and times a 10k x 5k greedy batch
+class DispatchMatcherTests {
+
+    @Test
+    void smallBatchesAreMatchedWithMinimumTotalDistance() {
+        DispatchMatcher matcher = new DispatchMatcher(5.0, 40_000);
+        Random random = new Random(7);
+        for (int round = 0; round < 50; round++) {
+            int requests = 1 + random.nextInt(6);
+            int drivers = 1 + random.nextInt(6);
+            double[][] requestPositions = randomPositions(random, requests, 0.1);
+            double[][] driverPositions = randomPositions(random, drivers, 0.1);
+
+            List<DispatchMatcher.Assignment> assignments = matcher.match(
+                    requestPositions[0], requestPositions[1], driverPositions[0], driverPositions[1]);
+            assertValid(assignments, requests, drivers, 5.0);
+
+            double[] best = bestByBruteForce(requestPositions, driverPositions, 5.0);
+            assertEquals((int) best[0], assignments.size());
+            assertEquals(best[1], totalDistance(assignments), 1e-9);
+        }
+    }
+
+    @Test
+    void matchesTenThousandRequestsToFiveThousandDriversWithinOneSecond() {
+        DispatchMatcher matcher = new DispatchMatcher(5.0, 40_000);
+        Random random = new Random(42);
+        // Same ~50 x 50 mile metro area as the geo index test
+        double[][] requestPositions = randomPositions(random, 10_000, 0.7);
+        double[][] driverPositions = randomPositions(random, 5_000, 0.7);
+
+        // Warm up, then measure
+        for (int i = 0; i < 3; i++) {
+            matcher.match(requestPositions[0], requestPositions[1], driverPositions[0], driverPositions[1]);
+        }
+        long started = System.nanoTime();
+        List<DispatchMatcher.Assignment> assignments = matcher.match(
+                requestPositions[0], requestPositions[1], driverPositions[0], driverPositions[1]);
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        System.out.printf("🚕 matched %d of 10000 requests to 5000 drivers in %d ms, average pickup %.2f miles%n",
+                assignments.size(), elapsedMillis, totalDistance(assignments) / Math.max(1, assignments.size()));
+        assertValid(assignments, 10_000, 5_000, 5.0);
+        assertTrue(assignments.size() > 4_900, "Only " + assignments.size() + " drivers were assigned");
+        assertTrue(elapsedMillis < 1000, "Dispatch batch took " + elapsedMillis + " ms");
+    }
+
+    private static double[][] randomPositions(Random random, int count, double spanDegrees) {
+        double[][] positions = new double[2][count];
+        for (int i = 0; i < count; i++) {
+            positions[0][i] = 35.0 + random.nextDouble() * spanDegrees;
+            positions[1][i] = -90.3 + random.nextDouble() * spanDegrees * 1.2;
+        }
+        return positions;
+    }
+
+    private static void assertValid(List<DispatchMatcher.Assignment> assignments, int requests, int drivers, double maxMiles) {
+        boolean[] requestUsed = new boolean[requests];
+        boolean[] driverUsed = new boolean[drivers];
+        for (DispatchMatcher.Assignment assignment : assignments) {
+            assertFalse(requestUsed[assignment.getRequestIndex()], "Request assigned twice");
+            assertFalse(driverUsed[assignment.getDriverIndex()], "Driver assigned twice");
+            requestUsed[assignment.getRequestIndex()] = true;
+            driverUsed[assignment.getDriverIndex()] = true;
+            assertTrue(assignment.getDistanceMiles() <= maxMiles);
+        }
+    }
+
+    private static double totalDistance(List<DispatchMatcher.Assignment> assignments) {
+        double total = 0;
+        for (DispatchMatcher.Assignment assignment : assignments) {
+            total += assignment.getDistanceMiles();
+        }
+        return total;
+    }
+
+    // { most pairs matched, lowest total distance among those } over every partial assignment
+    private static double[] bestByBruteForce(double[][] requestPositions, double[][] driverPositions, double maxMiles) {
+        double[] best = { 0, 0 };
+        search(0, new boolean[driverPositions[0].length], 0, 0, requestPositions, driverPositions, maxMiles, best);
+        return best;
+    }
+
+    private static void search(int request, boolean[] driverUsed, int matched, double total,
+                               double[][] requestPositions, double[][] driverPositions, double maxMiles, double[] best) {
+        if (request == requestPositions[0].length) {
+            if (matched > best[0] || (matched == best[0] && total < best[1])) {
+                best[0] = matched;
+                best[1] = total;
+            }
+            return;
+        }
+        search(request + 1, driverUsed, matched, total, requestPositions, driverPositions, maxMiles, best);
+        for (int d = 0; d < driverUsed.length; d++) {
+            if (driverUsed[d]) {
+                continue;
+            }
+            double distance = PendingBookingGeoIndex.distanceMiles(requestPositions[0][request], requestPositions[1][request],
+                    driverPositions[0][d], driverPositions[1][d]);
+            if (distance <= maxMiles) {
+                driverUsed[d] = true;
+                search(request + 1, driverUsed, matched + 1, total + distance, requestPositions, driverPositions, maxMiles, best);
+                driverUsed[d] = false;
+            }
+        }
+    }
+}
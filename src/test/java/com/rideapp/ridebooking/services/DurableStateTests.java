@@ -0,0 +1,151 @@
+package com.rideapp.ridebooking.services;
+
+import com.rideapp.ridebooking.RideBookingApplication;
+import com.rideapp.ridebooking.ids.SnowflakeIdGenerator;
+import com.rideapp.ridebooking.models.Booking;
+import com.rideapp.ridebooking.models.Ride;
+import com.rideapp.ridebooking.models.User;
+import com.rideapp.ridebooking.repositories.BookingRepository;
+import com.rideapp.ridebooking.repositories.RideRepository;
+import com.rideapp.ridebooking.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Starts the application twice on the same durable directory, each time with a fresh in-memory
+// database, and checks the second start sees exactly the rows the first one committed: changes made
+// through JPA, bulk statements and auto-commit JDBC, before and after a snapshot, but no rollbacks.
+class DurableStateTests {
+
+    private static final String[] TABLES = { "users", "auth_users", "rides", "booking" };
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void restoresCommittedStateFromSnapshotAndChangeLog() {
+        Map<String, List<Map<String, Object>>> before;
+        long lastUserId;
+        long lastBookingId;
+        try (ConfigurableApplicationContext context = start(false)) {
+            UserRepository users = context.getBean(UserRepository.class);
+            RideRepository rides = context.getBean(RideRepository.class);
+            BookingRepository bookings = context.getBean(BookingRepository.class);
+            TransactionTemplate transactions = context.getBean(TransactionTemplate.class);
+            JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+
+            User rider = users.save(user("Durable Rider", "610001", User.Role.RIDER));
+            User driver = users.save(user("Durable Driver", "610002", User.Role.DRIVER));
+            Ride ride = rides.save(new Ride(driver, "Midtown", "Airport", LocalDateTime.now().plusHours(2), 30.0));
+            Booking kept = bookings.save(booking(ride, rider, "Location details ".repeat(500)));
+            Booking deleted = bookings.save(booking(ride, rider, null));
+
+            context.getBean(DurableStateService.class).snapshot();
+
+            // After the snapshot: an update, a delete, a bulk statement, auto-commit JDBC and a rollback
+            transactions.executeWithoutResult(status -> {
+                Booking booking = bookings.findById(kept.getBookingId()).orElseThrow();
+                booking.setStatus(Booking.BookingStatus.ACCEPTED);
+                booking.setFare(42.5);
+            });
+            bookings.deleteById(deleted.getBookingId());
+            transactions.executeWithoutResult(status -> rides.assignDriver(ride.getRideId(), driver, Ride.RideStatus.CONFIRMED));
+            jdbc.update("insert into users (user_id, name, email, phone_number, role, status) values (?, 'Jdbc Rider', 'j@example.com', '610003', 'RIDER', 'ACTIVE')",
+                    context.getBean(SnowflakeIdGenerator.class).nextId());
+            assertThrows(IllegalStateException.class, () -> transactions.executeWithoutResult(status -> {
+                users.save(user("Rolled Back", "610004", User.Role.RIDER));
+                users.flush();
+                throw new IllegalStateException("rollback");
+            }));
+
+            before = dump(jdbc);
+            lastUserId = jdbc.queryForObject("select max(user_id) from users", Long.class);
+            lastBookingId = jdbc.queryForObject("select max(booking_id) from booking", Long.class);
+            // A crash: no snapshot at shutdown, so the changes above come from the log
+        }
+
+        try (ConfigurableApplicationContext context = start(true)) {
+            JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+            assertEquals(before, dump(jdbc));
+            assertFalse(jdbc.queryForList("select name from users", String.class).contains("Rolled Back"));
+
+            // New rows continue after the restored ids
+            User next = context.getBean(UserRepository.class).save(user("After Restart", "610005", User.Role.RIDER));
+            assertTrue(next.getUserId() > lastUserId);
+            // and so do bookings
+            Ride ride = context.getBean(RideRepository.class).findAll().get(0);
+            Booking booking = context.getBean(BookingRepository.class).save(booking(ride, next, null));
+            assertTrue(booking.getBookingId() > lastBookingId);
+            before = dump(jdbc);
+        }
+
+        // Third start: from the snapshot written at the second one's shutdown
+        try (ConfigurableApplicationContext context = start(false)) {
+            JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+            assertEquals(before, dump(jdbc));
+            Map<?, ?> restore = (Map<?, ?>) context.getBean(DurableStateService.class).stats().get("restore");
+            assertTrue(restore.containsKey("snapshot"));
+        }
+    }
+
+    private ConfigurableApplicationContext start(boolean snapshotOnShutdown) {
+        return new SpringApplicationBuilder(RideBookingApplication.class).run(
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--reactive.enabled=false",
+                // A new process would start from an empty in-memory database
+                "--spring.datasource.url=jdbc:h2:mem:durable-" + UUID.randomUUID(),
+                "--durable.enabled=true",
+                "--durable.dir=" + directory,
+                "--durable.segment-size-mb=1",
+                "--durable.snapshot-on-shutdown=" + snapshotOnShutdown,
+                "--durable.snapshot-interval-ms=3600000");
+    }
+
+    private static Map<String, List<Map<String, Object>>> dump(JdbcTemplate jdbc) {
+        Map<String, List<Map<String, Object>>> tables = new LinkedHashMap<>();
+        for (String table : TABLES) {
+            tables.put(table, jdbc.queryForList("select * from " + table + " order by 1"));
+        }
+        return tables;
+    }
+
+    private static User user(String name, String phone, User.Role role) {
+        User user = new User();
+        user.setName(name);
+        user.setPhoneNumber(phone);
+        user.setEmail(phone + "@example.com");
+        user.setRole(role);
+        user.setStatus(User.Status.ACTIVE);
+        return user;
+    }
+
+    private static Booking booking(Ride ride, User rider, String details) {
+        Booking booking = new Booking();
+        booking.setRide(ride);
+        booking.setRider(rider);
+        booking.setPickupLocation("Midtown");
+        booking.setDropLocation("Airport");
+        booking.setRideTime(ride.getTime().toString());
+        booking.setRideAt(ride.getTime());
+        booking.setFare(30.0);
+        booking.setPickupLocationDetails(details);
+        return booking;
+    }
+}
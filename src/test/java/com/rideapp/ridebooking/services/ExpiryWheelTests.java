@@ -0,0 +1,81 @@
+package com.rideapp.ridebooking.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Drives the wheel with a simulated clock: entries fire on the first tick at or after their deadline
+// (never early, at most one tick late), rescheduling and cancelling take effect, and deadlines
+// several turns of the wheel away wait for their own turn.
+class ExpiryWheelTests {
+
+    private static final long TICK = 1000;
+
+    @Test
+    void firesEachEntryWithinOneTickOfItsDeadline() {
+        long start = 1_000_000_000L;
+        ExpiryWheel wheel = new ExpiryWheel(TICK, 64, start);
+        Random random = new Random(11);
+        long[] deadlines = new long[5000];
+        for (int id = 0; id < deadlines.length; id++) {
+            // Up to ~5 turns of a 64-slot wheel ahead
+            deadlines[id] = start + 1 + random.nextInt(320_000);
+            wheel.schedule(id, deadlines[id]);
+        }
+        assertEquals(deadlines.length, wheel.size());
+
+        Set<Long> fired = new HashSet<>();
+        for (long now = start; now <= start + 330_000; now += TICK) {
+            for (long id : wheel.advance(now)) {
+                long deadline = deadlines[(int) id];
+                assertTrue(now >= deadline, "Entry " + id + " fired early");
+                assertTrue(now - deadline < 2 * TICK, "Entry " + id + " fired " + (now - deadline) + " ms late");
+                assertTrue(fired.add(id), "Entry " + id + " fired twice");
+            }
+        }
+        assertEquals(deadlines.length, fired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void rescheduleAndCancelReplaceTheEarlierDeadline() {
+        long start = 0;
+        ExpiryWheel wheel = new ExpiryWheel(TICK, 8, start);
+        wheel.schedule(1, 3_000);
+        wheel.schedule(2, 3_000);
+        wheel.schedule(3, 3_000);
+        // Booking 1 was accepted: its deadline moves much further out
+        wheel.schedule(1, 50_000);
+        wheel.cancel(2);
+        // Already overdue when registered: fires on the next tick
+        wheel.schedule(4, -10_000);
+
+        assertEquals(List.of(4L), wheel.advance(1_000));
+        assertEquals(List.of(3L), wheel.advance(3_000));
+        List<Long> later = new ArrayList<>();
+        for (long now = 4_000; now < 50_000; now += TICK) {
+            later.addAll(wheel.advance(now));
+        }
+        assertTrue(later.isEmpty());
+        assertEquals(List.of(1L), wheel.advance(50_000));
+    }
+
+    @Test
+    void catchesUpAfterFallingAWholeTurnBehind() {
+        ExpiryWheel wheel = new ExpiryWheel(TICK, 8, 0);
+        wheel.schedule(1, 2_000);
+        wheel.schedule(2, 20_000);
+        wheel.schedule(3, 60_000);
+        List<Long> due = wheel.advance(30_000);
+        due.sort(null);
+        assertEquals(List.of(1L, 2L), due);
+        assertEquals(List.of(3L), wheel.advance(60_000));
+    }
+}
@@ -0,0 +1,72 @@
+package com.rideapp.ridebooking.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Read-through behaviour, least-recently-used eviction, expiry and the counters the admin stats expose
+class LruTtlCacheTests {
+
+    @Test
+    void loadsOnceAndServesHitsAfterwards() {
+        LruTtlCache<Long, String> cache = new LruTtlCache<>(10, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            assertEquals("user-1", cache.get(1L, id -> {
+                loads.incrementAndGet();
+                return "user-" + id;
+            }));
+        }
+        assertEquals(1, loads.get());
+        Map<String, Object> stats = cache.stats();
+        assertEquals(4L, stats.get("hits"));
+        assertEquals(1L, stats.get("misses"));
+    }
+
+    @Test
+    void absentRowsAreNotCached() {
+        LruTtlCache<Long, String> cache = new LruTtlCache<>(10, 60_000);
+        assertNull(cache.get(7L, id -> null));
+        assertEquals("created later", cache.get(7L, id -> "created later"));
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntry() {
+        LruTtlCache<Long, String> cache = new LruTtlCache<>(2, 60_000);
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+        // Touch 1 so 2 becomes the eldest
+        assertEquals("one", cache.getIfPresent(1L));
+        cache.put(3L, "three");
+
+        assertNull(cache.getIfPresent(2L));
+        assertEquals("one", cache.getIfPresent(1L));
+        assertEquals("three", cache.getIfPresent(3L));
+        assertEquals(2, cache.size());
+        assertEquals(1L, cache.stats().get("evictions"));
+    }
+
+    @Test
+    void entriesExpireAfterTheirTtl() throws InterruptedException {
+        LruTtlCache<Long, String> cache = new LruTtlCache<>(10, 20);
+        cache.put(1L, "one");
+        Thread.sleep(50);
+        assertNull(cache.getIfPresent(1L));
+        assertEquals(0, cache.size());
+        assertEquals(1L, cache.stats().get("expirations"));
+    }
+
+    @Test
+    void invalidateDropsTheEntry() {
+        LruTtlCache<Long, String> cache = new LruTtlCache<>(10, 60_000);
+        cache.put(1L, "blocked");
+        assertEquals("blocked", cache.invalidate(1L));
+        assertNull(cache.invalidate(1L));
+        assertEquals("reloaded", cache.get(1L, id -> "reloaded"));
+        assertEquals(1L, cache.stats().get("invalidations"));
+    }
+}
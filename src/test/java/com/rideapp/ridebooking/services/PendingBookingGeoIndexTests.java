@@ -0,0 +1,137 @@
+package com.rideapp.ridebooking.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Checks nearest-first results against a brute-force scan, times queries over 100k open requests,
+// and checks that puts and removes racing on the same booking leave the grid and the points agreeing
+class PendingBookingGeoIndexTests {
+
+    private static final int OPEN_REQUESTS = 100_000;
+
+    @Test
+    void findsNearestPendingBookingsQuicklyAt100kRequests() {
+        PendingBookingGeoIndex index = new PendingBookingGeoIndex();
+        Random random = new Random(42);
+        double[][] pickups = new double[OPEN_REQUESTS][];
+        // Spread requests over a ~50 x 50 mile metro area around Memphis
+        for (int i = 0; i < OPEN_REQUESTS; i++) {
+            pickups[i] = new double[] { 35.0 + random.nextDouble() * 0.7, -90.3 + random.nextDouble() * 0.85 };
+            index.put((long) i, pickups[i][0], pickups[i][1]);
+        }
+        assertEquals(OPEN_REQUESTS, index.size());
+
+        // Correctness against brute force
+        for (int q = 0; q < 20; q++) {
+            double lat = 35.0 + random.nextDouble() * 0.7;
+            double lng = -90.3 + random.nextDouble() * 0.85;
+            List<Long> expected = bruteForce(pickups, lat, lng, 5.0, 20);
+            assertEquals(expected, index.findNearest(lat, lng, 5.0, 20));
+        }
+
+        // Removing a booking takes it out of the results
+        List<Long> before = index.findNearest(pickups[7][0], pickups[7][1], 1.0, 1);
+        assertEquals(List.of(7L), before);
+        index.remove(7L);
+        assertTrue(!index.findNearest(pickups[7][0], pickups[7][1], 1.0, 5).contains(7L));
+
+        // Timing: warm up, then measure
+        int queries = 20_000;
+        for (int q = 0; q < queries; q++) {
+            index.findNearest(35.0 + random.nextDouble() * 0.7, -90.3 + random.nextDouble() * 0.85, 5.0, 20);
+        }
+        long started = System.nanoTime();
+        for (int q = 0; q < queries; q++) {
+            index.findNearest(35.0 + random.nextDouble() * 0.7, -90.3 + random.nextDouble() * 0.85, 5.0, 20);
+        }
+        double averageMicros = (System.nanoTime() - started) / 1000.0 / queries;
+        System.out.printf("📍 nearest-20 query over %d open requests: %.1f µs average%n", OPEN_REQUESTS, averageMicros);
+        assertTrue(averageMicros < 1000, "Nearest query took " + averageMicros + " µs on average");
+    }
+
+    @Test
+    void hugeRadiusOverSparseIndexStopsAtTheFarthestPopulatedCell() {
+        PendingBookingGeoIndex index = new PendingBookingGeoIndex();
+        assertEquals(List.of(), index.findNearest(35.1, -90.0, 100_000, 20));
+
+        index.put(1L, 35.1, -90.0);
+        index.put(2L, 36.1, -90.0);
+        long started = System.nanoTime();
+        assertEquals(List.of(1L, 2L), index.findNearest(35.1, -90.0, 100_000, 20));
+        assertTrue(System.nanoTime() - started < 1_000_000_000L, "Sparse wide query walked empty rings");
+
+        // Once removed, its cell no longer counts towards the extent
+        index.remove(2L);
+        assertEquals(List.of(1L), index.findNearest(35.1, -90.0, 100_000, 20));
+    }
+
+    @Test
+    void racingPutsAndRemovesLeaveNoOrphanedIds() throws Exception {
+        PendingBookingGeoIndex index = new PendingBookingGeoIndex();
+        int bookings = 20_000;
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> workers = new ArrayList<>();
+            // Two writers move each booking between cells while a third removes it
+            for (int w = 0; w < 2; w++) {
+                double lat = 35.1 + w * 0.5;
+                workers.add(pool.submit(() -> {
+                    start.await();
+                    for (long id = 0; id < bookings; id++) {
+                        index.put(id, lat, -90.0);
+                    }
+                    return null;
+                }));
+            }
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (long id = 0; id < bookings; id++) {
+                    index.remove(id);
+                }
+                return null;
+            }));
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Set<Long> inPoints = new HashSet<>();
+        index.forEachPending((bookingId, latitude, longitude) -> inPoints.add(bookingId));
+        List<Long> inCells = index.findNearest(35.1, -90.0, 100_000, bookings * 2);
+        assertEquals(inPoints.size(), inCells.size(), "An id is in a cell more than once or without its point");
+        assertEquals(inPoints, new HashSet<>(inCells));
+    }
+
+    private List<Long> bruteForce(double[][] pickups, double lat, double lng, double radiusMiles, int limit) {
+        List<double[]> matches = new ArrayList<>();
+        for (int i = 0; i < pickups.length; i++) {
+            double distance = PendingBookingGeoIndex.distanceMiles(lat, lng, pickups[i][0], pickups[i][1]);
+            if (distance <= radiusMiles) {
+                matches.add(new double[] { distance, i });
+            }
+        }
+        matches.sort(Comparator.comparingDouble(match -> match[0]));
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < Math.min(limit, matches.size()); i++) {
+            ids.add((long) matches.get(i)[1]);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,101 @@
+package com.rideapp.ridebooking.services;
+
+import com.rideapp.ridebooking.models.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Issue/verify round trips, rejection of tampered, foreign and expired tokens, and verification from
+// many threads at once. The verification rate is measured by SessionTokenBenchmark in the benchmarks module.
+class SessionTokenServiceTests {
+
+    private static final long NOW = 1_800_000_000L;
+
+    private SessionTokenService service;
+
+    @BeforeEach
+    void setUp() {
+        service = newService("test-secret");
+    }
+
+    @Test
+    void verifiesTheTokenItIssued() {
+        String token = service.issue(123456789L, User.Role.DRIVER, NOW + 60);
+        assertEquals(SessionTokenService.TOKEN_LENGTH, token.length());
+
+        SessionTokenService.Session session = service.verify(token, NOW);
+        assertNotNull(session);
+        assertEquals(123456789L, session.getUserId());
+        assertEquals(User.Role.DRIVER, session.getRole());
+        assertEquals(NOW + 60, session.getExpiresAt());
+    }
+
+    @Test
+    void rejectsTamperedForeignAndExpiredTokens() {
+        String token = service.issue(42L, User.Role.RIDER, NOW + 60);
+        // Every single-character change to payload or signature
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < token.length(); i++) {
+            if (token.charAt(i) == '.') {
+                continue;
+            }
+            for (char c : alphabet.toCharArray()) {
+                if (c != token.charAt(i)) {
+                    String tampered = token.substring(0, i) + c + token.substring(i + 1);
+                    assertNull(service.verify(tampered, NOW), "Accepted " + tampered);
+                }
+            }
+        }
+        assertNull(newService("other-secret").verify(token, NOW));
+        assertNull(service.verify(token, NOW + 60));
+        assertNull(service.verify(null, NOW));
+        assertNull(service.verify("admin", NOW));
+        assertNull(service.verify(token.substring(1) + "A", NOW));
+    }
+
+    @Test
+    void concurrentVerificationsEachSeeTheirOwnToken() throws Exception {
+        // More threads than pooled verifiers, so verifiers are shared, built on a miss and dropped
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 32; t++) {
+                long userId = 1000 + t;
+                String token = service.issue(userId, User.Role.RIDER, NOW + 60);
+                results.add(executor.submit(() -> {
+                    int verified = 0;
+                    for (int i = 0; i < 5_000; i++) {
+                        SessionTokenService.Session session = service.verify(token, NOW);
+                        if (session != null && session.getUserId() == userId) {
+                            verified++;
+                        }
+                    }
+                    return verified;
+                }));
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(5_000, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static SessionTokenService newService(String secret) {
+        SessionTokenService service = new SessionTokenService();
+        ReflectionTestUtils.setField(service, "secret", secret);
+        ReflectionTestUtils.setField(service, "ttlMinutes", 60L);
+        service.initKey();
+        return service;
+    }
+}